@@ -0,0 +1,296 @@
+// Generated from C:/Users/Federico/Desktop/Universit/PCD/repo/lcmc-test/src/svm/RVM.g4 by ANTLR 4.13.1
+package svm;
+import org.antlr.v4.runtime.Lexer;
+import org.antlr.v4.runtime.CharStream;
+import org.antlr.v4.runtime.Token;
+import org.antlr.v4.runtime.TokenStream;
+import org.antlr.v4.runtime.*;
+import org.antlr.v4.runtime.atn.*;
+import org.antlr.v4.runtime.dfa.DFA;
+import org.antlr.v4.runtime.misc.*;
+
+@SuppressWarnings({"all", "warnings", "unchecked", "unused", "cast", "CheckReturnValue", "this-escape"})
+public class RVMLexer extends Lexer {
+	static { RuntimeMetaData.checkVersion("4.13.1", RuntimeMetaData.VERSION); }
+
+	protected static final DFA[] _decisionToDFA;
+	protected static final PredictionContextCache _sharedContextCache =
+		new PredictionContextCache();
+	public static final int
+		LOADI=1, MOVE=2, ADD=3, ADDI=4, SUB=5, MULT=6, DIV=7, EQUAL=8, LESSEQ=9, 
+		NOT=10, AND=11, OR=12, LOADW=13, STOREW=14, PUSH=15, POP=16, BRANCH=17, 
+		BRANCHEQ=18, BRANCHLESSEQ=19, CALL=20, JUMPREG=21, PRINT=22, HALT=23, 
+		FP=24, SP=25, HP=26, RA=27, REGISTER=28, COL=29, COMMA=30, PLUS=31, LBRACKET=32, 
+		RBRACKET=33, LABEL=34, INTEGER=35, COMMENT=36, WHITESP=37, ERR=38;
+	public static String[] channelNames = {
+		"DEFAULT_TOKEN_CHANNEL", "HIDDEN"
+	};
+
+	public static String[] modeNames = {
+		"DEFAULT_MODE"
+	};
+
+	private static String[] makeRuleNames() {
+		return new String[] {
+			"LOADI", "MOVE", "ADD", "ADDI", "SUB", "MULT", "DIV", "EQUAL", "LESSEQ", 
+			"NOT", "AND", "OR", "LOADW", "STOREW", "PUSH", "POP", "BRANCH", "BRANCHEQ", 
+			"BRANCHLESSEQ", "CALL", "JUMPREG", "PRINT", "HALT", "FP", "SP", "HP", 
+			"RA", "REGISTER", "COL", "COMMA", "PLUS", "LBRACKET", "RBRACKET", "LABEL", 
+			"INTEGER", "COMMENT", "WHITESP", "ERR"
+		};
+	}
+	public static final String[] ruleNames = makeRuleNames();
+
+	private static String[] makeLiteralNames() {
+		return new String[] {
+			null, "'li'", "'mov'", "'add'", "'addi'", "'sub'", "'mult'", "'div'", 
+			"'eq'", "'leq'", "'not'", "'and'", "'or'", "'ld'", "'st'", "'push'", 
+			"'pop'", "'b'", "'beq'", "'bleq'", "'call'", "'jr'", "'print'", "'halt'", 
+			"'fp'", "'sp'", "'hp'", "'ra'", null, "':'", "','", "'+'", "'['", "']'"
+		};
+	}
+	private static final String[] _LITERAL_NAMES = makeLiteralNames();
+	private static String[] makeSymbolicNames() {
+		return new String[] {
+			null, "LOADI", "MOVE", "ADD", "ADDI", "SUB", "MULT", "DIV", "EQUAL", 
+			"LESSEQ", "NOT", "AND", "OR", "LOADW", "STOREW", "PUSH", "POP", "BRANCH", 
+			"BRANCHEQ", "BRANCHLESSEQ", "CALL", "JUMPREG", "PRINT", "HALT", "FP", 
+			"SP", "HP", "RA", "REGISTER", "COL", "COMMA", "PLUS", "LBRACKET", "RBRACKET", 
+			"LABEL", "INTEGER", "COMMENT", "WHITESP", "ERR"
+		};
+	}
+	private static final String[] _SYMBOLIC_NAMES = makeSymbolicNames();
+	public static final Vocabulary VOCABULARY = new VocabularyImpl(_LITERAL_NAMES, _SYMBOLIC_NAMES);
+
+	/**
+	 * @deprecated Use {@link #VOCABULARY} instead.
+	 */
+	@Deprecated
+	public static final String[] tokenNames;
+	static {
+		tokenNames = new String[_SYMBOLIC_NAMES.length];
+		for (int i = 0; i < tokenNames.length; i++) {
+			tokenNames[i] = VOCABULARY.getLiteralName(i);
+			if (tokenNames[i] == null) {
+				tokenNames[i] = VOCABULARY.getSymbolicName(i);
+			}
+
+			if (tokenNames[i] == null) {
+				tokenNames[i] = "<INVALID>";
+			}
+		}
+	}
+
+	@Override
+	@Deprecated
+	public String[] getTokenNames() {
+		return tokenNames;
+	}
+
+	@Override
+
+	public Vocabulary getVocabulary() {
+		return VOCABULARY;
+	}
+
+
+	public int lexicalErrors=0;
+
+
+	public RVMLexer(CharStream input) {
+		super(input);
+		_interp = new LexerATNSimulator(this,_ATN,_decisionToDFA,_sharedContextCache);
+	}
+
+	@Override
+	public String getGrammarFileName() { return "RVM.g4"; }
+
+	@Override
+	public String[] getRuleNames() { return ruleNames; }
+
+	@Override
+	public String getSerializedATN() { return _serializedATN; }
+
+	@Override
+	public String[] getChannelNames() { return channelNames; }
+
+	@Override
+	public String[] getModeNames() { return modeNames; }
+
+	@Override
+	public ATN getATN() { return _ATN; }
+
+	@Override
+	public void action(RuleContext _localctx, int ruleIndex, int actionIndex) {
+		switch (ruleIndex) {
+		case 37:
+			ERR_action((RuleContext)_localctx, actionIndex);
+			break;
+		}
+	}
+	private void ERR_action(RuleContext _localctx, int actionIndex) {
+		switch (actionIndex) {
+		case 0:
+			 System.out.println("Invalid char: "+getText()+" at line "+getLine()); lexicalErrors++; 
+			break;
+		}
+	}
+
+	public static final String _serializedATN =
+		"\u0004\u0000&\u00f3\u0006\uffff\uffff\u0002\u0000\u0007\u0000\u0002\u0001"+
+		"\u0007\u0001\u0002\u0002\u0007\u0002\u0002\u0003\u0007\u0003\u0002\u0004"+
+		"\u0007\u0004\u0002\u0005\u0007\u0005\u0002\u0006\u0007\u0006\u0002\u0007"+
+		"\u0007\u0007\u0002\b\u0007\b\u0002\t\u0007\t\u0002\n\u0007\n\u0002\u000b"+
+		"\u0007\u000b\u0002\f\u0007\f\u0002\r\u0007\r\u0002\u000e\u0007\u000e\u0002"+
+		"\u000f\u0007\u000f\u0002\u0010\u0007\u0010\u0002\u0011\u0007\u0011\u0002"+
+		"\u0012\u0007\u0012\u0002\u0013\u0007\u0013\u0002\u0014\u0007\u0014\u0002"+
+		"\u0015\u0007\u0015\u0002\u0016\u0007\u0016\u0002\u0017\u0007\u0017\u0002"+
+		"\u0018\u0007\u0018\u0002\u0019\u0007\u0019\u0002\u001a\u0007\u001a\u0002"+
+		"\u001b\u0007\u001b\u0002\u001c\u0007\u001c\u0002\u001d\u0007\u001d\u0002"+
+		"\u001e\u0007\u001e\u0002\u001f\u0007\u001f\u0002 \u0007 \u0002!\u0007"+
+		"!\u0002\"\u0007\"\u0002#\u0007#\u0002$\u0007$\u0002%\u0007%\u0001\u0000"+
+		"\u0001\u0000\u0001\u0000\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001"+
+		"\u0001\u0002\u0001\u0002\u0001\u0002\u0001\u0002\u0001\u0003\u0001\u0003"+
+		"\u0001\u0003\u0001\u0003\u0001\u0003\u0001\u0004\u0001\u0004\u0001\u0004"+
+		"\u0001\u0004\u0001\u0005\u0001\u0005\u0001\u0005\u0001\u0005\u0001\u0005"+
+		"\u0001\u0006\u0001\u0006\u0001\u0006\u0001\u0006\u0001\u0007\u0001\u0007"+
+		"\u0001\u0007\u0001\b\u0001\b\u0001\b\u0001\b\u0001\t\u0001\t\u0001\t\u0001"+
+		"\t\u0001\n\u0001\n\u0001\n\u0001\n\u0001\u000b\u0001\u000b\u0001\u000b"+
+		"\u0001\f\u0001\f\u0001\f\u0001\r\u0001\r\u0001\r\u0001\u000e\u0001\u000e"+
+		"\u0001\u000e\u0001\u000e\u0001\u000e\u0001\u000f\u0001\u000f\u0001\u000f"+
+		"\u0001\u000f\u0001\u0010\u0001\u0010\u0001\u0011\u0001\u0011\u0001\u0011"+
+		"\u0001\u0011\u0001\u0012\u0001\u0012\u0001\u0012\u0001\u0012\u0001\u0012"+
+		"\u0001\u0013\u0001\u0013\u0001\u0013\u0001\u0013\u0001\u0013\u0001\u0014"+
+		"\u0001\u0014\u0001\u0014\u0001\u0015\u0001\u0015\u0001\u0015\u0001\u0015"+
+		"\u0001\u0015\u0001\u0015\u0001\u0016\u0001\u0016\u0001\u0016\u0001\u0016"+
+		"\u0001\u0016\u0001\u0017\u0001\u0017\u0001\u0017\u0001\u0018\u0001\u0018"+
+		"\u0001\u0018\u0001\u0019\u0001\u0019\u0001\u0019\u0001\u001a\u0001\u001a"+
+		"\u0001\u001a\u0001\u001b\u0001\u001b\u0004\u001b\u00b8\b\u001b\u000b\u001b"+
+		"\f\u001b\u00b9\u0001\u001c\u0001\u001c\u0001\u001d\u0001\u001d\u0001\u001e"+
+		"\u0001\u001e\u0001\u001f\u0001\u001f\u0001 \u0001 \u0001!\u0001!\u0005"+
+		"!\u00c8\b!\n!\f!\u00cb\t!\u0001\"\u0001\"\u0003\"\u00cf\b\"\u0001\"\u0001"+
+		"\"\u0005\"\u00d3\b\"\n\"\f\"\u00d6\t\"\u0003\"\u00d8\b\"\u0001#\u0001"+
+		"#\u0001#\u0001#\u0005#\u00de\b#\n#\f#\u00e1\t#\u0001#\u0001#\u0001#\u0001"+
+		"#\u0001#\u0001$\u0004$\u00e9\b$\u000b$\f$\u00ea\u0001$\u0001$\u0001%\u0001"+
+		"%\u0001%\u0001%\u0001%\u0001\u00df\u0000&\u0001\u0001\u0003\u0002\u0005"+
+		"\u0003\u0007\u0004\t\u0005\u000b\u0006\r\u0007\u000f\b\u0011\t\u0013\n"+
+		"\u0015\u000b\u0017\f\u0019\r\u001b\u000e\u001d\u000f\u001f\u0010!\u0011"+
+		"#\u0012%\u0013\'\u0014)\u0015+\u0016-\u0017/\u00181\u00193\u001a5\u001b"+
+		"7\u001c9\u001d;\u001e=\u001f? A!C\"E#G$I%K&\u0001\u0000\u0003\u0002\u0000"+
+		"AZaz\u0003\u000009AZaz\u0003\u0000\t\n\r\r  \u00f9\u0000\u0001\u0001\u0000"+
+		"\u0000\u0000\u0000\u0003\u0001\u0000\u0000\u0000\u0000\u0005\u0001\u0000"+
+		"\u0000\u0000\u0000\u0007\u0001\u0000\u0000\u0000\u0000\t\u0001\u0000\u0000"+
+		"\u0000\u0000\u000b\u0001\u0000\u0000\u0000\u0000\r\u0001\u0000\u0000\u0000"+
+		"\u0000\u000f\u0001\u0000\u0000\u0000\u0000\u0011\u0001\u0000\u0000\u0000"+
+		"\u0000\u0013\u0001\u0000\u0000\u0000\u0000\u0015\u0001\u0000\u0000\u0000"+
+		"\u0000\u0017\u0001\u0000\u0000\u0000\u0000\u0019\u0001\u0000\u0000\u0000"+
+		"\u0000\u001b\u0001\u0000\u0000\u0000\u0000\u001d\u0001\u0000\u0000\u0000"+
+		"\u0000\u001f\u0001\u0000\u0000\u0000\u0000!\u0001\u0000\u0000\u0000\u0000"+
+		"#\u0001\u0000\u0000\u0000\u0000%\u0001\u0000\u0000\u0000\u0000\'\u0001"+
+		"\u0000\u0000\u0000\u0000)\u0001\u0000\u0000\u0000\u0000+\u0001\u0000\u0000"+
+		"\u0000\u0000-\u0001\u0000\u0000\u0000\u0000/\u0001\u0000\u0000\u0000\u0000"+
+		"1\u0001\u0000\u0000\u0000\u00003\u0001\u0000\u0000\u0000\u00005\u0001"+
+		"\u0000\u0000\u0000\u00007\u0001\u0000\u0000\u0000\u00009\u0001\u0000\u0000"+
+		"\u0000\u0000;\u0001\u0000\u0000\u0000\u0000=\u0001\u0000\u0000\u0000\u0000"+
+		"?\u0001\u0000\u0000\u0000\u0000A\u0001\u0000\u0000\u0000\u0000C\u0001"+
+		"\u0000\u0000\u0000\u0000E\u0001\u0000\u0000\u0000\u0000G\u0001\u0000\u0000"+
+		"\u0000\u0000I\u0001\u0000\u0000\u0000\u0000K\u0001\u0000\u0000\u0000\u0001"+
+		"M\u0001\u0000\u0000\u0000\u0003P\u0001\u0000\u0000\u0000\u0005T\u0001"+
+		"\u0000\u0000\u0000\u0007X\u0001\u0000\u0000\u0000\t]\u0001\u0000\u0000"+
+		"\u0000\u000ba\u0001\u0000\u0000\u0000\rf\u0001\u0000\u0000\u0000\u000f"+
+		"j\u0001\u0000\u0000\u0000\u0011m\u0001\u0000\u0000\u0000\u0013q\u0001"+
+		"\u0000\u0000\u0000\u0015u\u0001\u0000\u0000\u0000\u0017y\u0001\u0000\u0000"+
+		"\u0000\u0019|\u0001\u0000\u0000\u0000\u001b\u007f\u0001\u0000\u0000\u0000"+
+		"\u001d\u0082\u0001\u0000\u0000\u0000\u001f\u0087\u0001\u0000\u0000\u0000"+
+		"!\u008b\u0001\u0000\u0000\u0000#\u008d\u0001\u0000\u0000\u0000%\u0091"+
+		"\u0001\u0000\u0000\u0000\'\u0096\u0001\u0000\u0000\u0000)\u009b\u0001"+
+		"\u0000\u0000\u0000+\u009e\u0001\u0000\u0000\u0000-\u00a4\u0001\u0000\u0000"+
+		"\u0000/\u00a9\u0001\u0000\u0000\u00001\u00ac\u0001\u0000\u0000\u00003"+
+		"\u00af\u0001\u0000\u0000\u00005\u00b2\u0001\u0000\u0000\u00007\u00b5\u0001"+
+		"\u0000\u0000\u00009\u00bb\u0001\u0000\u0000\u0000;\u00bd\u0001\u0000\u0000"+
+		"\u0000=\u00bf\u0001\u0000\u0000\u0000?\u00c1\u0001\u0000\u0000\u0000A"+
+		"\u00c3\u0001\u0000\u0000\u0000C\u00c5\u0001\u0000\u0000\u0000E\u00d7\u0001"+
+		"\u0000\u0000\u0000G\u00d9\u0001\u0000\u0000\u0000I\u00e8\u0001\u0000\u0000"+
+		"\u0000K\u00ee\u0001\u0000\u0000\u0000MN\u0005l\u0000\u0000NO\u0005i\u0000"+
+		"\u0000O\u0002\u0001\u0000\u0000\u0000PQ\u0005m\u0000\u0000QR\u0005o\u0000"+
+		"\u0000RS\u0005v\u0000\u0000S\u0004\u0001\u0000\u0000\u0000TU\u0005a\u0000"+
+		"\u0000UV\u0005d\u0000\u0000VW\u0005d\u0000\u0000W\u0006\u0001\u0000\u0000"+
+		"\u0000XY\u0005a\u0000\u0000YZ\u0005d\u0000\u0000Z[\u0005d\u0000\u0000"+
+		"[\\\u0005i\u0000\u0000\\\b\u0001\u0000\u0000\u0000]^\u0005s\u0000\u0000"+
+		"^_\u0005u\u0000\u0000_`\u0005b\u0000\u0000`\n\u0001\u0000\u0000\u0000"+
+		"ab\u0005m\u0000\u0000bc\u0005u\u0000\u0000cd\u0005l\u0000\u0000de\u0005"+
+		"t\u0000\u0000e\f\u0001\u0000\u0000\u0000fg\u0005d\u0000\u0000gh\u0005"+
+		"i\u0000\u0000hi\u0005v\u0000\u0000i\u000e\u0001\u0000\u0000\u0000jk\u0005"+
+		"e\u0000\u0000kl\u0005q\u0000\u0000l\u0010\u0001\u0000\u0000\u0000mn\u0005"+
+		"l\u0000\u0000no\u0005e\u0000\u0000op\u0005q\u0000\u0000p\u0012\u0001\u0000"+
+		"\u0000\u0000qr\u0005n\u0000\u0000rs\u0005o\u0000\u0000st\u0005t\u0000"+
+		"\u0000t\u0014\u0001\u0000\u0000\u0000uv\u0005a\u0000\u0000vw\u0005n\u0000"+
+		"\u0000wx\u0005d\u0000\u0000x\u0016\u0001\u0000\u0000\u0000yz\u0005o\u0000"+
+		"\u0000z{\u0005r\u0000\u0000{\u0018\u0001\u0000\u0000\u0000|}\u0005l\u0000"+
+		"\u0000}~\u0005d\u0000\u0000~\u001a\u0001\u0000\u0000\u0000\u007f\u0080"+
+		"\u0005s\u0000\u0000\u0080\u0081\u0005t\u0000\u0000\u0081\u001c\u0001\u0000"+
+		"\u0000\u0000\u0082\u0083\u0005p\u0000\u0000\u0083\u0084\u0005u\u0000\u0000"+
+		"\u0084\u0085\u0005s\u0000\u0000\u0085\u0086\u0005h\u0000\u0000\u0086\u001e"+
+		"\u0001\u0000\u0000\u0000\u0087\u0088\u0005p\u0000\u0000\u0088\u0089\u0005"+
+		"o\u0000\u0000\u0089\u008a\u0005p\u0000\u0000\u008a \u0001\u0000\u0000"+
+		"\u0000\u008b\u008c\u0005b\u0000\u0000\u008c\"\u0001\u0000\u0000\u0000"+
+		"\u008d\u008e\u0005b\u0000\u0000\u008e\u008f\u0005e\u0000\u0000\u008f\u0090"+
+		"\u0005q\u0000\u0000\u0090$\u0001\u0000\u0000\u0000\u0091\u0092\u0005b"+
+		"\u0000\u0000\u0092\u0093\u0005l\u0000\u0000\u0093\u0094\u0005e\u0000\u0000"+
+		"\u0094\u0095\u0005q\u0000\u0000\u0095&\u0001\u0000\u0000\u0000\u0096\u0097"+
+		"\u0005c\u0000\u0000\u0097\u0098\u0005a\u0000\u0000\u0098\u0099\u0005l"+
+		"\u0000\u0000\u0099\u009a\u0005l\u0000\u0000\u009a(\u0001\u0000\u0000\u0000"+
+		"\u009b\u009c\u0005j\u0000\u0000\u009c\u009d\u0005r\u0000\u0000\u009d*"+
+		"\u0001\u0000\u0000\u0000\u009e\u009f\u0005p\u0000\u0000\u009f\u00a0\u0005"+
+		"r\u0000\u0000\u00a0\u00a1\u0005i\u0000\u0000\u00a1\u00a2\u0005n\u0000"+
+		"\u0000\u00a2\u00a3\u0005t\u0000\u0000\u00a3,\u0001\u0000\u0000\u0000\u00a4"+
+		"\u00a5\u0005h\u0000\u0000\u00a5\u00a6\u0005a\u0000\u0000\u00a6\u00a7\u0005"+
+		"l\u0000\u0000\u00a7\u00a8\u0005t\u0000\u0000\u00a8.\u0001\u0000\u0000"+
+		"\u0000\u00a9\u00aa\u0005f\u0000\u0000\u00aa\u00ab\u0005p\u0000\u0000\u00ab"+
+		"0\u0001\u0000\u0000\u0000\u00ac\u00ad\u0005s\u0000\u0000\u00ad\u00ae\u0005"+
+		"p\u0000\u0000\u00ae2\u0001\u0000\u0000\u0000\u00af\u00b0\u0005h\u0000"+
+		"\u0000\u00b0\u00b1\u0005p\u0000\u0000\u00b14\u0001\u0000\u0000\u0000\u00b2"+
+		"\u00b3\u0005r\u0000\u0000\u00b3\u00b4\u0005a\u0000\u0000\u00b46\u0001"+
+		"\u0000\u0000\u0000\u00b5\u00b7\u0005r\u0000\u0000\u00b6\u00b8\u000209"+
+		"\u0000\u00b7\u00b6\u0001\u0000\u0000\u0000\u00b8\u00b9\u0001\u0000\u0000"+
+		"\u0000\u00b9\u00b7\u0001\u0000\u0000\u0000\u00b9\u00ba\u0001\u0000\u0000"+
+		"\u0000\u00ba8\u0001\u0000\u0000\u0000\u00bb\u00bc\u0005:\u0000\u0000\u00bc"+
+		":\u0001\u0000\u0000\u0000\u00bd\u00be\u0005,\u0000\u0000\u00be<\u0001"+
+		"\u0000\u0000\u0000\u00bf\u00c0\u0005+\u0000\u0000\u00c0>\u0001\u0000\u0000"+
+		"\u0000\u00c1\u00c2\u0005[\u0000\u0000\u00c2@\u0001\u0000\u0000\u0000\u00c3"+
+		"\u00c4\u0005]\u0000\u0000\u00c4B\u0001\u0000\u0000\u0000\u00c5\u00c9\u0007"+
+		"\u0000\u0000\u0000\u00c6\u00c8\u0007\u0001\u0000\u0000\u00c7\u00c6\u0001"+
+		"\u0000\u0000\u0000\u00c8\u00cb\u0001\u0000\u0000\u0000\u00c9\u00c7\u0001"+
+		"\u0000\u0000\u0000\u00c9\u00ca\u0001\u0000\u0000\u0000\u00caD\u0001\u0000"+
+		"\u0000\u0000\u00cb\u00c9\u0001\u0000\u0000\u0000\u00cc\u00d8\u00050\u0000"+
+		"\u0000\u00cd\u00cf\u0005-\u0000\u0000\u00ce\u00cd\u0001\u0000\u0000\u0000"+
+		"\u00ce\u00cf\u0001\u0000\u0000\u0000\u00cf\u00d0\u0001\u0000\u0000\u0000"+
+		"\u00d0\u00d4\u000219\u0000\u00d1\u00d3\u000209\u0000\u00d2\u00d1\u0001"+
+		"\u0000\u0000\u0000\u00d3\u00d6\u0001\u0000\u0000\u0000\u00d4\u00d2\u0001"+
+		"\u0000\u0000\u0000\u00d4\u00d5\u0001\u0000\u0000\u0000\u00d5\u00d8\u0001"+
+		"\u0000\u0000\u0000\u00d6\u00d4\u0001\u0000\u0000\u0000\u00d7\u00cc\u0001"+
+		"\u0000\u0000\u0000\u00d7\u00ce\u0001\u0000\u0000\u0000\u00d8F\u0001\u0000"+
+		"\u0000\u0000\u00d9\u00da\u0005/\u0000\u0000\u00da\u00db\u0005*\u0000\u0000"+
+		"\u00db\u00df\u0001\u0000\u0000\u0000\u00dc\u00de\t\u0000\u0000\u0000\u00dd"+
+		"\u00dc\u0001\u0000\u0000\u0000\u00de\u00e1\u0001\u0000\u0000\u0000\u00df"+
+		"\u00e0\u0001\u0000\u0000\u0000\u00df\u00dd\u0001\u0000\u0000\u0000\u00e0"+
+		"\u00e2\u0001\u0000\u0000\u0000\u00e1\u00df\u0001\u0000\u0000\u0000\u00e2"+
+		"\u00e3\u0005*\u0000\u0000\u00e3\u00e4\u0005/\u0000\u0000\u00e4\u00e5\u0001"+
+		"\u0000\u0000\u0000\u00e5\u00e6\u0006#\u0000\u0000\u00e6H\u0001\u0000\u0000"+
+		"\u0000\u00e7\u00e9\u0007\u0002\u0000\u0000\u00e8\u00e7\u0001\u0000\u0000"+
+		"\u0000\u00e9\u00ea\u0001\u0000\u0000\u0000\u00ea\u00e8\u0001\u0000\u0000"+
+		"\u0000\u00ea\u00eb\u0001\u0000\u0000\u0000\u00eb\u00ec\u0001\u0000\u0000"+
+		"\u0000\u00ec\u00ed\u0006$\u0000\u0000\u00edJ\u0001\u0000\u0000\u0000\u00ee"+
+		"\u00ef\t\u0000\u0000\u0000\u00ef\u00f0\u0006%\u0001\u0000\u00f0\u00f1"+
+		"\u0001\u0000\u0000\u0000\u00f1\u00f2\u0006%\u0000\u0000\u00f2L\u0001\u0000"+
+		"\u0000\u0000\b\u0000\u00b9\u00c9\u00ce\u00d4\u00d7\u00df\u00ea\u0002\u0000"+
+		"\u0001\u0000\u0001%\u0000";
+	public static final ATN _ATN =
+		new ATNDeserializer().deserialize(_serializedATN.toCharArray());
+	static {
+		_decisionToDFA = new DFA[_ATN.getNumberOfDecisions()];
+		for (int i = 0; i < _ATN.getNumberOfDecisions(); i++) {
+			_decisionToDFA[i] = new DFA(_ATN.getDecisionState(i), i);
+		}
+	}
+}
\ No newline at end of file
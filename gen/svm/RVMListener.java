@@ -0,0 +1,40 @@
+// Generated from C:/Users/Federico/Desktop/Universit/PCD/repo/lcmc-test/src/svm/RVM.g4 by ANTLR 4.13.1
+package svm;
+import org.antlr.v4.runtime.tree.ParseTreeListener;
+
+/**
+ * This interface defines a complete listener for a parse tree produced by
+ * {@link RVMParser}.
+ */
+public interface RVMListener extends ParseTreeListener {
+	/**
+	 * Enter a parse tree produced by {@link RVMParser#assembly}.
+	 * @param ctx the parse tree
+	 */
+	void enterAssembly(RVMParser.AssemblyContext ctx);
+	/**
+	 * Exit a parse tree produced by {@link RVMParser#assembly}.
+	 * @param ctx the parse tree
+	 */
+	void exitAssembly(RVMParser.AssemblyContext ctx);
+	/**
+	 * Enter a parse tree produced by {@link RVMParser#instruction}.
+	 * @param ctx the parse tree
+	 */
+	void enterInstruction(RVMParser.InstructionContext ctx);
+	/**
+	 * Exit a parse tree produced by {@link RVMParser#instruction}.
+	 * @param ctx the parse tree
+	 */
+	void exitInstruction(RVMParser.InstructionContext ctx);
+	/**
+	 * Enter a parse tree produced by {@link RVMParser#reg}.
+	 * @param ctx the parse tree
+	 */
+	void enterReg(RVMParser.RegContext ctx);
+	/**
+	 * Exit a parse tree produced by {@link RVMParser#reg}.
+	 * @param ctx the parse tree
+	 */
+	void exitReg(RVMParser.RegContext ctx);
+}
\ No newline at end of file
@@ -0,0 +1,735 @@
+// Generated from C:/Users/Federico/Desktop/Universit/PCD/repo/lcmc-test/src/svm/RVM.g4 by ANTLR 4.13.1
+package svm;
+
+import java.util.*;
+
+import org.antlr.v4.runtime.atn.*;
+import org.antlr.v4.runtime.dfa.DFA;
+import org.antlr.v4.runtime.*;
+import org.antlr.v4.runtime.misc.*;
+import org.antlr.v4.runtime.tree.*;
+import java.util.List;
+import java.util.Iterator;
+import java.util.ArrayList;
+
+@SuppressWarnings({"all", "warnings", "unchecked", "unused", "cast", "CheckReturnValue"})
+public class RVMParser extends Parser {
+	static { RuntimeMetaData.checkVersion("4.13.1", RuntimeMetaData.VERSION); }
+
+	protected static final DFA[] _decisionToDFA;
+	protected static final PredictionContextCache _sharedContextCache =
+		new PredictionContextCache();
+	public static final int
+		LOADI=1, MOVE=2, ADD=3, ADDI=4, SUB=5, MULT=6, DIV=7, EQUAL=8, LESSEQ=9, 
+		NOT=10, AND=11, OR=12, LOADW=13, STOREW=14, PUSH=15, POP=16, BRANCH=17, 
+		BRANCHEQ=18, BRANCHLESSEQ=19, CALL=20, JUMPREG=21, PRINT=22, HALT=23, 
+		FP=24, SP=25, HP=26, RA=27, REGISTER=28, COL=29, COMMA=30, PLUS=31, LBRACKET=32, 
+		RBRACKET=33, LABEL=34, INTEGER=35, COMMENT=36, WHITESP=37, ERR=38;
+	public static final int
+		RULE_assembly = 0, RULE_instruction = 1, RULE_reg = 2;
+	private static String[] makeRuleNames() {
+		return new String[] {
+			"assembly", "instruction", "reg"
+		};
+	}
+	public static final String[] ruleNames = makeRuleNames();
+
+	private static String[] makeLiteralNames() {
+		return new String[] {
+			null, "'li'", "'mov'", "'add'", "'addi'", "'sub'", "'mult'", "'div'", 
+			"'eq'", "'leq'", "'not'", "'and'", "'or'", "'ld'", "'st'", "'push'", 
+			"'pop'", "'b'", "'beq'", "'bleq'", "'call'", "'jr'", "'print'", "'halt'", 
+			"'fp'", "'sp'", "'hp'", "'ra'", null, "':'", "','", "'+'", "'['", "']'"
+		};
+	}
+	private static final String[] _LITERAL_NAMES = makeLiteralNames();
+	private static String[] makeSymbolicNames() {
+		return new String[] {
+			null, "LOADI", "MOVE", "ADD", "ADDI", "SUB", "MULT", "DIV", "EQUAL", 
+			"LESSEQ", "NOT", "AND", "OR", "LOADW", "STOREW", "PUSH", "POP", "BRANCH", 
+			"BRANCHEQ", "BRANCHLESSEQ", "CALL", "JUMPREG", "PRINT", "HALT", "FP", 
+			"SP", "HP", "RA", "REGISTER", "COL", "COMMA", "PLUS", "LBRACKET", "RBRACKET", 
+			"LABEL", "INTEGER", "COMMENT", "WHITESP", "ERR"
+		};
+	}
+	private static final String[] _SYMBOLIC_NAMES = makeSymbolicNames();
+	public static final Vocabulary VOCABULARY = new VocabularyImpl(_LITERAL_NAMES, _SYMBOLIC_NAMES);
+
+	/**
+	 * @deprecated Use {@link #VOCABULARY} instead.
+	 */
+	@Deprecated
+	public static final String[] tokenNames;
+	static {
+		tokenNames = new String[_SYMBOLIC_NAMES.length];
+		for (int i = 0; i < tokenNames.length; i++) {
+			tokenNames[i] = VOCABULARY.getLiteralName(i);
+			if (tokenNames[i] == null) {
+				tokenNames[i] = VOCABULARY.getSymbolicName(i);
+			}
+
+			if (tokenNames[i] == null) {
+				tokenNames[i] = "<INVALID>";
+			}
+		}
+	}
+
+	@Override
+	@Deprecated
+	public String[] getTokenNames() {
+		return tokenNames;
+	}
+
+	@Override
+
+	public Vocabulary getVocabulary() {
+		return VOCABULARY;
+	}
+
+	@Override
+	public String getGrammarFileName() { return "RVM.g4"; }
+
+	@Override
+	public String[] getRuleNames() { return ruleNames; }
+
+	@Override
+	public String getSerializedATN() { return _serializedATN; }
+
+	@Override
+	public ATN getATN() { return _ATN; }
+
+
+	public int[] code = new int[RegisterVM.CODESIZE];
+	private int i = 0;
+	private Map<String,Integer> labelDef = new HashMap<>();
+	private Map<Integer,String> labelRef = new HashMap<>();
+
+	private static int register(Token t) {
+		switch (t.getType()) {
+			case FP: return RegisterVM.FP;
+			case SP: return RegisterVM.SP;
+			case HP: return RegisterVM.HP;
+			case RA: return RegisterVM.RA;
+			default: return Integer.parseInt(t.getText().substring(1));
+		}
+	}
+
+	public RVMParser(TokenStream input) {
+		super(input);
+		_interp = new ParserATNSimulator(this,_ATN,_decisionToDFA,_sharedContextCache);
+	}
+
+	@SuppressWarnings("CheckReturnValue")
+	public static class AssemblyContext extends ParserRuleContext {
+		public TerminalNode EOF() { return getToken(RVMParser.EOF, 0); }
+		public List<InstructionContext> instruction() {
+			return getRuleContexts(InstructionContext.class);
+		}
+		public InstructionContext instruction(int i) {
+			return getRuleContext(InstructionContext.class,i);
+		}
+		public AssemblyContext(ParserRuleContext parent, int invokingState) {
+			super(parent, invokingState);
+		}
+		@Override public int getRuleIndex() { return RULE_assembly; }
+		@Override
+		public void enterRule(ParseTreeListener listener) {
+			if ( listener instanceof RVMListener ) ((RVMListener)listener).enterAssembly(this);
+		}
+		@Override
+		public void exitRule(ParseTreeListener listener) {
+			if ( listener instanceof RVMListener ) ((RVMListener)listener).exitAssembly(this);
+		}
+		@Override
+		public <T> T accept(ParseTreeVisitor<? extends T> visitor) {
+			if ( visitor instanceof RVMVisitor ) return ((RVMVisitor<? extends T>)visitor).visitAssembly(this);
+			else return visitor.visitChildren(this);
+		}
+	}
+
+	public final AssemblyContext assembly() throws RecognitionException {
+		AssemblyContext _localctx = new AssemblyContext(_ctx, getState());
+		enterRule(_localctx, 0, RULE_assembly);
+		int _la;
+		try {
+			enterOuterAlt(_localctx, 1);
+			{
+			setState(9);
+			_errHandler.sync(this);
+			_la = _input.LA(1);
+			while ((((_la) & ~0x3f) == 0 && ((1L << _la) & 17196646398L) != 0)) {
+				{
+				{
+				setState(6);
+				instruction();
+				}
+				}
+				setState(11);
+				_errHandler.sync(this);
+				_la = _input.LA(1);
+			}
+			setState(12);
+			match(EOF);
+			 for (Integer j: labelRef.keySet())
+											code[j]=labelDef.get(labelRef.get(j));
+										
+			}
+		}
+		catch (RecognitionException re) {
+			_localctx.exception = re;
+			_errHandler.reportError(this, re);
+			_errHandler.recover(this, re);
+		}
+		finally {
+			exitRule();
+		}
+		return _localctx;
+	}
+
+	@SuppressWarnings("CheckReturnValue")
+	public static class InstructionContext extends ParserRuleContext {
+		public RegContext d;
+		public Token n;
+		public Token l;
+		public RegContext s;
+		public Token op;
+		public RegContext s1;
+		public RegContext s2;
+		public RegContext b;
+		public TerminalNode LOADI() { return getToken(RVMParser.LOADI, 0); }
+		public List<TerminalNode> COMMA() { return getTokens(RVMParser.COMMA); }
+		public TerminalNode COMMA(int i) {
+			return getToken(RVMParser.COMMA, i);
+		}
+		public List<RegContext> reg() {
+			return getRuleContexts(RegContext.class);
+		}
+		public RegContext reg(int i) {
+			return getRuleContext(RegContext.class,i);
+		}
+		public TerminalNode INTEGER() { return getToken(RVMParser.INTEGER, 0); }
+		public TerminalNode LABEL() { return getToken(RVMParser.LABEL, 0); }
+		public TerminalNode MOVE() { return getToken(RVMParser.MOVE, 0); }
+		public TerminalNode ADD() { return getToken(RVMParser.ADD, 0); }
+		public TerminalNode SUB() { return getToken(RVMParser.SUB, 0); }
+		public TerminalNode MULT() { return getToken(RVMParser.MULT, 0); }
+		public TerminalNode DIV() { return getToken(RVMParser.DIV, 0); }
+		public TerminalNode EQUAL() { return getToken(RVMParser.EQUAL, 0); }
+		public TerminalNode LESSEQ() { return getToken(RVMParser.LESSEQ, 0); }
+		public TerminalNode AND() { return getToken(RVMParser.AND, 0); }
+		public TerminalNode OR() { return getToken(RVMParser.OR, 0); }
+		public TerminalNode ADDI() { return getToken(RVMParser.ADDI, 0); }
+		public TerminalNode NOT() { return getToken(RVMParser.NOT, 0); }
+		public TerminalNode LOADW() { return getToken(RVMParser.LOADW, 0); }
+		public TerminalNode LBRACKET() { return getToken(RVMParser.LBRACKET, 0); }
+		public TerminalNode RBRACKET() { return getToken(RVMParser.RBRACKET, 0); }
+		public TerminalNode PLUS() { return getToken(RVMParser.PLUS, 0); }
+		public TerminalNode STOREW() { return getToken(RVMParser.STOREW, 0); }
+		public TerminalNode PUSH() { return getToken(RVMParser.PUSH, 0); }
+		public TerminalNode POP() { return getToken(RVMParser.POP, 0); }
+		public TerminalNode COL() { return getToken(RVMParser.COL, 0); }
+		public TerminalNode BRANCH() { return getToken(RVMParser.BRANCH, 0); }
+		public TerminalNode BRANCHEQ() { return getToken(RVMParser.BRANCHEQ, 0); }
+		public TerminalNode BRANCHLESSEQ() { return getToken(RVMParser.BRANCHLESSEQ, 0); }
+		public TerminalNode CALL() { return getToken(RVMParser.CALL, 0); }
+		public TerminalNode JUMPREG() { return getToken(RVMParser.JUMPREG, 0); }
+		public TerminalNode PRINT() { return getToken(RVMParser.PRINT, 0); }
+		public TerminalNode HALT() { return getToken(RVMParser.HALT, 0); }
+		public InstructionContext(ParserRuleContext parent, int invokingState) {
+			super(parent, invokingState);
+		}
+		@Override public int getRuleIndex() { return RULE_instruction; }
+		@Override
+		public void enterRule(ParseTreeListener listener) {
+			if ( listener instanceof RVMListener ) ((RVMListener)listener).enterInstruction(this);
+		}
+		@Override
+		public void exitRule(ParseTreeListener listener) {
+			if ( listener instanceof RVMListener ) ((RVMListener)listener).exitInstruction(this);
+		}
+		@Override
+		public <T> T accept(ParseTreeVisitor<? extends T> visitor) {
+			if ( visitor instanceof RVMVisitor ) return ((RVMVisitor<? extends T>)visitor).visitInstruction(this);
+			else return visitor.visitChildren(this);
+		}
+	}
+
+	public final InstructionContext instruction() throws RecognitionException {
+		InstructionContext _localctx = new InstructionContext(_ctx, getState());
+		enterRule(_localctx, 2, RULE_instruction);
+		int _la;
+		try {
+			setState(123);
+			_errHandler.sync(this);
+			switch ( getInterpreter().adaptivePredict(_input,3,_ctx) ) {
+			case 1:
+				enterOuterAlt(_localctx, 1);
+				{
+				setState(15);
+				match(LOADI);
+				setState(16);
+				((InstructionContext)_localctx).d = reg();
+				setState(17);
+				match(COMMA);
+				setState(18);
+				((InstructionContext)_localctx).n = match(INTEGER);
+				code[i++] = LOADI;
+							                         code[i++] = ((InstructionContext)_localctx).d.r;
+							                         code[i++] = Integer.parseInt((((InstructionContext)_localctx).n!=null?((InstructionContext)_localctx).n.getText():null));
+				}
+				break;
+			case 2:
+				enterOuterAlt(_localctx, 2);
+				{
+				setState(21);
+				match(LOADI);
+				setState(22);
+				((InstructionContext)_localctx).d = reg();
+				setState(23);
+				match(COMMA);
+				setState(24);
+				((InstructionContext)_localctx).l = match(LABEL);
+				code[i++] = LOADI;
+							                         code[i++] = ((InstructionContext)_localctx).d.r;
+					    		                     labelRef.put(i++,(((InstructionContext)_localctx).l!=null?((InstructionContext)_localctx).l.getText():null));
+				}
+				break;
+			case 3:
+				enterOuterAlt(_localctx, 3);
+				{
+				setState(27);
+				match(MOVE);
+				setState(28);
+				((InstructionContext)_localctx).d = reg();
+				setState(29);
+				match(COMMA);
+				setState(30);
+				((InstructionContext)_localctx).s = reg();
+				code[i++] = MOVE;
+					                                 code[i++] = ((InstructionContext)_localctx).d.r;
+					                                 code[i++] = ((InstructionContext)_localctx).s.r;
+				}
+				break;
+			case 4:
+				enterOuterAlt(_localctx, 4);
+				{
+				setState(33);
+				((InstructionContext)_localctx).op = _input.LT(1);
+				_la = _input.LA(1);
+				if ( !((((_la) & ~0x3f) == 0 && ((1L << _la) & 7144L) != 0)) ) {
+					((InstructionContext)_localctx).op = (Token)_errHandler.recoverInline(this);
+				}
+				else {
+					if ( _input.LA(1)==Token.EOF ) matchedEOF = true;
+					_errHandler.reportMatch(this);
+					consume();
+				}
+				setState(34);
+				((InstructionContext)_localctx).d = reg();
+				setState(35);
+				match(COMMA);
+				setState(36);
+				((InstructionContext)_localctx).s1 = reg();
+				setState(37);
+				match(COMMA);
+				setState(38);
+				((InstructionContext)_localctx).s2 = reg();
+				code[i++] = (((InstructionContext)_localctx).op!=null?((InstructionContext)_localctx).op.getType():0);
+					                                 code[i++] = ((InstructionContext)_localctx).d.r;
+					                                 code[i++] = ((InstructionContext)_localctx).s1.r;
+					                                 code[i++] = ((InstructionContext)_localctx).s2.r;
+				}
+				break;
+			case 5:
+				enterOuterAlt(_localctx, 5);
+				{
+				setState(41);
+				match(ADDI);
+				setState(42);
+				((InstructionContext)_localctx).d = reg();
+				setState(43);
+				match(COMMA);
+				setState(44);
+				((InstructionContext)_localctx).s = reg();
+				setState(45);
+				match(COMMA);
+				setState(46);
+				((InstructionContext)_localctx).n = match(INTEGER);
+				code[i++] = ADDI;
+					                                 code[i++] = ((InstructionContext)_localctx).d.r;
+					                                 code[i++] = ((InstructionContext)_localctx).s.r;
+					                                 code[i++] = Integer.parseInt((((InstructionContext)_localctx).n!=null?((InstructionContext)_localctx).n.getText():null));
+				}
+				break;
+			case 6:
+				enterOuterAlt(_localctx, 6);
+				{
+				setState(49);
+				match(NOT);
+				setState(50);
+				((InstructionContext)_localctx).d = reg();
+				setState(51);
+				match(COMMA);
+				setState(52);
+				((InstructionContext)_localctx).s = reg();
+				code[i++] = NOT;
+					                                 code[i++] = ((InstructionContext)_localctx).d.r;
+					                                 code[i++] = ((InstructionContext)_localctx).s.r;
+				}
+				break;
+			case 7:
+				enterOuterAlt(_localctx, 7);
+				{
+				setState(55);
+				match(LOADW);
+				setState(56);
+				((InstructionContext)_localctx).d = reg();
+				setState(57);
+				match(COMMA);
+				setState(58);
+				match(LBRACKET);
+				setState(59);
+				((InstructionContext)_localctx).b = reg();
+				setState(61);
+				_errHandler.sync(this);
+				_la = _input.LA(1);
+				if (_la==PLUS) {
+					{
+					setState(60);
+					match(PLUS);
+					}
+				}
+
+				setState(63);
+				((InstructionContext)_localctx).n = match(INTEGER);
+				setState(64);
+				match(RBRACKET);
+				code[i++] = LOADW;
+					                                 code[i++] = ((InstructionContext)_localctx).d.r;
+					                                 code[i++] = ((InstructionContext)_localctx).b.r;
+					                                 code[i++] = Integer.parseInt((((InstructionContext)_localctx).n!=null?((InstructionContext)_localctx).n.getText():null));
+				}
+				break;
+			case 8:
+				enterOuterAlt(_localctx, 8);
+				{
+				setState(67);
+				match(STOREW);
+				setState(68);
+				((InstructionContext)_localctx).s = reg();
+				setState(69);
+				match(COMMA);
+				setState(70);
+				match(LBRACKET);
+				setState(71);
+				((InstructionContext)_localctx).b = reg();
+				setState(73);
+				_errHandler.sync(this);
+				_la = _input.LA(1);
+				if (_la==PLUS) {
+					{
+					setState(72);
+					match(PLUS);
+					}
+				}
+
+				setState(75);
+				((InstructionContext)_localctx).n = match(INTEGER);
+				setState(76);
+				match(RBRACKET);
+				code[i++] = STOREW;
+					                                 code[i++] = ((InstructionContext)_localctx).s.r;
+					                                 code[i++] = ((InstructionContext)_localctx).b.r;
+					                                 code[i++] = Integer.parseInt((((InstructionContext)_localctx).n!=null?((InstructionContext)_localctx).n.getText():null));
+				}
+				break;
+			case 9:
+				enterOuterAlt(_localctx, 9);
+				{
+				setState(79);
+				match(PUSH);
+				setState(80);
+				((InstructionContext)_localctx).s = reg();
+				code[i++] = PUSH;
+					                                 code[i++] = ((InstructionContext)_localctx).s.r;
+				}
+				break;
+			case 10:
+				enterOuterAlt(_localctx, 10);
+				{
+				setState(83);
+				match(POP);
+				setState(84);
+				((InstructionContext)_localctx).d = reg();
+				code[i++] = POP;
+					                                 code[i++] = ((InstructionContext)_localctx).d.r;
+				}
+				break;
+			case 11:
+				enterOuterAlt(_localctx, 11);
+				{
+				setState(87);
+				((InstructionContext)_localctx).l = match(LABEL);
+				setState(88);
+				match(COL);
+				labelDef.put((((InstructionContext)_localctx).l!=null?((InstructionContext)_localctx).l.getText():null),i);
+				}
+				break;
+			case 12:
+				enterOuterAlt(_localctx, 12);
+				{
+				setState(90);
+				match(BRANCH);
+				setState(91);
+				((InstructionContext)_localctx).l = match(LABEL);
+				code[i++] = BRANCH;
+				                                     labelRef.put(i++,(((InstructionContext)_localctx).l!=null?((InstructionContext)_localctx).l.getText():null));
+				}
+				break;
+			case 13:
+				enterOuterAlt(_localctx, 13);
+				{
+				setState(93);
+				match(BRANCHEQ);
+				setState(94);
+				((InstructionContext)_localctx).s1 = reg();
+				setState(95);
+				match(COMMA);
+				setState(96);
+				((InstructionContext)_localctx).s2 = reg();
+				setState(97);
+				match(COMMA);
+				setState(98);
+				((InstructionContext)_localctx).l = match(LABEL);
+				code[i++] = BRANCHEQ;
+					                                 code[i++] = ((InstructionContext)_localctx).s1.r;
+					                                 code[i++] = ((InstructionContext)_localctx).s2.r;
+				                                     labelRef.put(i++,(((InstructionContext)_localctx).l!=null?((InstructionContext)_localctx).l.getText():null));
+				}
+				break;
+			case 14:
+				enterOuterAlt(_localctx, 14);
+				{
+				setState(101);
+				match(BRANCHLESSEQ);
+				setState(102);
+				((InstructionContext)_localctx).s1 = reg();
+				setState(103);
+				match(COMMA);
+				setState(104);
+				((InstructionContext)_localctx).s2 = reg();
+				setState(105);
+				match(COMMA);
+				setState(106);
+				((InstructionContext)_localctx).l = match(LABEL);
+				code[i++] = BRANCHLESSEQ;
+					                                 code[i++] = ((InstructionContext)_localctx).s1.r;
+					                                 code[i++] = ((InstructionContext)_localctx).s2.r;
+				                                     labelRef.put(i++,(((InstructionContext)_localctx).l!=null?((InstructionContext)_localctx).l.getText():null));
+				}
+				break;
+			case 15:
+				enterOuterAlt(_localctx, 15);
+				{
+				setState(109);
+				match(CALL);
+				setState(110);
+				((InstructionContext)_localctx).s = reg();
+				code[i++] = CALL;
+					                                 code[i++] = ((InstructionContext)_localctx).s.r;
+				}
+				break;
+			case 16:
+				enterOuterAlt(_localctx, 16);
+				{
+				setState(113);
+				match(JUMPREG);
+				setState(114);
+				((InstructionContext)_localctx).s = reg();
+				code[i++] = JUMPREG;
+					                                 code[i++] = ((InstructionContext)_localctx).s.r;
+				}
+				break;
+			case 17:
+				enterOuterAlt(_localctx, 17);
+				{
+				setState(117);
+				match(PRINT);
+				setState(118);
+				((InstructionContext)_localctx).s = reg();
+				code[i++] = PRINT;
+					                                 code[i++] = ((InstructionContext)_localctx).s.r;
+				}
+				break;
+			case 18:
+				enterOuterAlt(_localctx, 18);
+				{
+				setState(121);
+				match(HALT);
+				code[i++] = HALT;
+				}
+				break;
+			}
+		}
+		catch (RecognitionException re) {
+			_localctx.exception = re;
+			_errHandler.reportError(this, re);
+			_errHandler.recover(this, re);
+		}
+		finally {
+			exitRule();
+		}
+		return _localctx;
+	}
+
+	@SuppressWarnings("CheckReturnValue")
+	public static class RegContext extends ParserRuleContext {
+		public int r;
+		public Token t;
+		public TerminalNode REGISTER() { return getToken(RVMParser.REGISTER, 0); }
+		public TerminalNode FP() { return getToken(RVMParser.FP, 0); }
+		public TerminalNode SP() { return getToken(RVMParser.SP, 0); }
+		public TerminalNode HP() { return getToken(RVMParser.HP, 0); }
+		public TerminalNode RA() { return getToken(RVMParser.RA, 0); }
+		public RegContext(ParserRuleContext parent, int invokingState) {
+			super(parent, invokingState);
+		}
+		@Override public int getRuleIndex() { return RULE_reg; }
+		@Override
+		public void enterRule(ParseTreeListener listener) {
+			if ( listener instanceof RVMListener ) ((RVMListener)listener).enterReg(this);
+		}
+		@Override
+		public void exitRule(ParseTreeListener listener) {
+			if ( listener instanceof RVMListener ) ((RVMListener)listener).exitReg(this);
+		}
+		@Override
+		public <T> T accept(ParseTreeVisitor<? extends T> visitor) {
+			if ( visitor instanceof RVMVisitor ) return ((RVMVisitor<? extends T>)visitor).visitReg(this);
+			else return visitor.visitChildren(this);
+		}
+	}
+
+	public final RegContext reg() throws RecognitionException {
+		RegContext _localctx = new RegContext(_ctx, getState());
+		enterRule(_localctx, 4, RULE_reg);
+		int _la;
+		try {
+			enterOuterAlt(_localctx, 1);
+			{
+			setState(125);
+			((RegContext)_localctx).t = _input.LT(1);
+			_la = _input.LA(1);
+			if ( !((((_la) & ~0x3f) == 0 && ((1L << _la) & 520093696L) != 0)) ) {
+				((RegContext)_localctx).t = (Token)_errHandler.recoverInline(this);
+			}
+			else {
+				if ( _input.LA(1)==Token.EOF ) matchedEOF = true;
+				_errHandler.reportMatch(this);
+				consume();
+			}
+			((RegContext)_localctx).r =  register(((RegContext)_localctx).t);
+			}
+		}
+		catch (RecognitionException re) {
+			_localctx.exception = re;
+			_errHandler.reportError(this, re);
+			_errHandler.recover(this, re);
+		}
+		finally {
+			exitRule();
+		}
+		return _localctx;
+	}
+
+	public static final String _serializedATN =
+		"\u0004\u0001&\u0081\u0002\u0000\u0007\u0000\u0002\u0001\u0007\u0001\u0002"+
+		"\u0002\u0007\u0002\u0001\u0000\u0005\u0000\b\b\u0000\n\u0000\f\u0000\u000b"+
+		"\t\u0000\u0001\u0000\u0001\u0000\u0001\u0000\u0001\u0001\u0001\u0001\u0001"+
+		"\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001"+
+		"\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001"+
+		"\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001"+
+		"\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001"+
+		"\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001"+
+		"\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001"+
+		"\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001"+
+		"\u0001\u0001\u0001\u0003\u0001>\b\u0001\u0001\u0001\u0001\u0001\u0001"+
+		"\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001"+
+		"\u0001\u0001\u0001\u0003\u0001J\b\u0001\u0001\u0001\u0001\u0001\u0001"+
+		"\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001"+
+		"\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001"+
+		"\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001"+
+		"\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001"+
+		"\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001"+
+		"\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001"+
+		"\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001"+
+		"\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0003\u0001|\b\u0001\u0001"+
+		"\u0002\u0001\u0002\u0001\u0002\u0001\u0002\u0000\u0000\u0003\u0000\u0002"+
+		"\u0004\u0000\u0002\u0003\u0000\u0003\u0003\u0005\t\u000b\f\u0001\u0000"+
+		"\u0018\u001c\u0091\u0000\t\u0001\u0000\u0000\u0000\u0002{\u0001\u0000"+
+		"\u0000\u0000\u0004}\u0001\u0000\u0000\u0000\u0006\b\u0003\u0002\u0001"+
+		"\u0000\u0007\u0006\u0001\u0000\u0000\u0000\b\u000b\u0001\u0000\u0000\u0000"+
+		"\t\u0007\u0001\u0000\u0000\u0000\t\n\u0001\u0000\u0000\u0000\n\f\u0001"+
+		"\u0000\u0000\u0000\u000b\t\u0001\u0000\u0000\u0000\f\r\u0005\u0000\u0000"+
+		"\u0001\r\u000e\u0006\u0000\uffff\uffff\u0000\u000e\u0001\u0001\u0000\u0000"+
+		"\u0000\u000f\u0010\u0005\u0001\u0000\u0000\u0010\u0011\u0003\u0004\u0002"+
+		"\u0000\u0011\u0012\u0005\u001e\u0000\u0000\u0012\u0013\u0005#\u0000\u0000"+
+		"\u0013\u0014\u0006\u0001\uffff\uffff\u0000\u0014|\u0001\u0000\u0000\u0000"+
+		"\u0015\u0016\u0005\u0001\u0000\u0000\u0016\u0017\u0003\u0004\u0002\u0000"+
+		"\u0017\u0018\u0005\u001e\u0000\u0000\u0018\u0019\u0005\"\u0000\u0000\u0019"+
+		"\u001a\u0006\u0001\uffff\uffff\u0000\u001a|\u0001\u0000\u0000\u0000\u001b"+
+		"\u001c\u0005\u0002\u0000\u0000\u001c\u001d\u0003\u0004\u0002\u0000\u001d"+
+		"\u001e\u0005\u001e\u0000\u0000\u001e\u001f\u0003\u0004\u0002\u0000\u001f"+
+		" \u0006\u0001\uffff\uffff\u0000 |\u0001\u0000\u0000\u0000!\"\u0007\u0000"+
+		"\u0000\u0000\"#\u0003\u0004\u0002\u0000#$\u0005\u001e\u0000\u0000$%\u0003"+
+		"\u0004\u0002\u0000%&\u0005\u001e\u0000\u0000&\'\u0003\u0004\u0002\u0000"+
+		"\'(\u0006\u0001\uffff\uffff\u0000(|\u0001\u0000\u0000\u0000)*\u0005\u0004"+
+		"\u0000\u0000*+\u0003\u0004\u0002\u0000+,\u0005\u001e\u0000\u0000,-\u0003"+
+		"\u0004\u0002\u0000-.\u0005\u001e\u0000\u0000./\u0005#\u0000\u0000/0\u0006"+
+		"\u0001\uffff\uffff\u00000|\u0001\u0000\u0000\u000012\u0005\n\u0000\u0000"+
+		"23\u0003\u0004\u0002\u000034\u0005\u001e\u0000\u000045\u0003\u0004\u0002"+
+		"\u000056\u0006\u0001\uffff\uffff\u00006|\u0001\u0000\u0000\u000078\u0005"+
+		"\r\u0000\u000089\u0003\u0004\u0002\u00009:\u0005\u001e\u0000\u0000:;\u0005"+
+		" \u0000\u0000;=\u0003\u0004\u0002\u0000<>\u0005\u001f\u0000\u0000=<\u0001"+
+		"\u0000\u0000\u0000=>\u0001\u0000\u0000\u0000>?\u0001\u0000\u0000\u0000"+
+		"?@\u0005#\u0000\u0000@A\u0005!\u0000\u0000AB\u0006\u0001\uffff\uffff\u0000"+
+		"B|\u0001\u0000\u0000\u0000CD\u0005\u000e\u0000\u0000DE\u0003\u0004\u0002"+
+		"\u0000EF\u0005\u001e\u0000\u0000FG\u0005 \u0000\u0000GI\u0003\u0004\u0002"+
+		"\u0000HJ\u0005\u001f\u0000\u0000IH\u0001\u0000\u0000\u0000IJ\u0001\u0000"+
+		"\u0000\u0000JK\u0001\u0000\u0000\u0000KL\u0005#\u0000\u0000LM\u0005!\u0000"+
+		"\u0000MN\u0006\u0001\uffff\uffff\u0000N|\u0001\u0000\u0000\u0000OP\u0005"+
+		"\u000f\u0000\u0000PQ\u0003\u0004\u0002\u0000QR\u0006\u0001\uffff\uffff"+
+		"\u0000R|\u0001\u0000\u0000\u0000ST\u0005\u0010\u0000\u0000TU\u0003\u0004"+
+		"\u0002\u0000UV\u0006\u0001\uffff\uffff\u0000V|\u0001\u0000\u0000\u0000"+
+		"WX\u0005\"\u0000\u0000XY\u0005\u001d\u0000\u0000Y|\u0006\u0001\uffff\uffff"+
+		"\u0000Z[\u0005\u0011\u0000\u0000[\\\u0005\"\u0000\u0000\\|\u0006\u0001"+
+		"\uffff\uffff\u0000]^\u0005\u0012\u0000\u0000^_\u0003\u0004\u0002\u0000"+
+		"_`\u0005\u001e\u0000\u0000`a\u0003\u0004\u0002\u0000ab\u0005\u001e\u0000"+
+		"\u0000bc\u0005\"\u0000\u0000cd\u0006\u0001\uffff\uffff\u0000d|\u0001\u0000"+
+		"\u0000\u0000ef\u0005\u0013\u0000\u0000fg\u0003\u0004\u0002\u0000gh\u0005"+
+		"\u001e\u0000\u0000hi\u0003\u0004\u0002\u0000ij\u0005\u001e\u0000\u0000"+
+		"jk\u0005\"\u0000\u0000kl\u0006\u0001\uffff\uffff\u0000l|\u0001\u0000\u0000"+
+		"\u0000mn\u0005\u0014\u0000\u0000no\u0003\u0004\u0002\u0000op\u0006\u0001"+
+		"\uffff\uffff\u0000p|\u0001\u0000\u0000\u0000qr\u0005\u0015\u0000\u0000"+
+		"rs\u0003\u0004\u0002\u0000st\u0006\u0001\uffff\uffff\u0000t|\u0001\u0000"+
+		"\u0000\u0000uv\u0005\u0016\u0000\u0000vw\u0003\u0004\u0002\u0000wx\u0006"+
+		"\u0001\uffff\uffff\u0000x|\u0001\u0000\u0000\u0000yz\u0005\u0017\u0000"+
+		"\u0000z|\u0006\u0001\uffff\uffff\u0000{\u000f\u0001\u0000\u0000\u0000"+
+		"{\u0015\u0001\u0000\u0000\u0000{\u001b\u0001\u0000\u0000\u0000{!\u0001"+
+		"\u0000\u0000\u0000{)\u0001\u0000\u0000\u0000{1\u0001\u0000\u0000\u0000"+
+		"{7\u0001\u0000\u0000\u0000{C\u0001\u0000\u0000\u0000{O\u0001\u0000\u0000"+
+		"\u0000{S\u0001\u0000\u0000\u0000{W\u0001\u0000\u0000\u0000{Z\u0001\u0000"+
+		"\u0000\u0000{]\u0001\u0000\u0000\u0000{e\u0001\u0000\u0000\u0000{m\u0001"+
+		"\u0000\u0000\u0000{q\u0001\u0000\u0000\u0000{u\u0001\u0000\u0000\u0000"+
+		"{y\u0001\u0000\u0000\u0000|\u0003\u0001\u0000\u0000\u0000}~\u0007\u0001"+
+		"\u0000\u0000~\u007f\u0006\u0002\uffff\uffff\u0000\u007f\u0005\u0001\u0000"+
+		"\u0000\u0000\u0004\t=I{";
+	public static final ATN _ATN =
+		new ATNDeserializer().deserialize(_serializedATN.toCharArray());
+	static {
+		_decisionToDFA = new DFA[_ATN.getNumberOfDecisions()];
+		for (int i = 0; i < _ATN.getNumberOfDecisions(); i++) {
+			_decisionToDFA[i] = new DFA(_ATN.getDecisionState(i), i);
+		}
+	}
+}
\ No newline at end of file
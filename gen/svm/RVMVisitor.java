@@ -0,0 +1,31 @@
+// Generated from C:/Users/Federico/Desktop/Universit/PCD/repo/lcmc-test/src/svm/RVM.g4 by ANTLR 4.13.1
+package svm;
+import org.antlr.v4.runtime.tree.ParseTreeVisitor;
+
+/**
+ * This interface defines a complete generic visitor for a parse tree produced
+ * by {@link RVMParser}.
+ *
+ * @param <T> The return type of the visit operation. Use {@link Void} for
+ * operations with no return type.
+ */
+public interface RVMVisitor<T> extends ParseTreeVisitor<T> {
+	/**
+	 * Visit a parse tree produced by {@link RVMParser#assembly}.
+	 * @param ctx the parse tree
+	 * @return the visitor result
+	 */
+	T visitAssembly(RVMParser.AssemblyContext ctx);
+	/**
+	 * Visit a parse tree produced by {@link RVMParser#instruction}.
+	 * @param ctx the parse tree
+	 * @return the visitor result
+	 */
+	T visitInstruction(RVMParser.InstructionContext ctx);
+	/**
+	 * Visit a parse tree produced by {@link RVMParser#reg}.
+	 * @param ctx the parse tree
+	 * @return the visitor result
+	 */
+	T visitReg(RVMParser.RegContext ctx);
+}
\ No newline at end of file
@@ -20,10 +20,13 @@ public class SVMParser extends Parser {
 	protected static final PredictionContextCache _sharedContextCache =
 		new PredictionContextCache();
 	public static final int
-		PUSH=1, POP=2, ADD=3, SUB=4, MULT=5, DIV=6, STOREW=7, LOADW=8, BRANCH=9, 
-		BRANCHEQ=10, BRANCHLESSEQ=11, JS=12, LOADRA=13, STORERA=14, LOADTM=15, 
-		STORETM=16, LOADFP=17, STOREFP=18, COPYFP=19, LOADHP=20, STOREHP=21, PRINT=22, 
-		HALT=23, COL=24, LABEL=25, INTEGER=26, COMMENT=27, WHITESP=28, ERR=29;
+		PUSH=1, POP=2, ADD=3, SUB=4, MULT=5, DIV=6, EQUAL=7, LESSEQ=8, NOT=9, 
+		AND=10, OR=11, STOREW=12, LOADW=13, BRANCH=14, BRANCHEQ=15, BRANCHLESSEQ=16, 
+		JS=17, LOADRA=18, STORERA=19, LOADTM=20, STORETM=21, LOADFP=22, STOREFP=23, 
+		COPYFP=24, DUP=25, ENTER=26, RET=27, LOADLOCAL=28, STORELOCAL=29, LOADOUTER=30, 
+		LOADFIELD=31, LOADDISP=32, STOREDISP=33, RESTOREDISP=34, LOADHP=35, STOREHP=36, 
+		PRINT=37, HALT=38, COL=39, COMMA=40, LABEL=41, INTEGER=42, COMMENT=43, 
+		WHITESP=44, ERR=45;
 	public static final int
 		RULE_assembly = 0, RULE_instruction = 1;
 	private static String[] makeRuleNames() {
@@ -35,19 +38,24 @@ public class SVMParser extends Parser {
 
 	private static String[] makeLiteralNames() {
 		return new String[] {
-			null, "'push'", "'pop'", "'add'", "'sub'", "'mult'", "'div'", "'sw'", 
-			"'lw'", "'b'", "'beq'", "'bleq'", "'js'", "'lra'", "'sra'", "'ltm'", 
-			"'stm'", "'lfp'", "'sfp'", "'cfp'", "'lhp'", "'shp'", "'print'", "'halt'", 
-			"':'"
+			null, "'push'", "'pop'", "'add'", "'sub'", "'mult'", "'div'", "'eq'", 
+			"'leq'", "'not'", "'and'", "'or'", "'sw'", "'lw'", "'b'", "'beq'", "'bleq'", 
+			"'js'", "'lra'", "'sra'", "'ltm'", "'stm'", "'lfp'", "'sfp'", "'cfp'", 
+			"'dup'", "'enter'", "'ret'", "'lloc'", "'sloc'", "'louter'", "'lfld'", 
+			"'ldisp'", "'sdisp'", "'rdisp'", "'lhp'", "'shp'", "'print'", "'halt'", 
+			"':'", "','"
 		};
 	}
 	private static final String[] _LITERAL_NAMES = makeLiteralNames();
 	private static String[] makeSymbolicNames() {
 		return new String[] {
-			null, "PUSH", "POP", "ADD", "SUB", "MULT", "DIV", "STOREW", "LOADW", 
-			"BRANCH", "BRANCHEQ", "BRANCHLESSEQ", "JS", "LOADRA", "STORERA", "LOADTM", 
-			"STORETM", "LOADFP", "STOREFP", "COPYFP", "LOADHP", "STOREHP", "PRINT", 
-			"HALT", "COL", "LABEL", "INTEGER", "COMMENT", "WHITESP", "ERR"
+			null, "PUSH", "POP", "ADD", "SUB", "MULT", "DIV", "EQUAL", "LESSEQ", 
+			"NOT", "AND", "OR", "STOREW", "LOADW", "BRANCH", "BRANCHEQ", "BRANCHLESSEQ", 
+			"JS", "LOADRA", "STORERA", "LOADTM", "STORETM", "LOADFP", "STOREFP", 
+			"COPYFP", "DUP", "ENTER", "RET", "LOADLOCAL", "STORELOCAL", "LOADOUTER", 
+			"LOADFIELD", "LOADDISP", "STOREDISP", "RESTOREDISP", "LOADHP", "STOREHP", 
+			"PRINT", "HALT", "COL", "COMMA", "LABEL", "INTEGER", "COMMENT", "WHITESP", 
+			"ERR"
 		};
 	}
 	private static final String[] _SYMBOLIC_NAMES = makeSymbolicNames();
@@ -145,7 +153,7 @@ public class SVMParser extends Parser {
 			setState(7);
 			_errHandler.sync(this);
 			_la = _input.LA(1);
-			while ((((_la) & ~0x3f) == 0 && ((1L << _la) & 50331646L) != 0)) {
+			while ((((_la) & ~0x3f) == 0 && ((1L << _la) & 2748779069438L) != 0)) {
 				{
 				{
 				setState(4);
@@ -178,14 +186,24 @@ public class SVMParser extends Parser {
 	public static class InstructionContext extends ParserRuleContext {
 		public Token n;
 		public Token l;
+		public Token k;
+		public Token d;
 		public TerminalNode PUSH() { return getToken(SVMParser.PUSH, 0); }
-		public TerminalNode INTEGER() { return getToken(SVMParser.INTEGER, 0); }
+		public List<TerminalNode> INTEGER() { return getTokens(SVMParser.INTEGER); }
+		public TerminalNode INTEGER(int i) {
+			return getToken(SVMParser.INTEGER, i);
+		}
 		public TerminalNode LABEL() { return getToken(SVMParser.LABEL, 0); }
 		public TerminalNode POP() { return getToken(SVMParser.POP, 0); }
 		public TerminalNode ADD() { return getToken(SVMParser.ADD, 0); }
 		public TerminalNode SUB() { return getToken(SVMParser.SUB, 0); }
 		public TerminalNode MULT() { return getToken(SVMParser.MULT, 0); }
 		public TerminalNode DIV() { return getToken(SVMParser.DIV, 0); }
+		public TerminalNode EQUAL() { return getToken(SVMParser.EQUAL, 0); }
+		public TerminalNode LESSEQ() { return getToken(SVMParser.LESSEQ, 0); }
+		public TerminalNode NOT() { return getToken(SVMParser.NOT, 0); }
+		public TerminalNode AND() { return getToken(SVMParser.AND, 0); }
+		public TerminalNode OR() { return getToken(SVMParser.OR, 0); }
 		public TerminalNode STOREW() { return getToken(SVMParser.STOREW, 0); }
 		public TerminalNode LOADW() { return getToken(SVMParser.LOADW, 0); }
 		public TerminalNode COL() { return getToken(SVMParser.COL, 0); }
@@ -200,6 +218,17 @@ public class SVMParser extends Parser {
 		public TerminalNode LOADFP() { return getToken(SVMParser.LOADFP, 0); }
 		public TerminalNode STOREFP() { return getToken(SVMParser.STOREFP, 0); }
 		public TerminalNode COPYFP() { return getToken(SVMParser.COPYFP, 0); }
+		public TerminalNode DUP() { return getToken(SVMParser.DUP, 0); }
+		public TerminalNode ENTER() { return getToken(SVMParser.ENTER, 0); }
+		public TerminalNode RET() { return getToken(SVMParser.RET, 0); }
+		public TerminalNode LOADLOCAL() { return getToken(SVMParser.LOADLOCAL, 0); }
+		public TerminalNode STORELOCAL() { return getToken(SVMParser.STORELOCAL, 0); }
+		public TerminalNode LOADOUTER() { return getToken(SVMParser.LOADOUTER, 0); }
+		public TerminalNode COMMA() { return getToken(SVMParser.COMMA, 0); }
+		public TerminalNode LOADFIELD() { return getToken(SVMParser.LOADFIELD, 0); }
+		public TerminalNode LOADDISP() { return getToken(SVMParser.LOADDISP, 0); }
+		public TerminalNode STOREDISP() { return getToken(SVMParser.STOREDISP, 0); }
+		public TerminalNode RESTOREDISP() { return getToken(SVMParser.RESTOREDISP, 0); }
 		public TerminalNode LOADHP() { return getToken(SVMParser.LOADHP, 0); }
 		public TerminalNode STOREHP() { return getToken(SVMParser.STOREHP, 0); }
 		public TerminalNode PRINT() { return getToken(SVMParser.PRINT, 0); }
@@ -227,7 +256,7 @@ public class SVMParser extends Parser {
 		InstructionContext _localctx = new InstructionContext(_ctx, getState());
 		enterRule(_localctx, 2, RULE_instruction);
 		try {
-			setState(69);
+			setState(109);
 			_errHandler.sync(this);
 			switch ( getInterpreter().adaptivePredict(_input,1,_ctx) ) {
 			case 1:
@@ -296,153 +325,302 @@ public class SVMParser extends Parser {
 				enterOuterAlt(_localctx, 8);
 				{
 				setState(29);
-				match(STOREW);
-				code[i++] = STOREW;
+				match(EQUAL);
+				code[i++] = EQUAL;
 				}
 				break;
 			case 9:
 				enterOuterAlt(_localctx, 9);
 				{
 				setState(31);
-				match(LOADW);
-				code[i++] = LOADW;
+				match(LESSEQ);
+				code[i++] = LESSEQ;
 				}
 				break;
 			case 10:
 				enterOuterAlt(_localctx, 10);
 				{
 				setState(33);
-				((InstructionContext)_localctx).l = match(LABEL);
-				setState(34);
-				match(COL);
-				labelDef.put((((InstructionContext)_localctx).l!=null?((InstructionContext)_localctx).l.getText():null),i);
+				match(NOT);
+				code[i++] = NOT;
 				}
 				break;
 			case 11:
 				enterOuterAlt(_localctx, 11);
 				{
-				setState(36);
-				match(BRANCH);
-				setState(37);
-				((InstructionContext)_localctx).l = match(LABEL);
-				code[i++] = BRANCH;
-				                       labelRef.put(i++,(((InstructionContext)_localctx).l!=null?((InstructionContext)_localctx).l.getText():null));
+				setState(35);
+				match(AND);
+				code[i++] = AND;
 				}
 				break;
 			case 12:
 				enterOuterAlt(_localctx, 12);
 				{
-				setState(39);
-				match(BRANCHEQ);
-				setState(40);
-				((InstructionContext)_localctx).l = match(LABEL);
-				code[i++] = BRANCHEQ;
-				                        labelRef.put(i++,(((InstructionContext)_localctx).l!=null?((InstructionContext)_localctx).l.getText():null));
+				setState(37);
+				match(OR);
+				code[i++] = OR;
 				}
 				break;
 			case 13:
 				enterOuterAlt(_localctx, 13);
 				{
-				setState(42);
-				match(BRANCHLESSEQ);
-				setState(43);
-				((InstructionContext)_localctx).l = match(LABEL);
-				code[i++] = BRANCHLESSEQ;
-				                          labelRef.put(i++,(((InstructionContext)_localctx).l!=null?((InstructionContext)_localctx).l.getText():null));
+				setState(39);
+				match(STOREW);
+				code[i++] = STOREW;
 				}
 				break;
 			case 14:
 				enterOuterAlt(_localctx, 14);
 				{
-				setState(45);
-				match(JS);
-				code[i++] = JS;
+				setState(41);
+				match(LOADW);
+				code[i++] = LOADW;
 				}
 				break;
 			case 15:
 				enterOuterAlt(_localctx, 15);
 				{
-				setState(47);
-				match(LOADRA);
-				code[i++] = LOADRA;
+				setState(43);
+				((InstructionContext)_localctx).l = match(LABEL);
+				setState(44);
+				match(COL);
+				labelDef.put((((InstructionContext)_localctx).l!=null?((InstructionContext)_localctx).l.getText():null),i);
 				}
 				break;
 			case 16:
 				enterOuterAlt(_localctx, 16);
 				{
-				setState(49);
-				match(STORERA);
-				code[i++] = STORERA;
+				setState(46);
+				match(BRANCH);
+				setState(47);
+				((InstructionContext)_localctx).l = match(LABEL);
+				code[i++] = BRANCH;
+				                       labelRef.put(i++,(((InstructionContext)_localctx).l!=null?((InstructionContext)_localctx).l.getText():null));
 				}
 				break;
 			case 17:
 				enterOuterAlt(_localctx, 17);
 				{
-				setState(51);
-				match(LOADTM);
-				code[i++] = LOADTM;
+				setState(49);
+				match(BRANCHEQ);
+				setState(50);
+				((InstructionContext)_localctx).l = match(LABEL);
+				code[i++] = BRANCHEQ;
+				                        labelRef.put(i++,(((InstructionContext)_localctx).l!=null?((InstructionContext)_localctx).l.getText():null));
 				}
 				break;
 			case 18:
 				enterOuterAlt(_localctx, 18);
 				{
+				setState(52);
+				match(BRANCHLESSEQ);
 				setState(53);
-				match(STORETM);
-				code[i++] = STORETM;
+				((InstructionContext)_localctx).l = match(LABEL);
+				code[i++] = BRANCHLESSEQ;
+				                          labelRef.put(i++,(((InstructionContext)_localctx).l!=null?((InstructionContext)_localctx).l.getText():null));
 				}
 				break;
 			case 19:
 				enterOuterAlt(_localctx, 19);
 				{
 				setState(55);
-				match(LOADFP);
-				code[i++] = LOADFP;
+				match(JS);
+				code[i++] = JS;
 				}
 				break;
 			case 20:
 				enterOuterAlt(_localctx, 20);
 				{
 				setState(57);
-				match(STOREFP);
-				code[i++] = STOREFP;
+				match(LOADRA);
+				code[i++] = LOADRA;
 				}
 				break;
 			case 21:
 				enterOuterAlt(_localctx, 21);
 				{
 				setState(59);
-				match(COPYFP);
-				code[i++] = COPYFP;
+				match(STORERA);
+				code[i++] = STORERA;
 				}
 				break;
 			case 22:
 				enterOuterAlt(_localctx, 22);
 				{
 				setState(61);
-				match(LOADHP);
-				code[i++] = LOADHP;
+				match(LOADTM);
+				code[i++] = LOADTM;
 				}
 				break;
 			case 23:
 				enterOuterAlt(_localctx, 23);
 				{
 				setState(63);
-				match(STOREHP);
-				code[i++] = STOREHP;
+				match(STORETM);
+				code[i++] = STORETM;
 				}
 				break;
 			case 24:
 				enterOuterAlt(_localctx, 24);
 				{
 				setState(65);
-				match(PRINT);
-				code[i++] = PRINT;
+				match(LOADFP);
+				code[i++] = LOADFP;
 				}
 				break;
 			case 25:
 				enterOuterAlt(_localctx, 25);
 				{
 				setState(67);
+				match(STOREFP);
+				code[i++] = STOREFP;
+				}
+				break;
+			case 26:
+				enterOuterAlt(_localctx, 26);
+				{
+				setState(69);
+				match(COPYFP);
+				code[i++] = COPYFP;
+				}
+				break;
+			case 27:
+				enterOuterAlt(_localctx, 27);
+				{
+				setState(71);
+				match(DUP);
+				code[i++] = DUP;
+				}
+				break;
+			case 28:
+				enterOuterAlt(_localctx, 28);
+				{
+				setState(73);
+				match(ENTER);
+				code[i++] = ENTER;
+				}
+				break;
+			case 29:
+				enterOuterAlt(_localctx, 29);
+				{
+				setState(75);
+				match(RET);
+				setState(76);
+				((InstructionContext)_localctx).n = match(INTEGER);
+				code[i++] = RET;
+					                     code[i++] = Integer.parseInt((((InstructionContext)_localctx).n!=null?((InstructionContext)_localctx).n.getText():null));
+				}
+				break;
+			case 30:
+				enterOuterAlt(_localctx, 30);
+				{
+				setState(78);
+				match(LOADLOCAL);
+				setState(79);
+				((InstructionContext)_localctx).k = match(INTEGER);
+				code[i++] = LOADLOCAL;
+					                         code[i++] = Integer.parseInt((((InstructionContext)_localctx).k!=null?((InstructionContext)_localctx).k.getText():null));
+				}
+				break;
+			case 31:
+				enterOuterAlt(_localctx, 31);
+				{
+				setState(81);
+				match(STORELOCAL);
+				setState(82);
+				((InstructionContext)_localctx).k = match(INTEGER);
+				code[i++] = STORELOCAL;
+					                         code[i++] = Integer.parseInt((((InstructionContext)_localctx).k!=null?((InstructionContext)_localctx).k.getText():null));
+				}
+				break;
+			case 32:
+				enterOuterAlt(_localctx, 32);
+				{
+				setState(84);
+				match(LOADOUTER);
+				setState(85);
+				((InstructionContext)_localctx).d = match(INTEGER);
+				setState(86);
+				match(COMMA);
+				setState(87);
+				((InstructionContext)_localctx).k = match(INTEGER);
+				code[i++] = LOADOUTER;
+					                         code[i++] = Integer.parseInt((((InstructionContext)_localctx).d!=null?((InstructionContext)_localctx).d.getText():null));
+					                         code[i++] = Integer.parseInt((((InstructionContext)_localctx).k!=null?((InstructionContext)_localctx).k.getText():null));
+				}
+				break;
+			case 33:
+				enterOuterAlt(_localctx, 33);
+				{
+				setState(89);
+				match(LOADFIELD);
+				setState(90);
+				((InstructionContext)_localctx).k = match(INTEGER);
+				code[i++] = LOADFIELD;
+					                         code[i++] = Integer.parseInt((((InstructionContext)_localctx).k!=null?((InstructionContext)_localctx).k.getText():null));
+				}
+				break;
+			case 34:
+				enterOuterAlt(_localctx, 34);
+				{
+				setState(92);
+				match(LOADDISP);
+				setState(93);
+				((InstructionContext)_localctx).n = match(INTEGER);
+				code[i++] = LOADDISP;
+					                         code[i++] = Integer.parseInt((((InstructionContext)_localctx).n!=null?((InstructionContext)_localctx).n.getText():null));
+				}
+				break;
+			case 35:
+				enterOuterAlt(_localctx, 35);
+				{
+				setState(95);
+				match(STOREDISP);
+				setState(96);
+				((InstructionContext)_localctx).n = match(INTEGER);
+				code[i++] = STOREDISP;
+					                         code[i++] = Integer.parseInt((((InstructionContext)_localctx).n!=null?((InstructionContext)_localctx).n.getText():null));
+				}
+				break;
+			case 36:
+				enterOuterAlt(_localctx, 36);
+				{
+				setState(98);
+				match(RESTOREDISP);
+				setState(99);
+				((InstructionContext)_localctx).n = match(INTEGER);
+				code[i++] = RESTOREDISP;
+					                         code[i++] = Integer.parseInt((((InstructionContext)_localctx).n!=null?((InstructionContext)_localctx).n.getText():null));
+				}
+				break;
+			case 37:
+				enterOuterAlt(_localctx, 37);
+				{
+				setState(101);
+				match(LOADHP);
+				code[i++] = LOADHP;
+				}
+				break;
+			case 38:
+				enterOuterAlt(_localctx, 38);
+				{
+				setState(103);
+				match(STOREHP);
+				code[i++] = STOREHP;
+				}
+				break;
+			case 39:
+				enterOuterAlt(_localctx, 39);
+				{
+				setState(105);
+				match(PRINT);
+				code[i++] = PRINT;
+				}
+				break;
+			case 40:
+				enterOuterAlt(_localctx, 40);
+				{
+				setState(107);
 				match(HALT);
 				code[i++] = HALT;
 				}
@@ -461,9 +639,16 @@ public class SVMParser extends Parser {
 	}
 
 	public static final String _serializedATN =
-		"\u0004\u0001\u001dH\u0002\u0000\u0007\u0000\u0002\u0001\u0007\u0001\u0001"+
-		"\u0000\u0005\u0000\u0006\b\u0000\n\u0000\f\u0000\t\t\u0000\u0001\u0000"+
-		"\u0001\u0000\u0001\u0000\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001"+
+		"\u0004\u0001-p\u0002\u0000\u0007\u0000\u0002\u0001\u0007\u0001\u0001\u0000"+
+		"\u0005\u0000\u0006\b\u0000\n\u0000\f\u0000\t\t\u0000\u0001\u0000\u0001"+
+		"\u0000\u0001\u0000\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001"+
+		"\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001"+
+		"\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001"+
+		"\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001"+
+		"\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001"+
+		"\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001"+
+		"\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001"+
+		"\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001"+
 		"\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001"+
 		"\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001"+
 		"\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001"+
@@ -472,48 +657,68 @@ public class SVMParser extends Parser {
 		"\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001"+
 		"\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001"+
 		"\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001"+
-		"\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0001\u0003\u0001F\b\u0001"+
-		"\u0001\u0001\u0000\u0000\u0002\u0000\u0002\u0000\u0000^\u0000\u0007\u0001"+
-		"\u0000\u0000\u0000\u0002E\u0001\u0000\u0000\u0000\u0004\u0006\u0003\u0002"+
-		"\u0001\u0000\u0005\u0004\u0001\u0000\u0000\u0000\u0006\t\u0001\u0000\u0000"+
-		"\u0000\u0007\u0005\u0001\u0000\u0000\u0000\u0007\b\u0001\u0000\u0000\u0000"+
-		"\b\n\u0001\u0000\u0000\u0000\t\u0007\u0001\u0000\u0000\u0000\n\u000b\u0005"+
-		"\u0000\u0000\u0001\u000b\f\u0006\u0000\uffff\uffff\u0000\f\u0001\u0001"+
-		"\u0000\u0000\u0000\r\u000e\u0005\u0001\u0000\u0000\u000e\u000f\u0005\u001a"+
-		"\u0000\u0000\u000fF\u0006\u0001\uffff\uffff\u0000\u0010\u0011\u0005\u0001"+
-		"\u0000\u0000\u0011\u0012\u0005\u0019\u0000\u0000\u0012F\u0006\u0001\uffff"+
-		"\uffff\u0000\u0013\u0014\u0005\u0002\u0000\u0000\u0014F\u0006\u0001\uffff"+
-		"\uffff\u0000\u0015\u0016\u0005\u0003\u0000\u0000\u0016F\u0006\u0001\uffff"+
-		"\uffff\u0000\u0017\u0018\u0005\u0004\u0000\u0000\u0018F\u0006\u0001\uffff"+
-		"\uffff\u0000\u0019\u001a\u0005\u0005\u0000\u0000\u001aF\u0006\u0001\uffff"+
-		"\uffff\u0000\u001b\u001c\u0005\u0006\u0000\u0000\u001cF\u0006\u0001\uffff"+
-		"\uffff\u0000\u001d\u001e\u0005\u0007\u0000\u0000\u001eF\u0006\u0001\uffff"+
-		"\uffff\u0000\u001f \u0005\b\u0000\u0000 F\u0006\u0001\uffff\uffff\u0000"+
-		"!\"\u0005\u0019\u0000\u0000\"#\u0005\u0018\u0000\u0000#F\u0006\u0001\uffff"+
-		"\uffff\u0000$%\u0005\t\u0000\u0000%&\u0005\u0019\u0000\u0000&F\u0006\u0001"+
-		"\uffff\uffff\u0000\'(\u0005\n\u0000\u0000()\u0005\u0019\u0000\u0000)F"+
-		"\u0006\u0001\uffff\uffff\u0000*+\u0005\u000b\u0000\u0000+,\u0005\u0019"+
-		"\u0000\u0000,F\u0006\u0001\uffff\uffff\u0000-.\u0005\f\u0000\u0000.F\u0006"+
-		"\u0001\uffff\uffff\u0000/0\u0005\r\u0000\u00000F\u0006\u0001\uffff\uffff"+
-		"\u000012\u0005\u000e\u0000\u00002F\u0006\u0001\uffff\uffff\u000034\u0005"+
-		"\u000f\u0000\u00004F\u0006\u0001\uffff\uffff\u000056\u0005\u0010\u0000"+
-		"\u00006F\u0006\u0001\uffff\uffff\u000078\u0005\u0011\u0000\u00008F\u0006"+
-		"\u0001\uffff\uffff\u00009:\u0005\u0012\u0000\u0000:F\u0006\u0001\uffff"+
-		"\uffff\u0000;<\u0005\u0013\u0000\u0000<F\u0006\u0001\uffff\uffff\u0000"+
-		"=>\u0005\u0014\u0000\u0000>F\u0006\u0001\uffff\uffff\u0000?@\u0005\u0015"+
-		"\u0000\u0000@F\u0006\u0001\uffff\uffff\u0000AB\u0005\u0016\u0000\u0000"+
-		"BF\u0006\u0001\uffff\uffff\u0000CD\u0005\u0017\u0000\u0000DF\u0006\u0001"+
-		"\uffff\uffff\u0000E\r\u0001\u0000\u0000\u0000E\u0010\u0001\u0000\u0000"+
-		"\u0000E\u0013\u0001\u0000\u0000\u0000E\u0015\u0001\u0000\u0000\u0000E"+
-		"\u0017\u0001\u0000\u0000\u0000E\u0019\u0001\u0000\u0000\u0000E\u001b\u0001"+
-		"\u0000\u0000\u0000E\u001d\u0001\u0000\u0000\u0000E\u001f\u0001\u0000\u0000"+
-		"\u0000E!\u0001\u0000\u0000\u0000E$\u0001\u0000\u0000\u0000E\'\u0001\u0000"+
-		"\u0000\u0000E*\u0001\u0000\u0000\u0000E-\u0001\u0000\u0000\u0000E/\u0001"+
-		"\u0000\u0000\u0000E1\u0001\u0000\u0000\u0000E3\u0001\u0000\u0000\u0000"+
-		"E5\u0001\u0000\u0000\u0000E7\u0001\u0000\u0000\u0000E9\u0001\u0000\u0000"+
-		"\u0000E;\u0001\u0000\u0000\u0000E=\u0001\u0000\u0000\u0000E?\u0001\u0000"+
-		"\u0000\u0000EA\u0001\u0000\u0000\u0000EC\u0001\u0000\u0000\u0000F\u0003"+
-		"\u0001\u0000\u0000\u0000\u0002\u0007E";
+		"\u0001\u0001\u0001\u0003\u0001n\b\u0001\u0001\u0001\u0000\u0000\u0002"+
+		"\u0000\u0002\u0000\u0000\u0095\u0000\u0007\u0001\u0000\u0000\u0000\u0002"+
+		"m\u0001\u0000\u0000\u0000\u0004\u0006\u0003\u0002\u0001\u0000\u0005\u0004"+
+		"\u0001\u0000\u0000\u0000\u0006\t\u0001\u0000\u0000\u0000\u0007\u0005\u0001"+
+		"\u0000\u0000\u0000\u0007\b\u0001\u0000\u0000\u0000\b\n\u0001\u0000\u0000"+
+		"\u0000\t\u0007\u0001\u0000\u0000\u0000\n\u000b\u0005\u0000\u0000\u0001"+
+		"\u000b\f\u0006\u0000\uffff\uffff\u0000\f\u0001\u0001\u0000\u0000\u0000"+
+		"\r\u000e\u0005\u0001\u0000\u0000\u000e\u000f\u0005*\u0000\u0000\u000f"+
+		"n\u0006\u0001\uffff\uffff\u0000\u0010\u0011\u0005\u0001\u0000\u0000\u0011"+
+		"\u0012\u0005)\u0000\u0000\u0012n\u0006\u0001\uffff\uffff\u0000\u0013\u0014"+
+		"\u0005\u0002\u0000\u0000\u0014n\u0006\u0001\uffff\uffff\u0000\u0015\u0016"+
+		"\u0005\u0003\u0000\u0000\u0016n\u0006\u0001\uffff\uffff\u0000\u0017\u0018"+
+		"\u0005\u0004\u0000\u0000\u0018n\u0006\u0001\uffff\uffff\u0000\u0019\u001a"+
+		"\u0005\u0005\u0000\u0000\u001an\u0006\u0001\uffff\uffff\u0000\u001b\u001c"+
+		"\u0005\u0006\u0000\u0000\u001cn\u0006\u0001\uffff\uffff\u0000\u001d\u001e"+
+		"\u0005\u0007\u0000\u0000\u001en\u0006\u0001\uffff\uffff\u0000\u001f \u0005"+
+		"\b\u0000\u0000 n\u0006\u0001\uffff\uffff\u0000!\"\u0005\t\u0000\u0000"+
+		"\"n\u0006\u0001\uffff\uffff\u0000#$\u0005\n\u0000\u0000$n\u0006\u0001"+
+		"\uffff\uffff\u0000%&\u0005\u000b\u0000\u0000&n\u0006\u0001\uffff\uffff"+
+		"\u0000\'(\u0005\f\u0000\u0000(n\u0006\u0001\uffff\uffff\u0000)*\u0005"+
+		"\r\u0000\u0000*n\u0006\u0001\uffff\uffff\u0000+,\u0005)\u0000\u0000,-"+
+		"\u0005\'\u0000\u0000-n\u0006\u0001\uffff\uffff\u0000./\u0005\u000e\u0000"+
+		"\u0000/0\u0005)\u0000\u00000n\u0006\u0001\uffff\uffff\u000012\u0005\u000f"+
+		"\u0000\u000023\u0005)\u0000\u00003n\u0006\u0001\uffff\uffff\u000045\u0005"+
+		"\u0010\u0000\u000056\u0005)\u0000\u00006n\u0006\u0001\uffff\uffff\u0000"+
+		"78\u0005\u0011\u0000\u00008n\u0006\u0001\uffff\uffff\u00009:\u0005\u0012"+
+		"\u0000\u0000:n\u0006\u0001\uffff\uffff\u0000;<\u0005\u0013\u0000\u0000"+
+		"<n\u0006\u0001\uffff\uffff\u0000=>\u0005\u0014\u0000\u0000>n\u0006\u0001"+
+		"\uffff\uffff\u0000?@\u0005\u0015\u0000\u0000@n\u0006\u0001\uffff\uffff"+
+		"\u0000AB\u0005\u0016\u0000\u0000Bn\u0006\u0001\uffff\uffff\u0000CD\u0005"+
+		"\u0017\u0000\u0000Dn\u0006\u0001\uffff\uffff\u0000EF\u0005\u0018\u0000"+
+		"\u0000Fn\u0006\u0001\uffff\uffff\u0000GH\u0005\u0019\u0000\u0000Hn\u0006"+
+		"\u0001\uffff\uffff\u0000IJ\u0005\u001a\u0000\u0000Jn\u0006\u0001\uffff"+
+		"\uffff\u0000KL\u0005\u001b\u0000\u0000LM\u0005*\u0000\u0000Mn\u0006\u0001"+
+		"\uffff\uffff\u0000NO\u0005\u001c\u0000\u0000OP\u0005*\u0000\u0000Pn\u0006"+
+		"\u0001\uffff\uffff\u0000QR\u0005\u001d\u0000\u0000RS\u0005*\u0000\u0000"+
+		"Sn\u0006\u0001\uffff\uffff\u0000TU\u0005\u001e\u0000\u0000UV\u0005*\u0000"+
+		"\u0000VW\u0005(\u0000\u0000WX\u0005*\u0000\u0000Xn\u0006\u0001\uffff\uffff"+
+		"\u0000YZ\u0005\u001f\u0000\u0000Z[\u0005*\u0000\u0000[n\u0006\u0001\uffff"+
+		"\uffff\u0000\\]\u0005 \u0000\u0000]^\u0005*\u0000\u0000^n\u0006\u0001"+
+		"\uffff\uffff\u0000_`\u0005!\u0000\u0000`a\u0005*\u0000\u0000an\u0006\u0001"+
+		"\uffff\uffff\u0000bc\u0005\"\u0000\u0000cd\u0005*\u0000\u0000dn\u0006"+
+		"\u0001\uffff\uffff\u0000ef\u0005#\u0000\u0000fn\u0006\u0001\uffff\uffff"+
+		"\u0000gh\u0005$\u0000\u0000hn\u0006\u0001\uffff\uffff\u0000ij\u0005%\u0000"+
+		"\u0000jn\u0006\u0001\uffff\uffff\u0000kl\u0005&\u0000\u0000ln\u0006\u0001"+
+		"\uffff\uffff\u0000m\r\u0001\u0000\u0000\u0000m\u0010\u0001\u0000\u0000"+
+		"\u0000m\u0013\u0001\u0000\u0000\u0000m\u0015\u0001\u0000\u0000\u0000m"+
+		"\u0017\u0001\u0000\u0000\u0000m\u0019\u0001\u0000\u0000\u0000m\u001b\u0001"+
+		"\u0000\u0000\u0000m\u001d\u0001\u0000\u0000\u0000m\u001f\u0001\u0000\u0000"+
+		"\u0000m!\u0001\u0000\u0000\u0000m#\u0001\u0000\u0000\u0000m%\u0001\u0000"+
+		"\u0000\u0000m\'\u0001\u0000\u0000\u0000m)\u0001\u0000\u0000\u0000m+\u0001"+
+		"\u0000\u0000\u0000m.\u0001\u0000\u0000\u0000m1\u0001\u0000\u0000\u0000"+
+		"m4\u0001\u0000\u0000\u0000m7\u0001\u0000\u0000\u0000m9\u0001\u0000\u0000"+
+		"\u0000m;\u0001\u0000\u0000\u0000m=\u0001\u0000\u0000\u0000m?\u0001\u0000"+
+		"\u0000\u0000mA\u0001\u0000\u0000\u0000mC\u0001\u0000\u0000\u0000mE\u0001"+
+		"\u0000\u0000\u0000mG\u0001\u0000\u0000\u0000mI\u0001\u0000\u0000\u0000"+
+		"mK\u0001\u0000\u0000\u0000mN\u0001\u0000\u0000\u0000mQ\u0001\u0000\u0000"+
+		"\u0000mT\u0001\u0000\u0000\u0000mY\u0001\u0000\u0000\u0000m\\\u0001\u0000"+
+		"\u0000\u0000m_\u0001\u0000\u0000\u0000mb\u0001\u0000\u0000\u0000me\u0001"+
+		"\u0000\u0000\u0000mg\u0001\u0000\u0000\u0000mi\u0001\u0000\u0000\u0000"+
+		"mk\u0001\u0000\u0000\u0000n\u0003\u0001\u0000\u0000\u0000\u0002\u0007"+
+		"m";
 	public static final ATN _ATN =
 		new ATNDeserializer().deserialize(_serializedATN.toCharArray());
 	static {
@@ -1,37 +0,0 @@
-push 0
-push function0
-lfp
-push 5
-push 3
-lfp
-stm
-ltm
-ltm
-push -2
-add
-lw
-js
-print
-halt
-
-function0:
-cfp
-lra
-lfp
-push 1
-add
-lw
-lfp
-push 2
-add
-lw
-add
-stm
-sra
-pop
-pop
-pop
-sfp
-lfp
-lra
-js
\ No newline at end of file
@@ -1,18 +0,0 @@
-push 0
-push 0
-push 0
-beq label18
-push 0
-push 0
-beq label18
-push 1
-b label19
-label18:
-push 0
-label19:
-lfp
-push -2
-add
-lw
-print
-halt
\ No newline at end of file
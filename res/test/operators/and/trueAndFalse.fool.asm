@@ -1,18 +0,0 @@
-push 0
-push 1
-push 0
-beq label14
-push 0
-push 0
-beq label14
-push 1
-b label15
-label14:
-push 0
-label15:
-lfp
-push -2
-add
-lw
-print
-halt
\ No newline at end of file
@@ -1,15 +0,0 @@
-push 0
-push 5
-push 4
-bleq label22
-push 0
-b label23
-label22:
-push 1
-label23:
-lfp
-push -2
-add
-lw
-print
-halt
\ No newline at end of file
@@ -1,15 +0,0 @@
-push 0
-push 4
-push 4
-bleq label8
-push 0
-b label9
-label8:
-push 1
-label9:
-lfp
-push -2
-add
-lw
-print
-halt
\ No newline at end of file
@@ -1,10 +0,0 @@
-push 0
-push 10
-push -2
-sub
-lfp
-push -2
-add
-lw
-print
-halt
\ No newline at end of file
@@ -1,10 +0,0 @@
-push 0
-push 5
-push 3
-sub
-lfp
-push -2
-add
-lw
-print
-halt
\ No newline at end of file
@@ -1,15 +0,0 @@
-push 0
-push 0
-push 0
-beq label0
-push 0
-b label1
-label0:
-push 1
-label1:
-lfp
-push -2
-add
-lw
-print
-halt
\ No newline at end of file
@@ -1,15 +0,0 @@
-push 0
-push 1
-push 0
-beq label26
-push 0
-b label27
-label26:
-push 1
-label27:
-lfp
-push -2
-add
-lw
-print
-halt
\ No newline at end of file
@@ -1,18 +0,0 @@
-push 0
-push 1
-push 1
-beq label28
-push 1
-push 1
-beq label28
-push 0
-b label29
-label28:
-push 1
-label29:
-lfp
-push -2
-add
-lw
-print
-halt
\ No newline at end of file
@@ -46,6 +46,7 @@ public class AST {
 	 * @parameterlist lista dei parametri
 	 * @declarationlist lista delle dichiarazioni
 	 * @expression espressione principale
+	 * @entry entry della funzione nella symbol table
 	 */
 	public static class FunNode extends DecNode {
 		final String id;
@@ -53,6 +54,7 @@ public class AST {
 		final List<ParNode> parameterlist;
 		final List<DecNode> declarationlist;
 		final Node expression;
+		STentry entry;
 		FunNode(String i, TypeNode rt, List<ParNode> pl, List<DecNode> dl, Node e) {
             this.id = i;
             this.returnType = rt;
@@ -88,6 +90,7 @@ public class AST {
 	public static class VarNode extends DecNode {
 		final String id;
 		final Node expression;
+		STentry entry;
 		VarNode(String i, TypeNode t, Node v) {
             this.id = i;
             this.type = t;
@@ -221,6 +224,29 @@ public class AST {
 		public <S,E extends Exception> S accept(BaseASTVisitor<S,E> visitor) throws E {return visitor.visitNode(this);}
 	}
 
+	/**
+	 * Nodo introdotto dall'eliminazione delle sottoespressioni comuni: valuta l'espressione,
+	 * ne salva il valore nella variabile id (dichiarata dal compilatore nel frame corrente)
+	 * e lo restituisce, così che le occorrenze successive possano leggerla con un IdNode
+	 *
+	 * @id id della variabile
+	 * @expression espressione da valutare
+	 * @entry entry della variabile nella symbol table
+	 * @nl livello di annidamento
+	 */
+	public static class BindNode extends Node {
+		final String id;
+		final Node expression;
+		STentry entry;
+		int nestingLevel;
+		BindNode(String i, Node e) {
+            this.id = i;
+            this.expression = e;
+		}
+		@Override
+		public <S,E extends Exception> S accept(BaseASTVisitor<S,E> visitor) throws E {return visitor.visitNode(this);}
+	}
+
 	/**
 	 * Nodo per il valore boolean
 	 *
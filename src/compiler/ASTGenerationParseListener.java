@@ -0,0 +1,322 @@
+package compiler;
+
+import java.util.*;
+
+import org.antlr.v4.runtime.*;
+import org.antlr.v4.runtime.atn.PredictionMode;
+import org.antlr.v4.runtime.misc.ParseCancellationException;
+import org.antlr.v4.runtime.tree.TerminalNode;
+
+import compiler.AST.*;
+import compiler.FOOLParser.*;
+import compiler.lib.*;
+
+/**
+ * Costruisce l'AST durante il parsing, senza passare dal parse tree: è un parse listener che a ogni uscita
+ * da una regola crea il nodo dell'AST, con gli stessi valori e le stesse righe di ASTGenerationSTVisitor.
+ *
+ * Con setBuildParseTree(false) i contesti non vengono collegati al padre e diventano garbage appena
+ * la regola termina; ogni contesto conserva solo i propri token (ctx.ID(), ctx.TIMES(), ...), mentre i nodi
+ * delle sottoregole, già costruiti perché le uscite arrivano in post-ordine, stanno su uno stack.
+ * All'ingresso di ogni regola si segna l'altezza dello stack, quindi i figli di una regola sono i nodi sopra
+ * il segno; fanno eccezione gli operatori binari, in cui ANTLR (per la ricorsione sinistra) entra nella regola
+ * dopo aver costruito l'operando sinistro, che è quindi subito sotto il segno.
+ *
+ * Il parsing usa la predizione SLL e una BailErrorStrategy, così i token possono venire da uno
+ * UnbufferedTokenStream; al primo errore il listener si stacca dal parser, quindi non vede le uscite
+ * dalle regole interrotte e non riceve mai un contesto incompleto. Se c'è un errore di sintassi,
+ * o un input che SLL non sa predire, {@link #parse(FOOLParser)} restituisce null e bisogna rifare il parsing
+ * con il parse tree, che dà i soliti messaggi di errore.
+ */
+public class ASTGenerationParseListener extends FOOLBaseListener {
+
+	private final List<Node> nodes = new ArrayList<>();
+	private final Deque<Integer> marks = new ArrayDeque<>();
+
+	/**
+	 * Esegue il parsing del programma costruendo direttamente l'AST.
+	 *
+	 * @param parser parser su uno stream di token, che può essere uno UnbufferedTokenStream su una ChannelTokenSource
+	 * @return l'AST, null se il parsing è fallito
+	 */
+	public Node parse(FOOLParser parser) {
+		parser.setBuildParseTree(false);
+		parser.addParseListener(this);
+		parser.removeErrorListeners();
+		parser.setErrorHandler(new BailErrorStrategy() { // le regole interrotte escono comunque, nel finally
+			@Override
+			public void recover(Parser recognizer, RecognitionException e) {
+				recognizer.removeParseListener(ASTGenerationParseListener.this);
+				super.recover(recognizer, e);
+			}
+
+			@Override
+			public Token recoverInline(Parser recognizer) {
+				recognizer.removeParseListener(ASTGenerationParseListener.this);
+				return super.recoverInline(recognizer);
+			}
+		});
+		parser.getInterpreter().setPredictionMode(PredictionMode.SLL);
+		this.nodes.clear();
+		this.marks.clear();
+		try {
+			parser.prog();
+		} catch (ParseCancellationException e) {
+			return null;
+		} finally {
+			parser.removeParseListener(this);
+		}
+		return this.nodes.get(0);
+	}
+
+	@Override
+	public void enterEveryRule(ParserRuleContext ctx) {
+		this.marks.push(this.nodes.size());
+	}
+
+	@Override
+	public void exitEveryRule(ParserRuleContext ctx) {
+		this.marks.pop();
+	}
+
+	/**
+	 * @return i nodi delle sottoregole della regola corrente, tolti dallo stack
+	 */
+	private List<Node> children() {
+		List<Node> top = this.nodes.subList(this.marks.peek(), this.nodes.size());
+		List<Node> children = new ArrayList<>(top);
+		top.clear();
+		return children;
+	}
+
+	private Node pop() {
+		return this.nodes.remove(this.nodes.size() - 1);
+	}
+
+	private void push(Node node) {
+		this.nodes.add(node);
+	}
+
+	/**
+	 * I figli sono le dichiarazioni, prima le classi e poi le altre come in ASTGenerationSTVisitor,
+	 * seguite dall'espressione.
+	 */
+	@Override
+	public void exitLetInProg(LetInProgContext ctx) {
+		List<Node> children = this.children();
+		Node exp = children.remove(children.size() - 1);
+		List<DecNode> decList = new ArrayList<>();
+		for (Node declaration : children) decList.add((DecNode) declaration);
+		this.push(new ProgLetInNode(decList, exp));
+	}
+
+	@Override
+	public void exitNoDecProg(NoDecProgContext ctx) {
+		this.push(new ProgNode(this.pop()));
+	}
+
+	/**
+	 * I figli sono i tipi dei campi seguiti dai metodi.
+	 */
+	@Override
+	public void exitCldec(CldecContext ctx) {
+		List<Node> children = this.children();
+		Optional<String> superId = ctx.EXTENDS() == null ? Optional.empty() : Optional.of(ctx.ID(1).getText());
+		int idSuperPadding = superId.isPresent() ? 2 : 1;
+		List<FieldNode> fields = new ArrayList<>();
+		for (int i = idSuperPadding; i < ctx.ID().size(); i++) {
+			FieldNode f = new FieldNode(ctx.ID(i).getText(), (TypeNode) children.get(i - idSuperPadding));
+			f.setLine(ctx.ID(i).getSymbol().getLine());
+			fields.add(f);
+		}
+		List<MethodNode> methods = new ArrayList<>();
+		for (Node method : children.subList(fields.size(), children.size())) methods.add((MethodNode) method);
+		ClassNode classNode = new ClassNode(ctx.ID(0).getText(), superId, fields, methods);
+		classNode.setLine(ctx.ID(0).getSymbol().getLine());
+		this.push(classNode);
+	}
+
+	/**
+	 * I figli sono il tipo di ritorno, i tipi dei parametri, le dichiarazioni e il corpo.
+	 */
+	@Override
+	public void exitMethdec(MethdecContext ctx) {
+		List<Node> children = this.children();
+		List<ParNode> params = this.parameters(ctx.ID(), children);
+		MethodNode methodNode = new MethodNode(ctx.ID(0).getText(), (TypeNode) children.get(0), params,
+				this.declarations(children, params.size()), children.get(children.size() - 1));
+		methodNode.setLine(ctx.ID(0).getSymbol().getLine());
+		this.push(methodNode);
+	}
+
+	@Override
+	public void exitVardec(VardecContext ctx) {
+		Node exp = this.pop();
+		VarNode node = new VarNode(ctx.ID().getText(), (TypeNode) this.pop(), exp);
+		node.setLine(ctx.VAR().getSymbol().getLine());
+		this.push(node);
+	}
+
+	/**
+	 * I figli sono il tipo di ritorno, i tipi dei parametri, le dichiarazioni e il corpo.
+	 */
+	@Override
+	public void exitFundec(FundecContext ctx) {
+		List<Node> children = this.children();
+		List<ParNode> parametersList = this.parameters(ctx.ID(), children);
+		FunNode funNode = new FunNode(ctx.ID(0).getText(), (TypeNode) children.get(0), parametersList,
+				this.declarations(children, parametersList.size()), children.get(children.size() - 1));
+		funNode.setLine(ctx.FUN().getSymbol().getLine());
+		this.push(funNode);
+	}
+
+	/**
+	 * @param ids l'id della funzione o del metodo seguito da quelli dei parametri
+	 * @param children i figli, in cui i tipi dei parametri seguono il tipo di ritorno
+	 */
+	private List<ParNode> parameters(List<TerminalNode> ids, List<Node> children) {
+		List<ParNode> parameters = new ArrayList<>();
+		for (int i = 1; i < ids.size(); i++) {
+			ParNode p = new ParNode(ids.get(i).getText(), (TypeNode) children.get(i));
+			p.setLine(ids.get(i).getSymbol().getLine());
+			parameters.add(p);
+		}
+		return parameters;
+	}
+
+	/**
+	 * @return le dichiarazioni tra i tipi dei parametri e il corpo
+	 */
+	private List<DecNode> declarations(List<Node> children, int parameters) {
+		List<DecNode> declarations = new ArrayList<>();
+		for (Node declaration : children.subList(1 + parameters, children.size() - 1)) declarations.add((DecNode) declaration);
+		return declarations;
+	}
+
+	@Override
+	public void exitTimesDiv(TimesDivContext ctx) {
+		Node right = this.pop(), left = this.pop();
+		Node node = ctx.TIMES() != null ? new TimesNode(left, right) : new DivNode(left, right);
+		node.setLine((ctx.TIMES() != null ? ctx.TIMES() : ctx.DIV()).getSymbol().getLine());
+		this.push(node);
+	}
+
+	@Override
+	public void exitPlusMinus(PlusMinusContext ctx) {
+		Node right = this.pop(), left = this.pop();
+		Node node = ctx.PLUS() != null ? new PlusNode(left, right) : new MinusNode(left, right);
+		node.setLine((ctx.PLUS() != null ? ctx.PLUS() : ctx.MINUS()).getSymbol().getLine());
+		this.push(node);
+	}
+
+	@Override
+	public void exitComp(CompContext ctx) {
+		Node right = this.pop(), left = this.pop();
+		Node node;
+		if (ctx.EQ() != null) {
+			node = new EqualNode(left, right);
+			node.setLine(ctx.EQ().getSymbol().getLine());
+		} else if (ctx.LE() != null) {
+			node = new LessEqualNode(left, right);
+			node.setLine(ctx.LE().getSymbol().getLine());
+		} else {
+			node = new GreaterEqualNode(left, right);
+			node.setLine(ctx.GE().getSymbol().getLine());
+		}
+		this.push(node);
+	}
+
+	@Override
+	public void exitAndOr(AndOrContext ctx) {
+		Node right = this.pop(), left = this.pop();
+		Node node = ctx.OR() != null ? new OrNode(left, right) : new AndNode(left, right);
+		node.setLine((ctx.OR() != null ? ctx.OR() : ctx.AND()).getSymbol().getLine());
+		this.push(node);
+	}
+
+	@Override
+	public void exitNot(NotContext ctx) {
+		Node notNode = new NotNode(this.pop());
+		notNode.setLine(ctx.NOT().getSymbol().getLine());
+		this.push(notNode);
+	}
+
+	@Override
+	public void exitInteger(IntegerContext ctx) {
+		int v = Integer.parseInt(ctx.NUM().getText());
+		this.push(new IntNode(ctx.MINUS() == null ? v : -v));
+	}
+
+	@Override
+	public void exitTrue(TrueContext ctx) {
+		this.push(new BoolNode(true));
+	}
+
+	@Override
+	public void exitFalse(FalseContext ctx) {
+		this.push(new BoolNode(false));
+	}
+
+	@Override
+	public void exitNull(NullContext ctx) {
+		this.push(new EmptyNode());
+	}
+
+	@Override
+	public void exitNew(NewContext ctx) {
+		NewNode newNode = new NewNode(ctx.ID().getText(), this.children());
+		newNode.setLine(ctx.ID().getSymbol().getLine());
+		this.push(newNode);
+	}
+
+	@Override
+	public void exitIf(IfContext ctx) {
+		Node elseNode = this.pop(), thenNode = this.pop();
+		Node ifNode = new IfNode(this.pop(), thenNode, elseNode);
+		ifNode.setLine(ctx.IF().getSymbol().getLine());
+		this.push(ifNode);
+	}
+
+	@Override
+	public void exitPrint(PrintContext ctx) {
+		this.push(new PrintNode(this.pop()));
+	}
+
+	@Override
+	public void exitId(IdContext ctx) {
+		Node idNode = new IdNode(ctx.ID().getText());
+		idNode.setLine(ctx.ID().getSymbol().getLine());
+		this.push(idNode);
+	}
+
+	@Override
+	public void exitCall(CallContext ctx) {
+		Node callNode = new CallNode(ctx.ID().getText(), this.children());
+		callNode.setLine(ctx.ID().getSymbol().getLine());
+		this.push(callNode);
+	}
+
+	@Override
+	public void exitDotCall(DotCallContext ctx) {
+		ClassCallNode classCallNode = new ClassCallNode(ctx.ID(0).getText(), ctx.ID(1).getText(), this.children());
+		classCallNode.setLine(ctx.ID(0).getSymbol().getLine());
+		this.push(classCallNode);
+	}
+
+	@Override
+	public void exitIntType(IntTypeContext ctx) {
+		this.push(new IntTypeNode());
+	}
+
+	@Override
+	public void exitBoolType(BoolTypeContext ctx) {
+		this.push(new BoolTypeNode());
+	}
+
+	@Override
+	public void exitIdType(IdTypeContext ctx) {
+		RefTypeNode node = new RefTypeNode(ctx.ID().getText());
+		node.setLine(ctx.ID().getSymbol().getLine());
+		this.push(node);
+	}
+}
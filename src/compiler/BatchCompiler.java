@@ -0,0 +1,337 @@
+package compiler;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.stream.*;
+import org.antlr.v4.runtime.*;
+import compiler.lib.*;
+import compiler.exc.*;
+
+/**
+ * Compilatore da riga di comando: compila in parallelo tutti i file .fool indicati e scrive accanto
+ * a ciascuno il codice per la SVM, in assembly (.asm) o in binario (.bin, una parola di 4 byte big-endian
+ * per ogni cella di codice).
+ *
+ * Uso: java compiler.BatchCompiler [-j thread] [--binary] [--opt] [--cache directory [--cache-size byte]] percorso...
+ * Ogni percorso è un file, una directory (visitata ricorsivamente) o un glob come res/test/**.fool.
+ * Con --opt l'E-AST viene ottimizzato prima della generazione del codice; senza, il codice è quello di Test.
+ * Con --cache il codice dei file compilati senza errori viene salvato in una CompileCache: un file già visto
+ * con le stesse opzioni viene copiato dalla cache senza passare da lexer, parser e generazione del codice.
+ * I sorgenti vengono letti da un MappedCharStream, senza copiarli nello heap, e l'AST viene costruito durante
+ * il parsing da ASTGenerationParseListener, senza parse tree; solo i file con errori di sintassi vengono riletti
+ * con il parse tree, che dà i messaggi di errore.
+ *
+ * Ogni file viene compilato in isolamento, con una propria CompilerSession: i messaggi che lexer, parser
+ * e visitatori stampano vengono raccolti per file e stampati nell'ordine dei file, seguiti dal riepilogo
+ * degli errori di front-end. Il programma termina con codice 1 se un file non compila, 2 se gli argomenti
+ * non sono validi.
+ */
+public class BatchCompiler {
+
+	/**
+	 * Esito della compilazione di un file.
+	 *
+	 * @param file sorgente compilato
+	 * @param lexicalErrors numero di errori lessicali
+	 * @param syntaxErrors numero di errori di sintassi
+	 * @param stErrors numero di errori della symbol table
+	 * @param typeErrors numero di errori di tipo
+	 * @param log messaggi stampati durante la compilazione
+	 * @param failure eccezione che ha interrotto la compilazione, come da toString, null se non c'è stata
+	 * @param cached true se il codice è stato preso dalla cache
+	 */
+	public record Result(Path file, int lexicalErrors, int syntaxErrors, int stErrors, int typeErrors, String log, String failure,
+						 boolean cached) {
+		/**
+		 * @return il numero complessivo di errori di front-end
+		 */
+		public int frontEndErrors() {
+			return this.lexicalErrors + this.syntaxErrors + this.stErrors + this.typeErrors;
+		}
+
+		/**
+		 * @return true se il file è stato compilato senza errori né eccezioni
+		 */
+		public boolean succeeded() {
+			return this.frontEndErrors() == 0 && this.failure == null;
+		}
+	}
+
+	/**
+	 * Dimensione massima predefinita della cache, in byte.
+	 */
+	public static final long DEFAULT_CACHE_SIZE = 64L << 20;
+
+	private final boolean binary;
+	private final boolean optimize;
+	private final CompileCache cache;
+
+	public BatchCompiler(boolean binary, boolean optimize) {
+		this(binary, optimize, null);
+	}
+
+	/**
+	 * @param cache cache del codice compilato, null per compilare sempre
+	 */
+	public BatchCompiler(boolean binary, boolean optimize, CompileCache cache) {
+		this.binary = binary;
+		this.optimize = optimize;
+		this.cache = cache;
+	}
+
+	public static void main(String[] args) throws Exception {
+		int parallelism = Runtime.getRuntime().availableProcessors();
+		boolean binary = false, optimize = false;
+		String cacheDirectory = null;
+		long cacheSize = DEFAULT_CACHE_SIZE;
+		List<String> paths = new ArrayList<>();
+		for (int i = 0; i < args.length; i++) {
+			switch (args[i]) {
+				case "-j" -> {
+					if (i + 1 == args.length || !args[i + 1].matches("[1-9][0-9]*")) usage("-j needs a positive number of threads");
+					parallelism = Integer.parseInt(args[++i]);
+				}
+				case "--binary" -> binary = true;
+				case "--opt" -> optimize = true;
+				case "--cache" -> {
+					if (i + 1 == args.length) usage("--cache needs a directory");
+					cacheDirectory = args[++i];
+				}
+				case "--cache-size" -> {
+					if (i + 1 == args.length || !args[i + 1].matches("[1-9][0-9]*")) usage("--cache-size needs a positive number of bytes");
+					cacheSize = Long.parseLong(args[++i]);
+				}
+				default -> {
+					if (args[i].startsWith("-")) usage("Unknown option " + args[i]);
+					paths.add(args[i]);
+				}
+			}
+		}
+		if (paths.isEmpty()) usage("No files to compile");
+		List<Path> files = findSources(paths);
+		if (files.isEmpty()) usage("No .fool files found");
+
+		CompileCache cache = cacheDirectory == null ? null : new CompileCache(Paths.get(cacheDirectory), cacheSize);
+		long start = System.nanoTime();
+		List<Result> results = new BatchCompiler(binary, optimize, cache).compileAll(files, parallelism);
+		long elapsed = System.nanoTime() - start;
+
+		int failed = 0;
+		for (Result result : results) {
+			System.out.print(result.log());
+			System.out.println(result.file() + ": " + result.lexicalErrors() + " lexical, " + result.syntaxErrors() + " syntax, "
+					+ result.stErrors() + " symbol table, " + result.typeErrors() + " type errors"
+					+ (result.failure() != null ? ", failed: " + result.failure() : result.succeeded() ? "" : ", not compiled")
+				+ (result.cached() ? " (cached)" : ""));
+			if (!result.succeeded()) failed++;
+		}
+		System.out.printf("Compiled %d files (%d failed) with %d threads in %d ms: %.1f files/s.%n", files.size(), failed,
+				parallelism, elapsed / 1_000_000, files.size() / (elapsed / 1e9));
+		if (cache != null)
+			System.out.println("Cache: " + cache.hits + " hits, " + cache.misses + " misses, " + cache.evictions + " evicted files.");
+		System.exit(failed > 0 ? 1 : 0);
+	}
+
+	private static void usage(String error) {
+		System.err.println(error);
+		System.err.println("Usage: java compiler.BatchCompiler [-j threads] [--binary] [--opt] [--cache directory [--cache-size bytes]]"
+				+ " (file | directory | glob)...");
+		System.exit(2);
+	}
+
+	/**
+	 * @return i file .fool dei percorsi, senza duplicati e in ordine
+	 */
+	static List<Path> findSources(List<String> paths) throws IOException {
+		SortedSet<Path> files = new TreeSet<>();
+		for (String path : paths) {
+			if (path.contains("*") || path.contains("?") || path.contains("{")) {
+				PathMatcher matcher = FileSystems.getDefault().getPathMatcher("glob:" + path);
+				try (Stream<Path> walk = Files.walk(globRoot(path))) {
+					walk.filter(file -> Files.isRegularFile(file) && matcher.matches(file)).forEach(files::add);
+				}
+			} else if (Files.isDirectory(Paths.get(path))) {
+				try (Stream<Path> walk = Files.walk(Paths.get(path))) {
+					walk.filter(file -> Files.isRegularFile(file) && file.toString().endsWith(".fool")).forEach(files::add);
+				}
+			} else files.add(Paths.get(path));
+		}
+		return new ArrayList<>(files);
+	}
+
+	/**
+	 * @return la directory più profonda del glob che non contiene metacaratteri, da cui cercare i file
+	 */
+	private static Path globRoot(String glob) {
+		int wildcard = glob.length();
+		for (char c : new char[] {'*', '?', '{', '['})
+			if (glob.indexOf(c) >= 0) wildcard = Math.min(wildcard, glob.indexOf(c));
+		int slash = glob.lastIndexOf('/', wildcard);
+		return Paths.get(slash < 0 ? "" : glob.substring(0, slash + 1));
+	}
+
+	/**
+	 * Compila i file su un ForkJoinPool con il parallelismo dato.
+	 *
+	 * @return gli esiti nell'ordine dei file
+	 */
+	public List<Result> compileAll(List<Path> files, int parallelism) throws InterruptedException, ExecutionException {
+		PrintStream standardOutput = System.out;
+		ThreadOutput output = new ThreadOutput(standardOutput);
+		System.setOut(new PrintStream(output, true));
+		ForkJoinPool pool = new ForkJoinPool(parallelism);
+		try {
+			return pool.submit(() -> files.parallelStream().map(file -> {
+				output.capture();
+				Result result = this.compile(file);
+				return new Result(result.file(), result.lexicalErrors(), result.syntaxErrors(), result.stErrors(),
+						result.typeErrors(), output.release(), result.failure(), result.cached());
+			}).collect(Collectors.toList())).get();
+		} finally {
+			pool.shutdown();
+			System.setOut(standardOutput);
+		}
+	}
+
+	/**
+	 * Compila un file con una sessione nuova e scrive il codice generato se non ci sono errori;
+	 * se il codice è nella cache lo scrive senza compilare.
+	 */
+	Result compile(Path file) {
+		CompilerSession session = new CompilerSession();
+		FOOLScanner lexer = null;
+		FOOLParser parser = null;
+		SymbolTableASTVisitor symtableVisitor = new SymbolTableASTVisitor();
+		try {
+			MappedCharStream chars = MappedCharStream.fromPath(file);
+			String key = null;
+			if (this.cache != null) {
+				key = CompileCache.key(chars.getBytes(), (this.binary ? "binary" : "asm") + (this.optimize ? ",optimize" : ""));
+				byte[] cached = this.cache.get(key);
+				if (cached != null) {
+					Files.write(this.output(file), cached);
+					return new Result(file, 0, 0, 0, 0, "", null, true);
+				}
+			}
+			lexer = new FOOLScanner(chars, session.getSymbols());
+			parser = new FOOLParser(new UnbufferedTokenStream<>(new ChannelTokenSource(lexer)));
+			Node ast = new ASTGenerationParseListener().parse(parser);
+			if (ast == null) { // errore di sintassi: si rifà il parsing con il parse tree e la predizione LL, per i messaggi
+				chars.seek(0);
+				lexer = new FOOLScanner(chars, session.getSymbols());
+				parser = new FOOLParser(new CommonTokenStream(lexer));
+				parser.removeErrorListeners();
+				parser.addErrorListener(new BaseErrorListener() { // ConsoleErrorListener stampa su System.err
+					@Override
+					public void syntaxError(Recognizer<?, ?> recognizer, Object symbol, int line, int position, String message,
+											RecognitionException e) {
+						System.out.println("line " + line + ":" + position + " " + message);
+					}
+				});
+				ast = new ASTGenerationSTVisitor().visit(parser.prog());
+			}
+			for (String error : lexer.getErrors()) System.out.println(error);
+			if (lexer.lexicalErrors + parser.getNumberOfSyntaxErrors() == 0) {
+				symtableVisitor.visit(ast);
+				try {
+					new TypeCheckEASTVisitor(session).visit(ast);
+				} catch (IncomplException e) {
+					System.out.println("Could not determine main program expression type due to errors detected before type checking.");
+				} catch (TypeException e) {
+					System.out.println("Type checking error in main program expression: " + e.text);
+				}
+			}
+			if (lexer.lexicalErrors + parser.getNumberOfSyntaxErrors() + symtableVisitor.stErrors + session.getTypeErrors() == 0) {
+				byte[] code = this.generate(ast, session);
+				Files.write(this.output(file), code);
+				if (this.cache != null) this.cache.put(key, code);
+			}
+			return this.result(file, lexer, parser, symtableVisitor, session, null);
+		} catch (Exception | StackOverflowError e) {
+			return this.result(file, lexer, parser, symtableVisitor, session, e.toString());
+		}
+	}
+
+	private Result result(Path file, FOOLScanner lexer, FOOLParser parser, SymbolTableASTVisitor symtableVisitor,
+						  CompilerSession session, String failure) {
+		return new Result(file, lexer == null ? 0 : lexer.lexicalErrors, parser == null ? 0 : parser.getNumberOfSyntaxErrors(),
+				symtableVisitor.stErrors, session.getTypeErrors(), "", failure, false);
+	}
+
+	/**
+	 * @return il file in cui scrivere il codice del sorgente, accanto al sorgente
+	 */
+	private Path output(Path file) {
+		return Paths.get(file + (this.binary ? ".bin" : ".asm"));
+	}
+
+	/**
+	 * Se richiesto ottimizza l'E-AST, con tutte le trasformazioni AST-to-AST, e genera il codice.
+	 *
+	 * @return il contenuto del file .bin o .asm
+	 */
+	private byte[] generate(Node ast, CompilerSession session) throws IOException {
+		if (this.optimize) {
+			ast = new LambdaLiftingEASTVisitor().lift(ast);
+			ast = new InliningEASTVisitor(InliningEASTVisitor.DEFAULT_SIZE_THRESHOLD, InliningEASTVisitor.DEFAULT_BUDGET).inline(ast);
+			ast = new ConstantFoldingEASTVisitor().fold(ast);
+			ast = new PartialEvaluationEASTVisitor(PartialEvaluationEASTVisitor.DEFAULT_FUEL).evaluate(ast);
+			ast = new TreeShakingEASTVisitor().shake(ast);
+			ast = new CommonSubexpressionEliminationEASTVisitor().eliminate(ast);
+		}
+		CodeGenerationASTVisitor codeGenerationVisitor = new CodeGenerationASTVisitor(session, false);
+		codeGenerationVisitor.visit(ast);
+		if (!this.binary) return codeGenerationVisitor.getAssembly().getBytes(StandardCharsets.UTF_8);
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (DataOutputStream out = new DataOutputStream(bytes)) {
+			for (int word : codeGenerationVisitor.getCode()) out.writeInt(word);
+		}
+		return bytes.toByteArray();
+	}
+
+	/**
+	 * Destinazione di System.out che, per i thread che stanno compilando, raccoglie le stampe in un buffer
+	 * del thread invece di mescolarle con quelle degli altri file.
+	 */
+	private static class ThreadOutput extends OutputStream {
+		private final OutputStream standardOutput;
+		private final ThreadLocal<ByteArrayOutputStream> buffer = new ThreadLocal<>();
+
+		ThreadOutput(OutputStream standardOutput) {
+			this.standardOutput = standardOutput;
+		}
+
+		void capture() {
+			this.buffer.set(new ByteArrayOutputStream());
+		}
+
+		String release() {
+			String log = this.buffer.get().toString();
+			this.buffer.remove();
+			return log;
+		}
+
+		private OutputStream target() {
+			ByteArrayOutputStream captured = this.buffer.get();
+			return captured != null ? captured : this.standardOutput;
+		}
+
+		@Override
+		public void write(int b) throws IOException {
+			this.target().write(b);
+		}
+
+		@Override
+		public void write(byte[] bytes, int offset, int length) throws IOException {
+			this.target().write(bytes, offset, length);
+		}
+
+		@Override
+		public void flush() throws IOException {
+			this.target().flush();
+		}
+	}
+}
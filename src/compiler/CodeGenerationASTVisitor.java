@@ -4,75 +4,218 @@ import compiler.AST.*;
 import compiler.lib.*;
 import compiler.exc.*;
 import svm.ExecuteVM;
+import svm.SVMParser;
 
 import java.util.ArrayList;
 import java.util.List;
-
-import static compiler.lib.FOOLlib.*;
+import java.util.Map;
 
 public class CodeGenerationASTVisitor extends BaseASTVisitor<String, VoidException> {
 
-	private static final String HALT = "halt";
-    private static final String PUSH = "push ";
-	private static final String POP = "pop";
-	/**
-	 * Copia il valore di FP (Frame Pointer).
-	 * Il Frame Pointer viene utilizzato per tenere traccia del frame di attivazione corrente
-	 * o dell'ambiente di esecuzione di una subroutine o di una funzione.
-	 */
-	private static final String COPY_FP = "cfp";
+	private static final int HALT = SVMParser.HALT;
+    private static final int PUSH = SVMParser.PUSH;
+	/**
+	 * Duplica la cima dello stack.
+	 */
+	private static final int DUPLICATE = SVMParser.DUP;
+	/**
+	 * Prologo di una funzione: imposta il Frame Pointer sulla cima dello stack (l'Access Link)
+	 * e pusha il Return Address.
+	 */
+	private static final int ENTER = SVMParser.ENTER;
+	/**
+	 * Epilogo di una funzione: con il risultato in cima allo stack rimuove il frame (dichiarazioni locali,
+	 * Return Address, Access Link e il numero di parametri indicato), ripristina il Frame Pointer
+	 * dal Control Link, pusha il risultato e torna al Return Address.
+	 */
+	private static final int RETURN = SVMParser.RET;
+	private static final int JUMP_SUBROUTINE = SVMParser.JS;
+	private static final int PRINT = SVMParser.PRINT;
+	private static final int BRANCH_EQUAL = SVMParser.BRANCHEQ;
+	private static final int BRANCH = SVMParser.BRANCH;
+	private static final int MULT = SVMParser.MULT;
+	private static final int ADD = SVMParser.ADD;
+	private static final int LOAD_WORD = SVMParser.LOADW; //Carica la parola dallo stack.
+	private static final int LOAD_FP = SVMParser.LOADFP; //Carica il valore di FP.
+	private static final int SUB = SVMParser.SUB;
+	private static final int DIV = SVMParser.DIV;
+	private static final int BRANCH_LESS_EQUAL = SVMParser.BRANCHLESSEQ; //Salto se il primo valore in cima allo stack è minore o uguale al secondo.
+	private static final int EQUAL = SVMParser.EQUAL;             //Pusha 1 se i due valori in cima allo stack sono uguali, 0 altrimenti.
+	private static final int LESS_EQUAL = SVMParser.LESSEQ;       //Pusha 1 se il secondo valore è minore o uguale al primo, 0 altrimenti.
+	private static final int NOT = SVMParser.NOT;
+	private static final int AND = SVMParser.AND;
+	private static final int OR = SVMParser.OR;
+	private static final int LOAD_HEAP_POINTER = SVMParser.LOADHP;
+	private static final int STORE_WORD = SVMParser.STOREW;
+	private static final int STORE_HP = SVMParser.STOREHP;
+	private static final int LOAD_LOCAL = SVMParser.LOADLOCAL;    //Pusha il valore a un offset del frame corrente.
+	private static final int STORE_LOCAL = SVMParser.STORELOCAL;  //Salva il valore poppato a un offset del frame corrente.
+	private static final int LOAD_OUTER = SVMParser.LOADOUTER;    //Risale un numero di Access Link e pusha il valore a un offset di quel frame.
+	private static final int LOAD_FIELD = SVMParser.LOADFIELD;    //Pusha il valore a un offset dall'indirizzo poppato (campo di un oggetto o dispatch table).
+	private static final int LOAD_DISPLAY = SVMParser.LOADDISP;       //Pusha il frame pointer registrato nel display per un nesting level.
+	private static final int STORE_DISPLAY = SVMParser.STOREDISP;      //Salva l'elemento del display e lo sostituisce con il valore poppato.
+	private static final int RESTORE_DISPLAY = SVMParser.RESTOREDISP;    //Ripristina l'ultimo valore salvato dell'elemento del display.
+
 	/**
-	 * Carica il valore di RA (Return Address).
-	 * Il Return Address indica il punto nel programma da cui è stata chiamata una funzione.
+	 * Le dispatch tables delle classi.
+	 * Ogni dispatch tables è un elenco di etichette, una per ciascun metodo della classe.
 	 */
-	private static final String LOAD_RA = "lra";
+	private final List<List<String>> dispatchTables = new ArrayList<>();
+
 	/**
-	 * Memorizza il valore in TM (Temporary Memory).
-	 * TM è utilizzato per memorizzare temporaneamente valori durante l'esecuzione
-	 * di un programma, come operazioni intermedie o area di lavoro per operazioni temporanee.
+	 * Buffer in cui i visitNode emettono il codice binario, nell'ordine in cui va eseguito.
+	 * Le visite restituiscono null: dopo la visita della radice il codice si ottiene con
+	 * {@link #getCode()} e, se serve, la sua forma testuale con {@link #getAssembly()}.
 	 */
-	private static final String STORE_TM = "stm";
+	private final CodeEmitter code = new CodeEmitter();
+
 	/**
-	 * Memorizza il valore in RA (Return Address).
-	 * Il Return Address indica il punto nel programma da cui è stata chiamata una funzione.
+	 * Se true gli id dichiarati a un nesting level inferiore vengono raggiunti con il display
+	 * (un accesso a tempo costante) invece di risalire la catena degli Access Link con una lw per livello.
+	 * Ogni funzione registra il proprio frame nel display all'ingresso e ripristina il valore precedente
+	 * all'uscita; i metodi registrano anche l'oggetto, che fa da frame per i campi al nesting level 1.
 	 */
-	private static final String STORE_RA = "sra";
+	private final boolean display;
+
 	/**
-	 * Memorizza il valore in FP (Frame Pointer).
-	 * Il Frame Pointer tiene traccia del frame di attivazione corrente
-	 * o dell'ambiente di esecuzione di una subroutine o di una funzione.
+	 * Sessione di compilazione da cui prendere le etichette.
 	 */
-	private static final String STORE_FP = "sfp";
+	private final CompilerSession session;
+
 	/**
-	 * Carica il valore di TM (Temporary Memory).
-	 * TM è utilizzato per memorizzare temporaneamente valori durante l'esecuzione
-	 * di un programma, come operazioni intermedie o area di lavoro per operazioni temporanee.
+	 * Codice di una dichiarazione globale generato separatamente dal resto del programma, con le etichette
+	 * prefissate dal suo id: si può riaccodare a un altro programma in cui la dichiarazione e quelle che
+	 * la precedono hanno le stesse intestazioni, come fa IncrementalCompiler.
+	 *
+	 * @param code codice che alloca la dichiarazione nel frame globale
+	 * @param functionCode codice delle funzioni e dei metodi della dichiarazione
+	 * @param dispatchTable per una classe le etichette della sua dispatch table, null altrimenti
 	 */
-	private static final String LOAD_TM = "ltm";
-	private static final String JUMP_SUBROUTINE = "js";
-	private static final String PRINT = "print";
-	private static final String BRANCH_EQUAL = "beq ";
-	private static final String BRANCH = "b ";
-	private static final String MULT = "mult";
-	private static final String ADD = "add";
-	private static final String LOAD_WORD = "lw"; //Carica la parola dallo stack.
-	private static final String LOAD_FP = "lfp"; //Carica il valore di FP.
-	private static final String SUB = "sub";
-	private static final String DIV = "div";
-	private static final String BRANCH_LESS_EQUAL = "bleq "; //Salto se il primo valore in cima allo stack è minore o uguale al secondo.
-	private static final String LOAD_HEAP_POINTER = "lhp";
-	private static final String STORE_WORD = "sw";
-	private static final String STORE_HP = "shp";
+	public record Declaration(CodeEmitter.Chunk code, List<CodeEmitter.Chunk> functionCode, List<String> dispatchTable) {}
 
 	/**
-	 * Le dispatch tables delle classi.
-	 * Ogni dispatch tables è un elenco di etichette, una per ciascun metodo della classe.
+	 * Se non è null, il codice delle dichiarazioni globali: quelle presenti non vengono rigenerate,
+	 * le altre vengono generate con {@link #generate(DecNode)} e aggiunte.
 	 */
-	private final List<List<String>> dispatchTables = new ArrayList<>();
+	private final Map<Node, Declaration> declarations;
 
     public CodeGenerationASTVisitor() {
+		this(false);
     }
 
+    public CodeGenerationASTVisitor(boolean display) {
+		this(new CompilerSession(), display);
+    }
+
+    public CodeGenerationASTVisitor(CompilerSession session, boolean display) {
+		this(session, display, null);
+    }
+
+    public CodeGenerationASTVisitor(CompilerSession session, boolean display, Map<Node, Declaration> declarations) {
+		this.session = session;
+		this.display = display;
+		this.declarations = declarations;
+    }
+
+
+	/**
+	 * @return il codice binario generato, da eseguire con ExecuteVM
+	 */
+	public int[] getCode() {
+		return this.code.getCode();
+	}
+
+	/**
+	 * @return il codice generato in forma testuale, da scrivere nel file .asm
+	 */
+	public String getAssembly() {
+		return this.code.disassemble();
+	}
+
+	private void emit(int... opcodes) {
+		this.code.emit(opcodes);
+	}
+
+	private void emitPush(int value) {
+		this.code.emitArgument(PUSH, value);
+	}
+
+	private void emitPush(String label) {
+		this.code.emitLabelArgument(PUSH, label);
+	}
+
+	private void emitJump(int branch, String label) {
+		this.code.emitLabelArgument(branch, label);
+	}
+
+	private void emitLabel(String label) {
+		this.code.defineLabel(label);
+	}
+
+	/**
+	 * Genera il codice di una dichiarazione globale con un visitatore a parte, che vede le dispatch table
+	 * delle classi già generate e prende le etichette da una sessione con l'id della dichiarazione come prefisso.
+	 *
+	 * @param declaration dichiarazione globale
+	 * @return il codice della dichiarazione
+	 */
+	private Declaration generate(DecNode declaration) {
+		String id = declaration instanceof FunNode funNode ? funNode.id
+				: declaration instanceof VarNode varNode ? varNode.id : ((ClassNode) declaration).classId;
+		CodeGenerationASTVisitor visitor = new CodeGenerationASTVisitor(new CompilerSession(id), this.display);
+		visitor.dispatchTables.addAll(this.dispatchTables);
+		visitor.visit(declaration);
+		return new Declaration(visitor.code.getMainCode(), visitor.code.getFunctionCode(),
+				declaration instanceof ClassNode ? visitor.dispatchTables.get(visitor.dispatchTables.size() - 1) : null);
+	}
+
+	/**
+	 * Accoda il codice di una dichiarazione globale generato da {@link #generate(DecNode)}.
+	 *
+	 * @param declaration codice della dichiarazione
+	 */
+	private void emit(Declaration declaration) {
+		this.code.emit(declaration.code());
+		for (CodeEmitter.Chunk function : declaration.functionCode()) this.code.putFunctionCode(function);
+		if (declaration.dispatchTable() != null) this.dispatchTables.add(declaration.dispatchTable());
+	}
+
+	/**
+	 * Emette il codice che pusha l'indirizzo del frame in cui è dichiarato un id.
+	 *
+	 * @param nestingLevel nesting level dell'uso dell'id
+	 * @param declarationLevel nesting level della dichiarazione dell'id
+	 */
+	private void emitFrameAddress(int nestingLevel, int declarationLevel) {
+		if (this.display && nestingLevel > declarationLevel) {
+			this.code.emitArgument(LOAD_DISPLAY, declarationLevel);
+			return;
+		}
+		this.emit(LOAD_FP);
+		for (int i = 0; i < nestingLevel - declarationLevel; i++) this.emit(LOAD_WORD);
+	}
+
+	/**
+	 * Emette il codice che pusha il valore di un id, con un'unica istruzione che indirizza il frame
+	 * in cui è dichiarato: lloc per il frame corrente, louter per un frame esterno raggiunto con gli
+	 * Access Link (i campi letti nel corpo di un metodo sono nel frame esterno dato dall'oggetto),
+	 * ldisp seguita da lfld quando si usa il display.
+	 *
+	 * @param nestingLevel nesting level dell'uso dell'id
+	 * @param declarationLevel nesting level della dichiarazione dell'id
+	 * @param offset offset dell'id nel frame (o nell'oggetto)
+	 */
+	private void emitLoad(int nestingLevel, int declarationLevel, int offset) {
+		if (nestingLevel == declarationLevel) {
+			this.code.emitArgument(LOAD_LOCAL, offset);
+		} else if (this.display) {
+			this.code.emitArgument(LOAD_DISPLAY, declarationLevel);
+			this.code.emitArgument(LOAD_FIELD, offset);
+		} else {
+			this.code.emitArguments(LOAD_OUTER, nestingLevel - declarationLevel, offset);
+		}
+	}
+
 	/*
 	 * i metodi seguenti sono i visitatori che attraversano l'Abstract Syntax Tree generato dal parser
 	 */
@@ -80,394 +223,468 @@ public class CodeGenerationASTVisitor extends BaseASTVisitor<String, VoidExcepti
 	/**
 	 *
 	 * @param node ProgLetInNode
-	 * @return codice generato
+	 * @return null, il codice generato per l'intero programma si ottiene con getCode()
 	 */
     @Override
     public String visitNode(ProgLetInNode node) {
         if (this.print) this.printNode(node);
-        String declarationCode = null;
-        for (Node dec : node.declarationlist) declarationCode = nlJoin(declarationCode, this.visit(dec));
-        return nlJoin(
-                PUSH + 0,      //push un valore fittizio sullo stack
-                declarationCode,      //genera il codice per la dichiarazione e lo alloca
-                this.visit(node.exp), //genera il codice per l'espressione
-                HALT,                 //istruzione halt
-                getCode()             //recupera il codice generato per le funzioni
-        );
+        if (this.display) {                                       //registra il frame globale nel display
+            this.emit(LOAD_FP);
+            this.code.emitArgument(STORE_DISPLAY, 0);
+        }
+        this.emitPush(0);                                         //push un valore fittizio sullo stack
+        for (DecNode dec : node.declarationlist)                  //genera il codice per la dichiarazione e lo alloca
+            if (this.declarations == null) this.visit(dec);
+            else this.emit(this.declarations.computeIfAbsent(dec, d -> this.generate(dec)));
+        this.visit(node.exp);                                     //genera il codice per l'espressione
+        this.emit(HALT);                                          //istruzione halt, il codice delle funzioni segue
+        return null;
     }
 
 	/**
 	 *
 	 * @param node ProgNode
-	 * @return codice generato
+	 * @return null, il codice generato per l'intero programma si ottiene con getCode()
 	 */
     @Override
     public String visitNode(ProgNode node) {
         if (this.print) this.printNode(node);
-        return nlJoin(
-                this.visit(node.expression),
-                HALT   //interrompe l'esecuzione del programma
-        );
+        this.visit(node.expression);
+        this.emit(HALT);   //interrompe l'esecuzione del programma
+        return null;
     }
 
 	/**
+	 * Il codice delle dichiarazioni locali viene generato prima di scegliere l'etichetta della funzione,
+	 * così le funzioni annidate ricevono le etichette nello stesso ordine di sempre.
 	 *
 	 * @param node FunNode
-	 * @return codice generato
+	 * @return null
 	 */
     @Override
     public String visitNode(FunNode node) {
 		if (this.print) this.printNode(node, node.id);
-		String declarationListCode = null;
-		String popDeclarationsList = null;
-		String popParametersList = null;
-		for (Node declaration : node.declarationlist) {
-			declarationListCode = nlJoin(declarationListCode, this.visit(declaration));
-			popDeclarationsList = nlJoin(popDeclarationsList, POP);
-		}
-		for (final ParNode ignored : node.parameterlist) popParametersList = nlJoin(popParametersList, POP);
-        String functionLabel = freshFunLabel();
-        putCode(
-                nlJoin(
-                        functionLabel + ":",
-                        COPY_FP,                     // imposta il frame-pointer sul valore dello stack-pointer
-                        LOAD_RA,                     // carica il return address
-                        declarationListCode,         // generate code for local declarations (they use the new $fp!!!)
-                        this.visit(node.expression), // generate code for function body expression
-                        STORE_TM,                    // set $tm to popped value (function result)
-                        popDeclarationsList,         // remove local declarations from stack
-                        STORE_RA,                    // set $ra to popped value
-                        POP,                         // remove Access Link from stack
-                        popParametersList,           // remove parameters from stack
-                        STORE_FP,                    // set $fp to popped value (Control Link)
-                        LOAD_TM,                     // load $tm value (function result)
-                        LOAD_RA,                     // load $ra value
-                        JUMP_SUBROUTINE              // jump to to popped address
-                )
-        );
-        return PUSH + functionLabel;
+		this.code.open();
+		for (Node declaration : node.declarationlist) this.visit(declaration);
+		CodeEmitter.Chunk declarationListCode = this.code.close();
+        String functionLabel = this.session.freshFunLabel();
+        int bodyLevel = node.entry.nl + 1;
+        this.code.open();
+        this.emitLabel(functionLabel);
+        this.emit(ENTER);                   // imposta il frame-pointer sul valore dello stack-pointer e salva il return address
+        if (this.display) {                 // registra il frame nel display
+            this.emit(LOAD_FP);
+            this.code.emitArgument(STORE_DISPLAY, bodyLevel);
+        }
+        this.code.emit(declarationListCode); // generate code for local declarations (they use the new $fp!!!)
+        this.visit(node.expression);        // generate code for function body expression
+        if (this.display) this.code.emitArgument(RESTORE_DISPLAY, bodyLevel);
+        this.code.emitArgument(RETURN, node.parameterlist.size()); // remove the frame, restore $fp from the Control Link
+                                            // and jump to $ra, leaving the function result on the stack
+        this.code.putFunctionCode(this.code.close());
+        this.emitPush(functionLabel);
+        return null;
     }
 
 	/**
 	 *
 	 * @param node VarNode
-	 * @return codice generato
+	 * @return null
 	 */
     @Override
     public String visitNode(VarNode node) {
         if (this.print) this.printNode(node, node.id);
-        return this.visit(node.expression);  // generate code for the expression
+        this.visit(node.expression);  // generate code for the expression
+        return null;
     }
 
 	/**
 	 *
 	 * @param node PrintNode
-	 * @return codice generato
+	 * @return null
 	 */
     @Override
     public String visitNode(PrintNode node) {
         if (this.print) this.printNode(node);
-        return nlJoin(
-                this.visit(node.expression),
-                PRINT
-        );
+        this.visit(node.expression);
+        this.emit(PRINT);
+        return null;
     }
 
 	/**
+	 * La condizione viene compilata come jumping code: salta direttamente al ramo then
+	 * se è vera, altrimenti prosegue nel ramo else, senza materializzare il booleano.
 	 *
 	 * @param node IfNode
-	 * @return codice generato
+	 * @return null
 	 */
     @Override
     public String visitNode(IfNode node) {
         if (this.print) this.printNode(node);
-        String l1 = freshLabel();
-        String l2 = freshLabel();
-        return nlJoin(
-                this.visit(node.cond),
-                PUSH + 1,
-                BRANCH_EQUAL + l1,
-                this.visit(node.elseNode),
-                BRANCH + l2,
-                l1 + ":",
-                this.visit(node.thenNode),
-                l2 + ":"
-        );
+        String thenLabel = this.session.freshLabel();
+        String endLabel = this.session.freshLabel();
+        this.jumpIfTrue(node.cond, thenLabel);
+        this.visit(node.elseNode);
+        this.emitJump(BRANCH, endLabel);
+        this.emitLabel(thenLabel);
+        this.visit(node.thenNode);
+        this.emitLabel(endLabel);
+        return null;
     }
 
+	/*
+	 * jumping code per le condizioni: i metodi seguenti generano codice che salta all'etichetta
+	 * data quando la condizione ha il valore atteso e prosegue con l'istruzione successiva altrimenti.
+	 * Le etichette vengono propagate dentro EqualNode, LessEqualNode, GreaterEqualNode,
+	 * NotNode, AndNode e OrNode; le altre espressioni vengono valutate e confrontate con 1.
+	 */
+
+	/**
+	 * Emette il codice che salta a trueLabel se la condizione è vera.
+	 *
+	 * @param condition espressione booleana
+	 * @param trueLabel etichetta a cui saltare se la condizione è vera
+	 */
+	private void jumpIfTrue(Node condition, String trueLabel) {
+		if (condition instanceof BoolNode boolNode) {
+			if (boolNode.value) this.emitJump(BRANCH, trueLabel);
+		} else if (condition instanceof EqualNode equalNode) {
+			this.visit(equalNode.left);
+			this.visit(equalNode.right);
+			this.emitJump(BRANCH_EQUAL, trueLabel);
+		} else if (condition instanceof LessEqualNode lessEqualNode) {
+			this.visit(lessEqualNode.left);
+			this.visit(lessEqualNode.right);
+			this.emitJump(BRANCH_LESS_EQUAL, trueLabel);
+		} else if (condition instanceof GreaterEqualNode greaterEqualNode) {
+			this.visit(greaterEqualNode.right);
+			this.visit(greaterEqualNode.left);
+			this.emitJump(BRANCH_LESS_EQUAL, trueLabel);
+		} else if (condition instanceof NotNode notNode) {
+			this.jumpIfFalse(notNode.expression, trueLabel);
+		} else if (condition instanceof AndNode andNode) {
+			String skipLabel = this.session.freshLabel();
+			this.jumpIfFalse(andNode.left, skipLabel);  //se il sinistro è falso l'AND è falso
+			this.jumpIfTrue(andNode.right, trueLabel);
+			this.emitLabel(skipLabel);
+		} else if (condition instanceof OrNode orNode) {
+			this.jumpIfTrue(orNode.left, trueLabel);
+			this.jumpIfTrue(orNode.right, trueLabel);
+		} else {
+			this.visit(condition);
+			this.emitPush(1);
+			this.emitJump(BRANCH_EQUAL, trueLabel);
+		}
+	}
+
+	/**
+	 * Emette il codice che salta a falseLabel se la condizione è falsa.
+	 *
+	 * @param condition espressione booleana
+	 * @param falseLabel etichetta a cui saltare se la condizione è falsa
+	 */
+	private void jumpIfFalse(Node condition, String falseLabel) {
+		if (condition instanceof BoolNode boolNode) {
+			if (!boolNode.value) this.emitJump(BRANCH, falseLabel);
+		} else if (condition instanceof EqualNode equalNode) {
+			String skipLabel = this.session.freshLabel();
+			this.visit(equalNode.left);
+			this.visit(equalNode.right);
+			this.emitJump(BRANCH_EQUAL, skipLabel);
+			this.emitJump(BRANCH, falseLabel);
+			this.emitLabel(skipLabel);
+		} else if (condition instanceof LessEqualNode lessEqualNode) {
+			String skipLabel = this.session.freshLabel();
+			this.visit(lessEqualNode.left);
+			this.visit(lessEqualNode.right);
+			this.emitJump(BRANCH_LESS_EQUAL, skipLabel);
+			this.emitJump(BRANCH, falseLabel);
+			this.emitLabel(skipLabel);
+		} else if (condition instanceof GreaterEqualNode greaterEqualNode) {
+			String skipLabel = this.session.freshLabel();
+			this.visit(greaterEqualNode.right);
+			this.visit(greaterEqualNode.left);
+			this.emitJump(BRANCH_LESS_EQUAL, skipLabel);
+			this.emitJump(BRANCH, falseLabel);
+			this.emitLabel(skipLabel);
+		} else if (condition instanceof NotNode notNode) {
+			this.jumpIfTrue(notNode.expression, falseLabel);
+		} else if (condition instanceof AndNode andNode) {
+			this.jumpIfFalse(andNode.left, falseLabel);
+			this.jumpIfFalse(andNode.right, falseLabel);
+		} else if (condition instanceof OrNode orNode) {
+			String skipLabel = this.session.freshLabel();
+			this.jumpIfTrue(orNode.left, skipLabel);    //se il sinistro è vero l'OR è vero
+			this.jumpIfFalse(orNode.right, falseLabel);
+			this.emitLabel(skipLabel);
+		} else {
+			this.visit(condition);
+			this.emitPush(0);
+			this.emitJump(BRANCH_EQUAL, falseLabel);
+		}
+	}
+
 	/**
 	 *
 	 * @param node EqualNode
-	 * @return codice generato
+	 * @return null
 	 */
     @Override
     public String visitNode(EqualNode node) {
         if (this.print) this.printNode(node);
-        String trueLabel = freshLabel();
-        String falseLabel = freshLabel();
-        return nlJoin(
-                this.visit(node.left),
-                this.visit(node.right),
-                BRANCH_EQUAL + trueLabel,
-                PUSH + 0,
-                BRANCH + falseLabel,
-                trueLabel + ":",
-                PUSH + 1,
-                falseLabel + ":"
-        );
+        this.visit(node.left);
+        this.visit(node.right);
+        this.emit(EQUAL);
+        return null;
     }
 
 	/**
 	 *
 	 * @param node OrNode
-	 * @return codice generato
+	 * @return null
 	 */
 	@Override
 	public String visitNode(OrNode node) {
 		if (this.print) this.printNode(node);
-		String trueLabel = freshLabel();
-		String endLabel = freshLabel();
-		return nlJoin(
-				this.visit(node.left),
-				PUSH + 1,
-				BRANCH_EQUAL + trueLabel,
-				this.visit(node.right),
-				PUSH + 1,
-				BRANCH_EQUAL + trueLabel,
-				PUSH + 0,
-				BRANCH + endLabel,
-				trueLabel + ":",
-				PUSH + 1,
-				endLabel + ":"
-		);
+		if (isSideEffectFree(node.right)) {
+			this.visit(node.left);
+			this.visit(node.right);
+			this.emit(OR);
+			return null;
+		}
+		// la valutazione del destro può avere effetti: si mantiene il corto circuito
+		String trueLabel = this.session.freshLabel();
+		String endLabel = this.session.freshLabel();
+		this.jumpIfTrue(node.left, trueLabel);
+		this.visit(node.right);
+		this.emitJump(BRANCH, endLabel);
+		this.emitLabel(trueLabel);
+		this.emitPush(1);
+		this.emitLabel(endLabel);
+		return null;
 	}
 
 	/**
 	 *
 	 * @param node AndNode
-	 * @return codice generato
+	 * @return null
 	 */
 	@Override
 	public String visitNode(AndNode node) {
 		if (this.print) this.printNode(node);
-		String falseLabel = freshLabel();
-		String endLabel = freshLabel();
-		return nlJoin(
-				this.visit(node.left),
-				PUSH + 0,
-				BRANCH_EQUAL + falseLabel,
-				this.visit(node.right),
-				PUSH + 0,
-				BRANCH_EQUAL + falseLabel,
-				PUSH + 1,
-				BRANCH + endLabel,
-				falseLabel + ":",
-				PUSH + 0,
-				endLabel + ":"
-		);
+		if (isSideEffectFree(node.right)) {
+			this.visit(node.left);
+			this.visit(node.right);
+			this.emit(AND);
+			return null;
+		}
+		// la valutazione del destro può avere effetti: si mantiene il corto circuito
+		String falseLabel = this.session.freshLabel();
+		String endLabel = this.session.freshLabel();
+		this.jumpIfFalse(node.left, falseLabel);
+		this.visit(node.right);
+		this.emitJump(BRANCH, endLabel);
+		this.emitLabel(falseLabel);
+		this.emitPush(0);
+		this.emitLabel(endLabel);
+		return null;
 	}
 
 	/**
 	 *
 	 * @param node NotNode
-	 * @return codice generato
+	 * @return null
 	 */
 	@Override
 	public String visitNode(NotNode node) {
 		if (this.print) this.printNode(node);
-		String itWasFalseLabel = freshLabel();
-		String endLabel = freshLabel();
-		return nlJoin(
-				this.visit(node.expression),
-				PUSH + 0,
-				BRANCH_EQUAL + itWasFalseLabel,
-				PUSH + 0,
-				BRANCH + endLabel,
-				itWasFalseLabel + ":",
-				PUSH + 1,
-				endLabel + ":"
-		);
+		this.visit(node.expression);
+		this.emit(NOT);
+		return null;
+	}
+
+	/**
+	 * Indica se un'espressione può essere valutata senza effetti osservabili (stampe, chiamate
+	 * che potrebbero non terminare, divisioni per zero), e quindi anche quando il corto circuito
+	 * di AND e OR l'avrebbe saltata.
+	 *
+	 * @param node espressione
+	 * @return true se la valutazione non ha effetti
+	 */
+	static boolean isSideEffectFree(Node node) {
+		if (node instanceof IntNode || node instanceof BoolNode || node instanceof EmptyNode || node instanceof IdNode)
+			return true;
+		if (node instanceof NotNode notNode) return isSideEffectFree(notNode.expression);
+		if (node instanceof EqualNode n) return isSideEffectFree(n.left) && isSideEffectFree(n.right);
+		if (node instanceof LessEqualNode n) return isSideEffectFree(n.left) && isSideEffectFree(n.right);
+		if (node instanceof GreaterEqualNode n) return isSideEffectFree(n.left) && isSideEffectFree(n.right);
+		if (node instanceof AndNode n) return isSideEffectFree(n.left) && isSideEffectFree(n.right);
+		if (node instanceof OrNode n) return isSideEffectFree(n.left) && isSideEffectFree(n.right);
+		if (node instanceof PlusNode n) return isSideEffectFree(n.left) && isSideEffectFree(n.right);
+		if (node instanceof MinusNode n) return isSideEffectFree(n.left) && isSideEffectFree(n.right);
+		if (node instanceof TimesNode n) return isSideEffectFree(n.left) && isSideEffectFree(n.right);
+		return false;
 	}
 
 	/**
 	 *
 	 * @param node TimesNode
-	 * @return codice generato
+	 * @return null
 	 */
     @Override
     public String visitNode(TimesNode node) {
         if (this.print) this.printNode(node);
-        return nlJoin(
-                this.visit(node.left),
-                this.visit(node.right),
-                MULT
-        );
+        this.visit(node.left);
+        this.visit(node.right);
+        this.emit(MULT);
+        return null;
     }
 
 	/**
 	 *
 	 * @param node PlusNode
-	 * @return codice generato
+	 * @return null
 	 */
     @Override
     public String visitNode(PlusNode node) {
         if (this.print) this.printNode(node);
-        return nlJoin(
-                this.visit(node.left),
-                this.visit(node.right),
-                ADD
-        );
+        this.visit(node.left);
+        this.visit(node.right);
+        this.emit(ADD);
+        return null;
     }
 
 	/**
 	 *
 	 * @param node CallNode
-	 * @return codice generato
+	 * @return null
 	 */
     @Override
     public String visitNode(CallNode node) {
         if (this.print) this.printNode(node, node.id);
-        String argumentCode = null;
-		String getAR = null;
-		final String loadARAddress = node.entry.type instanceof MethodTypeNode ? LOAD_WORD : "";
-        for (int i = node.argumentList.size() - 1; i >= 0; i--) argumentCode = nlJoin(argumentCode, this.visit(node.argumentList.get(i)));
-        for (int i = 0; i < node.nestingLevel - node.entry.nl; i++) getAR = nlJoin(getAR, LOAD_WORD);
-        return nlJoin(
-				LOAD_FP,            //carica il Control Link (che è un puntatore all'id del chiamante)
-				argumentCode,              //genera il codice per gli argomenti delle espressione in ordine inverso
-				LOAD_FP,
-				getAR,                     //restituisce l'indirizzo del frame contenente l'id della dichiarazione
-				                           // seguendo la static chain (dell'access link)
-				STORE_TM,                  //setta il valore poppato nella temporary memory (con l'obiettivo di duplicare la cima dello stack
-				LOAD_TM,                   //carica l'Access Link (il puntatore al frame dell'id della dichiarazione della funzione
-				LOAD_TM,                   //duplica la cima dello stack
-				loadARAddress,
-				PUSH + node.entry.offset,
-				ADD,                       //calcola l'indirizzo dell'id della dichiarazione
-				LOAD_WORD,                 //carica l'indirizzo dell'id della funzione
-				JUMP_SUBROUTINE            //saltare all'indirizzo a cui abbiamo fatto la pop (salvando l'indirizzo alla seguente istruzione nel return address
-		);
+        this.emit(LOAD_FP);                 //carica il Control Link (che è un puntatore all'id del chiamante)
+        for (int i = node.argumentList.size() - 1; i >= 0; i--)
+            this.visit(node.argumentList.get(i)); //genera il codice per gli argomenti delle espressione in ordine inverso
+        this.emitFrameAddress(node.nestingLevel, node.entry.nl); //restituisce l'indirizzo del frame contenente l'id della dichiarazione
+                                           // seguendo la static chain (dell'access link) o il display
+        this.emit(DUPLICATE);               //duplica l'Access Link (il puntatore al frame dell'id della dichiarazione della funzione)
+		if (node.entry.type instanceof MethodTypeNode) this.emit(LOAD_WORD); //per un metodo si passa alla dispatch table
+		this.code.emitArgument(LOAD_FIELD, node.entry.offset); //carica l'indirizzo della funzione dall'id della dichiarazione
+		this.emit(JUMP_SUBROUTINE);         //saltare all'indirizzo a cui abbiamo fatto la pop (salvando l'indirizzo alla seguente istruzione nel return address
+        return null;
     }
 
 	/**
 	 *
 	 * @param node IdNode
-	 * @return codice generato
+	 * @return null
 	 */
     @Override
     public String visitNode(IdNode node) {
         if (this.print) this.printNode(node, node.id);
-        String getAR = null;
-        for (int i = 0; i < node.nestingLevel - node.entry.nl; i++) getAR = nlJoin(getAR, LOAD_WORD);
-        return nlJoin(
-                LOAD_FP, getAR,     // retrieve address of frame containing "id" declaration
-                                           // by following the static chain (of Access Links)
-                PUSH + node.entry.offset,
-				ADD,                       // compute address of "id" declaration
-                LOAD_WORD                  // load value of "id" variable
-        );
+        this.emitLoad(node.nestingLevel, node.entry.nl, node.entry.offset); // load value of "id" variable from the frame
+                                           // containing its declaration (reached via Access Links or the display)
+        return null;
     }
 
+	/**
+	 *
+	 * @param node BindNode
+	 * @return null
+	 */
+	@Override
+	public String visitNode(BindNode node) {
+		if (this.print) this.printNode(node, node.id);
+		this.visit(node.expression);
+		this.emit(DUPLICATE);               //Il valore resta in cima allo stack come risultato
+		this.code.emitArgument(STORE_LOCAL, node.entry.offset); //La copia va nella variabile, dichiarata nel frame corrente
+		return null;
+	}
+
 	/**
 	 *
 	 * @param node BoolNode
-	 * @return codice generato
+	 * @return null
 	 */
     @Override
     public String visitNode(BoolNode node) {
         if (this.print) this.printNode(node, node.value.toString());
-        return PUSH + (node.value ? 1 : 0);
+        this.emitPush(node.value ? 1 : 0);
+        return null;
     }
 
 	/**
 	 *
 	 * @param node IntNode
-	 * @return codice generato
+	 * @return null
 	 */
     @Override
     public String visitNode(IntNode node) {
         if (this.print) this.printNode(node, node.value.toString());
-        return PUSH + node.value;
+        this.emitPush(node.value);
+        return null;
     }
 
 	/**
 	 *
 	 * @param node MinusNode
-	 * @return codice generato
+	 * @return null
 	 */
 	@Override
 	public String visitNode(MinusNode node) {
 		if (this.print) this.printNode(node);
-		return nlJoin(
-                this.visit(node.left),
-                this.visit(node.right),
-				SUB
-		);
+		this.visit(node.left);
+		this.visit(node.right);
+		this.emit(SUB);
+		return null;
 	}
 
 	/**
 	 *
 	 * @param node DivNode
-	 * @return codice generato
+	 * @return null
 	 */
 	@Override
 	public String visitNode(DivNode node) {
 		if (this.print) this.printNode(node);
-		return nlJoin(
-                this.visit(node.left),
-                this.visit(node.right),
-				DIV
-		);
+		this.visit(node.left);
+		this.visit(node.right);
+		this.emit(DIV);
+		return null;
 	}
 
 	/**
 	 *
 	 * @param node LessEqualNode
-	 * @return codice generato
+	 * @return null
 	 */
 	@Override
 	public String visitNode(LessEqualNode node) {
 		if (this.print) this.printNode(node);
-		String trueLabel = freshLabel();
-		String endLabel = freshLabel();
-		return nlJoin(
-                this.visit(node.left),       //visita il valore e lo pusha nella cima dello stack
-                this.visit(node.right),             //visita il valore e lo pusha nella cima dello stack
-				BRANCH_LESS_EQUAL + trueLabel,      //se il primo è minore o uguale al secondo salta all'etichetta trueLabel
-				PUSH + 0,                           //se è maggiore pusha 0 (false) nella cima dello stack
-				BRANCH + endLabel,                  //e termina, saltando alla endLabel
-				trueLabel + ":",                    //se è minore uguale
-				PUSH + 1,                           //pusha 1 (true) nella cima dello stack
-				endLabel + ":"                      //termina
-		);
+		this.visit(node.left);              //visita il valore e lo pusha nella cima dello stack
+		this.visit(node.right);             //visita il valore e lo pusha nella cima dello stack
+		this.emit(LESS_EQUAL);              //pusha 1 (true) se il primo è minore o uguale al secondo, 0 (false) altrimenti
+		return null;
 	}
 
 	/**
 	 *
 	 * @param node GreaterEqualNode
-	 * @return codice generato
+	 * @return null
 	 */
 	@Override
 	public String visitNode(GreaterEqualNode node) {
 		if (this.print) this.printNode(node);
-		String trueLabel = freshLabel();
-		String endLabel = freshLabel();
-		return nlJoin(
-                this.visit(node.right),
-                this.visit(node.left),
-				BRANCH_LESS_EQUAL + trueLabel,
-				PUSH + 0,
-				BRANCH + endLabel,
-				trueLabel + ":",
-				PUSH + 1,
-				endLabel + ":"
-		);
+		this.visit(node.right);
+		this.visit(node.left);
+		this.emit(LESS_EQUAL);
+		return null;
 	}
 
 	/**
 	 *
 	 * @param node ClassNode
-	 * @return codice generato
+	 * @return null
 	 */
 	@Override
 	public String visitNode(ClassNode node) {
@@ -487,142 +704,125 @@ public class CodeGenerationASTVisitor extends BaseASTVisitor<String, VoidExcepti
 			else
 				dispatchTable.add(methodEntry.label);
 		}
-		String createDispatchTable = null;
+		this.emit(LOAD_HEAP_POINTER);      //push heap pointer, l'indirizzo della dispatch table
 		for (final String label : dispatchTable) {
-			createDispatchTable = nlJoin(
-					createDispatchTable,    //memorizza l'etichetta del metodo nel'heap
-					PUSH + label,                  //pusha l'etichetta del metodo
+			this.emitPush(label);          //memorizza l'etichetta del metodo nel'heap
+			this.emit(
 					LOAD_HEAP_POINTER,             //pusha il puntatore dell'heap
 					STORE_WORD,                    //memorizza l'etichetta del metodo nell'heap
-					LOAD_HEAP_POINTER,             //pusha il puntatore dell'heap
-					PUSH + 1,                      //pusha 1
+					LOAD_HEAP_POINTER              //pusha il puntatore dell'heap
+			);
+			this.emitPush(1);
+			this.emit(
 					ADD,                           //incrementa il puntatore dell'heap
 					STORE_HP                       //memorizza il puntatore dell'heap
 			);
 		}
-		return nlJoin(
-				LOAD_HEAP_POINTER,     //push heap pointer, l'indirizzo della dispatch table
-				createDispatchTable           //codice generato per creare la dispatch table nell'heap
-		);
+		return null;
 	}
 
 	/**
 	 *
 	 * @param node MethodNode
-	 * @return codice generato
+	 * @return null
 	 */
 	@Override
 	public String visitNode(MethodNode node) {
 		if (this.print) this.printNode(node);
-		String declarationListCode = null;
-		String popDeclarationsList = null;
-		String popParametersList = null;
-		for (final DecNode declaration : node.declarationList) {
-			declarationListCode = nlJoin(declarationListCode, this.visit(declaration));
-			popDeclarationsList = nlJoin(popDeclarationsList, POP);
-		}
-		for (final ParNode ignored : node.parameterList) popParametersList = nlJoin(popParametersList, POP);
-		String methodLabel = freshFunLabel();
+		this.code.open();
+		for (final DecNode declaration : node.declarationList) this.visit(declaration);
+		CodeEmitter.Chunk declarationListCode = this.code.close();
+		String methodLabel = this.session.freshFunLabel();
 		node.label = methodLabel;
-		putCode(
-				nlJoin(
-						methodLabel + ":",
-						COPY_FP,                     //setta il frame-pointer con il valore dello stack-pointer
-						LOAD_RA,                     //carica il valore del return address
-						declarationListCode,         // genera il codice per le dichiarazioni locali usando un nuovo frame pointer
-                        this.visit(node.expression), //genera il codice per il corpo dell'espressione della funzione
-						STORE_TM,                    //setta la memoria temporanea al valore poppato, quindi con il risultato della funzione
-						popDeclarationsList,         //rimuove le dichiarazioni locali dallo stack
-						STORE_RA,                    //setta il return address al valore poppato
-						POP,                         //rimuove l'Access Link dallo stack
-						popParametersList,           //rimuove il parametri dallo stack
-						STORE_FP,                    //setta il frame pointer al valore poppato, ovvero il control Link
-						LOAD_TM,                     //carica il valore della memoria temporanea con il risultato della funzione
-						LOAD_RA,                     //carica il valore nel return access
-						JUMP_SUBROUTINE              //salta all'indirizzo poppato
-				)
-		);
+		this.code.open();
+		this.emitLabel(methodLabel);
+		this.emit(ENTER);                   //setta il frame-pointer con il valore dello stack-pointer e salva il return address
+		if (this.display) {
+			this.emit(LOAD_FP, LOAD_WORD);  //registra nel display l'oggetto (l'Access Link del metodo)
+			this.code.emitArgument(STORE_DISPLAY, 1);
+			this.emit(LOAD_FP);             //e il frame del metodo
+			this.code.emitArgument(STORE_DISPLAY, 2);
+		}
+		this.code.emit(declarationListCode); // genera il codice per le dichiarazioni locali usando un nuovo frame pointer
+		this.visit(node.expression);        //genera il codice per il corpo dell'espressione della funzione
+		if (this.display) {
+			this.code.emitArgument(RESTORE_DISPLAY, 2);
+			this.code.emitArgument(RESTORE_DISPLAY, 1);
+		}
+		this.code.emitArgument(RETURN, node.parameterList.size()); //rimuove il frame, ripristina il frame pointer dal control Link
+		                                    //e salta al return address lasciando il risultato sullo stack
+		this.code.putFunctionCode(this.code.close());
 		return null;
 	}
 
 	/**
 	 *
 	 * @param node NewNode
-	 * @return codice generato
+	 * @return null
 	 */
 	@Override
 	public String visitNode(NewNode node) {
 		if (this.print) this.printNode(node, node.classId);
-		String putArgumentsOnStack = "";
-		String loadArgumentsOnHeap = "";
-		for (final Node argument : node.argumentList) putArgumentsOnStack = nlJoin(putArgumentsOnStack, this.visit(argument));
-		for (final Node ignored : node.argumentList) {
-			loadArgumentsOnHeap = nlJoin(
-					loadArgumentsOnHeap,
+		for (final Node argument : node.argumentList) this.visit(argument); //Aggiunge il codice per valutare gli argomenti
+		for (final Node ignored : node.argumentList) {                      //Aggiunge il codice per spostare gli argomenti sull'heap
+			this.emit(
 					LOAD_HEAP_POINTER,              //pusha il puntatore dell'heap
 					STORE_WORD,                     //memorizza l'etichetta della new nell'heap
-					LOAD_HEAP_POINTER,              //pusha il puntatore dell'heap
-					PUSH + 1,                       //pusha 1 per incrementarlo
+					LOAD_HEAP_POINTER               //pusha il puntatore dell'heap
+			);
+			this.emitPush(1);                   //pusha 1 per incrementarlo
+			this.emit(
 					ADD,
 					STORE_HP                        //lo memorizza sull'heap pointer
 			);
 		}
-		return nlJoin(
-				putArgumentsOnStack,                    //Aggiunge il codice per valutare gli argomenti
-				loadArgumentsOnHeap,                           //Aggiunge il codice per spostare gli argomenti sull'heap
-				PUSH + (ExecuteVM.MEMSIZE
-						+ node.classSymbolTableEntry.offset),  //Pusha l'indirizzo dell'entry point nella VM
+		this.emitPush(ExecuteVM.MEMSIZE
+				+ node.classSymbolTableEntry.offset);          //Pusha l'indirizzo dell'entry point nella VM
+		this.emit(
 				LOAD_WORD,                                     //Carica il valore dall'indirizzo specificato (entry point)
 				LOAD_HEAP_POINTER,                             //Carica il puntatore all'heap
 				STORE_WORD,                                    //Memorizza il valore (entry point) nell'heap
 				LOAD_HEAP_POINTER,                             //Carica il puntatore all'heap
-				LOAD_HEAP_POINTER,                             //Carica il puntatore all'heap nuovamente
-				PUSH + 1,                                      //Pusha 1 per incrementarlo
+				LOAD_HEAP_POINTER                              //Carica il puntatore all'heap nuovamente
+		);
+		this.emitPush(1);                                      //Pusha 1 per incrementarlo
+		this.emit(
 				ADD,
 				STORE_HP                                       //Memorizza il nuovo valore del puntatore all'heap
 		);
+		return null;
 	}
 
 	/**
 	 *
 	 * @param node EmptyNode
-	 * @return codice generato
+	 * @return null
 	 */
 	@Override
 	public String visitNode(EmptyNode node) {
 		if (this.print) this.printNode(node);
-		return PUSH + -1;
+		this.emitPush(-1);
+		return null;
 	}
 
 	/**
 	 *
 	 * @param node ClassCallNode
-	 * @return codice generato
+	 * @return null
 	 */
 	@Override
 	public String visitNode(ClassCallNode node) {
 		if (this.print) this.printNode(node, node.objectId);
-		String argumentCode = null;
-		String getARCode = null;
+		this.emit(LOAD_FP);                 //Carica il Control Link (puntatore al frame della funzione chiamante di "id")
 		for (int i = node.argumentList.size() - 1; i >= 0; i--)
-			argumentCode = nlJoin(argumentCode, this.visit(node.argumentList.get(i)));
-		for (int i = 0; i < node.nestingLevel - node.symbolTableEntry.nl; i++)
-			getARCode = nlJoin(getARCode, LOAD_WORD);
-		return nlJoin(
-				LOAD_FP,             //Carica il Control Link (puntatore al frame della funzione chiamante di "id")
-				argumentCode,               //Genera il codice per le espressioni degli argomenti nell'ordine invertito
-				LOAD_FP, getARCode,
-				PUSH + node.symbolTableEntry.offset,
-				ADD,                        //Calcola l'indirizzo della dichiarazione di "id"
-				LOAD_WORD,                  //Carica l'indirizzo della funzione "id"
-				STORE_TM,                   //Imposta la memoria temporanea al valore estratto (con l'obiettivo di duplicare la cima dello stack)
-				LOAD_TM,                    //Carica l'Access Link (puntatore al frame della dichiarazione della funzione "id")
-				LOAD_TM,                    //Duplica la cima dello stack
-				LOAD_WORD,                  //Carica l'indirizzo della tabella di dispatch
-				PUSH + node.methodEntry.offset,
-				ADD,
-				LOAD_WORD,                  //Carica l'indirizzo del metodo
-				JUMP_SUBROUTINE             //Salta all'indirizzo estratto (salvando l'indirizzo dell'istruzione successiva in $ra)
+			this.visit(node.argumentList.get(i)); //Genera il codice per le espressioni degli argomenti nell'ordine invertito
+		this.emitLoad(node.nestingLevel, node.symbolTableEntry.nl, node.symbolTableEntry.offset); //Carica l'oggetto "id"
+		this.emit(
+				DUPLICATE,                  //Duplica l'Access Link (puntatore all'oggetto)
+				LOAD_WORD                   //Carica l'indirizzo della tabella di dispatch
 		);
+		this.code.emitArgument(LOAD_FIELD, node.methodEntry.offset); //Carica l'indirizzo del metodo
+		this.emit(JUMP_SUBROUTINE);         //Salta all'indirizzo estratto (salvando l'indirizzo dell'istruzione successiva in $ra)
+		return null;
 	}
-}
\ No newline at end of file
+}
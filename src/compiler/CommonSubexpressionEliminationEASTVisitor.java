@@ -0,0 +1,427 @@
+package compiler;
+
+import compiler.AST.*;
+import compiler.lib.*;
+
+import java.util.*;
+
+/**
+ * Trasformazione AST-to-AST che evita di rivalutare le sottoespressioni pure già calcolate:
+ * la prima valutazione salva il valore in una variabile introdotta dal compilatore nel frame
+ * della funzione, del metodo o del programma (un BindNode), le successive la leggono (un IdNode).
+ * Va eseguita dopo TypeCheckEASTVisitor su un E-AST senza errori; l'AST restituito da
+ * {@link #eliminate(Node)} è già arricchito di nuovo.
+ *
+ * Una funzione o un metodo è puro se non può arrivare, nemmeno attraverso altre chiamate, a una
+ * print o a una new: allocare non modifica lo stato, ma l'uguaglianza tra oggetti confronta gli
+ * indirizzi, quindi due new non sono la stessa espressione. Una chiamata di metodo è pura se lo
+ * sono tutti i metodi che può eseguire nella gerarchia del tipo statico dell'oggetto; le chiamate
+ * di parametri funzionali e dei metodi della stessa classe sono considerate impure.
+ * Dato che FOOL non ha assegnamenti, due espressioni pure con la stessa struttura e gli stessi id
+ * (stesse STentry) hanno lo stesso valore nello stesso frame.
+ *
+ * Un'occorrenza viene sostituita solo se un'occorrenza equivalente è già stata valutata su ogni
+ * cammino che la raggiunge, seguendo l'ordine in cui il codice generato valuta i figli (quello di
+ * ScanEASTVisitor): i rami di un if contano solo se entrambi la valutano e il secondo operando di
+ * AND e OR non conta. Una sottoespressione viene salvata solo se il costo stimato delle valutazioni
+ * risparmiate supera quello di dichiarare la variabile e di salvarla.
+ */
+public class CommonSubexpressionEliminationEASTVisitor extends RewriteEASTVisitor {
+
+	/**
+	 * Costo stimato di una chiamata (convenzione di chiamata e corpo minimo), in istruzioni.
+	 */
+	private static final int CALL_COST = 10;
+
+	/**
+	 * Una riga per ogni sottoespressione salvata in una variabile.
+	 */
+	public final List<String> report = new ArrayList<>();
+
+	private final Map<STentry, FunNode> functions = new HashMap<>();
+	private final Map<String, ClassNode> classes = new HashMap<>();
+	private final List<Node> declarations = new ArrayList<>();
+	private final Set<Node> impure = new HashSet<>();
+	private final Map<Node, Boolean> pureExpressions = new HashMap<>();
+
+	private final Map<Node, String> bindings = new HashMap<>();
+	private final Map<Node, String> reuses = new HashMap<>();
+	private int temporaries = 0;
+
+	public CommonSubexpressionEliminationEASTVisitor() {}
+
+	/**
+	 * Classifica funzioni e metodi, elimina le sottoespressioni comuni e arricchisce di nuovo l'AST.
+	 *
+	 * @param ast radice dell'E-AST
+	 * @return radice dell'E-AST in cui le sottoespressioni ripetute leggono una variabile
+	 */
+	public Node eliminate(Node ast) {
+		if (!(ast instanceof ProgLetInNode)) return ast;
+		this.collect(ast);
+		this.classifyPurity();
+		Node result = this.visit(ast);
+		if (this.temporaries == 0) return ast;
+		if (enrich(result) > 0) { // non dovrebbe succedere: si rinuncia a eliminare
+			this.report.clear();
+			return ast;
+		}
+		return result;
+	}
+
+	/**
+	 * @param declaration FunNode o MethodNode dell'AST passato a {@link #eliminate(Node)}
+	 * @return true se la funzione o il metodo non può stampare né allocare oggetti
+	 */
+	public boolean isPure(Node declaration) {
+		return this.declarations.contains(declaration) && !this.impure.contains(declaration);
+	}
+
+	/*
+	 * analisi degli effetti
+	 */
+
+	private void collect(Node ast) {
+		new ScanEASTVisitor() {
+			@Override
+			public Void visitNode(FunNode node) {
+				functions.put(node.entry, node);
+				declarations.add(node);
+				return super.visitNode(node);
+			}
+
+			@Override
+			public Void visitNode(ClassNode node) {
+				classes.put(node.classId, node);
+				return super.visitNode(node);
+			}
+
+			@Override
+			public Void visitNode(MethodNode node) {
+				declarations.add(node);
+				return super.visitNode(node);
+			}
+		}.visit(ast);
+	}
+
+	/**
+	 * Parte da tutte le funzioni pure e rende impure quelle che stampano, allocano o chiamano
+	 * una funzione impura, finché la classificazione non cambia più (così le funzioni ricorsive
+	 * senza effetti restano pure).
+	 */
+	private void classifyPurity() {
+		boolean changed = true;
+		while (changed) {
+			changed = false;
+			this.pureExpressions.clear();
+			for (Node declaration : this.declarations) {
+				if (this.impure.contains(declaration) || this.hasPureCode(declaration)) continue;
+				this.impure.add(declaration);
+				changed = true;
+			}
+		}
+		this.pureExpressions.clear();
+	}
+
+	/**
+	 * Il codice eseguito da una chiamata: le inizializzazioni delle variabili locali e il corpo
+	 * (le funzioni annidate contano solo se vengono chiamate).
+	 */
+	private boolean hasPureCode(Node declaration) {
+		List<DecNode> locals = declaration instanceof FunNode funNode ? funNode.declarationlist
+				: ((MethodNode) declaration).declarationList;
+		for (DecNode local : locals)
+			if (local instanceof VarNode varNode && !this.isPureExpression(varNode.expression)) return false;
+		return this.isPureExpression(declaration instanceof FunNode funNode ? funNode.expression
+				: ((MethodNode) declaration).expression);
+	}
+
+	private boolean isPureExpression(Node node) {
+		Boolean pure = this.pureExpressions.get(node);
+		if (pure == null) {
+			pure = this.isPureNode(node);
+			for (Node child : children(node)) pure &= this.isPureExpression(child);
+			this.pureExpressions.put(node, pure);
+		}
+		return pure;
+	}
+
+	private boolean isPureNode(Node node) {
+		if (node instanceof PrintNode || node instanceof NewNode) return false;
+		if (node instanceof CallNode callNode) {
+			FunNode function = this.functions.get(callNode.entry);
+			return function != null && !this.impure.contains(function);
+		}
+		if (node instanceof ClassCallNode classCallNode) {
+			List<MethodNode> targets = this.dispatchTargets(classCallNode);
+			if (targets == null) return false;
+			for (MethodNode target : targets)
+				if (this.impure.contains(target)) return false;
+		}
+		return true;
+	}
+
+	/**
+	 * @return i metodi che la chiamata può eseguire, null se il tipo dell'oggetto non è una classe nota
+	 */
+	private List<MethodNode> dispatchTargets(ClassCallNode node) {
+		if (node.symbolTableEntry == null || node.methodEntry == null
+				|| !(node.symbolTableEntry.type instanceof RefTypeNode refTypeNode)) return null;
+		ClassNode staticClass = this.classes.get(refTypeNode.typeId);
+		if (staticClass == null) return null;
+		List<MethodNode> targets = new ArrayList<>();
+		for (ClassNode classNode : this.classes.values())
+			if (this.isSubclass(classNode, staticClass) || this.isSubclass(staticClass, classNode))
+				for (MethodNode method : classNode.methodList)
+					if (method.offset == node.methodEntry.offset) targets.add(method);
+		return targets;
+	}
+
+	private boolean isSubclass(ClassNode subclass, ClassNode superclass) {
+		for (ClassNode c = subclass; c != null; c = c.superClassId.map(this.classes::get).orElse(null))
+			if (c == superclass) return true;
+		return false;
+	}
+
+	/*
+	 * sottoespressioni disponibili
+	 */
+
+	/**
+	 * Sottoespressione confrontata per struttura: stesso tipo di nodo, stessi valori e stesse STentry.
+	 */
+	private static final class Expression {
+		final Node node;
+
+		Expression(Node node) {
+			this.node = node;
+		}
+
+		@Override
+		public boolean equals(Object other) {
+			return other instanceof Expression expression && equivalent(this.node, expression.node);
+		}
+
+		@Override
+		public int hashCode() {
+			int hash = Objects.hash(this.node.getClass(), label(this.node));
+			for (Node child : children(this.node)) hash = 31 * hash + new Expression(child).hashCode();
+			return hash;
+		}
+	}
+
+	private static boolean equivalent(Node a, Node b) {
+		if (a.getClass() != b.getClass() || !Objects.equals(label(a), label(b))) return false;
+		List<Node> childrenA = children(a), childrenB = children(b);
+		if (childrenA.size() != childrenB.size()) return false;
+		for (int i = 0; i < childrenA.size(); i++)
+			if (!equivalent(childrenA.get(i), childrenB.get(i))) return false;
+		return true;
+	}
+
+	/**
+	 * @return ciò che distingue due nodi dello stesso tipo oltre ai figli
+	 */
+	private static Object label(Node node) {
+		if (node instanceof IntNode intNode) return intNode.value;
+		if (node instanceof BoolNode boolNode) return boolNode.value;
+		if (node instanceof IdNode idNode) return idNode.entry;
+		if (node instanceof CallNode callNode) return callNode.entry;
+		if (node instanceof ClassCallNode classCallNode)
+			return List.of(classCallNode.symbolTableEntry, classCallNode.methodEntry.offset);
+		return null;
+	}
+
+	/**
+	 * @return i figli di un'espressione, nell'ordine del sorgente
+	 */
+	private static List<Node> children(Node node) {
+		if (node instanceof IfNode n) return List.of(n.cond, n.thenNode, n.elseNode);
+		if (node instanceof NotNode n) return List.of(n.expression);
+		if (node instanceof PrintNode n) return List.of(n.expression);
+		if (node instanceof EqualNode n) return List.of(n.left, n.right);
+		if (node instanceof LessEqualNode n) return List.of(n.left, n.right);
+		if (node instanceof GreaterEqualNode n) return List.of(n.left, n.right);
+		if (node instanceof AndNode n) return List.of(n.left, n.right);
+		if (node instanceof OrNode n) return List.of(n.left, n.right);
+		if (node instanceof PlusNode n) return List.of(n.left, n.right);
+		if (node instanceof MinusNode n) return List.of(n.left, n.right);
+		if (node instanceof TimesNode n) return List.of(n.left, n.right);
+		if (node instanceof DivNode n) return List.of(n.left, n.right);
+		if (node instanceof CallNode n) return n.argumentList;
+		if (node instanceof ClassCallNode n) return n.argumentList;
+		if (node instanceof NewNode n) return n.argumentList;
+		return List.of();
+	}
+
+	/**
+	 * @return il tipo del valore di una sottoespressione da salvare, null se non va salvata
+	 */
+	private static TypeNode typeOf(Node node) {
+		if (node instanceof PlusNode || node instanceof MinusNode || node instanceof TimesNode || node instanceof DivNode)
+			return new IntTypeNode();
+		if (node instanceof EqualNode || node instanceof LessEqualNode || node instanceof GreaterEqualNode
+				|| node instanceof NotNode || node instanceof AndNode || node instanceof OrNode)
+			return new BoolTypeNode();
+		TypeNode type = null;
+		if (node instanceof CallNode callNode && callNode.entry.type instanceof ArrowTypeNode arrowTypeNode)
+			type = arrowTypeNode.returnType;
+		if (node instanceof ClassCallNode classCallNode && classCallNode.methodEntry.type instanceof MethodTypeNode methodTypeNode)
+			type = methodTypeNode.functionalType.returnType;
+		return type instanceof IntTypeNode || type instanceof BoolTypeNode || type instanceof RefTypeNode ? type : null;
+	}
+
+	private static Node initialValue(TypeNode type) {
+		if (type instanceof IntTypeNode) return new IntNode(0);
+		if (type instanceof BoolTypeNode) return new BoolNode(false);
+		return new EmptyNode();
+	}
+
+	/**
+	 * Costo stimato della valutazione di una sottoespressione, in istruzioni.
+	 */
+	private static int cost(Node node) {
+		int cost = node instanceof CallNode || node instanceof ClassCallNode ? CALL_COST : 1;
+		for (Node child : children(node)) cost += cost(child);
+		return cost;
+	}
+
+	/**
+	 * Visita un corpo nell'ordine di valutazione tenendo l'insieme delle sottoespressioni pure
+	 * sicuramente già valutate: un'occorrenza di una di queste è un riuso (e non viene visitata),
+	 * le altre sono definizioni.
+	 */
+	private class Availability extends ScanEASTVisitor {
+		private Set<Expression> available = new HashSet<>();
+		final Map<Expression, List<Node>> definitions = new LinkedHashMap<>();
+		final Map<Expression, List<Node>> uses = new HashMap<>();
+
+		@Override
+		public Void visit(Visitable v, String mark) {
+			if (!(v instanceof Node node) || !isCandidate(node)) return super.visit(v, mark);
+			Expression expression = new Expression(node);
+			if (this.available.contains(expression)) {
+				this.uses.computeIfAbsent(expression, e -> new ArrayList<>()).add(node);
+				return null;
+			}
+			super.visit(v, mark);
+			this.definitions.computeIfAbsent(expression, e -> new ArrayList<>()).add(node);
+			this.available.add(expression);
+			return null;
+		}
+
+		private boolean isCandidate(Node node) {
+			return !(node instanceof IdNode || node instanceof IntNode || node instanceof BoolNode
+					|| node instanceof EmptyNode || node instanceof IfNode) && isPureExpression(node);
+		}
+
+		// il secondo operando di AND e OR può non essere valutato
+		private void visitConditionally(Node always, Node maybe) {
+			this.visit(always);
+			Set<Expression> afterAlways = new HashSet<>(this.available);
+			this.visit(maybe);
+			this.available = afterAlways;
+		}
+
+		@Override
+		public Void visitNode(IfNode node) {
+			this.visit(node.cond);
+			Set<Expression> afterCond = new HashSet<>(this.available);
+			this.visit(node.thenNode);
+			Set<Expression> afterThen = this.available;
+			this.available = afterCond;
+			this.visit(node.elseNode);
+			this.available.retainAll(afterThen);
+			return null;
+		}
+
+		@Override
+		public Void visitNode(AndNode node) {
+			this.visitConditionally(node.left, node.right);
+			return null;
+		}
+
+		@Override
+		public Void visitNode(OrNode node) {
+			this.visitConditionally(node.left, node.right);
+			return null;
+		}
+	}
+
+	/**
+	 * Sceglie le sottoespressioni ripetute del corpo che conviene salvare e registra le occorrenze
+	 * da riscrivere.
+	 *
+	 * @param scope nome della funzione o del metodo, per il report
+	 * @param body corpo da analizzare
+	 * @return le dichiarazioni delle variabili introdotte, da aggiungere in fondo alle dichiarazioni locali
+	 */
+	private List<VarNode> bindRepeated(String scope, Node body) {
+		Availability availability = new Availability();
+		availability.visit(body);
+		List<VarNode> variables = new ArrayList<>();
+		availability.definitions.forEach((expression, definitions) -> {
+			List<Node> uses = availability.uses.get(expression);
+			TypeNode type = typeOf(expression.node);
+			// ogni riuso risparmia la valutazione ma costa una lloc; la variabile costa una push e ogni definizione dup e sloc
+			if (uses == null || type == null || uses.size() * (cost(expression.node) - 1) <= 2 * definitions.size() + 1)
+				return;
+			String id = "cse$" + this.temporaries++;
+			for (Node definition : definitions) this.bindings.put(definition, id);
+			for (Node use : uses) this.reuses.put(use, id);
+			variables.add(withLine(expression.node, new VarNode(id, type, initialValue(type))));
+			this.report.add("Reused " + describe(expression.node) + " at line " + expression.node.getLine()
+					+ " in " + scope + " (" + uses.size() + " repeated evaluations)");
+		});
+		return variables;
+	}
+
+	private static String describe(Node node) {
+		if (node instanceof CallNode callNode) return callNode.id + "()";
+		if (node instanceof ClassCallNode classCallNode) return classCallNode.objectId + "." + classCallNode.methodId + "()";
+		String name = node.getClass().getSimpleName();
+		return name.substring(0, name.length() - "Node".length()).toLowerCase() + " expression";
+	}
+
+	/*
+	 * riscrittura dei nodi
+	 */
+
+	@Override
+	public Node visit(Visitable v, String mark) {
+		String reused = this.reuses.get(v);
+		if (reused != null) return withLine((Node) v, new IdNode(reused));
+		String bound = this.bindings.get(v);
+		if (bound != null) return withLine((Node) v, new BindNode(bound, super.visit(v, mark)));
+		return super.visit(v, mark);
+	}
+
+	@Override
+	public Node visitNode(ProgLetInNode node) {
+		if (this.print) this.printNode(node);
+		List<VarNode> variables = this.bindRepeated("the program", node.exp);
+		List<DecNode> declarations = this.visitDeclarations(node.declarationlist);
+		declarations.addAll(variables);
+		return withLine(node, new ProgLetInNode(declarations, this.visit(node.exp)));
+	}
+
+	@Override
+	public Node visitNode(FunNode node) {
+		if (this.print) this.printNode(node, node.id);
+		List<VarNode> variables = this.bindRepeated(node.id, node.expression);
+		List<ParNode> parameters = this.visitParameters(node.parameterlist);
+		List<DecNode> declarations = this.visitDeclarations(node.declarationlist);
+		declarations.addAll(variables);
+		return withLine(node, new FunNode(node.id, node.returnType, parameters, declarations, this.visit(node.expression)));
+	}
+
+	@Override
+	public Node visitNode(MethodNode node) {
+		if (this.print) this.printNode(node, node.id);
+		List<VarNode> variables = this.bindRepeated(node.id, node.expression);
+		List<ParNode> parameters = this.visitParameters(node.parameterList);
+		List<DecNode> declarations = this.visitDeclarations(node.declarationList);
+		declarations.addAll(variables);
+		return withLine(node, new MethodNode(node.id, node.returnType, parameters, declarations, this.visit(node.expression)));
+	}
+}
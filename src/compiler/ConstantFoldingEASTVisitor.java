@@ -0,0 +1,177 @@
+package compiler;
+
+import compiler.AST.*;
+import compiler.lib.*;
+
+/**
+ * Trasformazione AST-to-AST che valuta a tempo di compilazione le sottoespressioni costanti
+ * e semplifica le identità algebriche, così che il codice generato non le calcoli a ogni esecuzione.
+ * Va eseguita dopo TypeCheckEASTVisitor su un E-AST senza errori: le riscritture tengono conto
+ * dei tipi (ad esempio !!b diventa b solo perché b è sicuramente un booleano).
+ *
+ * Vengono eseguite le seguenti riscritture, dal basso verso l'alto:
+ * - operatori aritmetici, confronti e NOT con operandi letterali diventano un letterale;
+ * - x*1, 1*x, x+0, 0+x, x-0 e x/1 diventano x;
+ * - !!b diventa b;
+ * - true && b, false || b, b && true e b || false diventano b; false && b e true || b diventano
+ *   il letterale (b non verrebbe comunque valutato per il corto circuito);
+ * - un if con condizione letterale diventa il ramo scelto.
+ * La divisione per il letterale 0 non viene mai valutata, in modo che l'errore resti a tempo di esecuzione.
+ * Le riscritture non spostano dichiarazioni, quindi le STentry copiate restano valide e l'AST
+ * restituito da {@link #fold(Node)} non va arricchito di nuovo.
+ */
+public class ConstantFoldingEASTVisitor extends RewriteEASTVisitor {
+
+	/**
+	 * Numero di nodi eliminati dall'ultima {@link #fold(Node)}.
+	 */
+	public int eliminatedNodes = 0;
+
+	public ConstantFoldingEASTVisitor() {}
+
+	/**
+	 * Esegue il constant folding su tutto l'AST.
+	 *
+	 * @param ast radice dell'E-AST
+	 * @return radice dell'E-AST semplificato
+	 */
+	public Node fold(Node ast) {
+		Node folded = this.visit(ast);
+		this.eliminatedNodes = countNodes(ast) - countNodes(folded);
+		return folded;
+	}
+
+	private static boolean isInt(Node node, int value) {
+		return node instanceof IntNode intNode && intNode.value == value;
+	}
+
+	private static boolean isBool(Node node, boolean value) {
+		return node instanceof BoolNode boolNode && boolNode.value == value;
+	}
+
+	/**
+	 * Valore di un letterale come lo rappresenta la SVM: i booleani valgono 1 e 0,
+	 * e possono comparire anche nelle espressioni aritmetiche dato che bool è sottotipo di int.
+	 */
+	private static Integer literalValue(Node node) {
+		if (node instanceof IntNode intNode) return intNode.value;
+		if (node instanceof BoolNode boolNode) return boolNode.value ? 1 : 0;
+		return null;
+	}
+
+	@Override
+	public Node visitNode(IfNode node) {
+		if (this.print) this.printNode(node);
+		Node cond = this.visit(node.cond);
+		if (cond instanceof BoolNode boolNode) return this.visit(boolNode.value ? node.thenNode : node.elseNode);
+		Node thenNode = this.visit(node.thenNode);
+		return withLine(node, new IfNode(cond, thenNode, this.visit(node.elseNode)));
+	}
+
+	@Override
+	public Node visitNode(PlusNode node) {
+		if (this.print) this.printNode(node);
+		Node left = this.visit(node.left);
+		Node right = this.visit(node.right);
+		Integer l = literalValue(left), r = literalValue(right);
+		if (l != null && r != null) return withLine(node, new IntNode(l + r));
+		if (isInt(right, 0)) return left;
+		if (isInt(left, 0)) return right;
+		return withLine(node, new PlusNode(left, right));
+	}
+
+	@Override
+	public Node visitNode(MinusNode node) {
+		if (this.print) this.printNode(node);
+		Node left = this.visit(node.left);
+		Node right = this.visit(node.right);
+		Integer l = literalValue(left), r = literalValue(right);
+		if (l != null && r != null) return withLine(node, new IntNode(l - r));
+		if (isInt(right, 0)) return left;
+		return withLine(node, new MinusNode(left, right));
+	}
+
+	@Override
+	public Node visitNode(TimesNode node) {
+		if (this.print) this.printNode(node);
+		Node left = this.visit(node.left);
+		Node right = this.visit(node.right);
+		Integer l = literalValue(left), r = literalValue(right);
+		if (l != null && r != null) return withLine(node, new IntNode(l * r));
+		if (isInt(right, 1)) return left;
+		if (isInt(left, 1)) return right;
+		return withLine(node, new TimesNode(left, right));
+	}
+
+	@Override
+	public Node visitNode(DivNode node) {
+		if (this.print) this.printNode(node);
+		Node left = this.visit(node.left);
+		Node right = this.visit(node.right);
+		Integer l = literalValue(left), r = literalValue(right);
+		if (l != null && r != null && r != 0) return withLine(node, new IntNode(l / r));
+		if (isInt(right, 1)) return left;
+		return withLine(node, new DivNode(left, right));
+	}
+
+	@Override
+	public Node visitNode(EqualNode node) {
+		if (this.print) this.printNode(node);
+		Node left = this.visit(node.left);
+		Node right = this.visit(node.right);
+		Integer l = literalValue(left), r = literalValue(right);
+		if (l != null && r != null) return withLine(node, new BoolNode(l.equals(r)));
+		return withLine(node, new EqualNode(left, right));
+	}
+
+	@Override
+	public Node visitNode(LessEqualNode node) {
+		if (this.print) this.printNode(node);
+		Node left = this.visit(node.left);
+		Node right = this.visit(node.right);
+		Integer l = literalValue(left), r = literalValue(right);
+		if (l != null && r != null) return withLine(node, new BoolNode(l <= r));
+		return withLine(node, new LessEqualNode(left, right));
+	}
+
+	@Override
+	public Node visitNode(GreaterEqualNode node) {
+		if (this.print) this.printNode(node);
+		Node left = this.visit(node.left);
+		Node right = this.visit(node.right);
+		Integer l = literalValue(left), r = literalValue(right);
+		if (l != null && r != null) return withLine(node, new BoolNode(l >= r));
+		return withLine(node, new GreaterEqualNode(left, right));
+	}
+
+	@Override
+	public Node visitNode(NotNode node) {
+		if (this.print) this.printNode(node);
+		Node expression = this.visit(node.expression);
+		if (expression instanceof BoolNode boolNode) return withLine(node, new BoolNode(!boolNode.value));
+		if (expression instanceof NotNode notNode) return notNode.expression;
+		return withLine(node, new NotNode(expression));
+	}
+
+	@Override
+	public Node visitNode(AndNode node) {
+		if (this.print) this.printNode(node);
+		Node left = this.visit(node.left);
+		if (isBool(left, false)) return left;
+		Node right = this.visit(node.right);
+		if (isBool(left, true)) return right;
+		if (isBool(right, true)) return left;
+		return withLine(node, new AndNode(left, right));
+	}
+
+	@Override
+	public Node visitNode(OrNode node) {
+		if (this.print) this.printNode(node);
+		Node left = this.visit(node.left);
+		if (isBool(left, true)) return left;
+		Node right = this.visit(node.right);
+		if (isBool(left, false)) return right;
+		if (isBool(right, false)) return left;
+		return withLine(node, new OrNode(left, right));
+	}
+}
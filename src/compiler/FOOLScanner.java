@@ -0,0 +1,237 @@
+package compiler;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.antlr.v4.runtime.*;
+import org.antlr.v4.runtime.misc.Pair;
+
+import compiler.lib.SymbolInterner;
+
+import static compiler.FOOLParser.*;
+
+/**
+ * Lexer scritto a mano per FOOL, da usare al posto di FOOLLexer come sorgente di token per FOOLParser:
+ * produce gli stessi token, con i tipi di FOOL.tokens, gli stessi indici, righe e colonne, e mette
+ * WHITESP, COMMENT ed ERR sul canale nascosto.
+ *
+ * Invece di simulare l'ATN legge il sorgente un code point alla volta con LA e consume, senza copiarlo,
+ * quindi va bene anche su un MappedCharStream; le colonne contano i code point come in FOOLLexer, qualunque
+ * siano gli indici dello stream. Crea token senza testo: CommonToken lo ricava dal CharStream solo quando viene
+ * chiesto (su uno stream che non tiene tutto il sorgente, come UnbufferedCharStream, serve quindi una
+ * CommonTokenFactory che copia il testo). Fanno eccezione gli ID, che vengono internati in un
+ * {@link SymbolInterner} e hanno come testo la sua String canonica, la stessa per tutte le occorrenze.
+ * Le parole chiave si riconoscono confrontando i code point, senza creare stringhe.
+ * Come in FOOLLexer vale il match più lungo: "iffy" è un ID, "/*" senza chiusura è un DIV seguito da un TIMES,
+ * e un carattere che non inizia alcun token è un ERR. Gli errori non vengono stampati ma contati in
+ * lexicalErrors e raccolti in {@link #getErrors()}, con il testo che stampava FOOLLexer.
+ */
+public class FOOLScanner implements TokenSource {
+
+	private static final String[] KEYWORDS = {"true", "false", "if", "then", "else", "print", "let", "in", "var", "fun",
+			"class", "extends", "new", "null", "int", "bool"};
+	private static final int[] KEYWORD_TYPES = {TRUE, FALSE, IF, THEN, ELSE, PRINT, LET, IN, VAR, FUN,
+			CLASS, EXTENDS, NEW, NULL, INT, BOOL};
+	private static final int KEYWORD_MAX_LENGTH = 7;
+
+	private final CharStream input;
+	private final SymbolInterner symbols;
+	private final Pair<TokenSource, CharStream> source;
+	private TokenFactory<?> factory = CommonTokenFactory.DEFAULT;
+
+	private int line = 1;
+	private int column = 0;
+	private int[] word = new int[16]; // code point dell'ultimo ID
+	private String text = null; // testo canonico dell'ultimo ID, null per gli altri token
+
+	public int lexicalErrors = 0;
+	private final List<String> errors = new ArrayList<>();
+
+	/**
+	 * @param input sorgente, letto dalla posizione corrente
+	 */
+	public FOOLScanner(CharStream input) {
+		this(input, new SymbolInterner());
+	}
+
+	/**
+	 * @param input sorgente, letto dalla posizione corrente
+	 * @param symbols identificatori della compilazione, in cui vengono internati gli ID
+	 */
+	public FOOLScanner(CharStream input, SymbolInterner symbols) {
+		this.input = input;
+		this.symbols = symbols;
+		this.source = new Pair<>(this, input);
+	}
+
+	/**
+	 * @return i messaggi degli errori lessicali, nell'ordine del sorgente
+	 */
+	public List<String> getErrors() {
+		return this.errors;
+	}
+
+	@Override
+	public Token nextToken() {
+		int start = this.input.index(), startLine = this.line, startColumn = this.column;
+		int c = this.input.LA(1);
+		if (c == IntStream.EOF)
+			return this.factory.create(this.source, Token.EOF, null, Token.DEFAULT_CHANNEL, start, start - 1, startLine, startColumn);
+		int type = this.scan(c);
+		int channel = type == WHITESP || type == COMMENT || type == ERR ? Token.HIDDEN_CHANNEL : Token.DEFAULT_CHANNEL;
+		if (type == ERR) {
+			this.lexicalErrors++;
+			this.errors.add("Invalid char: " + Character.toString(c) + " at line " + this.line);
+		}
+		String text = type == ID ? this.text : null;
+		return this.factory.create(this.source, type, text, channel, start, this.input.index() - 1, startLine, startColumn);
+	}
+
+	/**
+	 * Consuma il token più lungo che inizia con c, il code point corrente.
+	 *
+	 * @return il tipo del token
+	 */
+	private int scan(int c) {
+		switch (c) {
+			case '+': return this.consume(1, PLUS);
+			case '-': return this.consume(1, MINUS);
+			case '*': return this.consume(1, TIMES);
+			case '(': return this.consume(1, LPAR);
+			case ')': return this.consume(1, RPAR);
+			case '{': return this.consume(1, CLPAR);
+			case '}': return this.consume(1, CRPAR);
+			case ';': return this.consume(1, SEMIC);
+			case ':': return this.consume(1, COLON);
+			case ',': return this.consume(1, COMMA);
+			case '.': return this.consume(1, DOT);
+			case '!': return this.consume(1, NOT);
+			case '|': return this.input.LA(2) == '|' ? this.consume(2, OR) : this.consume(1, ERR);
+			case '&': return this.input.LA(2) == '&' ? this.consume(2, AND) : this.consume(1, ERR);
+			case '>': return this.input.LA(2) == '=' ? this.consume(2, GE) : this.consume(1, ERR);
+			case '<': return this.input.LA(2) == '=' ? this.consume(2, LE) : this.consume(1, ERR);
+			case '=': return this.input.LA(2) == '=' ? this.consume(2, EQ) : this.consume(1, ASS);
+			case '/': return this.input.LA(2) == '*' ? this.comment() : this.consume(1, DIV);
+			case '0': return this.consume(1, NUM);
+			case ' ': case '\t': case '\r': case '\n': {
+				while (isWhitespace(this.input.LA(1))) this.consume();
+				return WHITESP;
+			}
+		}
+		if (c >= '1' && c <= '9') {
+			do this.consume(); while (isDigit(this.input.LA(1)));
+			return NUM;
+		}
+		if (isLetter(c)) {
+			int length = 0;
+			do {
+				if (length == this.word.length) this.word = Arrays.copyOf(this.word, 2 * length);
+				this.word[length++] = this.input.LA(1);
+				this.consume();
+			} while (isLetter(this.input.LA(1)) || isDigit(this.input.LA(1)));
+			int type = length <= KEYWORD_MAX_LENGTH ? this.keyword(length) : ID;
+			if (type == ID) this.text = this.symbols.intern(this.word, length);
+			return type;
+		}
+		return this.consume(1, ERR);
+	}
+
+	/**
+	 * Consuma un commento, oppure solo la barra se il commento non viene chiuso.
+	 */
+	private int comment() {
+		int marker = this.input.mark(), start = this.input.index(), startLine = this.line, startColumn = this.column;
+		try {
+			this.consume(2, COMMENT);
+			for (int previous = 0, c; (c = this.input.LA(1)) != IntStream.EOF; previous = c) {
+				this.consume();
+				if (previous == '*' && c == '/') return COMMENT;
+			}
+			this.input.seek(start);
+			this.line = startLine;
+			this.column = startColumn;
+			return this.consume(1, DIV);
+		} finally {
+			this.input.release(marker);
+		}
+	}
+
+	/**
+	 * @param length lunghezza dell'ID appena consumato, i cui code point sono in word
+	 * @return il tipo della parola chiave, ID se non è una parola chiave
+	 */
+	private int keyword(int length) {
+		for (int k = 0; k < KEYWORDS.length; k++) {
+			String keyword = KEYWORDS[k];
+			if (keyword.length() != length) continue;
+			int i = 0;
+			while (i < length && keyword.charAt(i) == this.word[i]) i++;
+			if (i == length) return KEYWORD_TYPES[k];
+		}
+		return ID;
+	}
+
+	/**
+	 * Consuma length code point.
+	 *
+	 * @return type
+	 */
+	private int consume(int length, int type) {
+		for (int i = 0; i < length; i++) this.consume();
+		return type;
+	}
+
+	/**
+	 * Consuma un code point contando righe e colonne, come fa un Lexer di ANTLR.
+	 */
+	private void consume() {
+		if (this.input.LA(1) == '\n') {
+			this.line++;
+			this.column = 0;
+		} else this.column++;
+		this.input.consume();
+	}
+
+	private static boolean isLetter(int c) {
+		return c >= 'a' && c <= 'z' || c >= 'A' && c <= 'Z';
+	}
+
+	private static boolean isDigit(int c) {
+		return c >= '0' && c <= '9';
+	}
+
+	private static boolean isWhitespace(int c) {
+		return c == ' ' || c == '\t' || c == '\r' || c == '\n';
+	}
+
+	@Override
+	public int getLine() {
+		return this.line;
+	}
+
+	@Override
+	public int getCharPositionInLine() {
+		return this.column;
+	}
+
+	@Override
+	public CharStream getInputStream() {
+		return this.input;
+	}
+
+	@Override
+	public String getSourceName() {
+		return this.input.getSourceName();
+	}
+
+	@Override
+	public void setTokenFactory(TokenFactory<?> factory) {
+		this.factory = factory;
+	}
+
+	@Override
+	public TokenFactory<?> getTokenFactory() {
+		return this.factory;
+	}
+}
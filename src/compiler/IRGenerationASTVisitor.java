@@ -0,0 +1,383 @@
+package compiler;
+
+import compiler.AST.*;
+import compiler.exc.*;
+import compiler.ir.*;
+import compiler.lib.*;
+
+import java.util.*;
+
+/**
+ * Traduce l'E-AST nell'IR in forma SSA (package compiler.ir): ogni espressione diventa un valore,
+ * gli if, e gli AND e OR che devono mantenere il corto circuito, diventano blocchi che confluiscono
+ * in una PHI. Va eseguito dopo TypeCheckEASTVisitor su un E-AST senza errori (anche dopo le
+ * trasformazioni AST-to-AST, che restituiscono un E-AST arricchito).
+ *
+ * Le variabili locali lette nello stesso frame diventano copie del valore della dichiarazione; le
+ * dichiarazioni vengono salvate anche nel frame solo se qualcuno può leggerle da lì: le funzioni
+ * annidate attraverso gli Access Link, le chiamate alle funzioni dichiarate nel frame e, nel
+ * programma principale, le new che cercano la dispatch table. Le variabili assegnate da un BindNode
+ * (introdotte dalla common subexpression elimination) hanno un valore diverso su ogni cammino:
+ * restano nel frame e vengono lette con una LOAD, come i parametri e gli id dei frame esterni.
+ */
+public class IRGenerationASTVisitor extends BaseASTVisitor<Instruction, VoidException> {
+
+	private Program program;
+	private Function function;
+	private Block block;
+	/**
+	 * Valori delle dichiarazioni locali della funzione corrente, per offset.
+	 */
+	private Map<Integer, Instruction> locals = new HashMap<>();
+	/**
+	 * Offset delle variabili della funzione corrente assegnate da un BindNode.
+	 */
+	private Set<Integer> boundLocals = new HashSet<>();
+	/**
+	 * Le dispatch tables delle classi, come in CodeGenerationASTVisitor.
+	 */
+	private final List<List<String>> dispatchTables = new ArrayList<>();
+
+	/**
+	 * Sessione di compilazione da cui prendere le etichette.
+	 */
+	private final CompilerSession session;
+
+	public IRGenerationASTVisitor() {
+		this(new CompilerSession());
+	}
+
+	public IRGenerationASTVisitor(CompilerSession session) {
+		this.session = session;
+	}
+
+	/**
+	 * @param ast radice dell'E-AST
+	 * @return il programma tradotto nell'IR
+	 */
+	public Program generate(Node ast) {
+		this.visit(ast);
+		return this.program;
+	}
+
+	private Instruction add(Opcode opcode, List<Instruction> operands, int... arguments) {
+		return this.block.add(opcode, operands, arguments);
+	}
+
+	/**
+	 * @param body espressione principale di una funzione
+	 * @return gli offset delle variabili assegnate da un BindNode nel corpo
+	 */
+	private static Set<Integer> boundOffsets(Node body) {
+		Set<Integer> offsets = new HashSet<>();
+		new ScanEASTVisitor() {
+			@Override
+			public Void visitNode(BindNode node) {
+				offsets.add(node.entry.offset);
+				return super.visitNode(node);
+			}
+		}.visit(body);
+		return offsets;
+	}
+
+	/**
+	 * Traduce il corpo di una funzione, di un metodo o del programma principale in una nuova
+	 * funzione dell'IR, salvando e ripristinando la funzione in costruzione.
+	 *
+	 * @param label etichetta (null per il programma principale)
+	 * @param parameters numero di parametri
+	 * @param declarations dichiarazioni locali
+	 * @param body espressione principale
+	 * @return la funzione dell'IR
+	 */
+	private Function generateFunction(String label, int parameters, List<? extends DecNode> declarations, Node body) {
+		Function outerFunction = this.function;
+		Block outerBlock = this.block;
+		Map<Integer, Instruction> outerLocals = this.locals;
+		Set<Integer> outerBoundLocals = this.boundLocals;
+
+		this.locals = new HashMap<>();
+		this.boundLocals = boundOffsets(body);
+		boolean inFrame = label == null || !this.boundLocals.isEmpty()
+				|| declarations.stream().anyMatch(declaration -> declaration instanceof FunNode);
+		this.function = new Function(label, parameters, inFrame ? declarations.size() : 0);
+		this.block = this.function.newBlock();
+		int offset = -2;
+		for (DecNode declaration : declarations) {
+			Instruction value = this.visit(declaration);
+			this.locals.put(offset, value);
+			if (inFrame) this.add(Opcode.LOCAL, List.of(value), offset);
+			offset--;
+		}
+		Instruction result = this.visit(body);
+		if (label == null) this.block.halt(result);
+		else this.block.ret(result);
+		Function generated = this.function;
+
+		this.function = outerFunction;
+		this.block = outerBlock;
+		this.locals = outerLocals;
+		this.boundLocals = outerBoundLocals;
+		return generated;
+	}
+
+	/**
+	 * Genera la lettura di un id.
+	 *
+	 * @param nestingLevel nesting level dell'uso dell'id
+	 * @param entry STentry della dichiarazione dell'id
+	 * @return il valore dell'id
+	 */
+	private Instruction load(int nestingLevel, STentry entry) {
+		int depth = nestingLevel - entry.nl;
+		if (depth == 0 && entry.offset < 0 && !this.boundLocals.contains(entry.offset))
+			return this.add(Opcode.COPY, List.of(this.locals.get(entry.offset)));
+		return this.add(Opcode.LOAD, List.of(), depth, entry.offset);
+	}
+
+	/**
+	 * Genera i blocchi che valutano una condizione e saltano a thenBlock se è vera, a elseBlock
+	 * altrimenti, propagando i salti dentro NOT, AND e OR come il jumping code di CodeGenerationASTVisitor.
+	 */
+	private void branch(Node condition, Block thenBlock, Block elseBlock) {
+		if (condition instanceof BoolNode boolNode) {
+			this.block.jump(boolNode.value ? thenBlock : elseBlock);
+		} else if (condition instanceof NotNode notNode) {
+			this.branch(notNode.expression, elseBlock, thenBlock);
+		} else if (condition instanceof AndNode andNode) {
+			Block right = this.function.newBlock();
+			this.branch(andNode.left, right, elseBlock);
+			this.block = right;
+			this.branch(andNode.right, thenBlock, elseBlock);
+		} else if (condition instanceof OrNode orNode) {
+			Block right = this.function.newBlock();
+			this.branch(orNode.left, thenBlock, right);
+			this.block = right;
+			this.branch(orNode.right, thenBlock, elseBlock);
+		} else {
+			Instruction value = this.visit(condition);
+			this.block.branch(value, thenBlock, elseBlock);
+		}
+	}
+
+	/**
+	 * Genera i due rami di una scelta e la PHI che ne unisce i valori.
+	 *
+	 * @param thenBlock blocco del ramo scelto quando la condizione è vera
+	 * @param thenNode espressione del ramo
+	 * @param elseBlock blocco del ramo scelto quando la condizione è falsa
+	 * @param elseNode espressione del ramo
+	 * @return la PHI
+	 */
+	private Instruction join(Block thenBlock, Node thenNode, Block elseBlock, Node elseNode) {
+		Block join = this.function.newBlock();
+		this.block = thenBlock;
+		Instruction thenValue = this.visit(thenNode);
+		this.block.jump(join);
+		this.block = elseBlock;
+		Instruction elseValue = this.visit(elseNode);
+		this.block.jump(join);
+		this.block = join;
+		return join.phi(List.of(thenValue, elseValue));
+	}
+
+	private Instruction binary(Opcode opcode, Node left, Node right) {
+		Instruction leftValue = this.visit(left);
+		return this.add(opcode, List.of(leftValue, this.visit(right)));
+	}
+
+	@Override
+	public Instruction visitNode(ProgLetInNode node) {
+		if (this.print) this.printNode(node);
+		this.program = new Program();
+		this.program.setMain(this.generateFunction(null, 0, node.declarationlist, node.exp));
+		return null;
+	}
+
+	@Override
+	public Instruction visitNode(ProgNode node) {
+		if (this.print) this.printNode(node);
+		this.program = new Program();
+		this.program.setMain(this.generateFunction(null, 0, List.of(), node.expression));
+		return null;
+	}
+
+	@Override
+	public Instruction visitNode(FunNode node) {
+		if (this.print) this.printNode(node, node.id);
+		String functionLabel = this.session.freshFunLabel();
+		this.program.add(this.generateFunction(functionLabel, node.parameterlist.size(), node.declarationlist, node.expression));
+		return this.block.addLabels(Opcode.FUNCTION, List.of(functionLabel));
+	}
+
+	@Override
+	public Instruction visitNode(VarNode node) {
+		if (this.print) this.printNode(node, node.id);
+		return this.visit(node.expression);
+	}
+
+	@Override
+	public Instruction visitNode(PrintNode node) {
+		if (this.print) this.printNode(node);
+		return this.add(Opcode.PRINT, List.of(this.visit(node.expression)));
+	}
+
+	@Override
+	public Instruction visitNode(IfNode node) {
+		if (this.print) this.printNode(node);
+		Block thenBlock = this.function.newBlock();
+		Block elseBlock = this.function.newBlock();
+		this.branch(node.cond, thenBlock, elseBlock);
+		return this.join(thenBlock, node.thenNode, elseBlock, node.elseNode);
+	}
+
+	@Override
+	public Instruction visitNode(EqualNode node) {
+		if (this.print) this.printNode(node);
+		return this.binary(Opcode.EQ, node.left, node.right);
+	}
+
+	@Override
+	public Instruction visitNode(TimesNode node) {
+		if (this.print) this.printNode(node);
+		return this.binary(Opcode.MUL, node.left, node.right);
+	}
+
+	@Override
+	public Instruction visitNode(PlusNode node) {
+		if (this.print) this.printNode(node);
+		return this.binary(Opcode.ADD, node.left, node.right);
+	}
+
+	@Override
+	public Instruction visitNode(CallNode node) {
+		if (this.print) this.printNode(node, node.id);
+		List<Instruction> operands = new ArrayList<>();
+		for (int i = node.argumentList.size() - 1; i >= 0; i--) operands.add(this.visit(node.argumentList.get(i)));
+		operands.add(this.add(Opcode.FRAME, List.of(), node.nestingLevel - node.entry.nl));
+		boolean method = node.entry.type instanceof MethodTypeNode;
+		return this.add(Opcode.CALL, operands, node.entry.offset, method ? 1 : 0);
+	}
+
+	@Override
+	public Instruction visitNode(IdNode node) {
+		if (this.print) this.printNode(node, node.id);
+		return this.load(node.nestingLevel, node.entry);
+	}
+
+	@Override
+	public Instruction visitNode(BindNode node) {
+		if (this.print) this.printNode(node, node.id);
+		Instruction value = this.visit(node.expression);
+		this.add(Opcode.LOCAL, List.of(value), node.entry.offset);
+		return value;
+	}
+
+	@Override
+	public Instruction visitNode(BoolNode node) {
+		if (this.print) this.printNode(node, node.value.toString());
+		return this.add(Opcode.CONST, List.of(), node.value ? 1 : 0);
+	}
+
+	@Override
+	public Instruction visitNode(IntNode node) {
+		if (this.print) this.printNode(node, node.value.toString());
+		return this.add(Opcode.CONST, List.of(), node.value);
+	}
+
+	@Override
+	public Instruction visitNode(GreaterEqualNode node) {
+		if (this.print) this.printNode(node);
+		Instruction right = this.visit(node.right);
+		return this.add(Opcode.LEQ, List.of(right, this.visit(node.left)));
+	}
+
+	@Override
+	public Instruction visitNode(LessEqualNode node) {
+		if (this.print) this.printNode(node);
+		return this.binary(Opcode.LEQ, node.left, node.right);
+	}
+
+	@Override
+	public Instruction visitNode(NotNode node) {
+		if (this.print) this.printNode(node);
+		return this.add(Opcode.NOT, List.of(this.visit(node.expression)));
+	}
+
+	@Override
+	public Instruction visitNode(MinusNode node) {
+		if (this.print) this.printNode(node);
+		return this.binary(Opcode.SUB, node.left, node.right);
+	}
+
+	@Override
+	public Instruction visitNode(OrNode node) {
+		if (this.print) this.printNode(node);
+		if (CodeGenerationASTVisitor.isSideEffectFree(node.right)) return this.binary(Opcode.OR, node.left, node.right);
+		Block trueBlock = this.function.newBlock();
+		Block rightBlock = this.function.newBlock();
+		this.branch(node.left, trueBlock, rightBlock);
+		return this.join(trueBlock, new BoolNode(true), rightBlock, node.right);
+	}
+
+	@Override
+	public Instruction visitNode(DivNode node) {
+		if (this.print) this.printNode(node);
+		return this.binary(Opcode.DIV, node.left, node.right);
+	}
+
+	@Override
+	public Instruction visitNode(AndNode node) {
+		if (this.print) this.printNode(node);
+		if (CodeGenerationASTVisitor.isSideEffectFree(node.right)) return this.binary(Opcode.AND, node.left, node.right);
+		Block rightBlock = this.function.newBlock();
+		Block falseBlock = this.function.newBlock();
+		this.branch(node.left, rightBlock, falseBlock);
+		return this.join(rightBlock, node.right, falseBlock, new BoolNode(false));
+	}
+
+	@Override
+	public Instruction visitNode(ClassNode node) {
+		if (this.print) this.printNode(node, node.classId);
+		List<String> dispatchTable = new ArrayList<>();
+		this.dispatchTables.add(dispatchTable);
+		if (node.superClassEntry != null) dispatchTable.addAll(this.dispatchTables.get(-node.superClassEntry.offset - 2));
+		for (MethodNode method : node.methodList) {
+			this.visit(method);
+			if (method.offset < dispatchTable.size()) dispatchTable.set(method.offset, method.label);
+			else dispatchTable.add(method.label);
+		}
+		return this.block.addLabels(Opcode.DISPATCH_TABLE, dispatchTable);
+	}
+
+	@Override
+	public Instruction visitNode(MethodNode node) {
+		if (this.print) this.printNode(node, node.id);
+		node.label = this.session.freshFunLabel();
+		this.program.add(this.generateFunction(node.label, node.parameterList.size(), node.declarationList, node.expression));
+		return null;
+	}
+
+	@Override
+	public Instruction visitNode(ClassCallNode node) {
+		if (this.print) this.printNode(node, node.objectId + "." + node.methodId);
+		List<Instruction> operands = new ArrayList<>();
+		for (int i = node.argumentList.size() - 1; i >= 0; i--) operands.add(this.visit(node.argumentList.get(i)));
+		operands.add(this.load(node.nestingLevel, node.symbolTableEntry));
+		return this.add(Opcode.CALL, operands, node.methodEntry.offset, 1);
+	}
+
+	@Override
+	public Instruction visitNode(NewNode node) {
+		if (this.print) this.printNode(node, node.classId);
+		List<Instruction> operands = new ArrayList<>();
+		for (Node argument : node.argumentList) operands.add(this.visit(argument));
+		return this.add(Opcode.NEW, operands, node.classSymbolTableEntry.offset);
+	}
+
+	@Override
+	public Instruction visitNode(EmptyNode node) {
+		if (this.print) this.printNode(node);
+		return this.add(Opcode.CONST, List.of(), -1);
+	}
+}
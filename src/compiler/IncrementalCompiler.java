@@ -0,0 +1,213 @@
+package compiler;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import org.antlr.v4.runtime.*;
+import compiler.AST.*;
+import compiler.CodeGenerationASTVisitor.Declaration;
+import compiler.FOOLParser.*;
+import compiler.lib.*;
+import compiler.exc.*;
+import svm.ExecuteVM;
+
+/**
+ * Compilatore incrementale: ricompilando un programma modificato, le dichiarazioni globali (classi, funzioni
+ * e variabili) rimaste uguali non vengono né ricontrollate né rigenerate.
+ *
+ * Ogni dichiarazione globale ha una chiave, l'hash SHA-256 dei suoi token e delle intestazioni (id, tipi,
+ * campi e metodi) delle dichiarazioni che la precedono, che sono tutto ciò che può vedere: da queste dipendono
+ * gli offset e i tipi delle STentry che usa, quindi a chiave uguale corrispondono gli stessi errori e lo stesso
+ * codice. Per una sottoclasse la chiave comprende anche quella della superclasse, di cui copia le etichette
+ * dei metodi nella dispatch table.
+ * Per le dichiarazioni con una chiave già vista nell'ultima compilazione riuscita, SymbolTableASTVisitor
+ * e TypeCheckEASTVisitor si limitano all'intestazione e CodeGenerationASTVisitor riaccoda il codice conservato,
+ * le cui etichette sono prefissate dall'id della dichiarazione; il resto del programma viene compilato normalmente.
+ * Lexer e parser rileggono comunque l'intero sorgente, e le ottimizzazioni non vengono eseguite perché
+ * lavorano sull'intero programma.
+ *
+ * Uso: java compiler.IncrementalCompiler file.fool
+ * ricompila ed esegue il programma ogni volta che il file viene modificato.
+ */
+public class IncrementalCompiler {
+
+	private final boolean display;
+
+	/**
+	 * Codice delle dichiarazioni globali dell'ultima compilazione riuscita, per chiave.
+	 */
+	private Map<String, Declaration> cache = new HashMap<>();
+
+	private CodeGenerationASTVisitor codeGenerationVisitor = null;
+
+	public int frontEndErrors = 0;
+	public int reusedDeclarations = 0;
+	public int compiledDeclarations = 0;
+
+	public IncrementalCompiler(boolean display) {
+		this.display = display;
+	}
+
+	public static void main(String[] args) throws Exception {
+		if (args.length != 1) {
+			System.err.println("Usage: java compiler.IncrementalCompiler file.fool");
+			System.exit(2);
+		}
+		Path file = Paths.get(args[0]);
+		IncrementalCompiler compiler = new IncrementalCompiler(false);
+		FileTime compiled = null;
+		System.out.println("Watching " + file + " for changes.\n");
+		while (true) {
+			FileTime modified = Files.getLastModifiedTime(file);
+			if (!modified.equals(compiled)) {
+				compiled = modified;
+				long start = System.nanoTime();
+				if (compiler.compile(CharStreams.fromPath(file))) {
+					System.out.println("Compiled in " + (System.nanoTime() - start) / 1000 + " us: "
+							+ compiler.reusedDeclarations + " reused and " + compiler.compiledDeclarations + " compiled declarations.");
+					Files.writeString(Paths.get(file + ".asm"), compiler.getAssembly());
+					new ExecuteVM(compiler.getCode()).cpu();
+				} else System.out.println("You had " + compiler.frontEndErrors + " front-end errors.");
+				System.out.println("");
+			}
+			Thread.sleep(200);
+		}
+	}
+
+	/**
+	 * Compila il programma riusando il codice delle dichiarazioni globali non modificate.
+	 *
+	 * @param chars sorgente del programma
+	 * @return true se non ci sono errori di front-end; il codice si ottiene allora con getCode() e getAssembly()
+	 */
+	public boolean compile(CharStream chars) {
+		this.codeGenerationVisitor = null;
+		this.reusedDeclarations = 0;
+		this.compiledDeclarations = 0;
+		CompilerSession session = new CompilerSession();
+		FOOLScanner lexer = new FOOLScanner(chars, session.getSymbols());
+		CommonTokenStream tokens = new CommonTokenStream(lexer);
+		TwoStageParser<FOOLParser> twoStageParser = new TwoStageParser<>(() -> new FOOLParser(tokens));
+		ProgContext st = twoStageParser.parse(FOOLParser::prog);
+		FOOLParser parser = twoStageParser.getParser();
+		for (String error : lexer.getErrors()) System.out.println(error);
+		this.frontEndErrors = lexer.lexicalErrors + parser.getNumberOfSyntaxErrors();
+		if (this.frontEndErrors > 0) return false;
+		Node ast = new ASTGenerationSTVisitor().visit(st);
+
+		Map<Node, String> keys = new LinkedHashMap<>();
+		Map<Node, Declaration> declarations = new HashMap<>();
+		if (st.progbody() instanceof LetInProgContext letInContext) {
+			List<ParserRuleContext> contexts = new ArrayList<>(letInContext.cldec());
+			contexts.addAll(letInContext.dec());
+			List<DecNode> declarationList = ((ProgLetInNode) ast).declarationlist;
+			Map<String, String> classKeys = new HashMap<>();
+			MessageDigest environment = digest(null);
+			for (int i = 0; i < declarationList.size(); i++) {
+				DecNode declaration = declarationList.get(i);
+				MessageDigest digest = digest(environment);
+				digest.update(text(tokens, contexts.get(i)).getBytes(StandardCharsets.UTF_8));
+				if (declaration instanceof ClassNode classNode && classNode.superClassId.isPresent())
+					digest.update(classKeys.getOrDefault(classNode.superClassId.get(), "").getBytes(StandardCharsets.UTF_8));
+				String key = HexFormat.of().formatHex(digest.digest());
+				if (declaration instanceof ClassNode classNode) classKeys.put(classNode.classId, key);
+				keys.put(declaration, key);
+				if (this.cache.containsKey(key)) declarations.put(declaration, this.cache.get(key));
+				environment.update(signature(declaration).getBytes(StandardCharsets.UTF_8));
+			}
+		}
+
+		Set<Node> checked = new HashSet<>(declarations.keySet());
+		for (Node declaration : declarations.keySet())
+			if (declaration instanceof ClassNode classNode) checked.addAll(classNode.methodList);
+		SymbolTableASTVisitor symtableVisitor = new SymbolTableASTVisitor(checked);
+		symtableVisitor.visit(ast);
+		try {
+			new TypeCheckEASTVisitor(session, checked).visit(ast);
+		} catch (IncomplException e) {
+			System.out.println("Could not determine main program expression type due to errors detected before type checking.");
+		} catch (TypeException e) {
+			System.out.println("Type checking error in main program expression: " + e.text);
+		}
+		this.frontEndErrors += symtableVisitor.stErrors + session.getTypeErrors();
+		if (this.frontEndErrors > 0) return false;
+
+		this.reusedDeclarations = declarations.size();
+		this.compiledDeclarations = keys.size() - declarations.size();
+		this.codeGenerationVisitor = new CodeGenerationASTVisitor(session, this.display, declarations);
+		this.codeGenerationVisitor.visit(ast);
+		Map<String, Declaration> cache = new HashMap<>();
+		keys.forEach((declaration, key) -> cache.put(key, declarations.get(declaration)));
+		this.cache = cache;
+		return true;
+	}
+
+	/**
+	 * @return il codice binario dell'ultima compilazione riuscita, da eseguire con ExecuteVM
+	 */
+	public int[] getCode() {
+		return this.codeGenerationVisitor.getCode();
+	}
+
+	/**
+	 * @return il codice dell'ultima compilazione riuscita in forma testuale
+	 */
+	public String getAssembly() {
+		return this.codeGenerationVisitor.getAssembly();
+	}
+
+	/**
+	 * @param environment digest da cui proseguire, null per uno nuovo
+	 * @return un digest SHA-256 con lo stato di environment, che resta utilizzabile
+	 */
+	private static MessageDigest digest(MessageDigest environment) {
+		try {
+			return environment == null ? MessageDigest.getInstance("SHA-256") : (MessageDigest) environment.clone();
+		} catch (NoSuchAlgorithmException | CloneNotSupportedException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * @return i token della dichiarazione separati da spazi, senza spazi e commenti del sorgente
+	 */
+	private static String text(CommonTokenStream tokens, ParserRuleContext context) {
+		StringBuilder text = new StringBuilder();
+		for (Token token : tokens.get(context.getStart().getTokenIndex(), context.getStop().getTokenIndex()))
+			if (token.getChannel() == Token.DEFAULT_CHANNEL) text.append(token.getText()).append(' ');
+		return text.toString();
+	}
+
+	/**
+	 * @return l'intestazione della dichiarazione, cioè quello che ne vedono le dichiarazioni successive
+	 */
+	private static String signature(DecNode declaration) {
+		if (declaration instanceof FunNode funNode)
+			return "fun " + funNode.id + ":" + typeName(funNode.returnType) + parameters(funNode.parameterlist) + "\n";
+		if (declaration instanceof VarNode varNode)
+			return "var " + varNode.id + ":" + typeName(varNode.getType()) + "\n";
+		ClassNode classNode = (ClassNode) declaration;
+		StringBuilder signature = new StringBuilder("class " + classNode.classId);
+		classNode.superClassId.ifPresent(superId -> signature.append(" extends ").append(superId));
+		for (FieldNode field : classNode.fieldList) signature.append(" ").append(field.id).append(":").append(typeName(field.getType()));
+		for (MethodNode method : classNode.methodList)
+			signature.append(" ").append(method.id).append(":").append(typeName(method.returnType)).append(parameters(method.parameterList));
+		return signature.append("\n").toString();
+	}
+
+	private static String parameters(List<ParNode> parameterList) {
+		StringJoiner parameters = new StringJoiner(",", "(", ")");
+		for (ParNode parameter : parameterList) parameters.add(typeName(parameter.getType()));
+		return parameters.toString();
+	}
+
+	private static String typeName(TypeNode type) {
+		if (type instanceof IntTypeNode) return "int";
+		if (type instanceof BoolTypeNode) return "bool";
+		if (type instanceof RefTypeNode refTypeNode) return refTypeNode.typeId;
+		return type.getClass().getSimpleName();
+	}
+}
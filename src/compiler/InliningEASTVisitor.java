@@ -0,0 +1,472 @@
+package compiler;
+
+import compiler.AST.*;
+import compiler.lib.*;
+
+import java.util.*;
+
+/**
+ * Trasformazione AST-to-AST che sostituisce le chiamate a funzioni piccole e a metodi
+ * devirtualizzati con il corpo della funzione chiamata, eliminando il costo della
+ * convenzione di chiamata (control link, access link, return address, pop di parametri).
+ * Va eseguita dopo TypeCheckEASTVisitor su un E-AST senza errori; l'AST restituito da
+ * {@link #inline(Node)} è già arricchito di nuovo (nesting level e offset ricalcolati).
+ *
+ * Una chiamata viene espansa solo se:
+ * - la funzione non ha dichiarazioni locali e non è ricorsiva;
+ * - il corpo non supera la soglia di dimensione e il budget complessivo non è esaurito;
+ * - la sostituzione dei parametri con gli argomenti non cambia la semantica: gli argomenti
+ *   senza effetti possono essere valutati al più una volta per cammino (i letterali e gli id
+ *   quante volte si vuole), un solo argomento con effetti è ammesso se il corpo è privo di
+ *   effetti e usa il parametro esattamente una volta su ogni cammino;
+ * - i nomi liberi del corpo, nella posizione della chiamata, si riferiscono alle stesse
+ *   dichiarazioni (verificato arricchendo l'AST riscritto e confrontando le STentry).
+ * Un metodo è devirtualizzato se nessuna sottoclasse del tipo statico dell'oggetto lo
+ * ridefinisce; viene espanso solo se il suo corpo non usa campi o altri metodi della classe,
+ * dato che FOOL non ha un'espressione di accesso ai campi, e se l'oggetto è sicuramente
+ * diverso da null: espandendo il metodo non lo si dereferenzia più, quindi una chiamata su null
+ * non terminerebbe più in errore. Dato che in FOOL le variabili non si riassegnano, questo vale
+ * per le variabili inizializzate con new.
+ */
+public class InliningEASTVisitor extends RewriteEASTVisitor {
+
+	public static final int DEFAULT_SIZE_THRESHOLD = 16;
+	public static final int DEFAULT_BUDGET = 500;
+
+	/**
+	 * Una chiamata in corso di espansione: gli id dei parametri incontrati nel corpo
+	 * vengono sostituiti dagli argomenti, visitati nel contesto della chiamata.
+	 */
+	private static class Inlining {
+		final Node callSite;
+		final int bodyLevel;
+		final List<Node> arguments;
+		final Inlining outer;
+
+		Inlining(Node callSite, int bodyLevel, List<Node> arguments, Inlining outer) {
+			this.callSite = callSite;
+			this.bodyLevel = bodyLevel;
+			this.arguments = arguments;
+			this.outer = outer;
+		}
+	}
+
+	/**
+	 * Un nome libero copiato dal corpo di una funzione espansa, da verificare dopo l'arricchimento.
+	 */
+	private static class FreeName {
+		Node copy;
+		final STentry original;
+		final Node callSite;
+
+		FreeName(Node copy, STentry original, Node callSite) {
+			this.copy = copy;
+			this.original = original;
+			this.callSite = callSite;
+		}
+	}
+
+	private final int sizeThreshold;
+	private final int budget;
+	private int usedBudget;
+
+	/**
+	 * Una riga per ogni chiamata espansa.
+	 */
+	public final List<String> report = new ArrayList<>();
+
+	private final Map<STentry, FunNode> functions = new HashMap<>();
+	private final Map<String, ClassNode> classes = new HashMap<>();
+	private final Set<STentry> newObjects = new HashSet<>();
+	private final Set<Node> excludedCallSites = new HashSet<>();
+	private final List<FreeName> freeNames = new ArrayList<>();
+	private Inlining current;
+
+	/**
+	 * @param sizeThreshold numero massimo di nodi del corpo di una funzione espandibile
+	 * @param budget numero massimo di nodi aggiunti complessivamente dalle espansioni
+	 */
+	public InliningEASTVisitor(int sizeThreshold, int budget) {
+		this.sizeThreshold = sizeThreshold;
+		this.budget = budget;
+	}
+
+	/**
+	 * Esegue l'inlining sull'E-AST e arricchisce l'AST risultante.
+	 * Se un nome libero di un corpo espanso verrebbe catturato da una dichiarazione
+	 * visibile nel punto di chiamata, la chiamata viene esclusa e la trasformazione ripetuta.
+	 *
+	 * @param ast radice dell'E-AST
+	 * @return radice dell'AST trasformato e arricchito
+	 */
+	public Node inline(Node ast) {
+		this.collectDeclarations(ast);
+		while (true) {
+			this.usedBudget = 0;
+			this.report.clear();
+			this.freeNames.clear();
+			Node result = this.visit(ast);
+			if (enrich(result) > 0) { // non dovrebbe succedere: si rinuncia a espandere
+				this.report.clear();
+				return ast;
+			}
+			Set<Node> captured = new HashSet<>();
+			for (FreeName name : this.freeNames) {
+				STentry entry = entryOf(name.copy);
+				if (entry == null || entry.nl != name.original.nl || entry.offset != name.original.offset)
+					captured.add(name.callSite);
+			}
+			if (captured.isEmpty()) return result;
+			this.excludedCallSites.addAll(captured);
+		}
+	}
+
+	private static STentry entryOf(Node node) {
+		if (node instanceof IdNode idNode) return idNode.entry;
+		if (node instanceof CallNode callNode) return callNode.entry;
+		if (node instanceof ClassCallNode classCallNode) return classCallNode.symbolTableEntry;
+		return null;
+	}
+
+	private void collectDeclarations(Node ast) {
+		new ScanEASTVisitor() {
+			@Override
+			public Void visitNode(FunNode node) {
+				if (node.entry != null) InliningEASTVisitor.this.functions.put(node.entry, node);
+				return super.visitNode(node);
+			}
+
+			@Override
+			public Void visitNode(ClassNode node) {
+				InliningEASTVisitor.this.classes.put(node.classId, node);
+				return super.visitNode(node);
+			}
+
+			@Override
+			public Void visitNode(VarNode node) {
+				if (node.entry != null && node.expression instanceof NewNode)
+					InliningEASTVisitor.this.newObjects.add(node.entry);
+				return super.visitNode(node);
+			}
+		}.visit(ast);
+	}
+
+	/*
+	 * riscrittura dei nodi
+	 */
+
+	@Override
+	public Node visitNode(IdNode node) {
+		Inlining inlining = this.current;
+		if (inlining != null && node.entry != null && node.entry.nl == inlining.bodyLevel) {
+			// parametro della funzione espansa: viene sostituito dall'argomento
+			this.current = inlining.outer;
+			Node argument = this.visit(inlining.arguments.get(node.entry.offset - 1));
+			this.current = inlining;
+			return argument;
+		}
+		return this.recordFreeName(node.entry, super.visitNode(node));
+	}
+
+	@Override
+	public Node visitNode(CallNode node) {
+		FunNode callee = this.functions.get(node.entry);
+		if (callee != null && callee.declarationlist.isEmpty()
+				&& this.canInline(node, callee.expression, callee.entry.nl + 1, node.argumentList)) {
+			this.report.add("Inlined function " + callee.id + " at line " + node.getLine());
+			return this.expand(node, callee.expression, callee.entry.nl + 1);
+		}
+		return this.recordFreeName(node.entry, super.visitNode(node));
+	}
+
+	@Override
+	public Node visitNode(ClassCallNode node) {
+		MethodNode method = this.devirtualize(node);
+		if (method != null && method.declarationList.isEmpty() && this.usesOnlyGlobals(method) && this.isNotNull(node)
+				&& this.canInline(node, method.expression, node.methodEntry.nl + 1, node.argumentList)) {
+			this.report.add("Inlined method " + node.methodId + " at line " + node.getLine());
+			return this.expand(node, method.expression, node.methodEntry.nl + 1);
+		}
+		Inlining inlining = this.current;
+		if (inlining != null && node.symbolTableEntry != null && node.symbolTableEntry.nl == inlining.bodyLevel) {
+			// l'oggetto è un parametro della funzione espansa: si usa l'id passato come argomento
+			this.current = inlining.outer;
+			IdNode receiver = (IdNode) this.visit(inlining.arguments.get(node.symbolTableEntry.offset - 1));
+			this.current = inlining;
+			ClassCallNode classCallNode = new ClassCallNode(receiver.id, node.methodId, this.visitList(node.argumentList));
+			classCallNode.symbolTableEntry = receiver.entry;
+			classCallNode.methodEntry = node.methodEntry;
+			classCallNode.nestingLevel = receiver.nestingLevel;
+			for (FreeName name : this.freeNames)
+				if (name.copy == receiver) name.copy = classCallNode;
+			return withLine(node, classCallNode);
+		}
+		return this.recordFreeName(node.symbolTableEntry, super.visitNode(node));
+	}
+
+	private Node recordFreeName(STentry entry, Node copy) {
+		if (this.current != null && entry != null)
+			this.freeNames.add(new FreeName(copy, entry, this.current.callSite));
+		return copy;
+	}
+
+	private Node expand(Node callSite, Node body, int bodyLevel) {
+		this.usedBudget += countNodes(body);
+		Inlining inlining = new Inlining(callSite, bodyLevel, callSite instanceof CallNode callNode ?
+				callNode.argumentList : ((ClassCallNode) callSite).argumentList, this.current);
+		this.current = inlining;
+		Node result = this.visit(body);
+		this.current = inlining.outer;
+		return result;
+	}
+
+	/*
+	 * analisi
+	 */
+
+	/**
+	 * Trova il metodo invocato da una ClassCallNode se il tipo statico dell'oggetto lo determina.
+	 *
+	 * @param node chiamata di metodo
+	 * @return il MethodNode invocato o null se la chiamata è polimorfa
+	 */
+	private MethodNode devirtualize(ClassCallNode node) {
+		if (node.symbolTableEntry == null || node.methodEntry == null
+				|| !(node.symbolTableEntry.type instanceof RefTypeNode refTypeNode)) return null;
+		ClassNode staticClass = this.classes.get(refTypeNode.typeId);
+		if (staticClass == null) return null;
+		for (ClassNode subclass : this.classes.values())
+			if (subclass != staticClass && this.isSubclass(subclass, staticClass))
+				for (MethodNode method : subclass.methodList)
+					if (method.offset == node.methodEntry.offset) return null;
+		for (ClassNode c = staticClass; c != null; c = c.superClassId.map(this.classes::get).orElse(null))
+			for (MethodNode method : c.methodList)
+				if (method.offset == node.methodEntry.offset) return method;
+		return null;
+	}
+
+	/**
+	 * @param node chiamata di metodo
+	 * @return true se l'oggetto è una variabile inizializzata con new, anche quando è passato come
+	 *         argomento a una funzione in espansione
+	 */
+	private boolean isNotNull(ClassCallNode node) {
+		STentry entry = node.symbolTableEntry;
+		Inlining inlining = this.current;
+		if (inlining != null && entry != null && entry.nl == inlining.bodyLevel) {
+			IdNode receiver = this.receiverOf(inlining.arguments.get(entry.offset - 1), inlining.outer);
+			entry = receiver == null ? null : receiver.entry;
+		}
+		return entry != null && this.newObjects.contains(entry);
+	}
+
+	private boolean isSubclass(ClassNode subclass, ClassNode superclass) {
+		for (ClassNode c = subclass; c != null; c = c.superClassId.map(this.classes::get).orElse(null))
+			if (c == superclass) return true;
+		return false;
+	}
+
+	/**
+	 * @param method metodo
+	 * @return true se il corpo del metodo usa solo i parametri e dichiarazioni globali
+	 */
+	private boolean usesOnlyGlobals(MethodNode method) {
+		final boolean[] onlyGlobals = {true};
+		new ScanEASTVisitor() {
+			private void check(STentry entry) {
+				if (entry == null || (entry.nl != 0 && entry.nl != 2)) onlyGlobals[0] = false;
+			}
+
+			@Override
+			public Void visitNode(IdNode node) {
+				this.check(node.entry);
+				return super.visitNode(node);
+			}
+
+			@Override
+			public Void visitNode(CallNode node) {
+				this.check(node.entry);
+				return super.visitNode(node);
+			}
+
+			@Override
+			public Void visitNode(ClassCallNode node) {
+				this.check(node.symbolTableEntry);
+				return super.visitNode(node);
+			}
+		}.visit(method.expression);
+		return onlyGlobals[0];
+	}
+
+	private boolean canInline(Node callSite, Node body, int bodyLevel, List<Node> arguments) {
+		if (this.excludedCallSites.contains(callSite)) return false;
+		for (Inlining i = this.current; i != null; i = i.outer)
+			if (i.callSite == callSite) return false;
+		int size = countNodes(body);
+		if (size > this.sizeThreshold || this.usedBudget + size > this.budget) return false;
+		if (callSite instanceof CallNode callNode && calls(body, callNode.entry)) return false;
+
+		ParameterUses uses = new ParameterUses(bodyLevel, arguments.size());
+		uses.visit(body);
+		int effectfulArguments = 0;
+		for (int i = 0; i < arguments.size(); i++) {
+			Node argument = this.effectiveArgument(arguments.get(i), this.current);
+			if (uses.receivers.contains(i) && this.receiverOf(arguments.get(i), this.current) == null) return false;
+			if (isAtom(argument)) continue;
+			if (!hasEffects(argument)) {
+				if (uses.max[i] > 1) return false;
+			} else {
+				effectfulArguments++;
+				if (uses.min[i] != 1 || uses.max[i] != 1) return false;
+			}
+		}
+		return effectfulArguments == 0 || (effectfulArguments == 1 && !hasEffects(body));
+	}
+
+	/**
+	 * Un argomento che è a sua volta un parametro di una funzione in espansione
+	 * verrà sostituito dall'argomento di quella chiamata.
+	 */
+	private Node effectiveArgument(Node argument, Inlining inlining) {
+		if (inlining != null && argument instanceof IdNode idNode && idNode.entry != null
+				&& idNode.entry.nl == inlining.bodyLevel)
+			return this.effectiveArgument(inlining.arguments.get(idNode.entry.offset - 1), inlining.outer);
+		return argument;
+	}
+
+	private IdNode receiverOf(Node argument, Inlining inlining) {
+		Node effective = this.effectiveArgument(argument, inlining);
+		return effective instanceof IdNode idNode ? idNode : null;
+	}
+
+	private static boolean isAtom(Node node) {
+		return node instanceof IntNode || node instanceof BoolNode || node instanceof EmptyNode || node instanceof IdNode;
+	}
+
+	private static boolean calls(Node body, STentry function) {
+		final boolean[] found = {false};
+		new ScanEASTVisitor() {
+			@Override
+			public Void visitNode(CallNode node) {
+				if (node.entry == function) found[0] = true;
+				return super.visitNode(node);
+			}
+		}.visit(body);
+		return found[0];
+	}
+
+	/**
+	 * @param node espressione
+	 * @return true se la valutazione può stampare, non terminare, fallire o allocare
+	 */
+	private static boolean hasEffects(Node node) {
+		final boolean[] effects = {false};
+		new ScanEASTVisitor() {
+			@Override
+			public Void visitNode(PrintNode node) {
+				effects[0] = true;
+				return null;
+			}
+
+			@Override
+			public Void visitNode(CallNode node) {
+				effects[0] = true;
+				return null;
+			}
+
+			@Override
+			public Void visitNode(ClassCallNode node) {
+				effects[0] = true;
+				return null;
+			}
+
+			@Override
+			public Void visitNode(NewNode node) {
+				effects[0] = true;
+				return null;
+			}
+
+			@Override
+			public Void visitNode(DivNode node) {
+				effects[0] = true;
+				return null;
+			}
+		}.visit(node);
+		return effects[0];
+	}
+
+	/**
+	 * Conta, per ogni parametro, il numero minimo e massimo di usi lungo i cammini di
+	 * esecuzione del corpo. Gli usi come oggetto di una chiamata di metodo sono anche
+	 * registrati in receivers.
+	 */
+	private static class ParameterUses extends ScanEASTVisitor {
+		final int level;
+		int[] min;
+		int[] max;
+		final Set<Integer> receivers = new HashSet<>();
+
+		ParameterUses(int level, int parameters) {
+			this.level = level;
+			this.min = new int[parameters];
+			this.max = new int[parameters];
+		}
+
+		private void use(STentry entry) {
+			if (entry != null && entry.nl == this.level) {
+				this.min[entry.offset - 1]++;
+				this.max[entry.offset - 1]++;
+			}
+		}
+
+		@Override
+		public Void visitNode(IdNode node) {
+			this.use(node.entry);
+			return null;
+		}
+
+		@Override
+		public Void visitNode(ClassCallNode node) {
+			this.use(node.symbolTableEntry);
+			if (node.symbolTableEntry != null && node.symbolTableEntry.nl == this.level)
+				this.receivers.add(node.symbolTableEntry.offset - 1);
+			return super.visitNode(node);
+		}
+
+		@Override
+		public Void visitNode(IfNode node) {
+			this.visit(node.cond);
+			int[] condMin = this.min.clone(), condMax = this.max.clone();
+			this.visit(node.thenNode);
+			int[] thenMin = this.min, thenMax = this.max;
+			this.min = condMin.clone();
+			this.max = condMax.clone();
+			this.visit(node.elseNode);
+			for (int i = 0; i < this.min.length; i++) {
+				this.min[i] = Math.min(this.min[i], thenMin[i]);
+				this.max[i] = Math.max(this.max[i], thenMax[i]);
+			}
+			return null;
+		}
+
+		@Override
+		public Void visitNode(AndNode node) {
+			this.visitConditionally(node.left, node.right);
+			return null;
+		}
+
+		@Override
+		public Void visitNode(OrNode node) {
+			this.visitConditionally(node.left, node.right);
+			return null;
+		}
+
+		// il secondo operando di AND e OR può non essere valutato
+		private void visitConditionally(Node always, Node maybe) {
+			this.visit(always);
+			int[] alwaysMin = this.min.clone();
+			this.visit(maybe);
+			this.min = alwaysMin;
+		}
+	}
+}
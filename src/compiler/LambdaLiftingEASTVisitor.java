@@ -0,0 +1,345 @@
+package compiler;
+
+import compiler.AST.*;
+import compiler.lib.*;
+
+import java.util.*;
+
+/**
+ * Trasformazione AST-to-AST che porta a livello globale le funzioni annidate in altre funzioni
+ * (lambda lifting). Le variabili e i parametri delle funzioni che le racchiudono usati dalla
+ * funzione diventano parametri aggiuntivi, passati esplicitamente a ogni chiamata: il codice
+ * non deve più risalire la static chain con una lw per ogni livello di annidamento.
+ * FOOL non ha funzioni di prima classe, quindi una funzione annidata è usata solo come
+ * destinazione di CallNode e le sue chiamate si possono riscrivere tutte.
+ *
+ * Le funzioni portate fuori vengono dichiarate subito prima della funzione globale che le
+ * conteneva, in post-ordine, con nome "esterna$interna" (il $ non può comparire in un ID FOOL).
+ * I parametri aggiunti si chiamano "id$nl", con nl nesting level della dichiarazione catturata.
+ * Una funzione resta annidata se:
+ * - è dichiarata dentro un metodo (il suo ambiente comprende i campi dell'oggetto);
+ * - chiama una funzione che la racchiude, che a livello globale sarebbe dichiarata dopo di lei;
+ * - la funzione che la racchiude, una funzione annidata in lei, o una funzione annidata
+ *   che chiama o da cui è chiamata resta annidata.
+ * Va eseguita dopo TypeCheckEASTVisitor su un E-AST senza errori; l'AST restituito da
+ * {@link #lift(Node)} è già arricchito di nuovo.
+ */
+public class LambdaLiftingEASTVisitor extends RewriteEASTVisitor {
+
+	/**
+	 * Informazioni su una funzione annidata raccolte prima della riscrittura.
+	 */
+	private static class NestedFunction {
+		final FunNode node;
+		final NestedFunction parent; // null se la funzione che la racchiude è globale
+		final FunNode topLevel;
+		final String name;
+		final List<NestedFunction> children = new ArrayList<>();
+		final Set<STentry> uses = new HashSet<>(); // variabili delle funzioni che la racchiudono
+		final Set<STentry> calls = new HashSet<>();
+		boolean lifted;
+		List<STentry> captured = new ArrayList<>();
+
+		NestedFunction(FunNode node, NestedFunction parent, FunNode topLevel, String name, boolean liftable) {
+			this.node = node;
+			this.parent = parent;
+			this.topLevel = topLevel;
+			this.name = name;
+			this.lifted = liftable;
+		}
+	}
+
+	private final Map<FunNode, NestedFunction> nestedFunctions = new LinkedHashMap<>();
+	private final Map<STentry, NestedFunction> nestedByEntry = new HashMap<>();
+	private final Map<STentry, String> declarationIds = new HashMap<>();
+	private NestedFunction current;
+	private List<DecNode> liftedDeclarations = new ArrayList<>();
+	private final Map<FunNode, List<DecNode>> rewrittenTopLevel = new HashMap<>();
+
+	/**
+	 * Numero di funzioni portate a livello globale dall'ultima {@link #lift(Node)}.
+	 */
+	public int liftedFunctions;
+
+	/**
+	 * Numero di lw emesse per risalire la static chain prima e dopo la trasformazione
+	 * (conteggio statico sul codice generato, non sulle istruzioni eseguite).
+	 */
+	public int staticChainHopsBefore;
+	public int staticChainHopsAfter;
+
+	public LambdaLiftingEASTVisitor() {}
+
+	/**
+	 * Esegue il lambda lifting sull'E-AST e arricchisce l'AST risultante.
+	 *
+	 * @param ast radice dell'E-AST
+	 * @return radice dell'AST trasformato e arricchito
+	 */
+	public Node lift(Node ast) {
+		this.staticChainHopsBefore = countStaticChainHops(ast);
+		this.collectNestedFunctions(ast);
+		this.selectLiftedFunctions();
+		this.computeCapturedVariables();
+		while (true) {
+			this.liftedFunctions = 0;
+			this.rewrittenTopLevel.clear();
+			Node result = this.visit(ast);
+			if (enrich(result) > 0) { // non dovrebbe succedere: si rinuncia a portare fuori le funzioni
+				this.liftedFunctions = 0;
+				this.staticChainHopsAfter = this.staticChainHopsBefore;
+				return ast;
+			}
+			if (!this.revertUnprofitableLifting()) {
+				this.staticChainHopsAfter = countStaticChainHops(result);
+				return result;
+			}
+		}
+	}
+
+	/**
+	 * Una funzione globale raggiunge con una lw in più le funzioni annidate portate a livello globale:
+	 * se per una funzione globale le lw complessive aumentano, le sue funzioni annidate restano al loro posto.
+	 *
+	 * @return true se è stato annullato il lifting di qualche funzione globale
+	 */
+	private boolean revertUnprofitableLifting() {
+		boolean reverted = false;
+		for (Map.Entry<FunNode, List<DecNode>> group : this.rewrittenTopLevel.entrySet()) {
+			int hopsAfter = 0;
+			for (DecNode declaration : group.getValue()) hopsAfter += countStaticChainHops(declaration);
+			if (hopsAfter <= countStaticChainHops(group.getKey())) continue;
+			for (NestedFunction function : this.nestedFunctions.values())
+				if (function.topLevel == group.getKey() && function.lifted) {
+					function.lifted = false;
+					reverted = true;
+				}
+		}
+		return reverted;
+	}
+
+	/**
+	 * Conta le lw che il generatore di codice emette per accedere a id e funzioni
+	 * dichiarati a un nesting level inferiore.
+	 *
+	 * @param ast radice dell'E-AST
+	 * @return numero di lw sulla static chain
+	 */
+	public static int countStaticChainHops(Node ast) {
+		final int[] hops = {0};
+		new ScanEASTVisitor() {
+			@Override
+			public Void visitNode(IdNode node) {
+				if (node.entry != null) hops[0] += node.nestingLevel - node.entry.nl;
+				return super.visitNode(node);
+			}
+
+			@Override
+			public Void visitNode(CallNode node) {
+				if (node.entry != null) hops[0] += node.nestingLevel - node.entry.nl;
+				return super.visitNode(node);
+			}
+
+			@Override
+			public Void visitNode(ClassCallNode node) {
+				if (node.symbolTableEntry != null) hops[0] += node.nestingLevel - node.symbolTableEntry.nl;
+				return super.visitNode(node);
+			}
+		}.visit(ast);
+		return hops[0];
+	}
+
+	/*
+	 * analisi
+	 */
+
+	private void collectNestedFunctions(Node ast) {
+		new ScanEASTVisitor() {
+			// funzioni che racchiudono il codice visitato, dalla più interna
+			private final Deque<FunNode> enclosing = new ArrayDeque<>();
+			private int methods = 0;
+
+			private NestedFunction owner() {
+				FunNode function = this.enclosing.peek();
+				return function == null ? null : LambdaLiftingEASTVisitor.this.nestedFunctions.get(function);
+			}
+
+			@Override
+			public Void visitNode(FunNode node) {
+				FunNode parentNode = this.enclosing.peek();
+				if (parentNode != null) {
+					NestedFunction parent = this.owner();
+					String prefix = parent == null ? parentNode.id : parent.name;
+					NestedFunction nested = new NestedFunction(node, parent, this.enclosing.peekLast(), prefix + "$" + node.id,
+							this.methods == 0);
+					if (parent != null) parent.children.add(nested);
+					LambdaLiftingEASTVisitor.this.nestedFunctions.put(node, nested);
+					LambdaLiftingEASTVisitor.this.nestedByEntry.put(node.entry, nested);
+				}
+				this.enclosing.push(node);
+				super.visitNode(node);
+				this.enclosing.pop();
+				return null;
+			}
+
+			@Override
+			public Void visitNode(MethodNode node) {
+				this.methods++;
+				super.visitNode(node);
+				this.methods--;
+				return null;
+			}
+
+			@Override
+			public Void visitNode(IdNode node) {
+				NestedFunction owner = this.owner();
+				if (owner != null && node.entry != null && node.entry.nl >= 1 && node.entry.nl <= owner.node.entry.nl) {
+					owner.uses.add(node.entry);
+					LambdaLiftingEASTVisitor.this.declarationIds.put(node.entry, node.id);
+				}
+				return super.visitNode(node);
+			}
+
+			@Override
+			public Void visitNode(CallNode node) {
+				NestedFunction owner = this.owner();
+				if (owner != null && node.entry != null) {
+					owner.calls.add(node.entry);
+					for (FunNode function : this.enclosing)
+						if (function != owner.node && function.entry == node.entry) owner.lifted = false;
+				}
+				return super.visitNode(node);
+			}
+		}.visit(ast);
+	}
+
+	private void selectLiftedFunctions() {
+		boolean changed = true;
+		while (changed) {
+			changed = false;
+			for (NestedFunction function : this.nestedFunctions.values())
+				if (function.lifted && !this.canStayLifted(function)) {
+					function.lifted = false;
+					changed = true;
+				}
+		}
+	}
+
+	private boolean canStayLifted(NestedFunction function) {
+		if (function.parent != null && !function.parent.lifted) return false;
+		for (NestedFunction child : function.children)
+			if (!child.lifted) return false;
+		for (STentry callee : function.calls) {
+			NestedFunction nested = this.nestedByEntry.get(callee);
+			if (nested != null && !nested.lifted) return false;
+		}
+		for (NestedFunction caller : this.nestedFunctions.values())
+			if (!caller.lifted && caller.calls.contains(function.node.entry)) return false;
+		return true;
+	}
+
+	/**
+	 * Le variabili catturate da una funzione sono quelle che usa direttamente più quelle
+	 * catturate dalle funzioni annidate che chiama, esclusi i suoi parametri e le sue variabili.
+	 */
+	private void computeCapturedVariables() {
+		Map<NestedFunction, Set<STentry>> captured = new HashMap<>();
+		for (NestedFunction function : this.nestedFunctions.values())
+			if (function.lifted) captured.put(function, new HashSet<>(function.uses));
+		boolean changed = true;
+		while (changed) {
+			changed = false;
+			for (NestedFunction function : captured.keySet())
+				for (STentry callee : function.calls) {
+					NestedFunction nested = this.nestedByEntry.get(callee);
+					if (nested == null) continue;
+					for (STentry entry : captured.get(nested))
+						if (entry.nl <= function.node.entry.nl && captured.get(function).add(entry)) changed = true;
+				}
+		}
+		for (Map.Entry<NestedFunction, Set<STentry>> entry : captured.entrySet()) {
+			List<STentry> variables = new ArrayList<>(entry.getValue());
+			variables.sort(Comparator.comparingInt((STentry e) -> e.nl).thenComparingInt(e -> e.offset));
+			entry.getKey().captured = variables;
+		}
+	}
+
+	private String capturedId(STentry entry) {
+		return this.declarationIds.get(entry) + "$" + entry.nl;
+	}
+
+	/*
+	 * riscrittura dei nodi
+	 */
+
+	@Override
+	protected List<DecNode> visitDeclarations(List<? extends DecNode> declarations) {
+		List<DecNode> result = new ArrayList<>();
+		for (DecNode declaration : declarations) {
+			DecNode rewritten = (DecNode) this.visit(declaration);
+			if (rewritten != null) result.add(rewritten);
+		}
+		return result;
+	}
+
+	@Override
+	public Node visitNode(ProgLetInNode node) {
+		if (this.print) this.printNode(node);
+		List<DecNode> declarations = new ArrayList<>();
+		for (DecNode declaration : node.declarationlist) {
+			this.liftedDeclarations = new ArrayList<>();
+			DecNode rewritten = (DecNode) this.visit(declaration);
+			declarations.addAll(this.liftedDeclarations);
+			declarations.add(rewritten);
+			if (declaration instanceof FunNode funNode && !this.liftedDeclarations.isEmpty()) {
+				this.liftedDeclarations.add(rewritten);
+				this.rewrittenTopLevel.put(funNode, this.liftedDeclarations);
+			}
+		}
+		return withLine(node, new ProgLetInNode(declarations, this.visit(node.exp)));
+	}
+
+	@Override
+	public Node visitNode(FunNode node) {
+		NestedFunction function = this.nestedFunctions.get(node);
+		NestedFunction outer = this.current;
+		this.current = function;
+		try {
+			if (function == null || !function.lifted) return super.visitNode(node);
+			if (this.print) this.printNode(node, node.id);
+			List<ParNode> parameters = this.visitParameters(node.parameterlist);
+			for (STentry entry : function.captured)
+				parameters.add(withLine(node, new ParNode(this.capturedId(entry), entry.type)));
+			List<DecNode> declarations = this.visitDeclarations(node.declarationlist);
+			FunNode lifted = new FunNode(function.name, node.returnType, parameters, declarations, this.visit(node.expression));
+			this.liftedDeclarations.add(withLine(node, lifted));
+			this.liftedFunctions++;
+			return null;
+		} finally {
+			this.current = outer;
+		}
+	}
+
+	@Override
+	public Node visitNode(IdNode node) {
+		if (this.current != null && this.current.lifted && this.current.captured.contains(node.entry)) {
+			if (this.print) this.printNode(node, node.id);
+			return withLine(node, new IdNode(this.capturedId(node.entry)));
+		}
+		return super.visitNode(node);
+	}
+
+	@Override
+	public Node visitNode(CallNode node) {
+		NestedFunction callee = this.nestedByEntry.get(node.entry);
+		if (callee == null || !callee.lifted) return super.visitNode(node);
+		if (this.print) this.printNode(node, node.id);
+		List<Node> arguments = this.visitList(node.argumentList);
+		for (STentry entry : callee.captured) {
+			boolean capturedHere = this.current != null && this.current.lifted && this.current.captured.contains(entry);
+			String id = capturedHere ? this.capturedId(entry) : this.declarationIds.get(entry);
+			arguments.add(withLine(node, new IdNode(id)));
+		}
+		return withLine(node, new CallNode(callee.name, arguments));
+	}
+}
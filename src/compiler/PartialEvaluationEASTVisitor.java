@@ -0,0 +1,476 @@
+package compiler;
+
+import compiler.AST.*;
+import compiler.exc.*;
+import compiler.lib.*;
+
+import java.util.*;
+
+/**
+ * Trasformazione AST-to-AST che esegue a tempo di compilazione le parti pure del programma.
+ * Un programma FOOL non legge input, quindi gli inizializzatori delle variabili globali e le chiamate
+ * con argomenti costanti hanno sempre lo stesso valore: un interprete dell'E-AST li valuta con un
+ * budget di passi (fuel) e, se la valutazione termina senza stampare e senza errori, il nodo viene
+ * sostituito dal valore. Il resto del programma viene semplificato come in ConstantFoldingEASTVisitor,
+ * di cui questa classe riusa le riscritture.
+ * Va eseguita dopo TypeCheckEASTVisitor su un E-AST senza errori; l'AST restituito da
+ * {@link #evaluate(Node)} è già arricchito di nuovo.
+ *
+ * Vengono valutati, nell'ordine del programma:
+ * - l'inizializzatore di ogni variabile globale, il cui valore resta disponibile per quelli successivi;
+ * - le chiamate di funzioni globali e le chiamate di metodo su oggetti globali i cui argomenti sono
+ *   letterali o variabili globali, ovunque compaiano.
+ * Un intero o un booleano diventa un letterale e null diventa un EmptyNode. Un oggetto diventa
+ * un albero di new con argomenti letterali solo se è stato creato dalla valutazione stessa e nessun
+ * oggetto è raggiungibile per due strade: l'uguaglianza confronta gli indirizzi, e ricostruire un
+ * oggetto già esistente o condiviso ne creerebbe copie distinte. Un inizializzatore che non si può
+ * sostituire resta com'è, ma il suo valore continua a servire per valutare il resto: a esecuzione
+ * ogni oggetto creato a tempo di compilazione corrisponde a un solo oggetto creato dal codice generato.
+ */
+public class PartialEvaluationEASTVisitor extends ConstantFoldingEASTVisitor {
+
+	/**
+	 * Passi di interpretazione concessi a ciascuna valutazione.
+	 */
+	public static final int DEFAULT_FUEL = 10000;
+
+	/**
+	 * Chiamate annidate oltre le quali la valutazione viene abbandonata (lo stack della SVM è limitato).
+	 */
+	private static final int MAX_DEPTH = 200;
+
+	/**
+	 * Numero massimo di nodi del valore che sostituisce un'espressione.
+	 */
+	private static final int MAX_RESIDUAL_NODES = 256;
+
+	/**
+	 * Valore null di FOOL durante la valutazione.
+	 */
+	private static final Object NULL = new Object();
+
+	/**
+	 * Una riga per ogni espressione sostituita dal suo valore.
+	 */
+	public final List<String> report = new ArrayList<>();
+
+	/**
+	 * Passi di interpretazione eseguiti dall'ultima {@link #evaluate(Node)}, comprese le valutazioni abbandonate.
+	 */
+	public int consumedFuel = 0;
+
+	private final int fuel;
+	private final Frame globals = new Frame(null);
+	private int evaluations = 0;
+
+	public PartialEvaluationEASTVisitor(int fuel) {
+		this.fuel = fuel;
+	}
+
+	/**
+	 * Valuta le parti pure del programma e arricchisce di nuovo l'AST.
+	 *
+	 * @param ast radice dell'E-AST
+	 * @return radice dell'E-AST in cui le espressioni valutate sono sostituite dal loro valore
+	 */
+	public Node evaluate(Node ast) {
+		if (!(ast instanceof ProgLetInNode)) return ast;
+		Node result = this.visit(ast);
+		if (this.report.isEmpty()) return result;
+		if (enrich(result) > 0) { // non dovrebbe succedere: si rinuncia a valutare
+			this.report.clear();
+			return ast;
+		}
+		return result;
+	}
+
+	/*
+	 * valori dell'interprete: gli interi e i booleani sono Integer (come nella SVM i booleani valgono 1 e 0),
+	 * null è NULL, gli oggetti sono Instance; nei frame le funzioni sono Closure e le classi la loro dispatch table
+	 */
+
+	/**
+	 * Frame di una chiamata: i valori sono indicizzati con gli offset assegnati dalla symbol table.
+	 */
+	private static class Frame {
+		final Frame accessLink;
+		final Map<Integer, Object> slots = new HashMap<>();
+
+		Frame(Frame accessLink) {
+			this.accessLink = accessLink;
+		}
+	}
+
+	/**
+	 * Oggetto: fa da Access Link per i suoi metodi, che leggono i campi agli offset negativi.
+	 */
+	private static class Instance extends Frame {
+		final NewNode origin;
+		final List<MethodNode> dispatchTable;
+		final List<Object> fields;
+		final int evaluation;
+
+		Instance(NewNode origin, List<MethodNode> dispatchTable, List<Object> fields, int evaluation) {
+			super(null);
+			this.origin = origin;
+			this.dispatchTable = dispatchTable;
+			this.fields = fields;
+			this.evaluation = evaluation;
+			for (int i = 0; i < fields.size(); i++) this.slots.put(-i - 1, fields.get(i));
+		}
+	}
+
+	private record Closure(FunNode function, Frame frame) {}
+
+	/**
+	 * Interrompe una valutazione: il codice stampa, sbaglia a esecuzione, legge un valore sconosciuto
+	 * o supera il budget.
+	 */
+	private static class Residual extends RuntimeException {
+		private static final long serialVersionUID = 1L;
+
+		Residual() {
+			super(null, null, false, false);
+		}
+	}
+
+	/**
+	 * Valuta un'espressione in un frame.
+	 *
+	 * @return il valore, o null se la valutazione è stata abbandonata
+	 */
+	private Object tryEvaluate(Node expression, Frame frame) {
+		Evaluator evaluator = new Evaluator(frame, ++this.evaluations);
+		try {
+			return evaluator.visit(expression);
+		} catch (Residual e) {
+			return null;
+		} finally {
+			this.consumedFuel += this.fuel - evaluator.fuel;
+		}
+	}
+
+	/**
+	 * Interprete dell'E-AST con la stessa semantica del codice generato.
+	 */
+	private class Evaluator extends BaseEASTVisitor<Object, VoidException> {
+		private Frame frame;
+		private int fuel = PartialEvaluationEASTVisitor.this.fuel;
+		private int depth = 0;
+		private final int evaluation;
+
+		Evaluator(Frame frame, int evaluation) {
+			this.frame = frame;
+			this.evaluation = evaluation;
+		}
+
+		@Override
+		public Object visit(Visitable v, String mark) {
+			if (--this.fuel < 0) throw new Residual();
+			return super.visit(v, mark);
+		}
+
+		private int integer(Node node) {
+			return (Integer) this.visit(node);
+		}
+
+		private boolean condition(Node node) {
+			return this.integer(node) == 1;
+		}
+
+		private Frame frameAt(int nestingLevel, int declarationNestingLevel) {
+			Frame frame = this.frame;
+			for (int i = 0; i < nestingLevel - declarationNestingLevel; i++) {
+				if (frame.accessLink == null) throw new Residual();
+				frame = frame.accessLink;
+			}
+			return frame;
+		}
+
+		private Object load(Frame frame, int offset) {
+			Object value = frame.slots.get(offset);
+			if (value == null) throw new Residual();
+			return value;
+		}
+
+		/**
+		 * Esegue il corpo di una funzione o di un metodo in un nuovo frame.
+		 */
+		private Object call(Frame accessLink, List<DecNode> declarations, Node body, List<Node> arguments) {
+			Frame callee = new Frame(accessLink);
+			for (int i = arguments.size() - 1; i >= 0; i--) callee.slots.put(i + 1, this.visit(arguments.get(i)));
+			if (++this.depth > MAX_DEPTH) throw new Residual();
+			Frame caller = this.frame;
+			this.frame = callee;
+			for (int i = 0; i < declarations.size(); i++) { // le dichiarazioni locali stanno agli offset -2, -3, ...
+				if (declarations.get(i) instanceof VarNode varNode) callee.slots.put(-i - 2, this.visit(varNode.expression));
+				else declare(declarations.get(i), -i - 2, callee);
+			}
+			Object result = this.visit(body);
+			this.frame = caller;
+			this.depth--;
+			return result;
+		}
+
+		private Object invoke(Object object, int methodOffset, List<Node> arguments) {
+			if (!(object instanceof Instance instance)) throw new Residual(); // chiamata su null
+			MethodNode method = instance.dispatchTable.get(methodOffset);
+			return this.call(instance, method.declarationList, method.expression, arguments);
+		}
+
+		@Override
+		public Object visitNode(IntNode node) {
+			return node.value;
+		}
+
+		@Override
+		public Object visitNode(BoolNode node) {
+			return node.value ? 1 : 0;
+		}
+
+		@Override
+		public Object visitNode(EmptyNode node) {
+			return NULL;
+		}
+
+		@Override
+		public Object visitNode(PrintNode node) {
+			throw new Residual();
+		}
+
+		@Override
+		public Object visitNode(IfNode node) {
+			return this.visit(this.condition(node.cond) ? node.thenNode : node.elseNode);
+		}
+
+		@Override
+		public Object visitNode(EqualNode node) {
+			Object left = this.visit(node.left);
+			Object right = this.visit(node.right);
+			return (left instanceof Integer ? left.equals(right) : left == right) ? 1 : 0;
+		}
+
+		@Override
+		public Object visitNode(LessEqualNode node) {
+			int left = this.integer(node.left);
+			return left <= this.integer(node.right) ? 1 : 0;
+		}
+
+		@Override
+		public Object visitNode(GreaterEqualNode node) {
+			int left = this.integer(node.left);
+			return left >= this.integer(node.right) ? 1 : 0;
+		}
+
+		@Override
+		public Object visitNode(NotNode node) {
+			return this.condition(node.expression) ? 0 : 1;
+		}
+
+		@Override
+		public Object visitNode(AndNode node) {
+			return this.condition(node.left) && this.condition(node.right) ? 1 : 0;
+		}
+
+		@Override
+		public Object visitNode(OrNode node) {
+			return this.condition(node.left) || this.condition(node.right) ? 1 : 0;
+		}
+
+		@Override
+		public Object visitNode(PlusNode node) {
+			int left = this.integer(node.left);
+			return left + this.integer(node.right);
+		}
+
+		@Override
+		public Object visitNode(MinusNode node) {
+			int left = this.integer(node.left);
+			return left - this.integer(node.right);
+		}
+
+		@Override
+		public Object visitNode(TimesNode node) {
+			int left = this.integer(node.left);
+			return left * this.integer(node.right);
+		}
+
+		@Override
+		public Object visitNode(DivNode node) {
+			int left = this.integer(node.left);
+			int right = this.integer(node.right);
+			if (right == 0) throw new Residual(); // l'errore resta a tempo di esecuzione
+			return left / right;
+		}
+
+		@Override
+		public Object visitNode(IdNode node) {
+			return this.load(this.frameAt(node.nestingLevel, node.entry.nl), node.entry.offset);
+		}
+
+		@Override
+		public Object visitNode(BindNode node) {
+			Object value = this.visit(node.expression);
+			this.frame.slots.put(node.entry.offset, value);
+			return value;
+		}
+
+		@Override
+		public Object visitNode(CallNode node) {
+			Frame frame = this.frameAt(node.nestingLevel, node.entry.nl);
+			if (node.entry.type instanceof MethodTypeNode) return this.invoke(frame, node.entry.offset, node.argumentList);
+			if (!(this.load(frame, node.entry.offset) instanceof Closure closure)) throw new Residual();
+			FunNode function = closure.function();
+			return this.call(closure.frame(), function.declarationlist, function.expression, node.argumentList);
+		}
+
+		@Override
+		public Object visitNode(ClassCallNode node) {
+			List<Node> arguments = node.argumentList;
+			Object object = this.load(this.frameAt(node.nestingLevel, node.symbolTableEntry.nl), node.symbolTableEntry.offset);
+			return this.invoke(object, node.methodEntry.offset, arguments);
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public Object visitNode(NewNode node) {
+			List<Object> fields = new ArrayList<>();
+			for (Node argument : node.argumentList) fields.add(this.visit(argument));
+			Object dispatchTable = this.load(PartialEvaluationEASTVisitor.this.globals, node.classSymbolTableEntry.offset);
+			return new Instance(node, (List<MethodNode>) dispatchTable, fields, this.evaluation);
+		}
+	}
+
+	/**
+	 * Registra nel frame una funzione (con il frame come Access Link) o la dispatch table di una classe.
+	 *
+	 * @param offset offset della dichiarazione assegnato dalla symbol table
+	 */
+	@SuppressWarnings("unchecked")
+	private static void declare(DecNode declaration, int offset, Frame frame) {
+		if (declaration instanceof FunNode funNode) frame.slots.put(offset, new Closure(funNode, frame));
+		if (declaration instanceof ClassNode classNode) {
+			List<MethodNode> dispatchTable = new ArrayList<>();
+			if (classNode.superClassEntry != null)
+				dispatchTable.addAll((List<MethodNode>) frame.slots.get(classNode.superClassEntry.offset));
+			for (MethodNode method : classNode.methodList) {
+				if (method.offset < dispatchTable.size()) dispatchTable.set(method.offset, method);
+				else dispatchTable.add(method);
+			}
+			frame.slots.put(offset, dispatchTable);
+		}
+	}
+
+	/*
+	 * ricostruzione dei valori
+	 */
+
+	/**
+	 * @param type tipo statico dell'espressione valutata
+	 * @param evaluation valutazione che ha prodotto il valore
+	 * @return l'espressione che ricrea il valore, o null se il valore non si può ricreare
+	 */
+	private static Node residualize(Object value, TypeNode type, int evaluation) {
+		Node residual = residualize(value, type, evaluation, new HashSet<>());
+		return residual == null || countNodes(residual) > MAX_RESIDUAL_NODES ? null : residual;
+	}
+
+	private static Node residualize(Object value, TypeNode type, int evaluation, Set<Instance> visited) {
+		if (value == NULL) return new EmptyNode();
+		if (value instanceof Integer integer) return type instanceof BoolTypeNode ? new BoolNode(integer == 1) : new IntNode(integer);
+		if (!(value instanceof Instance instance) || instance.evaluation != evaluation || !visited.add(instance)) return null;
+		List<TypeNode> fieldTypes = ((ClassTypeNode) instance.origin.classSymbolTableEntry.type).fieldList;
+		List<Node> arguments = new ArrayList<>();
+		for (int i = 0; i < instance.fields.size(); i++) {
+			Node argument = residualize(instance.fields.get(i), fieldTypes.get(i), evaluation, visited);
+			if (argument == null) return null;
+			arguments.add(argument);
+		}
+		NewNode newNode = new NewNode(instance.origin.classId, arguments);
+		newNode.classSymbolTableEntry = instance.origin.classSymbolTableEntry;
+		return withLine(instance.origin, newNode);
+	}
+
+	/**
+	 * Gli argomenti di una chiamata da valutare nel frame globale (nesting level 0): letterali
+	 * e variabili globali, il cui valore è noto se il loro inizializzatore è stato valutato.
+	 *
+	 * @return gli argomenti, o null se uno non è né un letterale né una variabile globale
+	 */
+	private static List<Node> globalArguments(List<Node> arguments) {
+		List<Node> result = new ArrayList<>();
+		for (Node argument : arguments) {
+			if (argument instanceof IdNode idNode && idNode.entry.nl == 0) {
+				IdNode global = new IdNode(idNode.id);
+				global.entry = idNode.entry;
+				result.add(global);
+			} else if (argument instanceof IntNode || argument instanceof BoolNode || argument instanceof EmptyNode) {
+				result.add(argument);
+			} else return null;
+		}
+		return result;
+	}
+
+	/**
+	 * Valuta nel frame globale un'espressione e, se possibile, la sostituisce con il valore.
+	 *
+	 * @return il valore ricreato, o null se l'espressione va lasciata
+	 */
+	private Node evaluateGlobally(Node node, TypeNode type, String description, int line) {
+		Object value = this.tryEvaluate(node, this.globals);
+		if (value == null) return null;
+		Node residual = residualize(value, type, this.evaluations);
+		if (residual != null) this.report.add("Evaluated " + description + " at line " + line);
+		return residual;
+	}
+
+	/*
+	 * riscrittura dei nodi
+	 */
+
+	@Override
+	public Node visitNode(ProgLetInNode node) {
+		if (this.print) this.printNode(node);
+		List<DecNode> declarations = new ArrayList<>();
+		for (int i = 0; i < node.declarationlist.size(); i++) {
+			DecNode declaration = node.declarationlist.get(i);
+			if (declaration instanceof VarNode varNode) {
+				Object value = this.tryEvaluate(varNode.expression, this.globals);
+				Node residual = value == null ? null : residualize(value, varNode.getType(), this.evaluations);
+				if (value != null) this.globals.slots.put(-i - 2, value); // serve anche se non si può ricreare
+				if (residual != null) {
+					this.report.add("Evaluated initializer of " + varNode.id + " at line " + varNode.getLine());
+					declarations.add(withLine(varNode, new VarNode(varNode.id, varNode.getType(), residual)));
+					continue;
+				}
+			} else declare(declaration, -i - 2, this.globals); // prima di visitarne il corpo, per le chiamate ricorsive
+			declarations.add((DecNode) this.visit(declaration));
+		}
+		return withLine(node, new ProgLetInNode(declarations, this.visit(node.exp)));
+	}
+
+	@Override
+	public Node visitNode(CallNode node) {
+		Node call = super.visitNode(node);
+		List<Node> arguments = globalArguments(((CallNode) call).argumentList);
+		if (node.entry.nl != 0 || !(node.entry.type instanceof ArrowTypeNode arrowTypeNode) || arguments == null) return call;
+		CallNode globalCall = new CallNode(node.id, arguments);
+		globalCall.entry = node.entry;
+		Node residual = this.evaluateGlobally(globalCall, arrowTypeNode.returnType, node.id + "()", node.getLine());
+		return residual != null ? withLine(node, residual) : call;
+	}
+
+	@Override
+	public Node visitNode(ClassCallNode node) {
+		Node call = super.visitNode(node);
+		List<Node> arguments = globalArguments(((ClassCallNode) call).argumentList);
+		if (node.symbolTableEntry.nl != 0 || !(node.methodEntry.type instanceof MethodTypeNode methodTypeNode) || arguments == null)
+			return call;
+		ClassCallNode globalCall = new ClassCallNode(node.objectId, node.methodId, arguments);
+		globalCall.symbolTableEntry = node.symbolTableEntry;
+		globalCall.methodEntry = node.methodEntry;
+		Node residual = this.evaluateGlobally(globalCall, methodTypeNode.functionalType.returnType,
+				node.objectId + "." + node.methodId + "()", node.getLine());
+		return residual != null ? withLine(node, residual) : call;
+	}
+}
@@ -163,6 +163,19 @@ public class PrintEASTVisitor extends BaseEASTVisitor<Void,VoidException> {
 		return null;
 	}
 
+	/**
+	 *
+	 * @param node BindNode
+	 * @return null
+	 */
+	@Override
+	public Void visitNode(BindNode node) {
+        this.printNode(node,node.id+" at nestinglevel "+node.nestingLevel);
+        this.visit(node.entry);
+		this.visit(node.expression);
+		return null;
+	}
+
 	/**
 	 *
 	 * @param node BoolNode
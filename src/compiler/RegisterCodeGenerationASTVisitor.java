@@ -0,0 +1,518 @@
+package compiler;
+
+import compiler.AST.*;
+import compiler.lib.*;
+import compiler.exc.*;
+import svm.RegisterVM;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Generatore di codice per la RegisterVM, alternativo a CodeGenerationASTVisitor.
+ * I frame, gli oggetti e le dispatch table hanno lo stesso layout in memoria del backend a stack;
+ * cambiano solo le espressioni, che lasciano il risultato in un registro invece che in cima allo stack.
+ *
+ * Allocazione dei registri: l'espressione visitata lascia il risultato nel registro target e i suoi
+ * sottoalberi usano i registri successivi, come uno stack di registri. r0 contiene il valore restituito
+ * dalle funzioni e l'ultimo registro è di appoggio per costanti e spill; se i registri finiscono
+ * l'operando sinistro viene salvato sullo stack. Prima di una chiamata i registri vivi vengono salvati
+ * sullo stack (sotto il Control Link) e ripristinati al ritorno.
+ *
+ * Come in CodeGenerationASTVisitor i visitatori non restituiscono il codice ma lo accodano, una riga per
+ * istruzione, a uno StringBuilder, in tempo lineare nella dimensione del codice; il risultato si ottiene
+ * con {@link #getAssembly()}.
+ */
+public class RegisterCodeGenerationASTVisitor extends BaseASTVisitor<String, VoidException> {
+
+	private static final String HALT = "halt";
+	private static final String LOAD_IMMEDIATE = "li ";
+	private static final String MOVE = "mov ";
+	private static final String ADD = "add ";
+	private static final String ADD_IMMEDIATE = "addi ";
+	private static final String SUB = "sub ";
+	private static final String MULT = "mult ";
+	private static final String DIV = "div ";
+	private static final String EQUAL = "eq ";
+	private static final String LESS_EQUAL = "leq ";
+	private static final String NOT = "not ";
+	private static final String LOAD_WORD = "ld ";
+	private static final String STORE_WORD = "st ";
+	private static final String PUSH = "push ";
+	private static final String POP = "pop ";
+	private static final String BRANCH = "b ";
+	private static final String BRANCH_EQUAL = "beq ";
+	private static final String CALL = "call ";
+	private static final String JUMP_REGISTER = "jr ";
+	private static final String PRINT = "print ";
+
+	private static final String FP = "fp";
+	private static final String SP = "sp";
+	private static final String HP = "hp";
+	private static final String RA = "ra";
+
+	private static final int RESULT = 0;
+	private static final int SCRATCH = RegisterVM.REGISTERS - 1;
+
+	/**
+	 * Registro in cui il nodo visitato deve lasciare il suo valore.
+	 */
+	private int target = 1;
+
+	/**
+	 * Codice in cui vengono accodate le istruzioni: quello del programma principale,
+	 * o quello della funzione in corso di generazione.
+	 */
+	private StringBuilder code = new StringBuilder();
+
+	/**
+	 * Codice delle funzioni e dei metodi, accodato dopo il programma principale.
+	 */
+	private final StringBuilder functionCode = new StringBuilder();
+
+	/**
+	 * Le dispatch tables delle classi, come in CodeGenerationASTVisitor.
+	 */
+	private final List<List<String>> dispatchTables = new ArrayList<>();
+
+	/**
+	 * Sessione di compilazione da cui prendere le etichette.
+	 */
+	private final CompilerSession session;
+
+	public RegisterCodeGenerationASTVisitor() {
+		this(new CompilerSession());
+	}
+
+	public RegisterCodeGenerationASTVisitor(CompilerSession session) {
+		this.session = session;
+	}
+
+	/**
+	 * @return il codice generato, da assemblare con RVMLexer e RVMParser
+	 */
+	public String getAssembly() {
+		return this.code.toString();
+	}
+
+	private static String r(int register) {
+		return "r" + register;
+	}
+
+	private static String address(String base, int offset) {
+		return "[" + base + (offset >= 0 ? "+" : "") + offset + "]";
+	}
+
+	private static String instruction(String opcode, String... operands) {
+		return opcode + String.join(", ", operands);
+	}
+
+	/**
+	 * Accoda le righe al codice, ognuna seguita da un a capo.
+	 */
+	private void emit(String... lines) {
+		for (String line : lines) this.code.append(line).append('\n');
+	}
+
+	/**
+	 * Genera il codice che carica nel registro l'indirizzo del frame che si trova
+	 * hops livelli sopra il frame corrente lungo la catena degli Access Link.
+	 */
+	private void emitLoadFrame(int hops, int register) {
+		if (hops == 0) {
+			this.emit(instruction(MOVE, r(register), FP));
+			return;
+		}
+		this.emit(instruction(LOAD_WORD, r(register), address(FP, 0)));
+		for (int i = 1; i < hops; i++) this.emit(instruction(LOAD_WORD, r(register), address(r(register), 0)));
+	}
+
+	/**
+	 * Genera il codice che carica nel registro la parola all'offset dato nel frame
+	 * che si trova hops livelli sopra il frame corrente.
+	 */
+	private void emitLoadFromFrame(int hops, int offset, int register) {
+		if (hops == 0) {
+			this.emit(instruction(LOAD_WORD, r(register), address(FP, offset)));
+			return;
+		}
+		this.emitLoadFrame(hops, register);
+		this.emit(instruction(LOAD_WORD, r(register), address(r(register), offset)));
+	}
+
+	/**
+	 * Visita un nodo facendogli lasciare il valore nel registro indicato.
+	 */
+	private void visitInto(Node node, int register) {
+		int previous = this.target;
+		this.target = register;
+		try {
+			this.visit(node);
+		} finally {
+			this.target = previous;
+		}
+	}
+
+	/**
+	 * Valuta first e poi second e combina i due valori con l'operazione a tre indirizzi.
+	 */
+	private void binary(String opcode, Node first, Node second) {
+		int t = this.target;
+		if (t + 1 < SCRATCH) {
+			this.visitInto(first, t);
+			this.visitInto(second, t + 1);
+			this.emit(instruction(opcode, r(t), r(t), r(t + 1)));
+			return;
+		}
+		// registri esauriti: il primo operando passa dallo stack
+		this.visitInto(first, t);
+		this.emit(PUSH + r(t));
+		this.visitInto(second, t);
+		this.emit(
+				POP + r(SCRATCH),
+				instruction(opcode, r(t), r(SCRATCH), r(t))
+		);
+	}
+
+	/**
+	 * Genera il codice di una chiamata: salva i registri vivi, prepara il frame come il backend a stack
+	 * (Control Link, argomenti in ordine inverso, Access Link), salta e ripristina i registri.
+	 *
+	 * @param arguments argomenti della chiamata
+	 * @param loadAccessLink genera il codice che lascia l'Access Link in r1
+	 * @param loadAddress genera il codice che, con l'Access Link in r1, lascia l'indirizzo del codice in r2
+	 */
+	private void call(List<Node> arguments, Runnable loadAccessLink, Runnable loadAddress) {
+		for (int i = 1; i < this.target; i++) this.emit(PUSH + r(i));
+		this.emit(PUSH + FP);          // Control Link
+		for (int i = arguments.size() - 1; i >= 0; i--) {
+			this.visitInto(arguments.get(i), 1);
+			this.emit(PUSH + r(1));
+		}
+		loadAccessLink.run();
+		this.emit(PUSH + r(1));        // Access Link
+		loadAddress.run();
+		this.emit(CALL + r(2));
+		for (int i = this.target - 1; i >= 1; i--) this.emit(POP + r(i));
+		this.emit(instruction(MOVE, r(this.target), r(RESULT)));
+	}
+
+	/**
+	 * Genera il codice di una funzione o di un metodo e lo accoda al codice delle funzioni.
+	 */
+	private void putFunction(String label, List<? extends Node> declarations, int parameters, Node body) {
+		int previous = this.target;
+		StringBuilder enclosingCode = this.code;
+		this.target = 1;
+		this.code = new StringBuilder();
+		this.emit(
+				"",
+				label + ":",
+				instruction(MOVE, FP, SP),
+				PUSH + RA
+		);
+		for (Node declaration : declarations) {
+			this.visit(declaration);
+			this.emit(PUSH + r(1));
+		}
+		this.visit(body);
+		this.emit(instruction(MOVE, r(RESULT), r(1)));
+		if (!declarations.isEmpty()) this.emit(instruction(ADD_IMMEDIATE, SP, SP, String.valueOf(declarations.size())));
+		this.emit(
+				POP + RA,
+				instruction(ADD_IMMEDIATE, SP, SP, String.valueOf(parameters + 1)), // Access Link e parametri
+				POP + FP,
+				JUMP_REGISTER + RA
+		);
+		this.functionCode.append(this.code);
+		this.code = enclosingCode;
+		this.target = previous;
+	}
+
+	/*
+	 * i metodi seguenti sono i visitatori che attraversano l'Abstract Syntax Tree
+	 */
+
+	@Override
+	public String visitNode(ProgLetInNode node) {
+		if (this.print) this.printNode(node);
+		this.emit(
+				instruction(LOAD_IMMEDIATE, r(1), "0"),
+				PUSH + r(1)                   // valore fittizio, come nel backend a stack
+		);
+		for (Node declaration : node.declarationlist) {
+			this.visitInto(declaration, 1);
+			this.emit(PUSH + r(1));
+		}
+		this.visitInto(node.exp, 1);
+		this.emit(HALT);
+		this.code.append(this.functionCode);
+		return null;
+	}
+
+	@Override
+	public String visitNode(ProgNode node) {
+		if (this.print) this.printNode(node);
+		this.visitInto(node.expression, 1);
+		this.emit(HALT);
+		return null;
+	}
+
+	@Override
+	public String visitNode(FunNode node) {
+		if (this.print) this.printNode(node, node.id);
+		String functionLabel = this.session.freshFunLabel();
+		this.putFunction(functionLabel, node.declarationlist, node.parameterlist.size(), node.expression);
+		this.emit(instruction(LOAD_IMMEDIATE, r(this.target), functionLabel));
+		return null;
+	}
+
+	@Override
+	public String visitNode(VarNode node) {
+		if (this.print) this.printNode(node, node.id);
+		this.visit(node.expression);
+		return null;
+	}
+
+	@Override
+	public String visitNode(PrintNode node) {
+		if (this.print) this.printNode(node);
+		this.visit(node.expression);
+		this.emit(PRINT + r(this.target));
+		return null;
+	}
+
+	@Override
+	public String visitNode(IfNode node) {
+		if (this.print) this.printNode(node);
+		String thenLabel = this.session.freshLabel();
+		String endLabel = this.session.freshLabel();
+		this.visit(node.cond);
+		this.emit(
+				instruction(LOAD_IMMEDIATE, r(SCRATCH), "1"),
+				instruction(BRANCH_EQUAL, r(this.target), r(SCRATCH), thenLabel)
+		);
+		this.visit(node.elseNode);
+		this.emit(
+				BRANCH + endLabel,
+				thenLabel + ":"
+		);
+		this.visit(node.thenNode);
+		this.emit(endLabel + ":");
+		return null;
+	}
+
+	@Override
+	public String visitNode(EqualNode node) {
+		if (this.print) this.printNode(node);
+		this.binary(EQUAL, node.left, node.right);
+		return null;
+	}
+
+	@Override
+	public String visitNode(TimesNode node) {
+		if (this.print) this.printNode(node);
+		this.binary(MULT, node.left, node.right);
+		return null;
+	}
+
+	@Override
+	public String visitNode(PlusNode node) {
+		if (this.print) this.printNode(node);
+		this.binary(ADD, node.left, node.right);
+		return null;
+	}
+
+	@Override
+	public String visitNode(MinusNode node) {
+		if (this.print) this.printNode(node);
+		this.binary(SUB, node.left, node.right);
+		return null;
+	}
+
+	@Override
+	public String visitNode(DivNode node) {
+		if (this.print) this.printNode(node);
+		this.binary(DIV, node.left, node.right);
+		return null;
+	}
+
+	@Override
+	public String visitNode(LessEqualNode node) {
+		if (this.print) this.printNode(node);
+		this.binary(LESS_EQUAL, node.left, node.right);
+		return null;
+	}
+
+	/**
+	 * x >= y diventa y <= x; l'operando destro viene valutato per primo, come nel backend a stack.
+	 */
+	@Override
+	public String visitNode(GreaterEqualNode node) {
+		if (this.print) this.printNode(node);
+		this.binary(LESS_EQUAL, node.right, node.left);
+		return null;
+	}
+
+	@Override
+	public String visitNode(NotNode node) {
+		if (this.print) this.printNode(node);
+		this.visit(node.expression);
+		this.emit(instruction(NOT, r(this.target), r(this.target)));
+		return null;
+	}
+
+	/**
+	 * AND e OR sono sempre valutati in corto circuito: l'operando destro
+	 * viene valutato solo se il sinistro non determina già il risultato.
+	 */
+	@Override
+	public String visitNode(AndNode node) {
+		if (this.print) this.printNode(node);
+		this.shortCircuit(node.left, node.right, 0);
+		return null;
+	}
+
+	@Override
+	public String visitNode(OrNode node) {
+		if (this.print) this.printNode(node);
+		this.shortCircuit(node.left, node.right, 1);
+		return null;
+	}
+
+	private void shortCircuit(Node left, Node right, int result) {
+		String endLabel = this.session.freshLabel();
+		this.visit(left);
+		this.emit(
+				instruction(LOAD_IMMEDIATE, r(SCRATCH), String.valueOf(result)),
+				instruction(BRANCH_EQUAL, r(this.target), r(SCRATCH), endLabel)
+		);
+		this.visit(right);
+		this.emit(endLabel + ":");
+	}
+
+	@Override
+	public String visitNode(CallNode node) {
+		if (this.print) this.printNode(node, node.id);
+		boolean isMethod = node.entry.type instanceof MethodTypeNode;
+		this.call(
+				node.argumentList,
+				() -> this.emitLoadFrame(node.nestingLevel - node.entry.nl, 1),
+				() -> {
+					if (isMethod) this.emit(
+							instruction(LOAD_WORD, r(2), address(r(1), 0)),     // dispatch table dell'oggetto
+							instruction(LOAD_WORD, r(2), address(r(2), node.entry.offset))
+					);
+					else this.emit(instruction(LOAD_WORD, r(2), address(r(1), node.entry.offset)));
+				}
+		);
+		return null;
+	}
+
+	@Override
+	public String visitNode(IdNode node) {
+		if (this.print) this.printNode(node, node.id);
+		this.emitLoadFromFrame(node.nestingLevel - node.entry.nl, node.entry.offset, this.target);
+		return null;
+	}
+
+	@Override
+	public String visitNode(BindNode node) {
+		if (this.print) this.printNode(node, node.id);
+		this.visit(node.expression);
+		this.emit(instruction(STORE_WORD, r(this.target), address(FP, node.entry.offset))); // variabile del frame corrente
+		return null;
+	}
+
+	@Override
+	public String visitNode(BoolNode node) {
+		if (this.print) this.printNode(node, node.value.toString());
+		this.emit(instruction(LOAD_IMMEDIATE, r(this.target), node.value ? "1" : "0"));
+		return null;
+	}
+
+	@Override
+	public String visitNode(IntNode node) {
+		if (this.print) this.printNode(node, node.value.toString());
+		this.emit(instruction(LOAD_IMMEDIATE, r(this.target), node.value.toString()));
+		return null;
+	}
+
+	@Override
+	public String visitNode(ClassNode node) {
+		if (this.print) this.printNode(node, node.classId);
+		final List<String> dispatchTable = new ArrayList<>();
+		this.dispatchTables.add(dispatchTable);
+		if (node.superClassEntry != null)
+			dispatchTable.addAll(this.dispatchTables.get(-node.superClassEntry.offset - 2));
+		for (final MethodNode method : node.methodList) {
+			this.visit(method);
+			if (method.offset < dispatchTable.size())
+				dispatchTable.set(method.offset, method.label);
+			else
+				dispatchTable.add(method.label);
+		}
+		this.emit(instruction(MOVE, r(this.target), HP));   // indirizzo della dispatch table
+		for (final String label : dispatchTable) {
+			this.emit(
+					instruction(LOAD_IMMEDIATE, r(SCRATCH), label),
+					instruction(STORE_WORD, r(SCRATCH), address(HP, 0)),
+					instruction(ADD_IMMEDIATE, HP, HP, "1")
+			);
+		}
+		return null;
+	}
+
+	@Override
+	public String visitNode(MethodNode node) {
+		if (this.print) this.printNode(node, node.id);
+		node.label = this.session.freshFunLabel();
+		this.putFunction(node.label, node.declarationList, node.parameterList.size(), node.expression);
+		return null;
+	}
+
+	@Override
+	public String visitNode(NewNode node) {
+		if (this.print) this.printNode(node, node.classId);
+		for (final Node argument : node.argumentList) {
+			this.visit(argument);
+			this.emit(PUSH + r(this.target));
+		}
+		for (int i = 0; i < node.argumentList.size(); i++) {
+			this.emit(
+					POP + r(SCRATCH),
+					instruction(STORE_WORD, r(SCRATCH), address(HP, 0)),
+					instruction(ADD_IMMEDIATE, HP, HP, "1")
+			);
+		}
+		this.emit(
+				instruction(LOAD_IMMEDIATE, r(SCRATCH), String.valueOf(RegisterVM.MEMSIZE + node.classSymbolTableEntry.offset)),
+				instruction(LOAD_WORD, r(SCRATCH), address(r(SCRATCH), 0)),   // dispatch table della classe
+				instruction(STORE_WORD, r(SCRATCH), address(HP, 0)),
+				instruction(MOVE, r(this.target), HP),                        // object pointer
+				instruction(ADD_IMMEDIATE, HP, HP, "1")
+		);
+		return null;
+	}
+
+	@Override
+	public String visitNode(EmptyNode node) {
+		if (this.print) this.printNode(node);
+		this.emit(instruction(LOAD_IMMEDIATE, r(this.target), "-1"));
+		return null;
+	}
+
+	@Override
+	public String visitNode(ClassCallNode node) {
+		if (this.print) this.printNode(node, node.objectId + "." + node.methodId);
+		this.call(
+				node.argumentList,
+				() -> this.emitLoadFromFrame(node.nestingLevel - node.symbolTableEntry.nl, node.symbolTableEntry.offset, 1),
+				() -> this.emit(
+						instruction(LOAD_WORD, r(2), address(r(1), 0)),       // dispatch table dell'oggetto
+						instruction(LOAD_WORD, r(2), address(r(2), node.methodEntry.offset))
+				)
+		);
+		return null;
+	}
+}
@@ -0,0 +1,297 @@
+package compiler;
+
+import compiler.AST.*;
+import compiler.exc.*;
+import compiler.lib.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Visitatore di base per le trasformazioni AST-to-AST sull'E-AST.
+ * Ogni visitNode restituisce una copia del nodo costruita a partire dalle copie dei figli,
+ * conservando il numero di riga e le informazioni di arricchimento (STentry, nesting level, offset).
+ * Le trasformazioni estendono questa classe e ridefiniscono solo i nodi che vogliono riscrivere.
+ * I nodi tipo sono immutabili e vengono condivisi tra l'AST originale e quello riscritto.
+ *
+ * Le informazioni di arricchimento copiate descrivono l'AST originale: dopo una trasformazione
+ * che sposta codice tra livelli di annidamento o modifica le dichiarazioni l'AST va
+ * arricchito di nuovo con {@link #enrich(Node)}.
+ */
+public class RewriteEASTVisitor extends BaseEASTVisitor<Node, VoidException> {
+
+	public RewriteEASTVisitor() {}
+
+	/**
+	 * Ricostruisce symbol table, nesting level e offset di un AST riscritto.
+	 *
+	 * @param ast radice dell'AST riscritto
+	 * @return numero di errori della symbol table (0 se l'AST è coerente)
+	 */
+	public static int enrich(Node ast) {
+		SymbolTableASTVisitor symtableVisitor = new SymbolTableASTVisitor();
+		symtableVisitor.visit(ast);
+		return symtableVisitor.stErrors;
+	}
+
+	/**
+	 * Conta i nodi (espressioni e dichiarazioni, esclusi i tipi) di un sottoalbero.
+	 *
+	 * @param node radice del sottoalbero
+	 * @return numero di nodi
+	 */
+	public static int countNodes(Node node) {
+		final int[] count = {0};
+		new ScanEASTVisitor() {
+			@Override
+			public Void visit(Visitable v, String mark) {
+				if (v != null) count[0]++;
+				return super.visit(v, mark);
+			}
+		}.visit(node);
+		return count[0];
+	}
+
+	/**
+	 * Copia il numero di riga dal nodo originale al nodo riscritto.
+	 *
+	 * @param from nodo originale
+	 * @param to nodo riscritto
+	 * @return il nodo riscritto
+	 */
+	protected static <T extends Node> T withLine(Node from, T to) {
+		to.setLine(from.getLine());
+		return to;
+	}
+
+	protected List<Node> visitList(List<? extends Node> nodes) {
+		List<Node> result = new ArrayList<>();
+		for (Node node : nodes) result.add(this.visit(node));
+		return result;
+	}
+
+	protected List<DecNode> visitDeclarations(List<? extends DecNode> declarations) {
+		List<DecNode> result = new ArrayList<>();
+		for (DecNode declaration : declarations) result.add((DecNode) this.visit(declaration));
+		return result;
+	}
+
+	protected List<ParNode> visitParameters(List<ParNode> parameters) {
+		List<ParNode> result = new ArrayList<>();
+		for (ParNode parameter : parameters) result.add((ParNode) this.visit(parameter));
+		return result;
+	}
+
+	@Override
+	public Node visitNode(ProgLetInNode node) {
+		if (this.print) this.printNode(node);
+		List<DecNode> declarations = this.visitDeclarations(node.declarationlist);
+		return withLine(node, new ProgLetInNode(declarations, this.visit(node.exp)));
+	}
+
+	@Override
+	public Node visitNode(ProgNode node) {
+		if (this.print) this.printNode(node);
+		return withLine(node, new ProgNode(this.visit(node.expression)));
+	}
+
+	@Override
+	public Node visitNode(FunNode node) {
+		if (this.print) this.printNode(node, node.id);
+		List<ParNode> parameters = this.visitParameters(node.parameterlist);
+		List<DecNode> declarations = this.visitDeclarations(node.declarationlist);
+		FunNode funNode = new FunNode(node.id, node.returnType, parameters, declarations, this.visit(node.expression));
+		funNode.entry = node.entry;
+		return withLine(node, funNode);
+	}
+
+	@Override
+	public Node visitNode(ParNode node) {
+		if (this.print) this.printNode(node, node.id);
+		return withLine(node, new ParNode(node.id, node.getType()));
+	}
+
+	@Override
+	public Node visitNode(VarNode node) {
+		if (this.print) this.printNode(node, node.id);
+		VarNode varNode = new VarNode(node.id, node.getType(), this.visit(node.expression));
+		varNode.entry = node.entry;
+		return withLine(node, varNode);
+	}
+
+	@Override
+	public Node visitNode(PrintNode node) {
+		if (this.print) this.printNode(node);
+		return withLine(node, new PrintNode(this.visit(node.expression)));
+	}
+
+	@Override
+	public Node visitNode(IfNode node) {
+		if (this.print) this.printNode(node);
+		Node cond = this.visit(node.cond);
+		Node thenNode = this.visit(node.thenNode);
+		return withLine(node, new IfNode(cond, thenNode, this.visit(node.elseNode)));
+	}
+
+	@Override
+	public Node visitNode(EqualNode node) {
+		if (this.print) this.printNode(node);
+		Node left = this.visit(node.left);
+		return withLine(node, new EqualNode(left, this.visit(node.right)));
+	}
+
+	@Override
+	public Node visitNode(TimesNode node) {
+		if (this.print) this.printNode(node);
+		Node left = this.visit(node.left);
+		return withLine(node, new TimesNode(left, this.visit(node.right)));
+	}
+
+	@Override
+	public Node visitNode(PlusNode node) {
+		if (this.print) this.printNode(node);
+		Node left = this.visit(node.left);
+		return withLine(node, new PlusNode(left, this.visit(node.right)));
+	}
+
+	@Override
+	public Node visitNode(CallNode node) {
+		if (this.print) this.printNode(node, node.id);
+		CallNode callNode = new CallNode(node.id, this.visitList(node.argumentList));
+		callNode.entry = node.entry;
+		callNode.nestingLevel = node.nestingLevel;
+		return withLine(node, callNode);
+	}
+
+	@Override
+	public Node visitNode(IdNode node) {
+		if (this.print) this.printNode(node, node.id);
+		IdNode idNode = new IdNode(node.id);
+		idNode.entry = node.entry;
+		idNode.nestingLevel = node.nestingLevel;
+		return withLine(node, idNode);
+	}
+
+	@Override
+	public Node visitNode(BindNode node) {
+		if (this.print) this.printNode(node, node.id);
+		BindNode bindNode = new BindNode(node.id, this.visit(node.expression));
+		bindNode.entry = node.entry;
+		bindNode.nestingLevel = node.nestingLevel;
+		return withLine(node, bindNode);
+	}
+
+	@Override
+	public Node visitNode(BoolNode node) {
+		if (this.print) this.printNode(node, node.value.toString());
+		return withLine(node, new BoolNode(node.value));
+	}
+
+	@Override
+	public Node visitNode(IntNode node) {
+		if (this.print) this.printNode(node, node.value.toString());
+		return withLine(node, new IntNode(node.value));
+	}
+
+	@Override
+	public Node visitNode(GreaterEqualNode node) {
+		if (this.print) this.printNode(node);
+		Node left = this.visit(node.left);
+		return withLine(node, new GreaterEqualNode(left, this.visit(node.right)));
+	}
+
+	@Override
+	public Node visitNode(LessEqualNode node) {
+		if (this.print) this.printNode(node);
+		Node left = this.visit(node.left);
+		return withLine(node, new LessEqualNode(left, this.visit(node.right)));
+	}
+
+	@Override
+	public Node visitNode(NotNode node) {
+		if (this.print) this.printNode(node);
+		return withLine(node, new NotNode(this.visit(node.expression)));
+	}
+
+	@Override
+	public Node visitNode(MinusNode node) {
+		if (this.print) this.printNode(node);
+		Node left = this.visit(node.left);
+		return withLine(node, new MinusNode(left, this.visit(node.right)));
+	}
+
+	@Override
+	public Node visitNode(OrNode node) {
+		if (this.print) this.printNode(node);
+		Node left = this.visit(node.left);
+		return withLine(node, new OrNode(left, this.visit(node.right)));
+	}
+
+	@Override
+	public Node visitNode(DivNode node) {
+		if (this.print) this.printNode(node);
+		Node left = this.visit(node.left);
+		return withLine(node, new DivNode(left, this.visit(node.right)));
+	}
+
+	@Override
+	public Node visitNode(AndNode node) {
+		if (this.print) this.printNode(node);
+		Node left = this.visit(node.left);
+		return withLine(node, new AndNode(left, this.visit(node.right)));
+	}
+
+	@Override
+	public Node visitNode(ClassNode node) {
+		if (this.print) this.printNode(node, node.classId);
+		List<FieldNode> fields = new ArrayList<>();
+		for (FieldNode field : node.fieldList) fields.add((FieldNode) this.visit(field));
+		List<MethodNode> methods = new ArrayList<>();
+		for (MethodNode method : node.methodList) methods.add((MethodNode) this.visit(method));
+		ClassNode classNode = new ClassNode(node.classId, node.superClassId, fields, methods);
+		classNode.superClassEntry = node.superClassEntry;
+		return withLine(node, classNode);
+	}
+
+	@Override
+	public Node visitNode(FieldNode node) {
+		if (this.print) this.printNode(node, node.id);
+		FieldNode fieldNode = new FieldNode(node.id, node.getType());
+		fieldNode.offset = node.offset;
+		return withLine(node, fieldNode);
+	}
+
+	@Override
+	public Node visitNode(MethodNode node) {
+		if (this.print) this.printNode(node, node.id);
+		List<ParNode> parameters = this.visitParameters(node.parameterList);
+		List<DecNode> declarations = this.visitDeclarations(node.declarationList);
+		MethodNode methodNode = new MethodNode(node.id, node.returnType, parameters, declarations, this.visit(node.expression));
+		methodNode.offset = node.offset;
+		return withLine(node, methodNode);
+	}
+
+	@Override
+	public Node visitNode(ClassCallNode node) {
+		if (this.print) this.printNode(node, node.objectId + "." + node.methodId);
+		ClassCallNode classCallNode = new ClassCallNode(node.objectId, node.methodId, this.visitList(node.argumentList));
+		classCallNode.symbolTableEntry = node.symbolTableEntry;
+		classCallNode.methodEntry = node.methodEntry;
+		classCallNode.nestingLevel = node.nestingLevel;
+		return withLine(node, classCallNode);
+	}
+
+	@Override
+	public Node visitNode(NewNode node) {
+		if (this.print) this.printNode(node, node.classId);
+		NewNode newNode = new NewNode(node.classId, this.visitList(node.argumentList));
+		newNode.classSymbolTableEntry = node.classSymbolTableEntry;
+		return withLine(node, newNode);
+	}
+
+	@Override
+	public Node visitNode(EmptyNode node) {
+		if (this.print) this.printNode(node);
+		return withLine(node, new EmptyNode());
+	}
+}
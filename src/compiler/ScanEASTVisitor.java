@@ -0,0 +1,225 @@
+package compiler;
+
+import compiler.AST.*;
+import compiler.exc.*;
+import compiler.lib.*;
+
+/**
+ * Visitatore di base per le analisi sull'E-AST: visita tutti i figli di ogni nodo
+ * nello stesso ordine in cui il codice generato li valuta (argomenti delle chiamate
+ * dall'ultimo al primo, operando destro di >= prima del sinistro).
+ * Le analisi estendono questa classe e ridefiniscono solo i nodi che le interessano,
+ * richiamando super.visitNode per proseguire la visita.
+ * I nodi tipo e le STentry non vengono visitati.
+ */
+public class ScanEASTVisitor extends BaseEASTVisitor<Void, VoidException> {
+
+	public ScanEASTVisitor() {}
+
+	@Override
+	public Void visitNode(ProgLetInNode node) {
+		if (this.print) this.printNode(node);
+		for (Node declaration : node.declarationlist) this.visit(declaration);
+		this.visit(node.exp);
+		return null;
+	}
+
+	@Override
+	public Void visitNode(ProgNode node) {
+		if (this.print) this.printNode(node);
+		this.visit(node.expression);
+		return null;
+	}
+
+	@Override
+	public Void visitNode(FunNode node) {
+		if (this.print) this.printNode(node, node.id);
+		for (ParNode parameter : node.parameterlist) this.visit(parameter);
+		for (Node declaration : node.declarationlist) this.visit(declaration);
+		this.visit(node.expression);
+		return null;
+	}
+
+	@Override
+	public Void visitNode(ParNode node) {
+		if (this.print) this.printNode(node, node.id);
+		return null;
+	}
+
+	@Override
+	public Void visitNode(VarNode node) {
+		if (this.print) this.printNode(node, node.id);
+		this.visit(node.expression);
+		return null;
+	}
+
+	@Override
+	public Void visitNode(PrintNode node) {
+		if (this.print) this.printNode(node);
+		this.visit(node.expression);
+		return null;
+	}
+
+	@Override
+	public Void visitNode(IfNode node) {
+		if (this.print) this.printNode(node);
+		this.visit(node.cond);
+		this.visit(node.thenNode);
+		this.visit(node.elseNode);
+		return null;
+	}
+
+	@Override
+	public Void visitNode(EqualNode node) {
+		if (this.print) this.printNode(node);
+		this.visit(node.left);
+		this.visit(node.right);
+		return null;
+	}
+
+	@Override
+	public Void visitNode(TimesNode node) {
+		if (this.print) this.printNode(node);
+		this.visit(node.left);
+		this.visit(node.right);
+		return null;
+	}
+
+	@Override
+	public Void visitNode(PlusNode node) {
+		if (this.print) this.printNode(node);
+		this.visit(node.left);
+		this.visit(node.right);
+		return null;
+	}
+
+	@Override
+	public Void visitNode(CallNode node) {
+		if (this.print) this.printNode(node, node.id);
+		for (int i = node.argumentList.size() - 1; i >= 0; i--) this.visit(node.argumentList.get(i));
+		return null;
+	}
+
+	@Override
+	public Void visitNode(IdNode node) {
+		if (this.print) this.printNode(node, node.id);
+		return null;
+	}
+
+	@Override
+	public Void visitNode(BindNode node) {
+		if (this.print) this.printNode(node, node.id);
+		this.visit(node.expression);
+		return null;
+	}
+
+	@Override
+	public Void visitNode(BoolNode node) {
+		if (this.print) this.printNode(node, node.value.toString());
+		return null;
+	}
+
+	@Override
+	public Void visitNode(IntNode node) {
+		if (this.print) this.printNode(node, node.value.toString());
+		return null;
+	}
+
+	@Override
+	public Void visitNode(GreaterEqualNode node) {
+		if (this.print) this.printNode(node);
+		this.visit(node.right);
+		this.visit(node.left);
+		return null;
+	}
+
+	@Override
+	public Void visitNode(LessEqualNode node) {
+		if (this.print) this.printNode(node);
+		this.visit(node.left);
+		this.visit(node.right);
+		return null;
+	}
+
+	@Override
+	public Void visitNode(NotNode node) {
+		if (this.print) this.printNode(node);
+		this.visit(node.expression);
+		return null;
+	}
+
+	@Override
+	public Void visitNode(MinusNode node) {
+		if (this.print) this.printNode(node);
+		this.visit(node.left);
+		this.visit(node.right);
+		return null;
+	}
+
+	@Override
+	public Void visitNode(OrNode node) {
+		if (this.print) this.printNode(node);
+		this.visit(node.left);
+		this.visit(node.right);
+		return null;
+	}
+
+	@Override
+	public Void visitNode(DivNode node) {
+		if (this.print) this.printNode(node);
+		this.visit(node.left);
+		this.visit(node.right);
+		return null;
+	}
+
+	@Override
+	public Void visitNode(AndNode node) {
+		if (this.print) this.printNode(node);
+		this.visit(node.left);
+		this.visit(node.right);
+		return null;
+	}
+
+	@Override
+	public Void visitNode(ClassNode node) {
+		if (this.print) this.printNode(node, node.classId);
+		for (FieldNode field : node.fieldList) this.visit(field);
+		for (MethodNode method : node.methodList) this.visit(method);
+		return null;
+	}
+
+	@Override
+	public Void visitNode(FieldNode node) {
+		if (this.print) this.printNode(node, node.id);
+		return null;
+	}
+
+	@Override
+	public Void visitNode(MethodNode node) {
+		if (this.print) this.printNode(node, node.id);
+		for (ParNode parameter : node.parameterList) this.visit(parameter);
+		for (DecNode declaration : node.declarationList) this.visit(declaration);
+		this.visit(node.expression);
+		return null;
+	}
+
+	@Override
+	public Void visitNode(ClassCallNode node) {
+		if (this.print) this.printNode(node, node.objectId + "." + node.methodId);
+		for (int i = node.argumentList.size() - 1; i >= 0; i--) this.visit(node.argumentList.get(i));
+		return null;
+	}
+
+	@Override
+	public Void visitNode(NewNode node) {
+		if (this.print) this.printNode(node, node.classId);
+		for (Node argument : node.argumentList) this.visit(argument);
+		return null;
+	}
+
+	@Override
+	public Void visitNode(EmptyNode node) {
+		if (this.print) this.printNode(node);
+		return null;
+	}
+}
@@ -28,16 +28,32 @@ public class SymbolTableASTVisitor extends BaseASTVisitor<Void,VoidException> {
 	private final Map<String, VirtualTable> classTable = new HashMap<>();
 
 	/**
-	 * La symbolTable è usata per salvare la symbol table di ogni scope.
-	 * Il primo elemento dell'elenco è l'ambito globale.
-	 * L'ultimo elemento dell'elenco è l'ambito corrente.
+	 * Virtual table della classe visitata, in cui MethodNode aggiunge i metodi.
 	 */
-	private final List<Map<String, STentry>> symbolTable = new ArrayList<>();
+	private VirtualTable virtualTable = null;
+
+	/**
+	 * La symbolTable contiene le dichiarazioni visibili negli scope aperti: lo scope 0 è l'ambito globale,
+	 * quello di nesting level nestingLevel è l'ambito corrente.
+	 */
+	private final ScopedSymbolTable<STentry> symbolTable = new ScopedSymbolTable<>();
 	private int nestingLevel=0; // current nesting level
 	private int declarationOffset =-2; // counter for offset of local declarations at current nesting level
 	public int stErrors=0;
 
-	public SymbolTableASTVisitor() {}
+	/**
+	 * Dichiarazioni globali (e metodi delle classi globali) già arricchite senza errori in una compilazione
+	 * precedente: se ne creano le STentry, da cui dipendono le dichiarazioni successive, ma non se ne visita il corpo.
+	 */
+	private final Set<? extends Node> checked;
+
+	public SymbolTableASTVisitor() {
+		this(Set.of());
+	}
+
+	public SymbolTableASTVisitor(Set<? extends Node> checked) {
+		this.checked = checked;
+	}
 
 	/**
 	 * Effettua una ricerca nella tabella dei simboli per l'id dato.
@@ -46,11 +62,7 @@ public class SymbolTableASTVisitor extends BaseASTVisitor<Void,VoidException> {
 	 * @return voce trovato o null
 	 */
 	private STentry stLookup(String id) {
-		int j = this.nestingLevel;
-		STentry entry = null;
-		while (j >= 0 && entry == null) 
-			entry = this.symbolTable.get(j--).get(id);
-		return entry;
+		return this.symbolTable.lookup(id);
 	}
 
 	/**
@@ -63,10 +75,10 @@ public class SymbolTableASTVisitor extends BaseASTVisitor<Void,VoidException> {
 	@Override
 	public Void visitNode(ProgLetInNode node) {
 		if (this.print) this.printNode(node);
-        this.symbolTable.add(new HashMap<>());
+        this.symbolTable.openScope();
 		for (Node declaration : node.declarationlist) this.visit(declaration);
         this.visit(node.exp);
-        this.symbolTable.remove(0);
+        this.symbolTable.closeScope();
 		return null;
 	}
 
@@ -93,28 +105,29 @@ public class SymbolTableASTVisitor extends BaseASTVisitor<Void,VoidException> {
 	@Override
 	public Void visitNode(FunNode node) {
 		if (this.print) this.printNode(node);
-		Map<String, STentry> currentSymbolTable = this.symbolTable.get(this.nestingLevel);
 		List<TypeNode> parameterTypeList = new ArrayList<>();
 		for (ParNode par : node.parameterlist) parameterTypeList.add(par.getType());
 		STentry entry = new STentry(this.nestingLevel, new ArrowTypeNode(parameterTypeList,node.returnType), this.declarationOffset--);
-		if (currentSymbolTable.put(node.id, entry) != null) {
+		if (this.symbolTable.put(node.id, entry) != null) {
 			System.out.println("Fun id " + node.id + " at line "+ node.getLine() +" already declared");
             this.stErrors++;
 		}
+		node.entry = entry;
+		if (this.checked.contains(node)) return null;
         this.nestingLevel++;
-		Map<String, STentry> newSymbolTable = new HashMap<>();
-        this.symbolTable.add(newSymbolTable);
+        this.symbolTable.openScope();
 		int prevNLDecOffset= this.declarationOffset; // stores counter for offset of declarations at previous nesting level
         this.declarationOffset =-2;
 		int parOffset=1;
 		for (ParNode par : node.parameterlist)
-			if (newSymbolTable.put(par.id, new STentry(this.nestingLevel,par.getType(),parOffset++)) != null) {
+			if (this.symbolTable.put(par.id, new STentry(this.nestingLevel,par.getType(),parOffset++)) != null) {
 				System.out.println("Par id " + par.id + " at line "+ node.getLine() +" already declared");
                 this.stErrors++;
 			}
 		for (Node dec : node.declarationlist) this.visit(dec);
         this.visit(node.expression);
-        this.symbolTable.remove(this.nestingLevel--);
+        this.symbolTable.closeScope();
+        this.nestingLevel--;
         this.declarationOffset =prevNLDecOffset; // restores counter for offset of declarations at previous nesting level
 		return null;
 	}
@@ -129,14 +142,14 @@ public class SymbolTableASTVisitor extends BaseASTVisitor<Void,VoidException> {
 	@Override
 	public Void visitNode(VarNode node) {
 		if (this.print) this.printNode(node);
-        this.visit(node.expression);
-		Map<String, STentry> currentSymbolTable = this.symbolTable.get(this.nestingLevel);
+		if (!this.checked.contains(node)) this.visit(node.expression);
 		STentry entry = new STentry(this.nestingLevel,node.getType(), this.declarationOffset--);
 		//inserimento di ID nella symtable
-		if (currentSymbolTable.put(node.id, entry) != null) {
+		if (this.symbolTable.put(node.id, entry) != null) {
 			System.out.println("Var id " + node.id + " at line "+ node.getLine() +" already declared");
             this.stErrors++;
 		}
+		node.entry = entry;
 		return null;
 	}
 
@@ -337,6 +350,27 @@ public class SymbolTableASTVisitor extends BaseASTVisitor<Void,VoidException> {
 		return null;
 	}
 
+	/**
+	 * Visitare l'espressione e cercare la variabile in cui salvarne il valore, come per IdNode.
+	 *
+	 * @param node BindNode da visitare
+	 * @return null
+	 */
+	@Override
+	public Void visitNode(BindNode node) {
+		if (this.print) this.printNode(node);
+		this.visit(node.expression);
+		STentry entry = this.stLookup(node.id);
+		if (entry == null) {
+			System.out.println("Var id " + node.id + " at line "+ node.getLine() + " not declared");
+            this.stErrors++;
+		} else {
+			node.entry = entry;
+			node.nestingLevel = this.nestingLevel;
+		}
+		return null;
+	}
+
 	/**
 	 * Controlla se la superclass è stata dichiarata e imposta l'entry della superclass.
 	 * Crea un oggetto ClassTypeNode e imposta i campi e i metodi della superclass, se presenti.
@@ -360,7 +394,7 @@ public class SymbolTableASTVisitor extends BaseASTVisitor<Void,VoidException> {
 		if (isSubClass) {
 			// controlla se è dichiarata una super classe
 			if (this.classTable.containsKey(superId)) {
-				final STentry superSTEntry = this.symbolTable.get(0).get(superId);
+				final STentry superSTEntry = this.symbolTable.lookupGlobal(superId);
 				final ClassTypeNode superTypeNode = (ClassTypeNode) superSTEntry.type;
 				tempClassTypeNode = new ClassTypeNode(superTypeNode);
 				node.superClassEntry = superSTEntry;
@@ -373,8 +407,7 @@ public class SymbolTableASTVisitor extends BaseASTVisitor<Void,VoidException> {
 		node.setType(classTypeNode);
 		// Aggiunge l'id della classe alla tabella dello scope globale controllando i duplicati
 		final STentry entry = new STentry(0, classTypeNode, this.declarationOffset--);
-		final Map<String, STentry> globalScopeTable = this.symbolTable.get(0);
-		if (globalScopeTable.put(node.classId, entry) != null) {
+		if (this.symbolTable.put(node.classId, entry) != null) {
 			System.out.println("Class id " + node.classId + " at line " + node.getLine() + " already declared");
             this.stErrors++;
 		}
@@ -387,12 +420,14 @@ public class SymbolTableASTVisitor extends BaseASTVisitor<Void,VoidException> {
 			virtualTable.putAll(superClassVirtualTable);
 		}
         this.classTable.put(node.classId, virtualTable);
-        this.symbolTable.add(virtualTable);
+        this.virtualTable = virtualTable;
+        this.symbolTable.openScope();
+		for (Map.Entry<String, STentry> inherited : virtualTable.entrySet()) this.symbolTable.put(inherited.getKey(), inherited.getValue());
 		// Setta l'offset dei campi
         this.nestingLevel++;
 		int fieldOffset = -1;
 		if (isSubClass) {
-			final ClassTypeNode superTypeNode = (ClassTypeNode) this.symbolTable.get(0).get(superId).type;
+			final ClassTypeNode superTypeNode = (ClassTypeNode) this.symbolTable.lookupGlobal(superId).type;
 			fieldOffset = -superTypeNode.fieldList.size() - 1;
 		}
 		// gestisce le dichiarazioni dei campi
@@ -423,13 +458,14 @@ public class SymbolTableASTVisitor extends BaseASTVisitor<Void,VoidException> {
 			}
 			// aggiunge il campo alla virtual table
 			virtualTable.put(field.id, fieldEntry);
+            this.symbolTable.put(field.id, fieldEntry);
 			field.offset = fieldEntry.offset;
 		}
 		// setta l'offset dei metodi
 		int previousNestingLevelDeclarationOffset = this.declarationOffset;
         this.declarationOffset = 0;
 		if (isSubClass) {
-			final ClassTypeNode superTypeNode = (ClassTypeNode) this.symbolTable.get(0).get(superId).type;
+			final ClassTypeNode superTypeNode = (ClassTypeNode) this.symbolTable.lookupGlobal(superId).type;
             this.declarationOffset = superTypeNode.methodList.size();
 		}
 		for (final MethodNode method : node.methodList) {
@@ -442,11 +478,12 @@ public class SymbolTableASTVisitor extends BaseASTVisitor<Void,VoidException> {
 				onClassVisitScope.add(method.id);
 			}
             this.visit(method);
-			final MethodTypeNode methodTypeNode = (MethodTypeNode) this.symbolTable.get(this.nestingLevel).get(method.id).type;
+			final MethodTypeNode methodTypeNode = (MethodTypeNode) virtualTable.get(method.id).type;
 			classTypeNode.methodList.add(method.offset, methodTypeNode);
 		}
 		// Rimuove la classe dalla symbol table
-        this.symbolTable.remove(this.nestingLevel--);
+        this.symbolTable.closeScope();
+        this.nestingLevel--;
         this.declarationOffset = previousNestingLevelDeclarationOffset;
 		return null;
 	}
@@ -475,17 +512,16 @@ public class SymbolTableASTVisitor extends BaseASTVisitor<Void,VoidException> {
 	@Override
 	public Void visitNode(final MethodNode node) {
 		if (this.print) this.printNode(node);
-		final Map<String, STentry> currentTable = this.symbolTable.get(this.nestingLevel);
 		List<TypeNode> params = new ArrayList<>();
 		for (ParNode parNode : node.parameterList) {
 			params.add(parNode.getType());
 		}
-		final boolean isOverriding = currentTable.containsKey(node.id);
+		final boolean isOverriding = this.symbolTable.lookupLocal(node.id) != null;
 		final TypeNode methodType = new MethodTypeNode(params, node.returnType);
 		STentry entry = new STentry(this.nestingLevel, methodType, this.declarationOffset++);
 
 		if (isOverriding) {
-			final var overriddenMethodEntry = currentTable.get(node.id);
+			final var overriddenMethodEntry = this.symbolTable.lookupLocal(node.id);
 			final boolean isOverridingAMethod = overriddenMethodEntry != null && overriddenMethodEntry.type instanceof MethodTypeNode;
 			if (isOverridingAMethod) {
 				entry = new STentry(this.nestingLevel, methodType, overriddenMethodEntry.offset);
@@ -497,12 +533,13 @@ public class SymbolTableASTVisitor extends BaseASTVisitor<Void,VoidException> {
 		}
 
 		node.offset = entry.offset;
-		currentTable.put(node.id, entry);
+		this.symbolTable.put(node.id, entry);
+		this.virtualTable.put(node.id, entry);
+		if (this.checked.contains(node)) return null;
 
 		// si crea una nuova tabella per i metodi
         this.nestingLevel++;
-		final Map<String, STentry> methodTable = new HashMap<>();
-        this.symbolTable.add(methodTable);
+        this.symbolTable.openScope();
 
 		// setta l'offset delle dichiarazioni
 		int prevDecOffset = this.declarationOffset;
@@ -511,7 +548,7 @@ public class SymbolTableASTVisitor extends BaseASTVisitor<Void,VoidException> {
 
 		for (final ParNode parameter : node.parameterList) {
 			final STentry parameterEntry = new STentry(this.nestingLevel, parameter.getType(), parameterOffset++);
-			if (methodTable.put(parameter.id, parameterEntry) != null) {
+			if (this.symbolTable.put(parameter.id, parameterEntry) != null) {
 				System.out.println("Par id " + parameter.id + " at line " + node.getLine() + " already declared");
                 this.stErrors++;
 			}
@@ -519,9 +556,9 @@ public class SymbolTableASTVisitor extends BaseASTVisitor<Void,VoidException> {
 		for (Node declaration : node.declarationList) this.visit(declaration);
         this.visit(node.expression);
 
-		// Remove the current nesting level symbolTable.
 		// Rimuove il corrente nesting level della symbol table
-        this.symbolTable.remove(this.nestingLevel--);
+        this.symbolTable.closeScope();
+        this.nestingLevel--;
         this.declarationOffset = prevDecOffset;
 		return null;
 	}
@@ -601,7 +638,7 @@ public class SymbolTableASTVisitor extends BaseASTVisitor<Void,VoidException> {
 			System.out.println("Class id " + node.classId + " was not declared");
             this.stErrors++;
 		}
-		node.classSymbolTableEntry = this.symbolTable.get(0).get(node.classId);
+		node.classSymbolTableEntry = this.symbolTable.lookupGlobal(node.classId);
 		for (Node argument : node.argumentList) this.visit(argument);
 		return null;
 	}
@@ -5,20 +5,25 @@ import org.antlr.v4.runtime.*;
 import org.antlr.v4.runtime.tree.*;
 import compiler.lib.*;
 import compiler.exc.*;
+import compiler.ir.*;
 import svm.*;
 
 public class Test {
     public static void main(String[] args) throws Exception {
    			
     	String fileName = "res/test/operators/lessEquals/4lessEquals5.fool";
+    	CompilerSession session = new CompilerSession(); // stato di questa compilazione
 
     	CharStream chars = CharStreams.fromFileName(fileName);
-    	FOOLLexer lexer = new FOOLLexer(chars);
+    	FOOLScanner lexer = new FOOLScanner(chars, session.getSymbols());
     	CommonTokenStream tokens = new CommonTokenStream(lexer);
-    	FOOLParser parser = new FOOLParser(tokens);
+    	TwoStageParser<FOOLParser> twoStageParser = new TwoStageParser<>(() -> new FOOLParser(tokens));
 
     	System.out.println("Generating ST via lexer and parser.");
-    	ParseTree st = parser.prog();
+    	ParseTree st = twoStageParser.parse(FOOLParser::prog);
+    	FOOLParser parser = twoStageParser.getParser();
+    	for (String error : lexer.getErrors()) System.out.println(error);
+    	System.out.println("Parsed with "+twoStageParser.getPredictionMode()+" prediction.");
     	System.out.println("You had "+lexer.lexicalErrors+" lexical errors and "+
     		parser.getNumberOfSyntaxErrors()+" syntax errors.\n");
 
@@ -38,7 +43,7 @@ public class Test {
 
     	System.out.println("Checking Types.");
     	try {
-    		TypeCheckEASTVisitor typeCheckVisitor = new TypeCheckEASTVisitor();
+    		TypeCheckEASTVisitor typeCheckVisitor = new TypeCheckEASTVisitor(session);
     		TypeNode mainType = typeCheckVisitor.visit(ast);
     		System.out.print("Type of main program expression is: ");
     		new PrintEASTVisitor().visit(mainType);
@@ -47,35 +52,102 @@ public class Test {
     	} catch (TypeException e) {
     		System.out.println("Type checking error in main program expression: "+e.text); 
     	}       	
-    	System.out.println("You had "+FOOLlib.typeErrors+" type checking errors.\n");
+    	System.out.println("You had "+session.getTypeErrors()+" type checking errors.\n");
 
-    	int frontEndErrors = lexer.lexicalErrors+parser.getNumberOfSyntaxErrors()+symtableVisitor.stErrors+FOOLlib.typeErrors;
+    	int frontEndErrors = lexer.lexicalErrors+parser.getNumberOfSyntaxErrors()+symtableVisitor.stErrors+session.getTypeErrors();
 		System.out.println("You had a total of "+frontEndErrors+" front-end errors.\n");
 		
 		if ( frontEndErrors > 0) System.exit(1);   
 
+    	System.out.println("Lifting nested functions.");
+    	LambdaLiftingEASTVisitor liftingVisitor = new LambdaLiftingEASTVisitor();
+    	ast = liftingVisitor.lift(ast);
+    	System.out.println("You had "+liftingVisitor.liftedFunctions+" lifted functions: static chain walks went from "+
+    		liftingVisitor.staticChainHopsBefore+" to "+liftingVisitor.staticChainHopsAfter+".\n");
+
+    	System.out.println("Inlining small functions.");
+    	InliningEASTVisitor inliningVisitor = new InliningEASTVisitor(InliningEASTVisitor.DEFAULT_SIZE_THRESHOLD, InliningEASTVisitor.DEFAULT_BUDGET);
+    	ast = inliningVisitor.inline(ast);
+    	for (String line : inliningVisitor.report) System.out.println(line);
+    	System.out.println("You had "+inliningVisitor.report.size()+" inlined calls.\n");
+
+    	System.out.println("Folding constants.");
+    	ConstantFoldingEASTVisitor foldingVisitor = new ConstantFoldingEASTVisitor();
+    	ast = foldingVisitor.fold(ast);
+    	System.out.println("You had "+foldingVisitor.eliminatedNodes+" eliminated nodes.\n");
+
+    	System.out.println("Evaluating pure code at compile time.");
+    	PartialEvaluationEASTVisitor evaluationVisitor = new PartialEvaluationEASTVisitor(PartialEvaluationEASTVisitor.DEFAULT_FUEL);
+    	ast = evaluationVisitor.evaluate(ast);
+    	for (String line : evaluationVisitor.report) System.out.println(line);
+    	System.out.println("You had "+evaluationVisitor.report.size()+" evaluated expressions in "+evaluationVisitor.consumedFuel+" steps.\n");
+
+    	System.out.println("Removing unreachable declarations.");
+    	TreeShakingEASTVisitor shakingVisitor = new TreeShakingEASTVisitor();
+    	ast = shakingVisitor.shake(ast);
+    	for (String line : shakingVisitor.report) System.out.println(line);
+    	System.out.println("You had "+shakingVisitor.report.size()+" removed declarations.\n");
+
+    	System.out.println("Eliminating common subexpressions.");
+    	CommonSubexpressionEliminationEASTVisitor cseVisitor = new CommonSubexpressionEliminationEASTVisitor();
+    	ast = cseVisitor.eliminate(ast);
+    	for (String line : cseVisitor.report) System.out.println(line);
+    	System.out.println("You had "+cseVisitor.report.size()+" reused subexpressions.\n");
+
     	System.out.println("Generating code.");
-    	String code = new CodeGenerationASTVisitor().visit(ast);        
-    	BufferedWriter out = new BufferedWriter(new FileWriter(fileName+".asm")); 
-    	out.write(code);
+    	CodeGenerationASTVisitor codeGenerationVisitor = new CodeGenerationASTVisitor(session, false);
+    	codeGenerationVisitor.visit(ast);
+    	int[] code = codeGenerationVisitor.getCode();
+    	BufferedWriter out = new BufferedWriter(new FileWriter(fileName+".asm")); // disassembly, needed only for debug
+    	out.write(codeGenerationVisitor.getAssembly());
     	out.close(); 
     	System.out.println("");
 
-    	System.out.println("Assembling generated code.");
-    	CharStream charsASM = CharStreams.fromFileName(fileName+".asm");
-    	SVMLexer lexerASM = new SVMLexer(charsASM);
-    	CommonTokenStream tokensASM = new CommonTokenStream(lexerASM);
-    	SVMParser parserASM = new SVMParser(tokensASM);
+    	System.out.println("Running generated code via Stack Virtual Machine.");
+    	ExecuteVM vm = new ExecuteVM(code);
+    	long stackStart = System.nanoTime();
+    	vm.cpu();
+    	long stackTime = System.nanoTime() - stackStart;
+    	System.out.println("");
 
-    	parserASM.assembly();
+    	System.out.println("Generating code via the SSA intermediate representation.");
+    	compiler.ir.Program program = new IRGenerationASTVisitor(session).generate(ast);
+    	PassManager passManager = PassManager.standard();
+    	passManager.run(program);
+    	for (String line : passManager.report()) System.out.println(line);
+    	SVMLowering lowering = new SVMLowering(session);
+    	lowering.lower(program);
+    	System.out.println("You had "+passManager.getRounds()+" optimization rounds.\n");
+
+    	System.out.println("Running IR generated code via Stack Virtual Machine.");
+    	ExecuteVM irVM = new ExecuteVM(lowering.getCode());
+    	long irStart = System.nanoTime();
+    	irVM.cpu();
+    	long irTime = System.nanoTime() - irStart;
+    	System.out.println("");
 
-    	// needed only for debug
-    	System.out.println("You had: "+lexerASM.lexicalErrors+" lexical errors and "+parserASM.getNumberOfSyntaxErrors()+" syntax errors.\n");
-    	if (lexerASM.lexicalErrors+parserASM.getNumberOfSyntaxErrors()>0) System.exit(1);
+    	System.out.println("Generating and assembling code for the Register Virtual Machine.");
+    	RegisterCodeGenerationASTVisitor registerCodeGenerationVisitor = new RegisterCodeGenerationASTVisitor(session);
+    	registerCodeGenerationVisitor.visit(ast);
+    	String registerCode = registerCodeGenerationVisitor.getAssembly();
+    	RVMLexer lexerRVM = new RVMLexer(CharStreams.fromString(registerCode));
+    	CommonTokenStream tokensRVM = new CommonTokenStream(lexerRVM);
+    	TwoStageParser<RVMParser> twoStageParserRVM = new TwoStageParser<>(() -> new RVMParser(tokensRVM));
+    	twoStageParserRVM.parse(RVMParser::assembly);
+    	RVMParser parserRVM = twoStageParserRVM.getParser();
+    	System.out.println("You had: "+lexerRVM.lexicalErrors+" lexical errors and "+parserRVM.getNumberOfSyntaxErrors()+" syntax errors.\n");
+    	if (lexerRVM.lexicalErrors+parserRVM.getNumberOfSyntaxErrors()>0) System.exit(1);
+
+    	System.out.println("Running generated code via Register Virtual Machine.");
+    	RegisterVM registerVM = new RegisterVM(parserRVM.code);
+    	long registerStart = System.nanoTime();
+    	registerVM.cpu();
+    	long registerTime = System.nanoTime() - registerStart;
+    	System.out.println("");
 
-    	System.out.println("Running generated code via Stack Virtual Machine.");
-    	ExecuteVM vm = new ExecuteVM(parserASM.code);
-    	vm.cpu();
+    	System.out.println("Stack VM: "+vm.getExecutedInstructions()+" instructions in "+stackTime/1000+" us.");
+    	System.out.println("Stack VM (IR): "+irVM.getExecutedInstructions()+" instructions in "+irTime/1000+" us.");
+    	System.out.println("Register VM: "+registerVM.getExecutedInstructions()+" instructions in "+registerTime/1000+" us.");
 
     }
 }
@@ -0,0 +1,328 @@
+package compiler;
+
+import compiler.AST.*;
+import compiler.lib.*;
+
+import java.util.*;
+
+/**
+ * Trasformazione AST-to-AST che elimina le dichiarazioni che il programma non può raggiungere:
+ * funzioni (anche annidate) mai chiamate né passate come valore, metodi mai invocati, classi mai
+ * usate e variabili globali mai lette il cui inizializzatore non ha effetti. Eliminando i metodi
+ * si accorciano anche le dispatch table, dato che gli offset vengono ricalcolati.
+ * Va eseguita dopo TypeCheckEASTVisitor su un E-AST senza errori; l'AST restituito da
+ * {@link #shake(Node)} è già arricchito di nuovo.
+ *
+ * La raggiungibilità parte dall'espressione principale e dagli inizializzatori globali con effetti.
+ * Le chiamate di metodo sono risolte con la gerarchia delle classi limitata alle classi istanziate:
+ * una chiamata m su un oggetto di tipo statico T raggiunge il metodo m visibile in T (che serve
+ * comunque per risolvere la chiamata) e il metodo m visibile in ogni sottoclasse di T che compare
+ * in una new raggiungibile. Una classe resta se è istanziata, se è superclasse di una classe che
+ * resta o se compare nel tipo di una dichiarazione che resta.
+ */
+public class TreeShakingEASTVisitor extends RewriteEASTVisitor {
+
+	/**
+	 * Una riga per ogni dichiarazione eliminata.
+	 */
+	public final List<String> report = new ArrayList<>();
+
+	private final Map<STentry, FunNode> functions = new HashMap<>();
+	private final Map<Node, ClassNode> enclosingClasses = new HashMap<>();
+	private final Map<String, ClassNode> classes = new HashMap<>();
+	private final Map<String, VarNode> globalVariables = new HashMap<>();
+
+	private final Set<Node> reachable = new HashSet<>();
+	private final Set<String> keptClasses = new HashSet<>();
+	private final Set<String> instantiatedClasses = new HashSet<>();
+	private final Set<List<String>> virtualCalls = new LinkedHashSet<>();
+	private final Deque<Node> pending = new ArrayDeque<>();
+
+	public TreeShakingEASTVisitor() {}
+
+	/**
+	 * Elimina le dichiarazioni irraggiungibili e arricchisce di nuovo l'AST.
+	 *
+	 * @param ast radice dell'E-AST
+	 * @return radice dell'E-AST senza dichiarazioni irraggiungibili
+	 */
+	public Node shake(Node ast) {
+		if (!(ast instanceof ProgLetInNode program)) return ast;
+		this.collect(program);
+		for (DecNode declaration : program.declarationlist)
+			if (declaration instanceof VarNode varNode && hasEffects(varNode.expression)) this.markReachable(varNode);
+		new Reachability(null).visit(program.exp);
+		this.propagate();
+		Node shaken = this.visit(program);
+		if (enrich(shaken) > 0) { // non dovrebbe succedere: si rinuncia a eliminare
+			this.report.clear();
+			return ast;
+		}
+		return shaken;
+	}
+
+	/**
+	 * Registra tutte le dichiarazioni del programma, con la classe che le racchiude.
+	 */
+	private void collect(ProgLetInNode program) {
+		for (DecNode declaration : program.declarationlist) {
+			if (declaration instanceof VarNode varNode) this.globalVariables.put(varNode.id, varNode);
+			if (declaration instanceof ClassNode classNode) this.classes.put(classNode.classId, classNode);
+		}
+		new ScanEASTVisitor() {
+			private ClassNode currentClass;
+
+			@Override
+			public Void visitNode(FunNode node) {
+				functions.put(node.entry, node);
+				enclosingClasses.put(node, this.currentClass);
+				return super.visitNode(node);
+			}
+
+			@Override
+			public Void visitNode(ClassNode node) {
+				this.currentClass = node;
+				super.visitNode(node);
+				this.currentClass = null;
+				return null;
+			}
+
+			@Override
+			public Void visitNode(MethodNode node) {
+				enclosingClasses.put(node, this.currentClass);
+				return super.visitNode(node);
+			}
+		}.visit(program);
+	}
+
+	/**
+	 * Visita il codice raggiungibile e segna le dichiarazioni che usa; non entra nelle
+	 * funzioni e nelle classi dichiarate, che vengono visitate solo quando diventano raggiungibili.
+	 */
+	private class Reachability extends ScanEASTVisitor {
+		private final ClassNode currentClass;
+
+		Reachability(ClassNode currentClass) {
+			this.currentClass = currentClass;
+		}
+
+		@Override
+		public Void visitNode(FunNode node) {
+			return null;
+		}
+
+		@Override
+		public Void visitNode(ClassNode node) {
+			return null;
+		}
+
+		@Override
+		public Void visitNode(VarNode node) {
+			keepTypes(node.getType());
+			return super.visitNode(node);
+		}
+
+		@Override
+		public Void visitNode(IdNode node) {
+			FunNode function = functions.get(node.entry);
+			if (function != null) markReachable(function);
+			else if (node.entry.nl == 0 && globalVariables.containsKey(node.id)) markReachable(globalVariables.get(node.id));
+			return super.visitNode(node);
+		}
+
+		@Override
+		public Void visitNode(CallNode node) {
+			FunNode function = functions.get(node.entry);
+			if (function != null) markReachable(function);
+			else if (node.entry.type instanceof MethodTypeNode && this.currentClass != null)
+				virtualCalls.add(List.of(this.currentClass.classId, node.id));
+			return super.visitNode(node);
+		}
+
+		@Override
+		public Void visitNode(ClassCallNode node) {
+			if (node.symbolTableEntry.nl == 0 && globalVariables.containsKey(node.objectId))
+				markReachable(globalVariables.get(node.objectId));
+			if (node.symbolTableEntry.type instanceof RefTypeNode refTypeNode)
+				virtualCalls.add(List.of(refTypeNode.typeId, node.methodId));
+			return super.visitNode(node);
+		}
+
+		@Override
+		public Void visitNode(NewNode node) {
+			if (instantiatedClasses.add(node.classId)) keepClass(node.classId);
+			return super.visitNode(node);
+		}
+	}
+
+	private void markReachable(Node declaration) {
+		if (this.reachable.add(declaration)) this.pending.add(declaration);
+	}
+
+	/**
+	 * Visita le dichiarazioni diventate raggiungibili e risolve le chiamate di metodo
+	 * finché non se ne aggiungono altre.
+	 */
+	private void propagate() {
+		do {
+			while (!this.pending.isEmpty()) this.scan(this.pending.poll());
+			for (List<String> call : new ArrayList<>(this.virtualCalls)) {
+				String staticType = call.get(0), methodId = call.get(1);
+				MethodNode visible = this.visibleMethod(staticType, methodId);
+				if (visible != null) this.markReachable(visible);
+				for (String instantiated : this.instantiatedClasses) {
+					if (!this.isSubclass(instantiated, staticType)) continue;
+					MethodNode target = this.visibleMethod(instantiated, methodId);
+					if (target != null) this.markReachable(target);
+				}
+			}
+		} while (!this.pending.isEmpty());
+	}
+
+	private void scan(Node declaration) {
+		Reachability reachability = new Reachability(this.enclosingClasses.get(declaration));
+		if (declaration instanceof VarNode varNode) {
+			reachability.visit(varNode);
+		} else if (declaration instanceof FunNode funNode) {
+			for (ParNode parameter : funNode.parameterlist) this.keepTypes(parameter.getType());
+			this.keepTypes(funNode.returnType);
+			for (DecNode nested : funNode.declarationlist) reachability.visit(nested);
+			reachability.visit(funNode.expression);
+		} else if (declaration instanceof MethodNode methodNode) {
+			this.keepClass(this.enclosingClasses.get(methodNode).classId);
+			for (ParNode parameter : methodNode.parameterList) this.keepTypes(parameter.getType());
+			this.keepTypes(methodNode.returnType);
+			for (DecNode nested : methodNode.declarationList) reachability.visit(nested);
+			reachability.visit(methodNode.expression);
+		}
+	}
+
+	private void keepClass(String classId) {
+		ClassNode classNode = this.classes.get(classId);
+		if (classNode == null || !this.keptClasses.add(classId)) return;
+		classNode.superClassId.ifPresent(this::keepClass);
+		for (FieldNode field : classNode.fieldList) this.keepTypes(field.getType());
+	}
+
+	/**
+	 * Mantiene le classi che compaiono in un tipo, che altrimenti non verrebbe più risolto.
+	 */
+	private void keepTypes(TypeNode type) {
+		if (type instanceof RefTypeNode refTypeNode) {
+			this.keepClass(refTypeNode.typeId);
+		} else if (type instanceof ArrowTypeNode arrowTypeNode) {
+			for (TypeNode parameter : arrowTypeNode.parameterList) this.keepTypes(parameter);
+			this.keepTypes(arrowTypeNode.returnType);
+		} else if (type instanceof MethodTypeNode methodTypeNode) {
+			this.keepTypes(methodTypeNode.functionalType);
+		}
+	}
+
+	/**
+	 * @return il metodo che un oggetto della classe esegue per methodId (dichiarato o ereditato), null se non esiste
+	 */
+	private MethodNode visibleMethod(String classId, String methodId) {
+		for (ClassNode classNode = this.classes.get(classId); classNode != null;
+			 classNode = classNode.superClassId.map(this.classes::get).orElse(null))
+			for (MethodNode method : classNode.methodList)
+				if (method.id.equals(methodId)) return method;
+		return null;
+	}
+
+	private boolean isSubclass(String classId, String superClassId) {
+		for (ClassNode classNode = this.classes.get(classId); classNode != null;
+			 classNode = classNode.superClassId.map(this.classes::get).orElse(null))
+			if (classNode.classId.equals(superClassId)) return true;
+		return false;
+	}
+
+	/**
+	 * Indica se la valutazione di un inizializzatore può avere effetti osservabili
+	 * (stampe, chiamate che potrebbero non terminare, divisioni per zero).
+	 */
+	private static boolean hasEffects(Node expression) {
+		final boolean[] effects = {false};
+		new ScanEASTVisitor() {
+			@Override
+			public Void visitNode(PrintNode node) {
+				effects[0] = true;
+				return null;
+			}
+
+			@Override
+			public Void visitNode(CallNode node) {
+				effects[0] = true;
+				return null;
+			}
+
+			@Override
+			public Void visitNode(ClassCallNode node) {
+				effects[0] = true;
+				return null;
+			}
+
+			@Override
+			public Void visitNode(DivNode node) {
+				if (!(node.right instanceof IntNode divisor) || divisor.value == 0) effects[0] = true;
+				return super.visitNode(node);
+			}
+		}.visit(expression);
+		return effects[0];
+	}
+
+	/**
+	 * @return le dichiarazioni raggiungibili della lista, registrando quelle eliminate
+	 */
+	private List<DecNode> keptDeclarations(List<? extends DecNode> declarations) {
+		List<DecNode> kept = new ArrayList<>();
+		for (DecNode declaration : declarations) {
+			if (declaration instanceof FunNode funNode && !this.reachable.contains(funNode)) {
+				this.report.add("Removed function " + funNode.id + " at line " + funNode.getLine());
+			} else if (declaration instanceof ClassNode classNode && !this.keptClasses.contains(classNode.classId)) {
+				this.report.add("Removed class " + classNode.classId + " at line " + classNode.getLine());
+			} else if (declaration instanceof VarNode varNode && this.globalVariables.get(varNode.id) == varNode
+					&& !this.reachable.contains(varNode)) {
+				this.report.add("Removed variable " + varNode.id + " at line " + varNode.getLine());
+			} else {
+				kept.add(declaration);
+			}
+		}
+		return kept;
+	}
+
+	@Override
+	public Node visitNode(ProgLetInNode node) {
+		if (this.print) this.printNode(node);
+		List<DecNode> declarations = this.visitDeclarations(this.keptDeclarations(node.declarationlist));
+		return withLine(node, new ProgLetInNode(declarations, this.visit(node.exp)));
+	}
+
+	@Override
+	public Node visitNode(FunNode node) {
+		if (this.print) this.printNode(node, node.id);
+		List<ParNode> parameters = this.visitParameters(node.parameterlist);
+		List<DecNode> declarations = this.visitDeclarations(this.keptDeclarations(node.declarationlist));
+		return withLine(node, new FunNode(node.id, node.returnType, parameters, declarations, this.visit(node.expression)));
+	}
+
+	@Override
+	public Node visitNode(ClassNode node) {
+		if (this.print) this.printNode(node, node.classId);
+		List<FieldNode> fields = new ArrayList<>();
+		for (FieldNode field : node.fieldList) fields.add((FieldNode) this.visit(field));
+		List<MethodNode> methods = new ArrayList<>();
+		for (MethodNode method : node.methodList) {
+			if (this.reachable.contains(method)) methods.add((MethodNode) this.visit(method));
+			else this.report.add("Removed method " + node.classId + "." + method.id + " at line " + method.getLine());
+		}
+		return withLine(node, new ClassNode(node.classId, node.superClassId, fields, methods));
+	}
+
+	@Override
+	public Node visitNode(MethodNode node) {
+		if (this.print) this.printNode(node, node.id);
+		List<ParNode> parameters = this.visitParameters(node.parameterList);
+		List<DecNode> declarations = this.visitDeclarations(this.keptDeclarations(node.declarationList));
+		return withLine(node, new MethodNode(node.id, node.returnType, parameters, declarations, this.visit(node.expression)));
+	}
+}
@@ -6,8 +6,7 @@ import compiler.lib.*;
 
 import java.util.List;
 import java.util.Objects;
-
-import static compiler.TypeRels.*;
+import java.util.Set;
 
 /**
  * Questa classe implementa una fase di controllo del tipo per l'E-AST
@@ -21,7 +20,35 @@ import static compiler.TypeRels.*;
  */
 public class TypeCheckEASTVisitor extends BaseEASTVisitor<TypeNode,TypeException> {
 
-	public TypeCheckEASTVisitor() { super(true); } // enables incomplete tree exceptions
+	private final CompilerSession session;
+	private final TypeRels typeRels;
+
+	/**
+	 * Dichiarazioni globali già controllate senza errori in una compilazione precedente: non vengono
+	 * ricontrollate, ma le classi registrano comunque la propria superclasse per la relazione di sottotipo.
+	 */
+	private final Set<? extends Node> checked;
+
+	public TypeCheckEASTVisitor() { this(new CompilerSession()); }
+
+	public TypeCheckEASTVisitor(CompilerSession session) {
+		this(session, Set.of());
+	}
+
+	public TypeCheckEASTVisitor(CompilerSession session, Set<? extends Node> checked) {
+		super(true); // enables incomplete tree exceptions
+		this.session = session;
+		this.typeRels = new TypeRels(session);
+		this.checked = checked;
+	}
+
+	/**
+	 * Crea l'eccezione per un errore di tipo e la conta negli errori della sessione.
+	 */
+	private TypeException typeError(String text, int line) {
+		this.session.typeError();
+		return new TypeException(text, line);
+	}
 
 	//checks that a type object is visitable (not incomplete) 
 	private TypeNode ckvisit(TypeNode t) throws TypeException {
@@ -76,9 +103,10 @@ public class TypeCheckEASTVisitor extends BaseEASTVisitor<TypeNode,TypeException
 	@Override
 	public TypeNode visitNode(FunNode node) throws TypeException {
 		if (this.print) this.printNode(node,node.id);
+		if (this.checked.contains(node)) return null;
         this.visitNodeList(node.declarationlist);
-		if ( !isSubtype(this.visit(node.expression), this.ckvisit(node.returnType)) )
-			throw new TypeException("Wrong return type for function " + node.id,node.getLine());
+		if ( !this.typeRels.isSubtype(this.visit(node.expression), this.ckvisit(node.returnType)) )
+			throw this.typeError("Wrong return type for function " + node.id,node.getLine());
 		return null;
 	}
 
@@ -91,8 +119,9 @@ public class TypeCheckEASTVisitor extends BaseEASTVisitor<TypeNode,TypeException
 	@Override
 	public TypeNode visitNode(VarNode node) throws TypeException {
 		if (this.print) this.printNode(node,node.id);
-		if ( !isSubtype(this.visit(node.expression), this.ckvisit(node.getType())) )
-			throw new TypeException("Incompatible value for variable " + node.id,node.getLine());
+		if (this.checked.contains(node)) return null;
+		if ( !this.typeRels.isSubtype(this.visit(node.expression), this.ckvisit(node.getType())) )
+			throw this.typeError("Incompatible value for variable " + node.id,node.getLine());
 		return null;
 	}
 
@@ -133,12 +162,12 @@ public class TypeCheckEASTVisitor extends BaseEASTVisitor<TypeNode,TypeException
 		if (this.print) this.printNode(node,node.id);
 		TypeNode t = this.visit(node.entry);
 		if ( !(t instanceof ArrowTypeNode arrowTypeNode) )
-			throw new TypeException("Invocation of a non-function "+node.id,node.getLine());
+			throw this.typeError("Invocation of a non-function "+node.id,node.getLine());
         if ( !(arrowTypeNode.parameterList.size() == node.argumentList.size()) )
-			throw new TypeException("Wrong number of parameters in the invocation of "+node.id,node.getLine());
+			throw this.typeError("Wrong number of parameters in the invocation of "+node.id,node.getLine());
 		for (int i = 0; i < node.argumentList.size(); i++)
-			if ( !(isSubtype(this.visit(node.argumentList.get(i)),arrowTypeNode.parameterList.get(i))) )
-				throw new TypeException("Wrong type for "+(i+1)+"-th parameter in the invocation of "+node.id,node.getLine());
+			if ( !(this.typeRels.isSubtype(this.visit(node.argumentList.get(i)),arrowTypeNode.parameterList.get(i))) )
+				throw this.typeError("Wrong type for "+(i+1)+"-th parameter in the invocation of "+node.id,node.getLine());
 		return arrowTypeNode.returnType;
 	}
 
@@ -153,10 +182,22 @@ public class TypeCheckEASTVisitor extends BaseEASTVisitor<TypeNode,TypeException
 		if (this.print) this.printNode(node,node.id);
 		TypeNode t = this.visit(node.entry);
 		if (t instanceof ArrowTypeNode)
-			throw new TypeException("Wrong usage of function identifier " + node.id,node.getLine());
+			throw this.typeError("Wrong usage of function identifier " + node.id,node.getLine());
 		return t;
 	}
 
+	/**
+	 *
+	 * @param node BindNode
+	 * @return TypeNode dell'espressione
+	 * @throws TypeException l'espressione non è corretta
+	 */
+	@Override
+	public TypeNode visitNode(BindNode node) throws TypeException {
+		if (this.print) this.printNode(node,node.id);
+		return this.visit(node.expression);
+	}
+
 	/**
 	 *
 	 * @param node BoolNode
@@ -213,9 +254,9 @@ public class TypeCheckEASTVisitor extends BaseEASTVisitor<TypeNode,TypeException
 	@Override
 	public TypeNode visitNode(TimesNode node) throws TypeException {
 		if (this.print) this.printNode(node);
-		if ( !(isSubtype(this.visit(node.left), new IntTypeNode())
-				&& isSubtype(this.visit(node.right), new IntTypeNode())) )
-			throw new TypeException("Non integers in multiplication",node.getLine());
+		if ( !(this.typeRels.isSubtype(this.visit(node.left), new IntTypeNode())
+				&& this.typeRels.isSubtype(this.visit(node.right), new IntTypeNode())) )
+			throw this.typeError("Non integers in multiplication",node.getLine());
 		return new IntTypeNode();
 	}
 
@@ -228,9 +269,9 @@ public class TypeCheckEASTVisitor extends BaseEASTVisitor<TypeNode,TypeException
 	@Override
 	public TypeNode visitNode(PlusNode node) throws TypeException {
 		if (this.print) this.printNode(node);
-		if ( !(isSubtype(this.visit(node.left), new IntTypeNode())
-				&& isSubtype(this.visit(node.right), new IntTypeNode())) )
-			throw new TypeException("Non integers in sum",node.getLine());
+		if ( !(this.typeRels.isSubtype(this.visit(node.left), new IntTypeNode())
+				&& this.typeRels.isSubtype(this.visit(node.right), new IntTypeNode())) )
+			throw this.typeError("Non integers in sum",node.getLine());
 		return new IntTypeNode();
 	}
 
@@ -243,9 +284,9 @@ public class TypeCheckEASTVisitor extends BaseEASTVisitor<TypeNode,TypeException
 	@Override
 	public TypeNode visitNode(MinusNode node) throws TypeException {
 		if (this.print) this.printNode(node);
-		if (!(isSubtype(this.visit(node.left), new IntTypeNode())
-				&& isSubtype(this.visit(node.right), new IntTypeNode())))
-			throw new TypeException("Non integers in sum", node.getLine());
+		if (!(this.typeRels.isSubtype(this.visit(node.left), new IntTypeNode())
+				&& this.typeRels.isSubtype(this.visit(node.right), new IntTypeNode())))
+			throw this.typeError("Non integers in sum", node.getLine());
 		return new IntTypeNode();
 	}
 
@@ -258,9 +299,9 @@ public class TypeCheckEASTVisitor extends BaseEASTVisitor<TypeNode,TypeException
 	@Override
 	public TypeNode visitNode(DivNode node) throws TypeException {
 		if (this.print) this.printNode(node);
-		if (!(isSubtype(this.visit(node.left), new IntTypeNode())
-				&& isSubtype(this.visit(node.right), new IntTypeNode())))
-			throw new TypeException("Non integers in div", node.getLine());
+		if (!(this.typeRels.isSubtype(this.visit(node.left), new IntTypeNode())
+				&& this.typeRels.isSubtype(this.visit(node.right), new IntTypeNode())))
+			throw this.typeError("Non integers in div", node.getLine());
 		return new IntTypeNode();
 	}
 
@@ -284,15 +325,15 @@ public class TypeCheckEASTVisitor extends BaseEASTVisitor<TypeNode,TypeException
 	@Override
 	public TypeNode visitNode(IfNode node) throws TypeException {
 		if (this.print) this.printNode(node);
-		if ( !(isSubtype(this.visit(node.cond), new BoolTypeNode())) )
-			throw new TypeException("Non boolean condition in if",node.getLine());
+		if ( !(this.typeRels.isSubtype(this.visit(node.cond), new BoolTypeNode())) )
+			throw this.typeError("Non boolean condition in if",node.getLine());
 		TypeNode thenNode = this.visit(node.thenNode);
 		TypeNode elseNode = this.visit(node.elseNode);
-		if (isSubtype(thenNode, elseNode)) return elseNode;
-		if (isSubtype(elseNode, thenNode)) return thenNode;
-		final TypeNode returnType = lowestCommonAncestor(thenNode, elseNode);
+		if (this.typeRels.isSubtype(thenNode, elseNode)) return elseNode;
+		if (this.typeRels.isSubtype(elseNode, thenNode)) return thenNode;
+		final TypeNode returnType = this.typeRels.lowestCommonAncestor(thenNode, elseNode);
 		if (returnType == null)
-			throw new TypeException("Incompatible types in then-else branches", node.getLine());
+			throw this.typeError("Incompatible types in then-else branches", node.getLine());
 		return returnType;
 	}
 
@@ -307,8 +348,8 @@ public class TypeCheckEASTVisitor extends BaseEASTVisitor<TypeNode,TypeException
 		if (this.print) this.printNode(node);
 		TypeNode left = this.visit(node.left);
 		TypeNode right = this.visit(node.right);
-		if ( !(isSubtype(left, right) || isSubtype(right, left)) )
-			throw new TypeException("Incompatible types in equal",node.getLine());
+		if ( !(this.typeRels.isSubtype(left, right) || this.typeRels.isSubtype(right, left)) )
+			throw this.typeError("Incompatible types in equal",node.getLine());
 		return new BoolTypeNode();
 	}
 
@@ -321,9 +362,9 @@ public class TypeCheckEASTVisitor extends BaseEASTVisitor<TypeNode,TypeException
 	@Override
 	public TypeNode visitNode(GreaterEqualNode node) throws TypeException {
 		if (this.print) this.printNode(node);
-		if (!(isSubtype(this.visit(node.left), new IntTypeNode())
-				&& isSubtype(this.visit(node.right), new IntTypeNode())))
-			throw new TypeException("Incompatible types in greaterEqual", node.getLine());
+		if (!(this.typeRels.isSubtype(this.visit(node.left), new IntTypeNode())
+				&& this.typeRels.isSubtype(this.visit(node.right), new IntTypeNode())))
+			throw this.typeError("Incompatible types in greaterEqual", node.getLine());
 		return new BoolTypeNode();
 	}
 
@@ -336,9 +377,9 @@ public class TypeCheckEASTVisitor extends BaseEASTVisitor<TypeNode,TypeException
 	@Override
 	public TypeNode visitNode(LessEqualNode node) throws TypeException {
 		if (this.print) this.printNode(node);
-		if (!(isSubtype(this.visit(node.left), new IntTypeNode())
-				&& isSubtype(this.visit(node.right), new IntTypeNode())))
-			throw new TypeException("Incompatible types in lessEqual", node.getLine());
+		if (!(this.typeRels.isSubtype(this.visit(node.left), new IntTypeNode())
+				&& this.typeRels.isSubtype(this.visit(node.right), new IntTypeNode())))
+			throw this.typeError("Incompatible types in lessEqual", node.getLine());
 		return new BoolTypeNode();
 	}
 
@@ -351,9 +392,9 @@ public class TypeCheckEASTVisitor extends BaseEASTVisitor<TypeNode,TypeException
 	@Override
 	public TypeNode visitNode(OrNode node) throws TypeException {
 		if (this.print) this.printNode(node);
-		if (!(isSubtype(this.visit(node.left), new BoolTypeNode())
-				&& isSubtype(this.visit(node.right), new BoolTypeNode())))
-			throw new TypeException("Non booleans in or", node.getLine());
+		if (!(this.typeRels.isSubtype(this.visit(node.left), new BoolTypeNode())
+				&& this.typeRels.isSubtype(this.visit(node.right), new BoolTypeNode())))
+			throw this.typeError("Non booleans in or", node.getLine());
 		return new BoolTypeNode();
 	}
 
@@ -366,9 +407,9 @@ public class TypeCheckEASTVisitor extends BaseEASTVisitor<TypeNode,TypeException
 	@Override
 	public TypeNode visitNode(AndNode node) throws TypeException {
 		if (this.print) this.printNode(node);
-		if (!(isSubtype(this.visit(node.left), new BoolTypeNode())
-				&& isSubtype(this.visit(node.right), new BoolTypeNode())))
-			throw new TypeException("Non booleans in and", node.getLine());
+		if (!(this.typeRels.isSubtype(this.visit(node.left), new BoolTypeNode())
+				&& this.typeRels.isSubtype(this.visit(node.right), new BoolTypeNode())))
+			throw this.typeError("Non booleans in and", node.getLine());
 		return new BoolTypeNode();
 	}
 
@@ -381,8 +422,8 @@ public class TypeCheckEASTVisitor extends BaseEASTVisitor<TypeNode,TypeException
 	@Override
 	public TypeNode visitNode(NotNode node) throws TypeException {
 		if (this.print) this.printNode(node);
-		if (!(isSubtype(this.visit(node.expression), new BoolTypeNode())))
-			throw new TypeException("Non boolean in not", node.getLine());
+		if (!(this.typeRels.isSubtype(this.visit(node.expression), new BoolTypeNode())))
+			throw this.typeError("Non boolean in not", node.getLine());
 		return new BoolTypeNode();
 	}
 
@@ -397,6 +438,8 @@ public class TypeCheckEASTVisitor extends BaseEASTVisitor<TypeNode,TypeException
 		if (this.print) this.printNode(node, node.classId);
 		final boolean isSubClass = node.superClassId.isPresent();
 		final String parent = isSubClass ? node.superClassId.get() : null;
+		if (isSubClass) this.session.getSuperType().put(node.classId, parent); // eredito, quindi aggiungo la mia classe in superType
+		if (this.checked.contains(node)) return null;
 		if (!isSubClass) {
 			for(Node method : node.methodList) {
 				try {
@@ -407,15 +450,14 @@ public class TypeCheckEASTVisitor extends BaseEASTVisitor<TypeNode,TypeException
 			}
 			return null;
 		}
-		superType.put(node.classId, parent); // eredito, quindi aggiungo la mia classe in superType
 		final ClassTypeNode classType = (ClassTypeNode) node.getType();
 		//ottimizzazione 2
 		final ClassTypeNode superClassType = (ClassTypeNode) node.superClassEntry.type;
 		for (final FieldNode field : node.fieldList) {
 			int position = -field.offset - 1;
 			final boolean isOverriding = position < superClassType.fieldList.size();
-			if (isOverriding && !isSubtype(classType.fieldList.get(position), superClassType.fieldList.get(position))) {
-				throw new TypeException("Wrong type for field " + field.id, field.getLine());
+			if (isOverriding && !this.typeRels.isSubtype(classType.fieldList.get(position), superClassType.fieldList.get(position))) {
+				throw this.typeError("Wrong type for field " + field.id, field.getLine());
 			}
 		}
 		for (final MethodNode method : node.methodList) {
@@ -425,11 +467,11 @@ public class TypeCheckEASTVisitor extends BaseEASTVisitor<TypeNode,TypeException
 				ArrowTypeNode methodTypeNode = classType.methodList.get(position).functionalType;
 				ArrowTypeNode superMethodNode = superClassType.methodList.get(position).functionalType;
 				if (methodTypeNode.parameterList.size() != superMethodNode.parameterList.size()) {
-					throw new TypeException("WRONG quantity parameters " + method.id, method.getLine());
+					throw this.typeError("WRONG quantity parameters " + method.id, method.getLine());
                }
 			}
-			if (isOverriding && !isSubtype(classType.methodList.get(position), superClassType.methodList.get(position))) {
-				throw new TypeException("Wrong type for method " + method.id, method.getLine());
+			if (isOverriding && !this.typeRels.isSubtype(classType.methodList.get(position), superClassType.methodList.get(position))) {
+				throw this.typeError("Wrong type for method " + method.id, method.getLine());
 			}
 		}
 		return null;
@@ -445,8 +487,8 @@ public class TypeCheckEASTVisitor extends BaseEASTVisitor<TypeNode,TypeException
 	public TypeNode visitNode(final MethodNode node) throws TypeException {
 		if (this.print) this.printNode(node, node.id);
         this.visitNodeList(node.declarationList);
-		if (!isSubtype(this.visit(node.expression), this.ckvisit(node.returnType))) { // visita l'espressione e controlla se è un sottotipo del tipo restituito
-			throw new TypeException("Wrong return type for method " + node.id, node.getLine());
+		if (!this.typeRels.isSubtype(this.visit(node.expression), this.ckvisit(node.returnType))) { // visita l'espressione e controlla se è un sottotipo del tipo restituito
+			throw this.typeError("Wrong return type for method " + node.id, node.getLine());
 		}
 		return null;
 	}
@@ -474,15 +516,15 @@ public class TypeCheckEASTVisitor extends BaseEASTVisitor<TypeNode,TypeException
 		if(Objects.isNull(node.methodEntry)) return null; // per evitare NullPointerException
 		TypeNode methodType = this.visit(node.methodEntry);
 		if (!(methodType instanceof MethodTypeNode)) {
-			throw new TypeException("Invocation of a non-method " + node.methodId, node.getLine());
+			throw this.typeError("Invocation of a non-method " + node.methodId, node.getLine());
 		}
 		ArrowTypeNode arrowTypeNode = ((MethodTypeNode) methodType).functionalType;
 		if (node.argumentList.size() != arrowTypeNode.parameterList.size()) {
-			throw new TypeException("Wrong number of parameters in the invocation of " + node.methodId, node.getLine());
+			throw this.typeError("Wrong number of parameters in the invocation of " + node.methodId, node.getLine());
 		}
 		for (var i = 0; i < node.argumentList.size(); i++) {
-			if (!isSubtype(this.visit(node.argumentList.get(i)), arrowTypeNode.parameterList.get(i))) {
-				throw new TypeException(
+			if (!this.typeRels.isSubtype(this.visit(node.argumentList.get(i)), arrowTypeNode.parameterList.get(i))) {
+				throw this.typeError(
 						"Wrong type for " + (i+1) + "-th parameter in the invocation of " + node.methodId, node.getLine()
 				);
 			}
@@ -501,14 +543,14 @@ public class TypeCheckEASTVisitor extends BaseEASTVisitor<TypeNode,TypeException
 		if (this.print) this.printNode(node, node.classId);
 		final TypeNode typeNode = this.visit(node.classSymbolTableEntry);
 		if (!(typeNode instanceof ClassTypeNode classTypeNode)) {
-			throw new TypeException("Invocation of a non-constructor " + node.classId, node.getLine());
+			throw this.typeError("Invocation of a non-constructor " + node.classId, node.getLine());
 		}
 		if (classTypeNode.fieldList.size() != node.argumentList.size()) {
-			throw new TypeException("Wrong number of parameters in the invocation of constructor " + node.classId, node.getLine());
+			throw this.typeError("Wrong number of parameters in the invocation of constructor " + node.classId, node.getLine());
 		}
 		for (int i = 0; i < node.argumentList.size(); i++) {
-			if (!(isSubtype(this.visit(node.argumentList.get(i)), classTypeNode.fieldList.get(i)))) {
-				throw new TypeException("Wrong type for " + (i + 1) + "-th parameter in the invocation of constructor " + node.classId, node.getLine());
+			if (!(this.typeRels.isSubtype(this.visit(node.argumentList.get(i)), classTypeNode.fieldList.get(i)))) {
+				throw this.typeError("Wrong type for " + (i + 1) + "-th parameter in the invocation of constructor " + node.classId, node.getLine());
 			}
 		}
 		return new RefTypeNode(node.classId);
@@ -3,21 +3,28 @@ package compiler;
 import compiler.AST.*;
 import compiler.lib.*;
 
-import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
 import java.util.stream.Stream;
 
+/**
+ * Relazioni tra i tipi di un programma: la gerarchia delle classi è quella registrata
+ * nella sessione di compilazione.
+ */
 public class TypeRels {
-	public static Map<String, String> superType = new HashMap<>();
+	private final Map<String, String> superType;
+
+	public TypeRels(CompilerSession session) {
+		this.superType = session.getSuperType();
+	}
 
 	/**
 	 *
 	 * @param type tipo
 	 * @return stream dei sopratipi del tipo di input
 	 */
-	private static Stream<String> superTypes(final String type) {
-		return Stream.iterate(type, Objects::nonNull, superType::get);
+	private Stream<String> superTypes(final String type) {
+		return Stream.iterate(type, Objects::nonNull, this.superType::get);
 	}
 
 	/**
@@ -27,16 +34,16 @@ public class TypeRels {
 	 * @param second nodo con cui paragonare
 	 * @return true se il metodo è ereditato dal secondo
 	 */
-	private static boolean isMethodOverride(final TypeNode first, final TypeNode second) {
+	private boolean isMethodOverride(final TypeNode first, final TypeNode second) {
 		if (!(first instanceof ArrowTypeNode firstArrowTypeNode) ||
 				!(second instanceof ArrowTypeNode secondArrowTypeNode)) {
 			return false;
 		}
-		if (!isSubtype(firstArrowTypeNode.returnType, secondArrowTypeNode.returnType)) {
+		if (!this.isSubtype(firstArrowTypeNode.returnType, secondArrowTypeNode.returnType)) {
 			return false;
 		}
 		for (TypeNode parameterType : firstArrowTypeNode.parameterList) {
-			if (!isSubtype(parameterType, secondArrowTypeNode.returnType)) {
+			if (!this.isSubtype(parameterType, secondArrowTypeNode.returnType)) {
 				return false;
 			}
 		}
@@ -49,20 +56,20 @@ public class TypeRels {
 	 * @param second TypeNode di confronto
 	 * @return true se in primo TypeNode è dello stesso tipi o sottotipo
 	 */
-	public static boolean isSubtype(TypeNode first, TypeNode second) {
+	public boolean isSubtype(TypeNode first, TypeNode second) {
 		//controllo sui tipi Int e Boolean
 		if(((first instanceof BoolTypeNode) && (second instanceof IntTypeNode | second instanceof BoolTypeNode))
 				|| ((first instanceof IntTypeNode) && (second instanceof IntTypeNode))) return true;
 		//controllo che il primo sia di tipo Empty e il secondo riferimento
 		if(((first instanceof EmptyTypeNode) && (second instanceof RefTypeNode))) return true;
 		//controllo che il metodo di una classe sia ereditato da un metodo della classe padre
-		if(isMethodOverride(first, second)) return true;
+		if(this.isMethodOverride(first, second)) return true;
 		//controllo che il primo sia sottoclasse del secondo
 		if (!(first instanceof RefTypeNode firstRefTypeNode)
 				|| !(second instanceof RefTypeNode secondRefTypeNode)) {
 			return false;
 		}
-        return superTypes(firstRefTypeNode.typeId).anyMatch(secondRefTypeNode.typeId::equals);
+        return this.superTypes(firstRefTypeNode.typeId).anyMatch(secondRefTypeNode.typeId::equals);
     }
 
 	/**
@@ -72,13 +79,13 @@ public class TypeRels {
 	 * @param second TypeNode
 	 * @return supertipo in comune se presente o null
 	 */
-	public static TypeNode lowestCommonAncestor(final TypeNode first, final TypeNode second) {
-		if (isSubtype(first, second)) return second;
-		if (isSubtype(second, first)) return first;
+	public TypeNode lowestCommonAncestor(final TypeNode first, final TypeNode second) {
+		if (this.isSubtype(first, second)) return second;
+		if (this.isSubtype(second, first)) return first;
 		if (!(first instanceof RefTypeNode firstRefTypeNode)) return null;
-		return superTypes(firstRefTypeNode.typeId)
+		return this.superTypes(firstRefTypeNode.typeId)
 				.map(RefTypeNode::new)
-				.filter(typeOfSuperA -> isSubtype(second, typeOfSuperA))
+				.filter(typeOfSuperA -> this.isSubtype(second, typeOfSuperA))
 				.findFirst()
 				.orElse(null);
 	}
@@ -0,0 +1,153 @@
+package compiler.ir;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Blocco base dell'IR: una sequenza di istruzioni eseguite dalla prima all'ultima.
+ * Le PHI stanno all'inizio del blocco, con un operando per ciascun predecessore nello stesso
+ * ordine della lista dei predecessori; l'ultima istruzione è l'unico terminatore.
+ *
+ * @function funzione che contiene il blocco
+ * @instructions istruzioni del blocco
+ * @predecessors blocchi che saltano a questo
+ */
+public class Block {
+	final int id;
+	final Function function;
+	final List<Instruction> instructions = new ArrayList<>();
+	final List<Block> predecessors = new ArrayList<>();
+
+	Block(int id, Function function) {
+		this.id = id;
+		this.function = function;
+	}
+
+	/*
+	 * i metodi seguenti costruiscono il blocco, aggiungendo le istruzioni in fondo
+	 */
+
+	/**
+	 * Aggiunge un'istruzione in fondo al blocco.
+	 *
+	 * @param opcode operazione
+	 * @param operands operandi
+	 * @param arguments argomenti interi
+	 * @return l'istruzione aggiunta
+	 */
+	public Instruction add(Opcode opcode, List<Instruction> operands, int... arguments) {
+		if (this.terminator() != null) throw new IllegalStateException("Block " + this.name() + " is already terminated");
+		Instruction instruction = this.function.newInstruction(opcode, operands, arguments);
+		instruction.block = this;
+		if (opcode == Opcode.PHI) this.instructions.add(this.phis().size(), instruction);
+		else this.instructions.add(instruction);
+		return instruction;
+	}
+
+	/**
+	 * Aggiunge un'istruzione che fa riferimento a delle etichette (FUNCTION o DISPATCH_TABLE).
+	 *
+	 * @param opcode operazione
+	 * @param labels etichette
+	 * @return l'istruzione aggiunta
+	 */
+	public Instruction addLabels(Opcode opcode, List<String> labels) {
+		Instruction instruction = this.add(opcode, List.<Instruction>of());
+		instruction.labels = List.copyOf(labels);
+		return instruction;
+	}
+
+	/**
+	 * Aggiunge una PHI. Va creata dopo i salti dei predecessori, perché l'ordine dei valori
+	 * è quello dei predecessori.
+	 *
+	 * @param values un valore per ciascun predecessore
+	 * @return la PHI
+	 */
+	public Instruction phi(List<Instruction> values) {
+		if (values.size() != this.predecessors.size()) throw new IllegalStateException("Phi in " + this.name() + " does not match the predecessors");
+		return this.add(Opcode.PHI, values);
+	}
+
+	public void jump(Block target) {
+		this.terminate(Opcode.JUMP, List.of(), target);
+	}
+
+	public void branch(Instruction condition, Block thenBlock, Block elseBlock) {
+		this.terminate(Opcode.BRANCH, List.of(condition), thenBlock, elseBlock);
+	}
+
+	public void ret(Instruction value) {
+		this.terminate(Opcode.RETURN, List.of(value));
+	}
+
+	public void halt(Instruction value) {
+		this.terminate(Opcode.HALT, List.of(value));
+	}
+
+	private void terminate(Opcode opcode, List<Instruction> operands, Block... targets) {
+		Instruction terminator = this.add(opcode, operands);
+		for (Block target : targets) {
+			terminator.targets.add(target);
+			target.predecessors.add(this);
+		}
+	}
+
+	/*
+	 * i metodi seguenti servono alle passate per leggere e modificare il grafo
+	 */
+
+	/**
+	 * @return il terminatore del blocco, o null se il blocco è ancora in costruzione
+	 */
+	Instruction terminator() {
+		if (this.instructions.isEmpty()) return null;
+		Instruction last = this.instructions.get(this.instructions.size() - 1);
+		return last.opcode.isTerminator() ? last : null;
+	}
+
+	/**
+	 * @return i blocchi a cui salta il terminatore
+	 */
+	List<Block> successors() {
+		Instruction terminator = this.terminator();
+		return terminator == null ? List.of() : terminator.targets;
+	}
+
+	/**
+	 * @return le PHI all'inizio del blocco
+	 */
+	List<Instruction> phis() {
+		List<Instruction> phis = new ArrayList<>();
+		for (Instruction instruction : this.instructions) {
+			if (instruction.opcode != Opcode.PHI) break;
+			phis.add(instruction);
+		}
+		return phis;
+	}
+
+	/**
+	 * Toglie un predecessore, insieme al valore corrispondente di ogni PHI.
+	 *
+	 * @param predecessor blocco che non salta più a questo
+	 */
+	void removePredecessor(Block predecessor) {
+		int index = this.predecessors.indexOf(predecessor);
+		this.predecessors.remove(index);
+		for (Instruction phi : this.phis()) phi.operands.remove(index);
+	}
+
+	/**
+	 * @return il nome del blocco
+	 */
+	public String name() {
+		return "b" + this.id;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder text = new StringBuilder(this.name()).append(":\n");
+		for (Instruction instruction : this.instructions) text.append("  ").append(instruction).append("\n");
+		return text.toString();
+	}
+}
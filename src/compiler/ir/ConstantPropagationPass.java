@@ -0,0 +1,91 @@
+package compiler.ir;
+
+/**
+ * Constant propagation: calcola le operazioni i cui operandi sono costanti (anche attraverso le copie),
+ * trasforma in costanti le PHI che ricevono la stessa costante da tutti i predecessori e sostituisce i
+ * salti condizionati su una costante con salti incondizionati, togliendo l'arco non percorso.
+ * Il grafo è aciclico e i blocchi vengono visitati in reverse postorder, quindi una sola visita
+ * raggiunge lo stesso risultato dell'algoritmo sparse conditional: gli archi tolti qui rendono
+ * irraggiungibili i blocchi che la dead code elimination rimuove.
+ */
+public class ConstantPropagationPass implements Pass {
+
+	@Override
+	public String getName() {
+		return "constant propagation";
+	}
+
+	@Override
+	public int run(Function function) {
+		int transformations = 0;
+		for (Block block : function.reversePostorder()) {
+			for (Instruction instruction : block.instructions) {
+				if (instruction.isConstant()) continue;
+				Integer value = evaluate(instruction);
+				if (value != null) {
+					instruction.becomeConstant(value);
+					transformations++;
+				}
+			}
+			Instruction terminator = block.terminator();
+			if (terminator.opcode == Opcode.BRANCH) {
+				Integer condition = constantOf(terminator.operands.get(0));
+				if (condition != null) {
+					Block taken = terminator.targets.get(condition != 0 ? 0 : 1);
+					Block skipped = terminator.targets.get(condition != 0 ? 1 : 0);
+					skipped.removePredecessor(block);
+					terminator.opcode = Opcode.JUMP;
+					terminator.operands.clear();
+					terminator.targets.clear();
+					terminator.targets.add(taken);
+					transformations++;
+				}
+			}
+		}
+		return transformations;
+	}
+
+	/**
+	 * @param value un valore
+	 * @return la costante a cui è uguale il valore, o null se non è noto a tempo di compilazione
+	 */
+	private static Integer constantOf(Instruction value) {
+		while (value.opcode == Opcode.COPY) value = value.operands.get(0);
+		return value.isConstant() ? value.constant() : null;
+	}
+
+	/**
+	 * Calcola un'istruzione con la stessa aritmetica della SVM.
+	 *
+	 * @param instruction istruzione
+	 * @return il valore dell'istruzione, o null se non è una costante
+	 */
+	private static Integer evaluate(Instruction instruction) {
+		if (instruction.opcode == Opcode.PHI) {
+			Integer common = null;
+			for (Instruction operand : instruction.operands) {
+				Integer value = constantOf(operand);
+				if (value == null || (common != null && !common.equals(value))) return null;
+				common = value;
+			}
+			return common;
+		}
+		if (instruction.operands.isEmpty() || !instruction.opcode.isPure()) return null;
+		Integer left = constantOf(instruction.operands.get(0));
+		if (left == null) return null;
+		if (instruction.opcode == Opcode.NOT) return left != 0 ? 0 : 1;
+		Integer right = constantOf(instruction.operands.get(1));
+		if (right == null) return null;
+		return switch (instruction.opcode) {
+			case ADD -> left + right;
+			case SUB -> left - right;
+			case MUL -> left * right;
+			case DIV -> right != 0 ? left / right : null;
+			case EQ -> left.equals(right) ? 1 : 0;
+			case LEQ -> left <= right ? 1 : 0;
+			case AND -> left != 0 && right != 0 ? 1 : 0;
+			case OR -> left != 0 || right != 0 ? 1 : 0;
+			default -> null;
+		};
+	}
+}
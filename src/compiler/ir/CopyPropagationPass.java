@@ -0,0 +1,40 @@
+package compiler.ir;
+
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Copy propagation: gli usi di una copia usano direttamente il valore copiato, e le PHI che
+ * ricevono lo stesso valore da tutti i predecessori (tipicamente dopo che la constant propagation
+ * ha tolto un arco) vengono sostituite da quel valore.
+ */
+public class CopyPropagationPass implements Pass {
+
+	@Override
+	public String getName() {
+		return "copy propagation";
+	}
+
+	@Override
+	public int run(Function function) {
+		Map<Instruction, Instruction> replacements = new HashMap<>();
+		for (Block block : function.reversePostorder()) {
+			for (Instruction instruction : block.instructions) {
+				if (instruction.opcode == Opcode.COPY) {
+					replacements.put(instruction, instruction.operands.get(0));
+				} else if (instruction.opcode == Opcode.PHI) {
+					Set<Instruction> values = new LinkedHashSet<>();
+					for (Instruction operand : instruction.operands) {
+						while (replacements.containsKey(operand)) operand = replacements.get(operand);
+						if (operand != instruction) values.add(operand);
+					}
+					if (values.size() == 1) replacements.put(instruction, values.iterator().next());
+				}
+			}
+		}
+		function.replaceAll(replacements);
+		return replacements.size();
+	}
+}
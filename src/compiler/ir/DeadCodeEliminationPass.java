@@ -0,0 +1,79 @@
+package compiler.ir;
+
+import java.util.*;
+
+/**
+ * Dead code elimination: toglie i blocchi non raggiungibili dall'ingresso, unisce un blocco al suo
+ * unico successore quando ne è anche l'unico predecessore (il salto diventa inutile) e rimuove le
+ * istruzioni senza effetti il cui valore non contribuisce, direttamente o attraverso altre istruzioni,
+ * a un'istruzione con effetti.
+ */
+public class DeadCodeEliminationPass implements Pass {
+
+	@Override
+	public String getName() {
+		return "dead code elimination";
+	}
+
+	@Override
+	public int run(Function function) {
+		return this.removeUnreachableBlocks(function) + this.mergeBlocks(function) + this.removeDeadInstructions(function);
+	}
+
+	private int removeUnreachableBlocks(Function function) {
+		Set<Block> reachable = new HashSet<>(function.reversePostorder());
+		int removed = 0;
+		for (Block block : function.blocks) {
+			if (reachable.contains(block)) continue;
+			for (Block successor : block.successors())
+				if (reachable.contains(successor)) successor.removePredecessor(block);
+			removed++;
+		}
+		function.blocks.retainAll(reachable);
+		return removed;
+	}
+
+	private int mergeBlocks(Function function) {
+		int merged = 0;
+		for (Block block : function.reversePostorder()) {
+			if (!function.blocks.contains(block)) continue;
+			Instruction terminator = block.terminator();
+			while (terminator.opcode == Opcode.JUMP) {
+				Block successor = terminator.targets.get(0);
+				if (successor.predecessors.size() != 1 || successor == function.entry()) break;
+				Map<Instruction, Instruction> replacements = new HashMap<>();
+				for (Instruction phi : successor.phis()) replacements.put(phi, phi.operands.get(0));
+				block.instructions.remove(terminator);
+				for (Instruction instruction : successor.instructions) {
+					if (replacements.containsKey(instruction)) continue;
+					instruction.block = block;
+					block.instructions.add(instruction);
+				}
+				for (Block next : successor.successors()) next.predecessors.replaceAll(p -> p == successor ? block : p);
+				function.blocks.remove(successor);
+				function.replaceAll(replacements);
+				terminator = block.terminator();
+				merged++;
+			}
+		}
+		return merged;
+	}
+
+	private int removeDeadInstructions(Function function) {
+		Set<Instruction> live = new HashSet<>();
+		Deque<Instruction> worklist = new ArrayDeque<>();
+		for (Block block : function.blocks)
+			for (Instruction instruction : block.instructions)
+				if (instruction.hasEffects() && live.add(instruction)) worklist.add(instruction);
+		while (!worklist.isEmpty())
+			for (Instruction operand : worklist.remove().operands)
+				if (live.add(operand)) worklist.add(operand);
+		int removed = 0;
+		for (Block block : function.blocks) {
+			int size = block.instructions.size();
+			block.instructions.removeIf(instruction -> !live.contains(instruction));
+			removed += size - block.instructions.size();
+		}
+		return removed;
+	}
+}
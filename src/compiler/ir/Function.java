@@ -0,0 +1,126 @@
+package compiler.ir;
+
+import java.util.*;
+
+/**
+ * Funzione dell'IR: il control-flow graph del corpo di una funzione, di un metodo o del programma principale.
+ * Il primo blocco è quello di ingresso. Il frame mantiene il layout del generatore di codice a stack:
+ * i parametri agli offset positivi e le dichiarazioni locali dall'offset -2 in giù.
+ *
+ * @label etichetta del codice della funzione (null per il programma principale)
+ * @parameters numero di parametri
+ * @locals numero di dichiarazioni locali che hanno bisogno di una cella nel frame
+ * @blocks blocchi della funzione
+ */
+public class Function {
+	final String label;
+	final int parameters;
+	final int locals;
+	final List<Block> blocks = new ArrayList<>();
+	private int blockCount = 0;
+	private int instructionCount = 0;
+
+	public Function(String label, int parameters, int locals) {
+		this.label = label;
+		this.parameters = parameters;
+		this.locals = locals;
+	}
+
+	/**
+	 * @return true se la funzione è il programma principale
+	 */
+	public boolean isMain() {
+		return this.label == null;
+	}
+
+	public Block newBlock() {
+		Block block = new Block(this.blockCount++, this);
+		this.blocks.add(block);
+		return block;
+	}
+
+	Instruction newInstruction(Opcode opcode, List<Instruction> operands, int... arguments) {
+		return new Instruction(this.instructionCount++, opcode, operands, arguments);
+	}
+
+	Block entry() {
+		return this.blocks.get(0);
+	}
+
+	/**
+	 * @return il numero di istruzioni della funzione
+	 */
+	public int size() {
+		return this.blocks.stream().mapToInt(block -> block.instructions.size()).sum();
+	}
+
+	/**
+	 * Ordina i blocchi raggiungibili dall'ingresso in reverse postorder: ogni blocco viene dopo
+	 * i suoi predecessori (il grafo non ha cicli, perché FOOL non ha iterazione).
+	 * Visitando per primo il ramo then, il ramo else segue subito il blocco della condizione.
+	 *
+	 * @return i blocchi raggiungibili in reverse postorder
+	 */
+	List<Block> reversePostorder() {
+		List<Block> postorder = new ArrayList<>();
+		Set<Block> visited = new HashSet<>();
+		Deque<Iterator<Block>> stack = new ArrayDeque<>();
+		Deque<Block> path = new ArrayDeque<>();
+		visited.add(this.entry());
+		path.push(this.entry());
+		stack.push(this.entry().successors().iterator());
+		while (!stack.isEmpty()) {
+			if (stack.peek().hasNext()) {
+				Block next = stack.peek().next();
+				if (visited.add(next)) {
+					path.push(next);
+					stack.push(next.successors().iterator());
+				}
+			} else {
+				stack.pop();
+				postorder.add(path.pop());
+			}
+		}
+		Collections.reverse(postorder);
+		return postorder;
+	}
+
+	/**
+	 * Sostituisce gli usi dei valori secondo una mappa, seguendo le catene di sostituzioni,
+	 * e toglie dai blocchi le istruzioni sostituite.
+	 *
+	 * @param replacements valore sostituito → valore che ne prende il posto
+	 */
+	void replaceAll(Map<Instruction, Instruction> replacements) {
+		if (replacements.isEmpty()) return;
+		for (Block block : this.blocks) {
+			block.instructions.removeIf(replacements::containsKey);
+			for (Instruction instruction : block.instructions)
+				instruction.operands.replaceAll(operand -> resolve(replacements, operand));
+		}
+	}
+
+	private static Instruction resolve(Map<Instruction, Instruction> replacements, Instruction value) {
+		while (replacements.containsKey(value)) value = replacements.get(value);
+		return value;
+	}
+
+	/**
+	 * @return per ogni valore, il numero di volte in cui compare come operando
+	 */
+	Map<Instruction, Integer> uses() {
+		Map<Instruction, Integer> uses = new HashMap<>();
+		for (Block block : this.blocks)
+			for (Instruction instruction : block.instructions)
+				for (Instruction operand : instruction.operands) uses.merge(operand, 1, Integer::sum);
+		return uses;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder text = new StringBuilder(this.isMain() ? "main" : this.label)
+				.append(" (").append(this.parameters).append(" parameters, ").append(this.locals).append(" locals)\n");
+		for (Block block : this.blocks) text.append(block);
+		return text.toString();
+	}
+}
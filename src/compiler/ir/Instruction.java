@@ -0,0 +1,105 @@
+package compiler.ir;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Istruzione dell'IR. Ogni istruzione con risultato definisce un valore SSA: gli operandi sono
+ * riferimenti diretti alle istruzioni che li definiscono, e ogni valore è assegnato una volta sola.
+ *
+ * @opcode operazione
+ * @operands valori usati
+ * @arguments argomenti interi (offset, livelli, costanti)
+ * @labels etichette (funzione o metodi della dispatch table)
+ * @targets blocchi destinazione dei terminatori
+ * @block blocco che contiene l'istruzione
+ */
+public class Instruction {
+	final int id;
+	Opcode opcode;
+	final List<Instruction> operands = new ArrayList<>();
+	int[] arguments;
+	List<String> labels = List.of();
+	final List<Block> targets = new ArrayList<>();
+	Block block;
+
+	Instruction(int id, Opcode opcode, List<Instruction> operands, int... arguments) {
+		this.id = id;
+		this.opcode = opcode;
+		this.operands.addAll(operands);
+		this.arguments = arguments;
+	}
+
+	public Opcode getOpcode() {
+		return this.opcode;
+	}
+
+	public List<Instruction> getOperands() {
+		return this.operands;
+	}
+
+	public int getArgument(int index) {
+		return this.arguments[index];
+	}
+
+	/**
+	 * @return true se l'istruzione è una costante
+	 */
+	boolean isConstant() {
+		return this.opcode == Opcode.CONST;
+	}
+
+	/**
+	 * @return il valore di una costante
+	 */
+	int constant() {
+		return this.arguments[0];
+	}
+
+	/**
+	 * Trasforma l'istruzione in una costante, che prende il suo posto per tutti gli usi.
+	 *
+	 * @param value valore della costante
+	 */
+	void becomeConstant(int value) {
+		this.opcode = Opcode.CONST;
+		this.operands.clear();
+		this.arguments = new int[] {value};
+	}
+
+	/**
+	 * Indica se l'istruzione deve restare anche quando il suo valore non è usato: quelle con effetti,
+	 * tranne le divisioni per una costante diversa da zero.
+	 *
+	 * @return true se l'istruzione non si può eliminare
+	 */
+	boolean hasEffects() {
+		if (this.opcode == Opcode.DIV) {
+			Instruction divisor = this.operands.get(1);
+			return !divisor.isConstant() || divisor.constant() == 0;
+		}
+		return this.opcode.hasEffects();
+	}
+
+	/**
+	 * @return il nome del valore definito dall'istruzione
+	 */
+	public String name() {
+		return "v" + this.id;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder text = new StringBuilder();
+		if (this.opcode.hasResult()) text.append(this.name()).append(" = ");
+		text.append(this.opcode.name().toLowerCase());
+		if (this.arguments.length > 0)
+			text.append(" ").append(Arrays.stream(this.arguments).mapToObj(Integer::toString).collect(Collectors.joining(",")));
+		if (!this.labels.isEmpty()) text.append(" ").append(String.join(",", this.labels));
+		for (Instruction operand : this.operands) text.append(" ").append(operand.name());
+		for (Block target : this.targets) text.append(" ").append(target.name());
+		return text.toString();
+	}
+}
@@ -0,0 +1,103 @@
+package compiler.ir;
+
+/**
+ * Operazioni delle istruzioni dell'IR.
+ * Gli argomenti interi e le etichette di ciascuna operazione sono descritti accanto alla costante;
+ * gli operandi sono sempre valori SSA, nell'ordine in cui il codice SVM li pusha sullo stack.
+ */
+public enum Opcode {
+	/** Costante intera (argomento: valore); i booleani sono 0 e 1, null è -1. */
+	CONST,
+	/** Valore a un offset del frame raggiunto risalendo gli Access Link (argomenti: livelli, offset). */
+	LOAD,
+	/** Indirizzo del frame raggiunto risalendo gli Access Link (argomento: livelli). */
+	FRAME,
+	/** Indirizzo del codice di una funzione (etichetta). */
+	FUNCTION,
+	/** Copia di un valore: nasce dalla lettura di una variabile locale. */
+	COPY,
+	ADD, SUB, MUL, DIV, EQ, LEQ, NOT, AND, OR,
+	/** Valore che dipende dal predecessore da cui si è arrivati nel blocco (un operando per predecessore). */
+	PHI,
+	/** Stampa l'operando; il risultato è l'operando stesso. */
+	PRINT,
+	/** Salva l'operando nella variabile locale a un offset del frame corrente (argomento: offset). */
+	LOCAL,
+	/**
+	 * Chiamata (argomenti: offset nella tabella, 1 se si passa per la dispatch table): gli operandi sono
+	 * gli argomenti dall'ultimo al primo seguiti dall'Access Link, cioè il frame della dichiarazione o l'oggetto.
+	 */
+	CALL,
+	/** Creazione di un oggetto (argomento: offset della classe nel frame globale; operandi: i campi). */
+	NEW,
+	/** Costruzione sullo heap della dispatch table di una classe (etichette dei metodi). */
+	DISPATCH_TABLE,
+	/** Salto incondizionato al primo blocco destinazione. */
+	JUMP,
+	/** Salto al primo blocco destinazione se l'operando è vero, al secondo altrimenti. */
+	BRANCH,
+	/** Ritorno al chiamante con l'operando come risultato. */
+	RETURN,
+	/** Fine del programma (l'operando è il valore del corpo del programma). */
+	HALT;
+
+	/**
+	 * @return true se l'istruzione chiude un blocco
+	 */
+	public boolean isTerminator() {
+		return this == JUMP || this == BRANCH || this == RETURN || this == HALT;
+	}
+
+	/**
+	 * @return true se l'istruzione produce un valore usabile come operando
+	 */
+	public boolean hasResult() {
+		return !this.isTerminator() && this != LOCAL;
+	}
+
+	/**
+	 * Indica se l'istruzione ha effetti osservabili e quindi non può essere eliminata anche se
+	 * il suo valore non è usato. La divisione può fallire per un divisore nullo: la dead code
+	 * elimination la rimuove solo se il divisore è una costante diversa da zero.
+	 *
+	 * @return true se l'istruzione ha effetti
+	 */
+	public boolean hasEffects() {
+		return switch (this) {
+			case PRINT, LOCAL, CALL, NEW, DISPATCH_TABLE, DIV -> true;
+			default -> this.isTerminator();
+		};
+	}
+
+	/**
+	 * Indica se due istruzioni con questa operazione, gli stessi argomenti e gli stessi operandi
+	 * producono sempre lo stesso valore, così la seconda può riusare il valore della prima.
+	 * Le letture dai frame sono comprese: i parametri, le variabili dei frame esterni e i campi
+	 * non vengono mai modificati dopo l'inizializzazione.
+	 *
+	 * @return true se l'istruzione è una funzione pura dei suoi operandi
+	 */
+	public boolean isPure() {
+		return switch (this) {
+			case CONST, LOAD, FRAME, FUNCTION, ADD, SUB, MUL, DIV, EQ, LEQ, NOT, AND, OR -> true;
+			default -> false;
+		};
+	}
+
+	/**
+	 * @return true se scambiando gli operandi il risultato non cambia
+	 */
+	public boolean isCommutative() {
+		return this == ADD || this == MUL || this == EQ || this == AND || this == OR;
+	}
+
+	/**
+	 * Le istruzioni senza operandi che si possono ricalcolare a ogni uso con una sola istruzione SVM
+	 * (o con lfp seguita da una lw per livello) invece di salvarne il valore nel frame.
+	 *
+	 * @return true se l'istruzione si ricalcola a ogni uso
+	 */
+	public boolean isRematerializable() {
+		return this == CONST || this == LOAD || this == FRAME || this == FUNCTION;
+	}
+}
@@ -0,0 +1,20 @@
+package compiler.ir;
+
+/**
+ * Passata di ottimizzazione sull'IR, applicata una funzione alla volta.
+ */
+public interface Pass {
+
+	/**
+	 * @return il nome della passata, usato nelle statistiche
+	 */
+	String getName();
+
+	/**
+	 * Applica la passata a una funzione.
+	 *
+	 * @param function funzione da ottimizzare
+	 * @return numero di trasformazioni eseguite (0 se la funzione non è cambiata)
+	 */
+	int run(Function function);
+}
@@ -0,0 +1,84 @@
+package compiler.ir;
+
+import java.util.*;
+
+/**
+ * Esegue una sequenza di passate su tutte le funzioni di un programma, ripetendola finché una
+ * ripetizione completa non cambia più nulla (ogni passata può creare occasioni per le altre),
+ * e raccoglie per ciascuna passata il numero totale di trasformazioni.
+ */
+public class PassManager {
+
+	/**
+	 * Limite alle ripetizioni della sequenza: le passate riducono sempre l'IR, il limite serve solo
+	 * a garantire la terminazione se una passata futura non lo facesse.
+	 */
+	public static final int MAX_ROUNDS = 10;
+
+	private final List<Pass> passes = new ArrayList<>();
+	private final Map<String, Integer> statistics = new LinkedHashMap<>();
+	private int rounds = 0;
+
+	public PassManager() {}
+
+	/**
+	 * @return un pass manager con le passate standard: constant propagation, copy propagation,
+	 * value numbering e dead code elimination
+	 */
+	public static PassManager standard() {
+		return new PassManager()
+				.add(new ConstantPropagationPass())
+				.add(new CopyPropagationPass())
+				.add(new ValueNumberingPass())
+				.add(new DeadCodeEliminationPass());
+	}
+
+	public PassManager add(Pass pass) {
+		this.passes.add(pass);
+		this.statistics.put(pass.getName(), 0);
+		return this;
+	}
+
+	/**
+	 * Ottimizza il programma.
+	 *
+	 * @param program programma da ottimizzare, modificato sul posto
+	 */
+	public void run(Program program) {
+		boolean changed = true;
+		while (changed && this.rounds < MAX_ROUNDS) {
+			changed = false;
+			this.rounds++;
+			for (Pass pass : this.passes) {
+				for (Function function : program.getFunctions()) {
+					int transformations = pass.run(function);
+					this.statistics.merge(pass.getName(), transformations, Integer::sum);
+					if (transformations > 0) changed = true;
+				}
+			}
+		}
+	}
+
+	/**
+	 * @return per ogni passata, nell'ordine di esecuzione, il numero di trasformazioni eseguite
+	 */
+	public Map<String, Integer> getStatistics() {
+		return Collections.unmodifiableMap(this.statistics);
+	}
+
+	/**
+	 * @return il numero di ripetizioni della sequenza di passate
+	 */
+	public int getRounds() {
+		return this.rounds;
+	}
+
+	/**
+	 * @return una riga per passata con il numero di trasformazioni
+	 */
+	public List<String> report() {
+		List<String> report = new ArrayList<>();
+		this.statistics.forEach((name, count) -> report.add(name + ": " + count));
+		return report;
+	}
+}
@@ -0,0 +1,51 @@
+package compiler.ir;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Programma dell'IR: il programma principale e tutte le funzioni e i metodi, a qualunque nesting level.
+ * Le funzioni annidate restano funzioni distinte: accedono ai frame esterni con gli Access Link come nel
+ * codice generato direttamente dall'AST.
+ *
+ * @main programma principale
+ * @functions funzioni e metodi
+ */
+public class Program {
+	Function main;
+	final List<Function> functions = new ArrayList<>();
+
+	public Program() {}
+
+	public void setMain(Function main) {
+		this.main = main;
+	}
+
+	public void add(Function function) {
+		this.functions.add(function);
+	}
+
+	/**
+	 * @return il programma principale seguito dalle funzioni
+	 */
+	public List<Function> getFunctions() {
+		List<Function> all = new ArrayList<>();
+		all.add(this.main);
+		all.addAll(this.functions);
+		return all;
+	}
+
+	/**
+	 * @return il numero di istruzioni del programma
+	 */
+	public int size() {
+		return this.getFunctions().stream().mapToInt(Function::size).sum();
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder text = new StringBuilder();
+		for (Function function : this.getFunctions()) text.append(function);
+		return text.toString();
+	}
+}
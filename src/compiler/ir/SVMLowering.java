@@ -0,0 +1,485 @@
+package compiler.ir;
+
+import compiler.lib.CodeEmitter;
+import compiler.lib.CompilerSession;
+import svm.ExecuteVM;
+import svm.SVMParser;
+
+import java.util.*;
+
+
+/**
+ * Traduce l'IR in codice SVM, con lo stesso frame e la stessa sequenza di chiamata del generatore
+ * di codice a stack (Access Link, niente display).
+ *
+ * I valori SSA vengono assegnati così:
+ * <ul>
+ * <li>un valore usato una sola volta, dall'istruzione che lo segue nel blocco, resta sullo stack
+ * (stackification): gli operandi di un'istruzione che la precedono immediatamente, nell'ordine,
+ * formano un albero valutato come nel generatore a stack;</li>
+ * <li>costanti, letture dai frame, indirizzi dei frame e delle funzioni si ricalcolano a ogni uso;</li>
+ * <li>gli altri valori hanno una cella nel frame, riservata dal prologo dopo le dichiarazioni locali
+ * e scritta con sloc. Le PHI condividono la cella con i valori in ingresso usati solo da loro,
+ * e un valore salvato in una variabile locale usa la cella della variabile.</li>
+ * </ul>
+ * Un confronto usato solo dal salto condizionato che lo segue diventa una beq o una bleq.
+ */
+public class SVMLowering {
+
+	private final CodeEmitter code = new CodeEmitter();
+
+	private Map<Instruction, Integer> uses;
+	private final Set<Instruction> stackified = new HashSet<>();
+	private final Set<Instruction> fused = new HashSet<>();
+	private final Map<Instruction, Deque<Instruction>> preambles = new HashMap<>();
+	private final Map<Instruction, Integer> handledOperands = new HashMap<>();
+	private final Map<Instruction, Instruction> classes = new HashMap<>();
+	private final Map<Instruction, Integer> homes = new HashMap<>();
+	private final Map<Block, String> labels = new HashMap<>();
+	private final Set<Instruction> inPlace = new HashSet<>();
+	private final Set<Instruction> recomputed = new HashSet<>();
+	private Instruction reserveBefore;
+	private List<Block> order;
+	private Function function;
+
+	/**
+	 * Segnaposto per la Control Link di una chiamata (lfp) nei preamboli.
+	 */
+	private static final Instruction CONTROL_LINK = new Instruction(-1, Opcode.FRAME, List.of(), 0);
+
+	/**
+	 * Sessione di compilazione da cui prendere le etichette.
+	 */
+	private final CompilerSession session;
+
+	public SVMLowering() {
+		this(new CompilerSession());
+	}
+
+	public SVMLowering(CompilerSession session) {
+		this.session = session;
+	}
+
+	/**
+	 * Genera il codice di un programma: il programma principale seguito dalle funzioni.
+	 *
+	 * @param program programma
+	 */
+	public void lower(Program program) {
+		for (Function function : program.functions) {
+			this.code.open();
+			this.lower(function);
+			this.code.putFunctionCode(this.code.close());
+		}
+		this.lower(program.main);
+	}
+
+	/**
+	 * @return il codice binario generato, da eseguire con ExecuteVM
+	 */
+	public int[] getCode() {
+		return this.code.getCode();
+	}
+
+	/**
+	 * @return il codice generato in forma testuale
+	 */
+	public String getAssembly() {
+		return this.code.disassemble();
+	}
+
+	/**
+	 * @param value un valore
+	 * @return il valore copiato, seguendo le catene di copie (le copie non generano codice)
+	 */
+	private static Instruction source(Instruction value) {
+		while (value.opcode == Opcode.COPY) value = value.operands.get(0);
+		return value;
+	}
+
+	/**
+	 * @return gli operandi che l'istruzione trova sullo stack, nell'ordine in cui vengono pushati
+	 */
+	private static List<Instruction> stackOperands(Instruction instruction) {
+		if (instruction.opcode == Opcode.PHI || instruction.opcode == Opcode.COPY) return List.of();
+		List<Instruction> operands = new ArrayList<>();
+		for (Instruction operand : instruction.operands) operands.add(source(operand));
+		return operands;
+	}
+
+	private void lower(Function function) {
+		this.function = function;
+		this.order = function.reversePostorder();
+		this.uses = new HashMap<>();
+		this.stackified.clear();
+		this.fused.clear();
+		this.preambles.clear();
+		this.handledOperands.clear();
+		this.classes.clear();
+		this.homes.clear();
+		this.labels.clear();
+		this.inPlace.clear();
+		this.recomputed.clear();
+		for (Block block : this.order) {
+			this.labels.put(block, this.session.freshLabel());
+			for (Instruction instruction : block.instructions)
+				if (instruction.opcode != Opcode.COPY)
+					for (Instruction operand : instruction.operands) this.uses.merge(source(operand), 1, Integer::sum);
+		}
+		for (Block block : this.order)
+			for (Instruction instruction : block.instructions)
+				if (this.isCheap(instruction)) this.recomputed.add(instruction);
+		for (Block block : this.order) this.stackify(block);
+		for (int i = this.order.size() - 1; i >= 0; i--) this.stackifyIncoming(this.order.get(i)); //prima le PHI esterne
+		int temporaries = this.assignHomes();
+
+		if (function.isMain()) {
+			this.code.emitArgument(SVMParser.PUSH, 0);  //valore fittizio al posto del Return Address
+		} else {
+			this.code.defineLabel(function.label);
+			this.code.emit(SVMParser.ENTER);
+		}
+		for (int i = 0; i < this.order.size(); i++) {
+			Block block = this.order.get(i);
+			Block next = i + 1 < this.order.size() ? this.order.get(i + 1) : null;
+			this.code.defineLabel(this.labels.get(block));
+			for (Instruction instruction : this.sequence(block)) {
+				if (instruction == this.reserveBefore)   //riserva le celle delle dichiarazioni rimanenti e dei temporanei
+					for (int j = this.inPlace.size(); j < function.locals + temporaries; j++) this.code.emitArgument(SVMParser.PUSH, 0);
+				this.emit(instruction, next);
+			}
+		}
+	}
+
+	/**
+	 * Le istruzioni del blocco che generano codice nella loro posizione, escluse PHI e copie.
+	 * Una PHI usata una sola volta, se è l'unica del blocco, apre la sequenza: può restare sullo
+	 * stack, dove la lasciano i salti dei predecessori.
+	 *
+	 * @return le istruzioni del blocco in ordine
+	 */
+	private List<Instruction> sequence(Block block) {
+		List<Instruction> sequence = new ArrayList<>();
+		List<Instruction> phis = block.phis();
+		if (phis.size() == 1 && this.uses.getOrDefault(phis.get(0), 0) == 1) sequence.add(phis.get(0));
+		for (Instruction instruction : block.instructions)
+			if (instruction.opcode != Opcode.PHI && instruction.opcode != Opcode.COPY) sequence.add(instruction);
+		return sequence;
+	}
+
+	/**
+	 * Decide quali valori restano sullo stack. Per ogni istruzione si risale il blocco cercando una
+	 * catena di operandi consecutivi, dall'ultimo trovato all'indietro: ciascuno deve essere usato solo
+	 * da questa istruzione ed essere immediatamente preceduto dall'albero dell'operando precedente,
+	 * oppure essere ricalcolabile, e allora viene pushato all'inizio dell'albero dell'operando seguente.
+	 * Le istruzioni ricalcolabili non generano codice nella loro posizione e non interrompono la catena.
+	 * Gli operandi che precedono la catena vengono pushati all'inizio dell'albero dell'istruzione,
+	 * subito dopo la Control Link se è una chiamata; quelli che la seguono subito prima dell'istruzione.
+	 */
+	private void stackify(Block block) {
+		List<Instruction> sequence = this.sequence(block);
+		int[] start = new int[sequence.size()];
+		for (int j = 0; j < sequence.size(); j++) {
+			Instruction instruction = sequence.get(j);
+			List<Instruction> operands = stackOperands(instruction);
+			start[j] = j;
+			int expected = operands.size();
+			int handled = 0;
+			int position = j - 1;
+			int region = j;
+			while (expected > 0) {
+				if (handled > 0 && this.isRecomputed(operands.get(expected - 1))) {
+					this.preamble(sequence.get(region)).addFirst(operands.get(--expected));
+					continue;
+				}
+				if (position < 0) break;
+				Instruction candidate = sequence.get(position);
+				int index = operands.subList(0, expected).lastIndexOf(candidate);
+				boolean afterPhi = sequence.get(start[position]).opcode == Opcode.PHI; //niente si può pushare prima della PHI
+				if (index >= 0 && this.uses.get(candidate) == 1 && !this.isRecomputed(candidate)
+						&& (handled == 0 || index == expected - 1)
+						&& (!afterPhi || (index == 0 && instruction.opcode != Opcode.CALL))) {
+					this.stackified.add(candidate);
+					if (handled == 0) handled = index + 1;
+					expected = index;
+					region = start[position];
+					position = region - 1;
+				} else if (this.isRecomputed(candidate)) {
+					position--;
+				} else {
+					break;
+				}
+			}
+			if (handled == 0) expected = 0;
+			start[j] = region;
+			this.handledOperands.put(instruction, handled);
+			Instruction condition = handled > 0 ? operands.get(handled - 1) : null;
+			if (handled == 0 && !operands.isEmpty() && this.isRecomputed(operands.get(0))) condition = operands.get(0); //confronto ricalcolato
+			if (instruction.opcode == Opcode.BRANCH && condition != null && (condition.opcode == Opcode.EQ || condition.opcode == Opcode.LEQ))
+				this.fused.add(condition);
+			Deque<Instruction> preamble = this.preamble(sequence.get(start[j]));
+			for (int i = expected - 1; i >= 0; i--) preamble.addFirst(operands.get(i));
+			if (instruction.opcode == Opcode.CALL) preamble.addFirst(CONTROL_LINK);
+		}
+		if (block == this.order.get(0)) this.placeDeclarations(sequence, start);
+	}
+
+	/**
+	 * Le dichiarazioni all'inizio del blocco di ingresso, se i loro valori si calcolano sullo stack senza
+	 * usare celle del frame, vengono lasciate direttamente nella loro cella come fa il generatore a stack;
+	 * le celle delle dichiarazioni seguenti e dei temporanei vengono riservate prima dell'istruzione
+	 * che non lo permette.
+	 *
+	 * @param sequence istruzioni del blocco di ingresso
+	 * @param start per ogni istruzione, la posizione in cui comincia il suo albero
+	 */
+	private void placeDeclarations(List<Instruction> sequence, int[] start) {
+		for (int j = 0; j < sequence.size(); j++) {
+			Instruction instruction = sequence.get(j);
+			if (this.stackified.contains(instruction) || this.isRecomputed(instruction)) continue;
+			boolean inPlace = instruction.opcode == Opcode.LOCAL && this.inPlace.size() < this.function.locals
+					&& instruction.arguments[0] == -2 - this.inPlace.size();
+			for (int k = start[j]; inPlace && k <= j; k++) {
+				Instruction emitted = sequence.get(k);
+				if (this.isRecomputed(emitted)) continue;
+				List<Instruction> values = new ArrayList<>(this.preambles.getOrDefault(emitted, new ArrayDeque<>()));
+				List<Instruction> operands = stackOperands(emitted);
+				values.addAll(operands.subList(this.handledOperands.get(emitted), operands.size()));
+				for (Instruction value : values) inPlace &= this.isRecomputed(value);
+			}
+			if (!inPlace) {
+				this.reserveBefore = sequence.get(start[j]);
+				return;
+			}
+			this.inPlace.add(instruction);
+		}
+	}
+
+	/**
+	 * Se la PHI di un blocco resta sullo stack, il valore in ingresso calcolato subito prima del salto
+	 * di un predecessore resta anch'esso sullo stack.
+	 */
+	private void stackifyIncoming(Block block) {
+		List<Instruction> phis = block.phis();
+		if (phis.size() != 1 || !this.stackified.contains(phis.get(0))) return;
+		for (int p = 0; p < block.predecessors.size(); p++) {
+			Block predecessor = block.predecessors.get(p);
+			if (!this.labels.containsKey(predecessor)) continue;
+			Instruction value = source(phis.get(0).operands.get(p));
+			List<Instruction> sequence = this.sequence(predecessor);
+			for (int k = sequence.size() - 2; k >= 0; k--) {
+				Instruction candidate = sequence.get(k);
+				if (candidate == value && this.uses.get(value) == 1 && !this.isRecomputed(value)
+						&& !this.stackified.contains(value)) this.stackified.add(value);
+				if (!this.isRecomputed(candidate)) break;
+			}
+		}
+	}
+
+	/**
+	 * @return i valori da pushare prima del codice di un'istruzione, all'inizio degli alberi che cominciano da lei
+	 */
+	private Deque<Instruction> preamble(Instruction instruction) {
+		return this.preambles.computeIfAbsent(instruction, i -> new ArrayDeque<>());
+	}
+
+	/**
+	 * Un'istruzione pura senza effetti i cui operandi si ricalcolano a ogni uso conviene ricalcolarla
+	 * anche lei quando il costo delle valutazioni ripetute non supera quello di salvarla nel frame
+	 * (calcolo, sloc e una lloc per uso): tipicamente un confronto tra un id e una costante che il
+	 * value numbering ha unito a uno precedente.
+	 */
+	private boolean isCheap(Instruction instruction) {
+		if (!instruction.opcode.isPure() || instruction.hasEffects()) return false;
+		int cost = 1;
+		for (Instruction operand : instruction.operands) {
+			Instruction value = source(operand);
+			if (!value.opcode.isRematerializable()) return false;
+			cost += value.opcode == Opcode.FRAME ? 1 + value.arguments[0] : 1;
+		}
+		int uses = this.uses.getOrDefault(instruction, 0);
+		return uses * cost <= cost + 1 + uses;
+	}
+
+	/**
+	 * @return true se il valore si ricalcola a ogni uso invece di essere calcolato nella sua posizione
+	 */
+	private boolean isRecomputed(Instruction value) {
+		return value.opcode.isRematerializable() || this.recomputed.contains(value);
+	}
+
+	private boolean needsHome(Instruction value) {
+		return value.opcode.hasResult() && value.opcode != Opcode.COPY && !this.isRecomputed(value)
+				&& !this.stackified.contains(value) && this.uses.getOrDefault(value, 0) > 0;
+	}
+
+	private Instruction find(Instruction value) {
+		Instruction parent = this.classes.getOrDefault(value, value);
+		if (parent == value) return value;
+		Instruction root = this.find(parent);
+		this.classes.put(value, root);
+		return root;
+	}
+
+	/**
+	 * Assegna una cella del frame ai valori che non restano sullo stack e non si ricalcolano.
+	 *
+	 * @return il numero di celle temporanee riservate dopo le dichiarazioni locali
+	 */
+	private int assignHomes() {
+		Map<Instruction, Integer> fixed = new HashMap<>();
+		for (Block block : this.order)
+			for (Instruction instruction : block.instructions) {
+				if (instruction.opcode != Opcode.LOCAL) continue;
+				Instruction value = source(instruction.operands.get(0));
+				if (this.needsHome(value) && !fixed.containsKey(this.find(value))) fixed.put(this.find(value), instruction.arguments[0]);
+			}
+		for (Block block : this.order)
+			for (Instruction phi : block.phis()) {
+				if (!this.needsHome(phi)) continue;
+				for (Instruction operand : phi.operands) {
+					Instruction value = source(operand);
+					Instruction first = this.find(value), second = this.find(phi);
+					if (!this.needsHome(value) || this.uses.get(value) != 1 || first == second
+							|| (fixed.containsKey(first) && fixed.containsKey(second))) continue;
+					this.classes.put(first, second);
+					if (fixed.containsKey(first)) fixed.put(second, fixed.remove(first));
+				}
+			}
+		int temporaries = 0;
+		Map<Instruction, Integer> slots = new HashMap<>(fixed);
+		for (Block block : this.order)
+			for (Instruction instruction : block.instructions) {
+				if (!this.needsHome(instruction)) continue;
+				Instruction root = this.find(instruction);
+				if (!slots.containsKey(root)) slots.put(root, -2 - this.function.locals - temporaries++);
+				this.homes.put(instruction, slots.get(root));
+			}
+		return temporaries;
+	}
+
+	/**
+	 * Emette il codice che pusha un valore salvato nel frame o ricalcolabile.
+	 */
+	private void emitValue(Instruction value) {
+		if (this.isRecomputed(value)) {
+			for (Instruction operand : stackOperands(value)) this.emitValue(operand);
+			this.emitOperation(value);
+		}
+		else this.code.emitArgument(SVMParser.LOADLOCAL, this.homes.get(value));
+	}
+
+	private void emit(Instruction instruction, Block next) {
+		if (instruction.opcode == Opcode.PHI || this.isRecomputed(instruction)) return;
+		for (Instruction value : this.preambles.getOrDefault(instruction, new ArrayDeque<>())) this.emitValue(value);
+		if (instruction.opcode == Opcode.LOCAL) {
+			Instruction value = source(instruction.operands.get(0));
+			if (Objects.equals(this.homes.get(value), instruction.arguments[0])) return; //il valore è già nella variabile
+		}
+		List<Instruction> operands = stackOperands(instruction);
+		for (int i = this.handledOperands.getOrDefault(instruction, 0); i < operands.size(); i++) {
+			Instruction operand = operands.get(i);
+			if (instruction.opcode == Opcode.BRANCH && this.fused.contains(operand)) //confronto ricalcolato e fuso nel salto
+				for (Instruction value : stackOperands(operand)) this.emitValue(value);
+			else this.emitValue(operand);
+		}
+		switch (instruction.opcode) {
+			case JUMP -> {
+				Block target = instruction.targets.get(0);
+				int index = target.predecessors.indexOf(instruction.block);
+				for (Instruction phi : target.phis()) {
+					Instruction value = source(phi.operands.get(index));
+					if (this.stackified.contains(phi)) {
+						if (!this.stackified.contains(value)) this.emitValue(value);
+						continue;
+					}
+					if (!this.homes.containsKey(phi)) continue;
+					if (Objects.equals(this.homes.get(value), this.homes.get(phi))) continue;
+					this.emitValue(value);
+					this.code.emitArgument(SVMParser.STORELOCAL, this.homes.get(phi));
+				}
+				if (target != next) this.code.emitLabelArgument(SVMParser.BRANCH, this.labels.get(target));
+			}
+			case BRANCH -> {
+				Instruction condition = source(instruction.operands.get(0));
+				String thenLabel = this.labels.get(instruction.targets.get(0));
+				if (this.fused.contains(condition)) {
+					this.code.emitLabelArgument(condition.opcode == Opcode.EQ ? SVMParser.BRANCHEQ : SVMParser.BRANCHLESSEQ, thenLabel);
+				} else {
+					this.code.emitArgument(SVMParser.PUSH, 1);
+					this.code.emitLabelArgument(SVMParser.BRANCHEQ, thenLabel);
+				}
+				if (instruction.targets.get(1) != next) this.code.emitLabelArgument(SVMParser.BRANCH, this.labels.get(instruction.targets.get(1)));
+			}
+			case RETURN -> this.code.emitArgument(SVMParser.RET, this.function.parameters);
+			case HALT -> this.code.emit(SVMParser.HALT);
+			default -> {
+				if (!this.fused.contains(instruction) && !this.inPlace.contains(instruction)) this.emitOperation(instruction);
+				if (!instruction.opcode.hasResult() || this.stackified.contains(instruction)) return;
+				if (this.homes.containsKey(instruction)) this.code.emitArgument(SVMParser.STORELOCAL, this.homes.get(instruction));
+				else this.code.emit(SVMParser.POP);
+			}
+		}
+	}
+
+	/**
+	 * Emette l'operazione di un'istruzione, con gli operandi già sullo stack.
+	 */
+	private void emitOperation(Instruction instruction) {
+		switch (instruction.opcode) {
+			case CONST -> this.code.emitArgument(SVMParser.PUSH, instruction.constant());
+			case LOAD -> {
+				if (instruction.arguments[0] == 0) this.code.emitArgument(SVMParser.LOADLOCAL, instruction.arguments[1]);
+				else this.code.emitArguments(SVMParser.LOADOUTER, instruction.arguments[0], instruction.arguments[1]);
+			}
+			case FRAME -> {
+				this.code.emit(SVMParser.LOADFP);
+				for (int i = 0; i < instruction.arguments[0]; i++) this.code.emit(SVMParser.LOADW);
+			}
+			case FUNCTION -> this.code.emitLabelArgument(SVMParser.PUSH, instruction.labels.get(0));
+			case ADD -> this.code.emit(SVMParser.ADD);
+			case SUB -> this.code.emit(SVMParser.SUB);
+			case MUL -> this.code.emit(SVMParser.MULT);
+			case DIV -> this.code.emit(SVMParser.DIV);
+			case EQ -> this.code.emit(SVMParser.EQUAL);
+			case LEQ -> this.code.emit(SVMParser.LESSEQ);
+			case NOT -> this.code.emit(SVMParser.NOT);
+			case AND -> this.code.emit(SVMParser.AND);
+			case OR -> this.code.emit(SVMParser.OR);
+			case PRINT -> this.code.emit(SVMParser.PRINT);
+			case LOCAL -> this.code.emitArgument(SVMParser.STORELOCAL, instruction.arguments[0]);
+			case CALL -> {
+				this.code.emit(SVMParser.DUP);                    //l'Access Link resta nel frame del chiamato
+				if (instruction.arguments[1] == 1) this.code.emit(SVMParser.LOADW); //dispatch table
+				this.code.emitArgument(SVMParser.LOADFIELD, instruction.arguments[0]);
+				this.code.emit(SVMParser.JS);
+			}
+			case NEW -> {
+				for (int i = 0; i < instruction.operands.size(); i++) this.emitHeapStore();   //i campi, dall'ultimo
+				this.code.emitArgument(SVMParser.PUSH, ExecuteVM.MEMSIZE + instruction.arguments[0]);
+				this.code.emit(SVMParser.LOADW,                   //dispatch table della classe
+						SVMParser.LOADHP, SVMParser.STOREW,
+						SVMParser.LOADHP, SVMParser.LOADHP);      //l'oggetto punta alla dispatch table
+				this.code.emitArgument(SVMParser.PUSH, 1);
+				this.code.emit(SVMParser.ADD, SVMParser.STOREHP);
+			}
+			case DISPATCH_TABLE -> {
+				this.code.emit(SVMParser.LOADHP);
+				for (String label : instruction.labels) {
+					this.code.emitLabelArgument(SVMParser.PUSH, label);
+					this.emitHeapStore();
+				}
+			}
+			default -> throw new IllegalStateException("Cannot lower " + instruction);
+		}
+	}
+
+	/**
+	 * Emette il codice che salva la cima dello stack nella prima cella libera dello heap e incrementa lo heap pointer.
+	 */
+	private void emitHeapStore() {
+		this.code.emit(SVMParser.LOADHP, SVMParser.STOREW, SVMParser.LOADHP);
+		this.code.emitArgument(SVMParser.PUSH, 1);
+		this.code.emit(SVMParser.ADD, SVMParser.STOREHP);
+	}
+}
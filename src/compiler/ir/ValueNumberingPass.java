@@ -0,0 +1,101 @@
+package compiler.ir;
+
+import java.util.*;
+
+/**
+ * Global value numbering sull'albero dei dominatori: due istruzioni pure con la stessa operazione,
+ * gli stessi argomenti e gli stessi operandi (a meno dell'ordine per le operazioni commutative)
+ * calcolano lo stesso valore, quindi la seconda usa il valore della prima se questa la domina.
+ * Due PHI dello stesso blocco con gli stessi operandi vengono unite allo stesso modo.
+ * I dominatori si calcolano con l'algoritmo iterativo di Cooper, Harvey e Kennedy.
+ */
+public class ValueNumberingPass implements Pass {
+
+	@Override
+	public String getName() {
+		return "value numbering";
+	}
+
+	@Override
+	public int run(Function function) {
+		List<Block> order = function.reversePostorder();
+		Map<Block, List<Block>> children = dominatorTree(order);
+		Map<Instruction, Instruction> replacements = new HashMap<>();
+		this.number(order.get(0), children, new HashMap<>(), replacements);
+		function.replaceAll(replacements);
+		return replacements.size();
+	}
+
+	/**
+	 * Visita in preordine l'albero dei dominatori: la tabella dei valori contiene le istruzioni dei
+	 * blocchi che dominano quello corrente, e all'uscita da un blocco le sue istruzioni vengono tolte.
+	 */
+	private void number(Block block, Map<Block, List<Block>> children, Map<String, Instruction> table,
+						Map<Instruction, Instruction> replacements) {
+		List<String> added = new ArrayList<>();
+		for (Instruction instruction : block.instructions) {
+			if (!instruction.opcode.isPure() && instruction.opcode != Opcode.PHI) continue;
+			String key = key(instruction, replacements);
+			Instruction available = table.get(key);
+			if (available != null) {
+				replacements.put(instruction, available);
+			} else {
+				table.put(key, instruction);
+				added.add(key);
+			}
+		}
+		for (Block child : children.getOrDefault(block, List.of())) this.number(child, children, table, replacements);
+		for (String key : added) table.remove(key);
+	}
+
+	private static String key(Instruction instruction, Map<Instruction, Instruction> replacements) {
+		List<Integer> operands = new ArrayList<>();
+		for (Instruction operand : instruction.operands) {
+			while (replacements.containsKey(operand)) operand = replacements.get(operand);
+			operands.add(operand.id);
+		}
+		if (instruction.opcode.isCommutative()) Collections.sort(operands);
+		String key = instruction.opcode + Arrays.toString(instruction.arguments) + instruction.labels + operands;
+		return instruction.opcode == Opcode.PHI ? key + instruction.block.id : key;
+	}
+
+	/**
+	 * @param order blocchi raggiungibili in reverse postorder
+	 * @return per ogni blocco, i blocchi di cui è il dominatore immediato
+	 */
+	private static Map<Block, List<Block>> dominatorTree(List<Block> order) {
+		Map<Block, Integer> index = new HashMap<>();
+		for (int i = 0; i < order.size(); i++) index.put(order.get(i), i);
+		int[] dominator = new int[order.size()];
+		Arrays.fill(dominator, -1);
+		dominator[0] = 0;
+		boolean changed = true;
+		while (changed) {
+			changed = false;
+			for (int i = 1; i < order.size(); i++) {
+				int candidate = -1;
+				for (Block predecessor : order.get(i).predecessors) {
+					Integer p = index.get(predecessor);
+					if (p == null || dominator[p] == -1) continue;
+					candidate = candidate == -1 ? p : intersect(dominator, p, candidate);
+				}
+				if (candidate != dominator[i]) {
+					dominator[i] = candidate;
+					changed = true;
+				}
+			}
+		}
+		Map<Block, List<Block>> children = new HashMap<>();
+		for (int i = 1; i < order.size(); i++)
+			children.computeIfAbsent(order.get(dominator[i]), b -> new ArrayList<>()).add(order.get(i));
+		return children;
+	}
+
+	private static int intersect(int[] dominator, int first, int second) {
+		while (first != second) {
+			while (first > second) first = dominator[first];
+			while (second > first) second = dominator[second];
+		}
+		return first;
+	}
+}
@@ -86,6 +86,10 @@ public class BaseASTVisitor<S,E extends Exception> {
 	public S visitNode(NewNode n) throws E {throw new UnimplException();}
 	public S visitNode(EmptyNode n) throws E {throw new UnimplException();}
 
+	// OPTIMIZATION EXTENSION
+
+	public S visitNode(BindNode n) throws E {throw new UnimplException();}
+
 	public S visitNode(ClassTypeNode n) throws E {throw new UnimplException();}
 	public S visitNode(MethodTypeNode n) throws E {throw new UnimplException();}
 	public S visitNode(RefTypeNode n) throws E {throw new UnimplException();}
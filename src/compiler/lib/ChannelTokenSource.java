@@ -0,0 +1,60 @@
+package compiler.lib;
+
+import org.antlr.v4.runtime.*;
+
+/**
+ * Sorgente di token che lascia passare solo quelli di un canale, di solito quello predefinito.
+ * Serve davanti a uno UnbufferedTokenStream, che a differenza di CommonTokenStream passa al parser
+ * tutti i token, compresi spazi e commenti sul canale nascosto.
+ */
+public class ChannelTokenSource implements TokenSource {
+
+	private final TokenSource source;
+	private final int channel;
+
+	public ChannelTokenSource(TokenSource source) {
+		this(source, Token.DEFAULT_CHANNEL);
+	}
+
+	public ChannelTokenSource(TokenSource source, int channel) {
+		this.source = source;
+		this.channel = channel;
+	}
+
+	@Override
+	public Token nextToken() {
+		Token token = this.source.nextToken();
+		while (token.getChannel() != this.channel && token.getType() != Token.EOF) token = this.source.nextToken();
+		return token;
+	}
+
+	@Override
+	public int getLine() {
+		return this.source.getLine();
+	}
+
+	@Override
+	public int getCharPositionInLine() {
+		return this.source.getCharPositionInLine();
+	}
+
+	@Override
+	public CharStream getInputStream() {
+		return this.source.getInputStream();
+	}
+
+	@Override
+	public String getSourceName() {
+		return this.source.getSourceName();
+	}
+
+	@Override
+	public void setTokenFactory(TokenFactory<?> factory) {
+		this.source.setTokenFactory(factory);
+	}
+
+	@Override
+	public TokenFactory<?> getTokenFactory() {
+		return this.source.getTokenFactory();
+	}
+}
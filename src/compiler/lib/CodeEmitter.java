@@ -0,0 +1,219 @@
+package compiler.lib;
+
+import svm.SVMLexer;
+import svm.SVMParser;
+
+import java.util.*;
+
+/**
+ * Buffer in cui il generatore di codice emette direttamente il codice binario della SVM:
+ * opcode (le costanti di SVMParser) e argomenti vengono scritti in un int[] che cresce al bisogno,
+ * senza passare dal testo assembly e quindi senza rileggerlo con SVMLexer e SVMParser.
+ * Le etichette vengono risolte alla fine come fa SVMParser: labelDef associa ogni etichetta
+ * al suo indirizzo e labelRef ogni argomento-etichetta alla posizione da correggere.
+ *
+ * Il codice che va prodotto fuori ordine si emette in un buffer aperto con {@link #open()}:
+ * {@link #close()} lo restituisce come {@link Chunk}, da riaccodare con {@link #emit(Chunk)}
+ * o da mettere in fondo al programma con {@link #putFunctionCode(Chunk)}, come faceva FOOLlib.putCode.
+ * La forma testuale (.asm) si ottiene solo su richiesta con {@link #disassemble()}.
+ */
+public class CodeEmitter {
+
+	/**
+	 * Numero di argomenti (interi o etichette) degli opcode che ne hanno.
+	 */
+	private static final Map<Integer,Integer> ARGUMENTS = Map.ofEntries(
+			Map.entry(SVMParser.PUSH, 1), Map.entry(SVMParser.BRANCH, 1),
+			Map.entry(SVMParser.BRANCHEQ, 1), Map.entry(SVMParser.BRANCHLESSEQ, 1),
+			Map.entry(SVMParser.LOADDISP, 1), Map.entry(SVMParser.STOREDISP, 1), Map.entry(SVMParser.RESTOREDISP, 1),
+			Map.entry(SVMParser.RET, 1), Map.entry(SVMParser.LOADLOCAL, 1), Map.entry(SVMParser.STORELOCAL, 1),
+				Map.entry(SVMParser.LOADFIELD, 1),
+			Map.entry(SVMParser.LOADOUTER, 2));
+
+	/**
+	 * Porzione di codice binario con le proprie etichette, con indirizzi relativi all'inizio della porzione.
+	 */
+	public static class Chunk {
+		private int[] code = new int[64];
+		private int size = 0;
+		private final Map<String,Integer> labelDef = new LinkedHashMap<>();
+		private final Map<Integer,String> labelRef = new HashMap<>();
+
+		private Chunk() {}
+
+		private void add(int word) {
+			if (this.size == this.code.length) this.code = Arrays.copyOf(this.code, this.size * 2);
+			this.code[this.size++] = word;
+		}
+
+		private void append(Chunk chunk) {
+			int base = this.size;
+			for (int i = 0; i < chunk.size; i++) this.add(chunk.code[i]);
+			chunk.labelDef.forEach((label, address) -> this.labelDef.put(label, base + address));
+			chunk.labelRef.forEach((position, label) -> this.labelRef.put(base + position, label));
+		}
+	}
+
+	private Chunk current = new Chunk();
+	private final Deque<Chunk> suspended = new ArrayDeque<>();
+	private final List<Chunk> functionCode = new ArrayList<>();
+
+	public CodeEmitter() {}
+
+	/**
+	 * Accoda istruzioni senza argomento.
+	 *
+	 * @param opcodes opcode delle istruzioni, nell'ordine di esecuzione
+	 */
+	public void emit(int... opcodes) {
+		for (int opcode : opcodes) this.current.add(opcode);
+	}
+
+	/**
+	 * Accoda un'istruzione con argomento intero (ad esempio push n).
+	 *
+	 * @param opcode opcode dell'istruzione
+	 * @param argument argomento
+	 */
+	public void emitArgument(int opcode, int argument) {
+		this.current.add(opcode);
+		this.current.add(argument);
+	}
+
+	/**
+	 * Accoda un'istruzione con due argomenti interi (ad esempio louter d,k).
+	 *
+	 * @param opcode opcode dell'istruzione
+	 * @param first primo argomento
+	 * @param second secondo argomento
+	 */
+	public void emitArguments(int opcode, int first, int second) {
+		this.current.add(opcode);
+		this.current.add(first);
+		this.current.add(second);
+	}
+
+	/**
+	 * Accoda un'istruzione il cui argomento è l'indirizzo di un'etichetta (salti e push di etichette),
+	 * risolto quando viene prodotto il codice finale.
+	 *
+	 * @param opcode opcode dell'istruzione
+	 * @param label etichetta
+	 */
+	public void emitLabelArgument(int opcode, String label) {
+		this.current.add(opcode);
+		this.current.labelRef.put(this.current.size, label);
+		this.current.add(0);
+	}
+
+	/**
+	 * Definisce un'etichetta sull'indirizzo della prossima istruzione.
+	 *
+	 * @param label etichetta
+	 */
+	public void defineLabel(String label) {
+		this.current.labelDef.put(label, this.current.size);
+	}
+
+	/**
+	 * Accoda una porzione di codice restituita da {@link #close()}.
+	 *
+	 * @param chunk porzione di codice
+	 */
+	public void emit(Chunk chunk) {
+		this.current.append(chunk);
+	}
+
+	/**
+	 * Sospende il buffer corrente e ne apre uno nuovo.
+	 */
+	public void open() {
+		this.suspended.push(this.current);
+		this.current = new Chunk();
+	}
+
+	/**
+	 * Chiude il buffer aperto con {@link #open()} e riprende quello sospeso.
+	 *
+	 * @return il codice emesso nel buffer chiuso
+	 */
+	public Chunk close() {
+		Chunk closed = this.current;
+		this.current = this.suspended.pop();
+		return closed;
+	}
+
+	/**
+	 * Registra il codice di una funzione, che verrà messo in fondo al programma.
+	 *
+	 * @param chunk codice della funzione
+	 */
+	public void putFunctionCode(Chunk chunk) {
+		this.functionCode.add(chunk);
+	}
+
+	/**
+	 * @return il codice emesso fuori dai buffer aperti con {@link #open()}, senza il codice delle funzioni
+	 */
+	public Chunk getMainCode() {
+		return this.current;
+	}
+
+	/**
+	 * @return il codice delle funzioni registrato con {@link #putFunctionCode(Chunk)}, nell'ordine in cui andrà nel programma
+	 */
+	public List<Chunk> getFunctionCode() {
+		return List.copyOf(this.functionCode);
+	}
+
+	/**
+	 * Unisce il programma e il codice delle funzioni.
+	 *
+	 * @return tutto il codice, con gli indirizzi relativi all'inizio del programma
+	 */
+	private Chunk link() {
+		Chunk program = new Chunk();
+		program.append(this.current);
+		for (Chunk function : this.functionCode) program.append(function);
+		return program;
+	}
+
+	/**
+	 * @return il codice binario da eseguire con ExecuteVM, con le etichette risolte
+	 */
+	public int[] getCode() {
+		Chunk program = this.link();
+		int[] code = Arrays.copyOf(program.code, program.size);
+		for (Integer j : program.labelRef.keySet())
+			code[j] = program.labelDef.get(program.labelRef.get(j));
+		return code;
+	}
+
+	/**
+	 * Ricostruisce il testo assembly del codice, riassemblabile con SVMParser.
+	 *
+	 * @return il codice in forma testuale, un'istruzione o un'etichetta per riga
+	 */
+	public String disassemble() {
+		Chunk program = this.link();
+		Map<Integer,List<String>> labelsAt = new HashMap<>();
+		program.labelDef.forEach((label, address) ->
+				labelsAt.computeIfAbsent(address, a -> new ArrayList<>()).add(label));
+		StringBuilder text = new StringBuilder();
+		int i = 0;
+		while (true) {
+			for (String label : labelsAt.getOrDefault(i, List.of())) text.append(label).append(":\n");
+			if (i >= program.size) break;
+			int opcode = program.code[i++];
+			String mnemonic = SVMLexer.VOCABULARY.getLiteralName(opcode);
+			text.append(mnemonic, 1, mnemonic.length() - 1);
+			for (int a = 0; a < ARGUMENTS.getOrDefault(opcode, 0); a++) {
+				String label = program.labelRef.get(i);
+				text.append(a == 0 ? " " : ",").append(label != null ? label : Integer.toString(program.code[i]));
+				i++;
+			}
+			text.append('\n');
+		}
+		return text.toString();
+	}
+}
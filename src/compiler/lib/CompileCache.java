@@ -0,0 +1,246 @@
+package compiler.lib;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.function.LongSupplier;
+
+/**
+ * Cache su disco del codice compilato, indirizzata per contenuto: la chiave è l'hash SHA-256 della versione
+ * del compilatore, delle opzioni di compilazione e del sorgente, e il valore è il programma assemblato
+ * (testo .asm o binario), salvato in un file con la chiave come nome.
+ *
+ * Ogni valore viene scritto in un file temporaneo e poi rinominato atomicamente, quindi chi legge
+ * (anche da un altro processo) trova il file completo o non lo trova.
+ * L'indice, mappato in memoria, tiene per ogni file la dimensione e l'ultimo accesso: quando la dimensione
+ * totale supera il limite vengono cancellati i file usati meno di recente (LRU). È una tabella a indirizzamento
+ * aperto di SLOTS posizioni; ogni chiave può stare solo nelle PROBES posizioni che seguono il suo hash, e
+ * se sono tutte occupate prende il posto della meno recente, cancellandone il file. Gli aggiornamenti
+ * dell'indice avvengono con il file bloccato (FileLock) per gli altri processi e in un blocco synchronized
+ * per gli altri thread, che devono usare la stessa istanza.
+ */
+public class CompileCache {
+
+	/**
+	 * Versione del compilatore: l'hash SHA-256 delle sue classi, cioè del jar o della directory da cui è stata
+	 * caricata questa classe, quindi cambia da sola con qualunque modifica al compilatore e il codice salvato
+	 * da una versione precedente non viene più trovato. Se le classi non si possono leggere ogni esecuzione
+	 * ha una versione diversa, e la cache vale solo al suo interno.
+	 */
+	public static final String COMPILER_VERSION = compilerVersion();
+
+	private static final int SLOTS = 4096;
+	private static final int PROBES = 8;
+	private static final int KEY_SIZE = 32;
+	private static final int SLOT_SIZE = KEY_SIZE + 16; // chiave, ultimo accesso, dimensione
+	private static final int HEADER_SIZE = 8;           // dimensione totale dei file
+
+	private final Path directory;
+	private final long maxSize;
+	private final LongSupplier clock;
+	private final FileChannel indexChannel;
+	private final MappedByteBuffer index;
+
+	public int hits = 0;
+	public int misses = 0;
+	public int evictions = 0;
+
+	/**
+	 * @param directory directory della cache, creata se non esiste
+	 * @param maxSize dimensione massima in byte dei file della cache
+	 */
+	public CompileCache(Path directory, long maxSize) throws IOException {
+		this(directory, maxSize, System::currentTimeMillis);
+	}
+
+	/**
+	 * @param directory directory della cache, creata se non esiste
+	 * @param maxSize dimensione massima in byte dei file della cache
+	 * @param clock istante di ogni accesso, positivo e non decrescente, che decide l'ordine LRU
+	 */
+	public CompileCache(Path directory, long maxSize, LongSupplier clock) throws IOException {
+		this.directory = Files.createDirectories(directory);
+		this.maxSize = maxSize;
+		this.clock = clock;
+		this.indexChannel = FileChannel.open(directory.resolve("index"),
+				StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+		this.index = this.indexChannel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE + (long) SLOTS * SLOT_SIZE);
+		FileLock lock = this.indexChannel.lock();
+		try {
+			this.evict(); // il limite può essere più basso di quello usato finora
+		} finally {
+			lock.release();
+		}
+	}
+
+	private static String compilerVersion() {
+		try {
+			MessageDigest digest = MessageDigest.getInstance("SHA-256");
+			Path classes = Paths.get(CompileCache.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+			List<Path> files;
+			try (var paths = Files.walk(classes)) {
+				files = paths.filter(Files::isRegularFile).sorted().toList();
+			}
+			for (Path file : files) {
+				digest.update(classes.relativize(file).toString().getBytes(StandardCharsets.UTF_8));
+				digest.update(Files.readAllBytes(file));
+			}
+			return HexFormat.of().formatHex(digest.digest());
+		} catch (Exception e) { // ad esempio classi caricate da un URL che non è un file
+			return UUID.randomUUID().toString();
+		}
+	}
+
+	/**
+	 * @param source sorgente del programma
+	 * @param options opzioni che cambiano il codice generato
+	 * @return la chiave del programma compilato con quelle opzioni, in esadecimale
+	 */
+	public static String key(byte[] source, String options) {
+		return key(ByteBuffer.wrap(source), options);
+	}
+
+	/**
+	 * @param source sorgente del programma, tra la posizione e il limite del buffer, che restano invariati
+	 * @param options opzioni che cambiano il codice generato
+	 * @return la chiave del programma compilato con quelle opzioni, in esadecimale
+	 */
+	public static String key(ByteBuffer source, String options) {
+		try {
+			MessageDigest digest = MessageDigest.getInstance("SHA-256");
+			digest.update((COMPILER_VERSION + "\0" + options + "\0").getBytes(StandardCharsets.UTF_8));
+			digest.update(source.duplicate());
+			return HexFormat.of().formatHex(digest.digest());
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * @return il valore della chiave, null se non è nella cache
+	 */
+	public byte[] get(String key) throws IOException {
+		byte[] value;
+		try {
+			value = Files.readAllBytes(this.directory.resolve(key));
+		} catch (NoSuchFileException e) {
+			synchronized (this) { this.misses++; }
+			return null;
+		}
+		synchronized (this) {
+			this.hits++;
+			FileLock lock = this.indexChannel.lock();
+			try {
+				this.record(key, value.length);
+			} finally {
+				lock.release();
+			}
+		}
+		return value;
+	}
+
+	/**
+	 * Salva il valore della chiave, poi cancella i file meno recenti finché la cache non rientra nel limite.
+	 */
+	public void put(String key, byte[] value) throws IOException {
+		Path temporary = Files.createTempFile(this.directory, key, ".tmp");
+		try {
+			Files.write(temporary, value);
+			Files.move(temporary, this.directory.resolve(key), StandardCopyOption.ATOMIC_MOVE);
+		} finally {
+			Files.deleteIfExists(temporary);
+		}
+		synchronized (this) {
+			FileLock lock = this.indexChannel.lock();
+			try {
+				this.record(key, value.length);
+				this.evict();
+			} finally {
+				lock.release();
+			}
+		}
+	}
+
+	/**
+	 * Registra nell'indice l'accesso a un file, liberando se serve la posizione meno recente tra quelle della chiave.
+	 */
+	private void record(String key, long size) throws IOException {
+		byte[] keyBytes = HexFormat.of().parseHex(key);
+		int first = (ByteBuffer.wrap(keyBytes).getInt() & Integer.MAX_VALUE) % SLOTS;
+		int chosen = -1;
+		for (int i = 0; i < PROBES && chosen < 0; i++) {
+			int slot = (first + i) % SLOTS;
+			if (Arrays.equals(this.slotKey(slot), keyBytes)) chosen = slot;
+		}
+		if (chosen < 0) {
+			chosen = first;
+			for (int i = 0; i < PROBES; i++) {
+				int slot = (first + i) % SLOTS;
+				if (this.lastAccess(slot) < this.lastAccess(chosen)) chosen = slot;
+			}
+			this.remove(chosen);
+			this.index.put(this.offset(chosen), keyBytes);
+		}
+		this.setTotalSize(this.totalSize() - this.size(chosen) + size);
+		this.index.putLong(this.offset(chosen) + KEY_SIZE, this.clock.getAsLong());
+		this.index.putLong(this.offset(chosen) + KEY_SIZE + 8, size);
+	}
+
+	/**
+	 * Cancella i file usati meno di recente finché la dimensione totale non rientra nel limite.
+	 */
+	private void evict() throws IOException {
+		if (this.totalSize() <= this.maxSize) return;
+		List<Integer> used = new ArrayList<>();
+		for (int slot = 0; slot < SLOTS; slot++) if (this.lastAccess(slot) > 0) used.add(slot);
+		used.sort(Comparator.comparingLong(this::lastAccess));
+		for (int slot : used) {
+			if (this.totalSize() <= this.maxSize) break;
+			this.remove(slot);
+			this.evictions++;
+		}
+	}
+
+	/**
+	 * Cancella il file di una posizione occupata e la libera.
+	 */
+	private void remove(int slot) throws IOException {
+		if (this.lastAccess(slot) == 0) return;
+		Files.deleteIfExists(this.directory.resolve(HexFormat.of().formatHex(this.slotKey(slot))));
+		this.setTotalSize(this.totalSize() - this.size(slot));
+		this.index.put(this.offset(slot), new byte[SLOT_SIZE]);
+	}
+
+	private int offset(int slot) {
+		return HEADER_SIZE + slot * SLOT_SIZE;
+	}
+
+	private byte[] slotKey(int slot) {
+		byte[] key = new byte[KEY_SIZE];
+		this.index.get(this.offset(slot), key);
+		return key;
+	}
+
+	private long lastAccess(int slot) {
+		return this.index.getLong(this.offset(slot) + KEY_SIZE);
+	}
+
+	private long size(int slot) {
+		return this.index.getLong(this.offset(slot) + KEY_SIZE + 8);
+	}
+
+	private long totalSize() {
+		return this.index.getLong(0);
+	}
+
+	private void setTotalSize(long size) {
+		this.index.putLong(0, size);
+	}
+}
@@ -0,0 +1,75 @@
+package compiler.lib;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Stato di una singola compilazione: i contatori delle etichette, il numero di errori di tipo,
+ * gli identificatori e la gerarchia delle classi del programma.
+ * Ogni compilazione usa la propria sessione, passata ai visitatori che ne hanno bisogno,
+ * così più compilazioni nella stessa JVM (anche su thread diversi) non si influenzano
+ * e generano sempre le stesse etichette.
+ * Una sessione non è thread-safe: va usata da un thread alla volta.
+ */
+public class CompilerSession {
+
+	/**
+	 * Prefisso delle etichette, vuoto per il programma; le dichiarazioni compilate a parte usano il proprio id
+	 * (vedi IncrementalCompiler), così le loro etichette non si scontrano con quelle del resto del programma.
+	 */
+	private final String labelPrefix;
+	private int labCount = 0;
+	private int funlabCount = 0;
+	private int typeErrors = 0;
+
+	/**
+	 * Identificatori del programma, internati dallo scanner: id con lo stesso nome sono la stessa String.
+	 */
+	private final SymbolInterner symbols = new SymbolInterner();
+
+	/**
+	 * Per ogni classe che ne estende un'altra, l'id della superclasse.
+	 */
+	private final Map<String, String> superType = new HashMap<>();
+
+	public CompilerSession() {
+		this("");
+	}
+
+	/**
+	 * @param labelPrefix id della dichiarazione a cui appartengono le etichette, che diventano ad esempio
+	 *                    fibLabel0 e fibFunction0: togliendo il suffisso Label o Function seguito da cifre si
+	 *                    ritrova l'id, quindi non coincidono con quelle di un altro id né con label0 e function0
+	 *                    del programma, che non hanno maiuscole
+	 */
+	public CompilerSession(String labelPrefix) {
+		this.labelPrefix = labelPrefix;
+	}
+
+	public String freshLabel() {
+		return this.labelPrefix.isEmpty() ? "label"+(this.labCount++) : this.labelPrefix+"Label"+(this.labCount++);
+	}
+
+	public String freshFunLabel() {
+		return this.labelPrefix.isEmpty() ? "function"+(this.funlabCount++) : this.labelPrefix+"Function"+(this.funlabCount++);
+	}
+
+	/**
+	 * Conta un errore di tipo.
+	 */
+	public void typeError() {
+		this.typeErrors++;
+	}
+
+	public int getTypeErrors() {
+		return this.typeErrors;
+	}
+
+	public SymbolInterner getSymbols() {
+		return this.symbols;
+	}
+
+	public Map<String, String> getSuperType() {
+		return this.superType;
+	}
+}
@@ -0,0 +1,170 @@
+package compiler.lib;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import org.antlr.v4.runtime.CharStream;
+import org.antlr.v4.runtime.IntStream;
+import org.antlr.v4.runtime.misc.Interval;
+
+/**
+ * CharStream su un file mappato in memoria e letto come UTF-8, come fa CharStreams.fromPath, ma senza
+ * copiarlo nello heap: i byte restano nella page cache del sistema operativo e ogni code point viene
+ * decodificato quando il lexer lo legge. Gli indici dello stream sono offset in byte, quindi i token
+ * (creati senza testo) contengono solo gli offset nel file e getText decodifica i loro byte solo quando
+ * viene chiamato. Per un sorgente ASCII gli offset coincidono con quelli di CharStreams; una sequenza
+ * non valida diventa U+FFFD come in CharStreams.
+ *
+ * Un file mappato con FileChannel.map può essere grande al massimo 2 GB.
+ */
+public class MappedCharStream implements CharStream {
+
+	private static final int REPLACEMENT = 0xFFFD;
+
+	private final ByteBuffer bytes;
+	private final String name;
+	private int position = 0;
+
+	/**
+	 * @param bytes sorgente in UTF-8, dall'inizio al limite del buffer
+	 * @param name nome del sorgente, di solito il percorso del file
+	 */
+	public MappedCharStream(ByteBuffer bytes, String name) {
+		this.bytes = bytes.slice();
+		this.name = name;
+	}
+
+	/**
+	 * @return lo stream sul file, mappato in sola lettura
+	 */
+	public static MappedCharStream fromPath(Path path) throws IOException {
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			if (channel.size() > Integer.MAX_VALUE) throw new IOException(path + " is larger than 2 GB");
+			return new MappedCharStream(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()), path.toString());
+		}
+	}
+
+	/**
+	 * @return i byte del sorgente, ad esempio per calcolarne l'hash senza copiarli
+	 */
+	public ByteBuffer getBytes() {
+		return this.bytes.asReadOnlyBuffer();
+	}
+
+	@Override
+	public void consume() {
+		if (this.position >= this.bytes.limit()) throw new IllegalStateException("cannot consume EOF");
+		this.position += this.width(this.position);
+	}
+
+	@Override
+	public int LA(int i) {
+		int p = this.position;
+		if (i > 0) {
+			for (int k = 1; k < i && p < this.bytes.limit(); k++) p += this.width(p);
+		} else if (i < 0) {
+			for (int k = 0; k > i; k--) {
+				if (p == 0) return IntStream.EOF;
+				p = this.previous(p);
+			}
+		} else return 0; // LA(0) non è definito
+		return p < this.bytes.limit() ? this.codePoint(p) : IntStream.EOF;
+	}
+
+	/**
+	 * Il testo va dal code point che inizia a interval.a fino a quello che contiene interval.b compreso.
+	 */
+	@Override
+	public String getText(Interval interval) {
+		int stop = Math.min(interval.b, this.bytes.limit() - 1);
+		StringBuilder text = new StringBuilder(Math.max(stop - interval.a + 1, 0));
+		for (int p = interval.a; p <= stop; p += this.width(p)) text.appendCodePoint(this.codePoint(p));
+		return text.toString();
+	}
+
+	/**
+	 * @return il numero di byte di una sequenza UTF-8 che inizia con lead, 0 se lead non può iniziarla
+	 */
+	private static int sequenceLength(int lead) {
+		return lead < 0x80 ? 1 : lead >= 0xC2 && lead <= 0xDF ? 2 : lead >= 0xE0 && lead <= 0xEF ? 3 : lead >= 0xF0 && lead <= 0xF4 ? 4 : 0;
+	}
+
+	/**
+	 * @return il numero di byte del code point (o della sequenza non valida) che inizia in p
+	 */
+	private int width(int p) {
+		int lead = this.bytes.get(p) & 0xFF;
+		int length = sequenceLength(lead);
+		if (length <= 1) return 1;
+		for (int k = 1; k < length; k++) // una sequenza interrotta vale un solo U+FFFD, come per il decoder di Java
+			if (p + k >= this.bytes.limit() || !this.continuation(lead, k, this.bytes.get(p + k) & 0xFF)) return k;
+		return length;
+	}
+
+	/**
+	 * @return true se b può essere il byte k di una sequenza che inizia con lead, escluse le forme troppo lunghe
+	 * e i code point oltre U+10FFFF; un surrogato è una sequenza completa ma non valida, come per il decoder di Java
+	 */
+	private boolean continuation(int lead, int k, int b) {
+		if (k == 1 && lead == 0xE0) return b >= 0xA0 && b <= 0xBF;
+		if (k == 1 && lead == 0xF0) return b >= 0x90 && b <= 0xBF;
+		if (k == 1 && lead == 0xF4) return b >= 0x80 && b <= 0x8F;
+		return b >= 0x80 && b <= 0xBF;
+	}
+
+	private int codePoint(int p) {
+		int lead = this.bytes.get(p) & 0xFF;
+		if (lead < 0x80) return lead;
+		int length = sequenceLength(lead);
+		if (length == 0 || this.width(p) < length) return REPLACEMENT;
+		int codePoint = lead & (0x7F >> length);
+		for (int k = 1; k < length; k++) codePoint = codePoint << 6 | this.bytes.get(p + k) & 0x3F;
+		return codePoint >= Character.MIN_SURROGATE && codePoint <= Character.MAX_SURROGATE ? REPLACEMENT : codePoint;
+	}
+
+	/**
+	 * @return l'inizio del code point che precede quello in p
+	 */
+	private int previous(int p) {
+		for (int start = p - 1; start >= Math.max(p - 4, 0); start--)
+			if ((this.bytes.get(start) & 0xC0) != 0x80) return start + this.width(start) == p ? start : p - 1;
+		return p - 1;
+	}
+
+	@Override
+	public int mark() {
+		return -1; // tutto il sorgente resta accessibile
+	}
+
+	@Override
+	public void release(int marker) {
+	}
+
+	@Override
+	public int index() {
+		return this.position;
+	}
+
+	@Override
+	public void seek(int index) {
+		this.position = Math.min(index, this.bytes.limit());
+	}
+
+	@Override
+	public int size() {
+		return this.bytes.limit();
+	}
+
+	@Override
+	public String getSourceName() {
+		return this.name;
+	}
+
+	@Override
+	public String toString() {
+		return this.getText(Interval.of(0, this.bytes.limit() - 1));
+	}
+}
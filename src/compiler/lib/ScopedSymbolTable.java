@@ -0,0 +1,106 @@
+package compiler.lib;
+
+import java.util.*;
+
+/**
+ * Symbol table a scope annidati alla LeBlanc-Cook: un'unica hash table associa a ogni id la pila delle sue
+ * dichiarazioni visibili, dalla più interna, e un undo log registra gli id dichiarati in ogni scope.
+ * La ricerca costa una sola lookup nella hash table qualunque sia il nesting level; chiudere uno scope
+ * toglie dalla cima delle pile le dichiarazioni registrate nel log dopo la sua apertura, ripristinando
+ * quelle che nascondevano. Aprire uno scope non alloca nulla.
+ *
+ * @param <T> informazioni associate a ogni dichiarazione, ad esempio una STentry
+ */
+public class ScopedSymbolTable<T> {
+
+	/**
+	 * Dichiarazione di un id in uno scope, che nasconde quella dello scope più esterno (shadowed).
+	 */
+	private static class Binding<T> {
+		T value;
+		final int nestingLevel;
+		final Binding<T> shadowed;
+
+		Binding(T value, int nestingLevel, Binding<T> shadowed) {
+			this.value = value;
+			this.nestingLevel = nestingLevel;
+			this.shadowed = shadowed;
+		}
+	}
+
+	private final Map<String, Binding<T>> bindings = new HashMap<>();
+	private final List<String> undoLog = new ArrayList<>();
+	private int[] scopeStarts = new int[16]; // posizione nell'undo log in cui inizia ogni scope aperto
+	private int nestingLevel = -1;
+
+	/**
+	 * Apre uno scope, annidato in quello corrente; il primo scope aperto è quello globale, di nesting level 0.
+	 */
+	public void openScope() {
+		this.nestingLevel++;
+		if (this.nestingLevel == this.scopeStarts.length) this.scopeStarts = Arrays.copyOf(this.scopeStarts, 2 * this.nestingLevel);
+		this.scopeStarts[this.nestingLevel] = this.undoLog.size();
+	}
+
+	/**
+	 * Chiude lo scope corrente, togliendone le dichiarazioni.
+	 */
+	public void closeScope() {
+		for (int i = this.undoLog.size() - 1; i >= this.scopeStarts[this.nestingLevel]; i--) {
+			String id = this.undoLog.remove(i);
+			Binding<T> shadowed = this.bindings.get(id).shadowed;
+			if (shadowed == null) this.bindings.remove(id);
+			else this.bindings.put(id, shadowed);
+		}
+		this.nestingLevel--;
+	}
+
+	/**
+	 * @return il nesting level dello scope corrente, -1 se non c'è alcuno scope aperto
+	 */
+	public int getNestingLevel() {
+		return this.nestingLevel;
+	}
+
+	/**
+	 * Dichiara l'id nello scope corrente.
+	 *
+	 * @return il valore che l'id aveva già in questo scope, che viene sostituito, o null
+	 */
+	public T put(String id, T value) {
+		Binding<T> binding = this.bindings.get(id);
+		if (binding != null && binding.nestingLevel == this.nestingLevel) {
+			T previous = binding.value;
+			binding.value = value;
+			return previous;
+		}
+		this.bindings.put(id, new Binding<>(value, this.nestingLevel, binding));
+		this.undoLog.add(id);
+		return null;
+	}
+
+	/**
+	 * @return il valore della dichiarazione più interna dell'id, null se non è dichiarato
+	 */
+	public T lookup(String id) {
+		Binding<T> binding = this.bindings.get(id);
+		return binding == null ? null : binding.value;
+	}
+
+	/**
+	 * @return il valore dell'id nello scope corrente, null se non vi è dichiarato
+	 */
+	public T lookupLocal(String id) {
+		Binding<T> binding = this.bindings.get(id);
+		return binding == null || binding.nestingLevel != this.nestingLevel ? null : binding.value;
+	}
+
+	/**
+	 * @return il valore dell'id nello scope globale, null se non vi è dichiarato
+	 */
+	public T lookupGlobal(String id) {
+		Binding<T> binding = this.bindings.get(id);
+		while (binding != null && binding.nestingLevel > 0) binding = binding.shadowed;
+		return binding == null ? null : binding.value;
+	}
+}
@@ -0,0 +1,89 @@
+package compiler.lib;
+
+import java.util.Arrays;
+
+/**
+ * Tabella degli identificatori di una compilazione: a ogni identificatore distinto associa un'unica String canonica.
+ *
+ * FOOLScanner interna ogni ID mentre lo legge, cercandolo direttamente dai code point con un hash a indirizzamento
+ * aperto: un identificatore già visto non crea nessuna nuova String, e tutti i token, e quindi tutti i nodi
+ * dell'AST, con lo stesso id condividono la stessa istanza. Così l'hashCode di ogni identificatore viene calcolato
+ * una volta sola (String lo memorizza) e nelle HashMap indicizzate per id, come la symbol table, la tabella delle
+ * classi e la gerarchia dei tipi, il confronto tra chiavi uguali si ferma al controllo di identità di String.equals.
+ * L'hash è quello di String.hashCode, quindi le due versioni di intern trovano le stesse String.
+ */
+public class SymbolInterner {
+
+	private String[] names = new String[64];
+	private int[] hashes = new int[64];
+	private int[] table = new int[128]; // indice in names + 1 di ogni posizione, 0 se libera
+	private int size = 0;
+
+	/**
+	 * @param codePoints code point dell'identificatore, da 0 a length escluso
+	 * @return la String canonica dell'identificatore, creata ora se non era mai stato visto
+	 */
+	public String intern(int[] codePoints, int length) {
+		int hash = 0;
+		for (int i = 0; i < length; i++) hash = 31 * hash + codePoints[i];
+		int mask = this.table.length - 1;
+		for (int slot = spread(hash) & mask; ; slot = (slot + 1) & mask) {
+			int index = this.table[slot] - 1;
+			if (index < 0) return this.add(new String(codePoints, 0, length), hash, slot);
+			if (this.hashes[index] == hash && matches(this.names[index], codePoints, length)) return this.names[index];
+		}
+	}
+
+	/**
+	 * @return la String canonica dell'identificatore, name stessa se non era mai stato visto
+	 */
+	public String intern(String name) {
+		int hash = name.hashCode();
+		int mask = this.table.length - 1;
+		for (int slot = spread(hash) & mask; ; slot = (slot + 1) & mask) {
+			int index = this.table[slot] - 1;
+			if (index < 0) return this.add(name, hash, slot);
+			if (this.hashes[index] == hash && this.names[index].equals(name)) return this.names[index];
+		}
+	}
+
+	/**
+	 * @return il numero di identificatori distinti
+	 */
+	public int size() {
+		return this.size;
+	}
+
+	private String add(String name, int hash, int slot) {
+		int index = this.size++;
+		if (index == this.names.length) {
+			this.names = Arrays.copyOf(this.names, 2 * index);
+			this.hashes = Arrays.copyOf(this.hashes, 2 * index);
+		}
+		this.names[index] = name;
+		this.hashes[index] = hash;
+		this.table[slot] = index + 1;
+		if (2 * this.size > this.table.length) this.rehash();
+		return name;
+	}
+
+	private void rehash() {
+		this.table = new int[2 * this.table.length];
+		int mask = this.table.length - 1;
+		for (int index = 0; index < this.size; index++) {
+			int slot = spread(this.hashes[index]) & mask;
+			while (this.table[slot] != 0) slot = (slot + 1) & mask;
+			this.table[slot] = index + 1;
+		}
+	}
+
+	private static int spread(int hash) {
+		return hash ^ (hash >>> 16);
+	}
+
+	private static boolean matches(String name, int[] codePoints, int length) {
+		if (name.length() != length) return false; // gli identificatori sono ASCII: un code point per char
+		for (int i = 0; i < length; i++) if (name.charAt(i) != codePoints[i]) return false;
+		return true;
+	}
+}
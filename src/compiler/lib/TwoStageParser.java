@@ -0,0 +1,77 @@
+package compiler.lib;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import org.antlr.v4.runtime.*;
+import org.antlr.v4.runtime.atn.PredictionMode;
+import org.antlr.v4.runtime.misc.ParseCancellationException;
+
+/**
+ * Parsing in due fasi: prima con la predizione SLL, più veloce ma che su alcuni input corretti può non
+ * trovare l'alternativa giusta, e con una BailErrorStrategy che al primo errore interrompe il parsing
+ * senza stampare nulla; solo se questo fallisce si rifà il parsing con la predizione LL completa e la
+ * strategia di errore predefinita. Se SLL riesce l'albero è lo stesso che darebbe LL, e se fallisce
+ * il secondo parsing dà esattamente i messaggi e gli errori di sempre, quindi i programmi accettati non cambiano.
+ *
+ * Il secondo parsing usa un parser nuovo, dato che le azioni della grammatica (come quelle di SVMParser,
+ * che riempiono code e labelDef) possono essere già state eseguite in parte; i token vengono riletti dallo
+ * stesso stream, senza rieseguire il lexer.
+ *
+ * @param <P> parser generato da ANTLR
+ */
+public class TwoStageParser<P extends Parser> {
+
+	private final Supplier<P> parsers;
+	private P parser = null;
+	private PredictionMode predictionMode = null;
+
+	/**
+	 * @param parsers crea un parser, con i suoi error listener, sempre sullo stesso stream di token
+	 */
+	public TwoStageParser(Supplier<P> parsers) {
+		this.parsers = parsers;
+	}
+
+	/**
+	 * @param rule regola iniziale, ad esempio FOOLParser::prog
+	 * @return l'albero di parsing
+	 */
+	public <T extends ParserRuleContext> T parse(Function<P, T> rule) {
+		P parser = this.parsers.get();
+		List<? extends ANTLRErrorListener> listeners = new ArrayList<>(parser.getErrorListeners());
+		parser.removeErrorListeners();
+		parser.setErrorHandler(new BailErrorStrategy());
+		parser.getInterpreter().setPredictionMode(PredictionMode.SLL);
+		try {
+			T tree = rule.apply(parser);
+			parser.setErrorHandler(new DefaultErrorStrategy());
+			for (ANTLRErrorListener listener : listeners) parser.addErrorListener(listener);
+			this.parser = parser;
+			this.predictionMode = PredictionMode.SLL;
+			return tree;
+		} catch (ParseCancellationException e) {
+			parser.getTokenStream().seek(0);
+			this.parser = this.parsers.get();
+			this.parser.getInterpreter().setPredictionMode(PredictionMode.LL);
+			this.predictionMode = PredictionMode.LL;
+			return rule.apply(this.parser);
+		}
+	}
+
+	/**
+	 * @return il parser che ha prodotto l'albero, da cui leggere il numero di errori e i risultati delle azioni
+	 */
+	public P getParser() {
+		return this.parser;
+	}
+
+	/**
+	 * @return la predizione usata per l'ultimo albero: SLL, oppure LL se con SLL il parsing è fallito
+	 */
+	public PredictionMode getPredictionMode() {
+		return this.predictionMode;
+	}
+}
@@ -3,6 +3,7 @@ public class ExecuteVM {
     
     public static final int CODESIZE = 10000;
     public static final int MEMSIZE = 10000;
+    public static final int DISPLAYSIZE = 100;
     
     private int[] code;
     private int[] memory = new int[MEMSIZE];
@@ -14,14 +15,31 @@ public class ExecuteVM {
     private int fp = MEMSIZE; 
     private int ra;           
     private int tm;
+
+    // display: frame pointer dell'ultimo frame attivo per ogni nesting level,
+    // con i valori sostituiti salvati in uno stack interno alla VM
+    private int[] display = new int[DISPLAYSIZE];
+    private int[] savedDisplay = new int[MEMSIZE];
+    private int dsp = 0;
+
+    private long executedInstructions = 0;
     
     public ExecuteVM(int[] code) {
       this.code = code;
     }
+
+    /**
+     * @return numero di istruzioni eseguite dall'ultima cpu()
+     */
+    public long getExecutedInstructions() {
+      return executedInstructions;
+    }
     
     public void cpu() {
+      executedInstructions = 0;
       while ( true ) {
         int bytecode = code[ip++]; // fetch
+        executedInstructions++;
         int v1,v2;
         int address;
         switch ( bytecode ) {
@@ -51,6 +69,29 @@ public class ExecuteVM {
             v2=pop();
             push(v2 - v1);
             break;
+          case SVMParser.EQUAL :
+            v1=pop();
+            v2=pop();
+            push(v2 == v1 ? 1 : 0);
+            break;
+          case SVMParser.LESSEQ :
+            v1=pop();
+            v2=pop();
+            push(v2 <= v1 ? 1 : 0);
+            break;
+          case SVMParser.NOT :
+            push(pop() == 0 ? 1 : 0);
+            break;
+          case SVMParser.AND :
+            v1=pop();
+            v2=pop();
+            push(v2 != 0 && v1 != 0 ? 1 : 0);
+            break;
+          case SVMParser.OR :
+            v1=pop();
+            v2=pop();
+            push(v2 != 0 || v1 != 0 ? 1 : 0);
+            break;
           case SVMParser.STOREW : //
             address = pop();
             memory[address] = pop();    
@@ -100,6 +141,46 @@ public class ExecuteVM {
          case SVMParser.COPYFP : //
             fp=sp;
             break;
+         case SVMParser.DUP :
+            push(memory[sp]);
+            break;
+         case SVMParser.ENTER : // cfp; lra
+            fp=sp;
+            push(ra);
+            break;
+         case SVMParser.RET : // il return address sta sotto l'Access Link, code[ip] è il numero di parametri
+            v1=pop();
+            ra=memory[fp-1];
+            sp=fp+1+code[ip];
+            fp=pop();
+            push(v1);
+            ip=ra;
+            break;
+         case SVMParser.LOADLOCAL : // push del valore all'offset k del frame corrente
+            push(memory[fp+code[ip++]]);
+            break;
+         case SVMParser.STORELOCAL : // pop del valore all'offset k del frame corrente
+            memory[fp+code[ip++]]=pop();
+            break;
+         case SVMParser.LOADOUTER : // risale d Access Link e fa push del valore all'offset k di quel frame
+            address=fp;
+            for (int d=code[ip++]; d>0; d--) address=memory[address];
+            push(memory[address+code[ip++]]);
+            break;
+         case SVMParser.LOADFIELD : // push del valore all'offset k dall'indirizzo poppato (campo o dispatch table)
+            push(memory[pop()+code[ip++]]);
+            break;
+         case SVMParser.LOADDISP :
+            push(display[code[ip++]]);
+            break;
+         case SVMParser.STOREDISP :
+            address = code[ip++];
+            savedDisplay[dsp++] = display[address];
+            display[address] = pop();
+            break;
+         case SVMParser.RESTOREDISP :
+            display[code[ip++]] = savedDisplay[--dsp];
+            break;
          case SVMParser.STOREHP : //
             hp=pop();
             break;
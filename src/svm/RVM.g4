@@ -0,0 +1,143 @@
+grammar RVM;
+
+@parser::header {
+import java.util.*;
+}
+
+@lexer::members {
+public int lexicalErrors=0;
+}
+
+@parser::members {
+public int[] code = new int[RegisterVM.CODESIZE];
+private int i = 0;
+private Map<String,Integer> labelDef = new HashMap<>();
+private Map<Integer,String> labelRef = new HashMap<>();
+
+private static int register(Token t) {
+	switch (t.getType()) {
+		case FP: return RegisterVM.FP;
+		case SP: return RegisterVM.SP;
+		case HP: return RegisterVM.HP;
+		case RA: return RegisterVM.RA;
+		default: return Integer.parseInt(t.getText().substring(1));
+	}
+}
+}
+
+/*------------------------------------------------------------------
+ * PARSER RULES
+ *------------------------------------------------------------------*/
+
+assembly: instruction* EOF 	{ for (Integer j: labelRef.keySet())
+								code[j]=labelDef.get(labelRef.get(j));
+							} ;
+
+instruction :
+        LOADI d=reg COMMA n=INTEGER   {code[i++] = LOADI;
+			                         code[i++] = $d.r;
+			                         code[i++] = Integer.parseInt($n.text);}
+	  | LOADI d=reg COMMA l=LABEL     {code[i++] = LOADI;
+			                         code[i++] = $d.r;
+	    		                     labelRef.put(i++,$l.text);}
+	  | MOVE d=reg COMMA s=reg        {code[i++] = MOVE;
+	                                 code[i++] = $d.r;
+	                                 code[i++] = $s.r;}
+	  | op=(ADD|SUB|MULT|DIV|EQUAL|LESSEQ|AND|OR) d=reg COMMA s1=reg COMMA s2=reg
+	                                {code[i++] = $op.type;
+	                                 code[i++] = $d.r;
+	                                 code[i++] = $s1.r;
+	                                 code[i++] = $s2.r;}
+	  | ADDI d=reg COMMA s=reg COMMA n=INTEGER
+	                                {code[i++] = ADDI;
+	                                 code[i++] = $d.r;
+	                                 code[i++] = $s.r;
+	                                 code[i++] = Integer.parseInt($n.text);}
+	  | NOT d=reg COMMA s=reg         {code[i++] = NOT;
+	                                 code[i++] = $d.r;
+	                                 code[i++] = $s.r;}
+	  | LOADW d=reg COMMA LBRACKET b=reg PLUS? n=INTEGER RBRACKET
+	                                {code[i++] = LOADW;
+	                                 code[i++] = $d.r;
+	                                 code[i++] = $b.r;
+	                                 code[i++] = Integer.parseInt($n.text);}
+	  | STOREW s=reg COMMA LBRACKET b=reg PLUS? n=INTEGER RBRACKET
+	                                {code[i++] = STOREW;
+	                                 code[i++] = $s.r;
+	                                 code[i++] = $b.r;
+	                                 code[i++] = Integer.parseInt($n.text);}
+	  | PUSH s=reg                    {code[i++] = PUSH;
+	                                 code[i++] = $s.r;}
+	  | POP d=reg                     {code[i++] = POP;
+	                                 code[i++] = $d.r;}
+	  | l=LABEL COL                   {labelDef.put($l.text,i);}
+	  | BRANCH l=LABEL                {code[i++] = BRANCH;
+                                     labelRef.put(i++,$l.text);}
+	  | BRANCHEQ s1=reg COMMA s2=reg COMMA l=LABEL
+	                                {code[i++] = BRANCHEQ;
+	                                 code[i++] = $s1.r;
+	                                 code[i++] = $s2.r;
+                                     labelRef.put(i++,$l.text);}
+	  | BRANCHLESSEQ s1=reg COMMA s2=reg COMMA l=LABEL
+	                                {code[i++] = BRANCHLESSEQ;
+	                                 code[i++] = $s1.r;
+	                                 code[i++] = $s2.r;
+                                     labelRef.put(i++,$l.text);}
+	  | CALL s=reg                    {code[i++] = CALL;
+	                                 code[i++] = $s.r;}
+	  | JUMPREG s=reg                 {code[i++] = JUMPREG;
+	                                 code[i++] = $s.r;}
+	  | PRINT s=reg                   {code[i++] = PRINT;
+	                                 code[i++] = $s.r;}
+	  | HALT                          {code[i++] = HALT;}
+	  ;
+
+reg returns [int r] : t=(REGISTER|FP|SP|HP|RA) {$r = register($t);} ;
+
+/*------------------------------------------------------------------
+ * LEXER RULES
+ *------------------------------------------------------------------*/
+
+LOADI	 : 'li' ;
+MOVE	 : 'mov' ;
+ADD	 : 'add' ;
+ADDI	 : 'addi' ;
+SUB	 : 'sub' ;
+MULT	 : 'mult' ;
+DIV	 : 'div' ;
+EQUAL	 : 'eq' ;
+LESSEQ	 : 'leq' ;
+NOT	 : 'not' ;
+AND	 : 'and' ;
+OR	 : 'or' ;
+LOADW	 : 'ld' ;
+STOREW	 : 'st' ;
+PUSH	 : 'push' ;
+POP	 : 'pop' ;
+BRANCH	 : 'b' ;
+BRANCHEQ : 'beq' ;
+BRANCHLESSEQ:'bleq' ;
+CALL	 : 'call' ;
+JUMPREG	 : 'jr' ;
+PRINT	 : 'print' ;
+HALT	 : 'halt' ;
+FP	 : 'fp' ;
+SP	 : 'sp' ;
+HP	 : 'hp' ;
+RA	 : 'ra' ;
+REGISTER : 'r' ('0'..'9')+ ;
+
+COL	 : ':' ;
+COMMA	 : ',' ;
+PLUS	 : '+' ;
+LBRACKET : '[' ;
+RBRACKET : ']' ;
+LABEL	 : ('a'..'z'|'A'..'Z')('a'..'z' | 'A'..'Z' | '0'..'9')* ;
+INTEGER	 : '0' | ('-')?(('1'..'9')('0'..'9')*) ;
+
+COMMENT : '/*' .*? '*/' -> channel(HIDDEN) ;
+
+WHITESP  : (' '|'\t'|'\n'|'\r')+ -> channel(HIDDEN) ;
+
+ERR	     : . { System.out.println("Invalid char: "+getText()+" at line "+getLine()); lexicalErrors++; } -> channel(HIDDEN);
+
@@ -0,0 +1,137 @@
+package svm;
+
+/**
+ * Macchina virtuale a registri, alternativa a ExecuteVM.
+ * Le istruzioni lavorano su registri virtuali (r0..r15) a tre indirizzi; la memoria ha la stessa
+ * organizzazione della SVM (stack dei frame dall'alto, heap dal basso) e i registri speciali
+ * fp, sp, hp e ra hanno lo stesso significato, così i frame e gli oggetti sono identici.
+ */
+public class RegisterVM {
+
+    public static final int CODESIZE = 10000;
+    public static final int MEMSIZE = ExecuteVM.MEMSIZE;
+
+    public static final int REGISTERS = 16;
+    public static final int FP = REGISTERS;
+    public static final int SP = REGISTERS + 1;
+    public static final int HP = REGISTERS + 2;
+    public static final int RA = REGISTERS + 3;
+
+    private int[] code;
+    private int[] memory = new int[MEMSIZE];
+    private int[] register = new int[REGISTERS + 4];
+
+    private int ip = 0;
+    private long executedInstructions = 0;
+
+    public RegisterVM(int[] code) {
+      this.code = code;
+      register[FP] = MEMSIZE;
+      register[SP] = MEMSIZE;
+    }
+
+    /**
+     * @return numero di istruzioni eseguite dall'ultima cpu()
+     */
+    public long getExecutedInstructions() {
+      return executedInstructions;
+    }
+
+    public void cpu() {
+      executedInstructions = 0;
+      while ( true ) {
+        int bytecode = code[ip++]; // fetch
+        executedInstructions++;
+        int d,s1,s2;
+        switch ( bytecode ) {
+          case RVMParser.LOADI :
+            d = code[ip++];
+            register[d] = code[ip++];
+            break;
+          case RVMParser.MOVE :
+            d = code[ip++];
+            register[d] = register[code[ip++]];
+            break;
+          case RVMParser.ADD :
+            d = code[ip++]; s1 = code[ip++]; s2 = code[ip++];
+            register[d] = register[s1] + register[s2];
+            break;
+          case RVMParser.ADDI :
+            d = code[ip++]; s1 = code[ip++];
+            register[d] = register[s1] + code[ip++];
+            break;
+          case RVMParser.SUB :
+            d = code[ip++]; s1 = code[ip++]; s2 = code[ip++];
+            register[d] = register[s1] - register[s2];
+            break;
+          case RVMParser.MULT :
+            d = code[ip++]; s1 = code[ip++]; s2 = code[ip++];
+            register[d] = register[s1] * register[s2];
+            break;
+          case RVMParser.DIV :
+            d = code[ip++]; s1 = code[ip++]; s2 = code[ip++];
+            register[d] = register[s1] / register[s2];
+            break;
+          case RVMParser.EQUAL :
+            d = code[ip++]; s1 = code[ip++]; s2 = code[ip++];
+            register[d] = register[s1] == register[s2] ? 1 : 0;
+            break;
+          case RVMParser.LESSEQ :
+            d = code[ip++]; s1 = code[ip++]; s2 = code[ip++];
+            register[d] = register[s1] <= register[s2] ? 1 : 0;
+            break;
+          case RVMParser.AND :
+            d = code[ip++]; s1 = code[ip++]; s2 = code[ip++];
+            register[d] = register[s1] != 0 && register[s2] != 0 ? 1 : 0;
+            break;
+          case RVMParser.OR :
+            d = code[ip++]; s1 = code[ip++]; s2 = code[ip++];
+            register[d] = register[s1] != 0 || register[s2] != 0 ? 1 : 0;
+            break;
+          case RVMParser.NOT :
+            d = code[ip++];
+            register[d] = register[code[ip++]] == 0 ? 1 : 0;
+            break;
+          case RVMParser.LOADW : // ld d, [s1+k]
+            d = code[ip++]; s1 = code[ip++];
+            register[d] = memory[register[s1] + code[ip++]];
+            break;
+          case RVMParser.STOREW : // st s2, [s1+k]
+            s2 = code[ip++]; s1 = code[ip++];
+            memory[register[s1] + code[ip++]] = register[s2];
+            break;
+          case RVMParser.PUSH :
+            memory[--register[SP]] = register[code[ip++]];
+            break;
+          case RVMParser.POP :
+            register[code[ip++]] = memory[register[SP]++];
+            break;
+          case RVMParser.BRANCH :
+            ip = code[ip];
+            break;
+          case RVMParser.BRANCHEQ :
+            s1 = code[ip++]; s2 = code[ip++];
+            if (register[s1] == register[s2]) ip = code[ip]; else ip++;
+            break;
+          case RVMParser.BRANCHLESSEQ :
+            s1 = code[ip++]; s2 = code[ip++];
+            if (register[s1] <= register[s2]) ip = code[ip]; else ip++;
+            break;
+          case RVMParser.CALL :
+            s1 = code[ip++];
+            register[RA] = ip;
+            ip = register[s1];
+            break;
+          case RVMParser.JUMPREG :
+            ip = register[code[ip++]];
+            break;
+          case RVMParser.PRINT :
+            System.out.println(register[code[ip++]]);
+            break;
+          case RVMParser.HALT :
+            return;
+        }
+      }
+    }
+
+}
@@ -33,6 +33,11 @@ instruction :
 	  | SUB		    {code[i++] = SUB;}
 	  | MULT	    {code[i++] = MULT;}
 	  | DIV		    {code[i++] = DIV;}
+	  | EQUAL	    {code[i++] = EQUAL;}
+	  | LESSEQ	    {code[i++] = LESSEQ;}
+	  | NOT		    {code[i++] = NOT;}
+	  | AND		    {code[i++] = AND;}
+	  | OR		    {code[i++] = OR;}
 	  | STOREW	  {code[i++] = STOREW;} //
 	  | LOADW           {code[i++] = LOADW;} //
 	  | l=LABEL COL     {labelDef.put($l.text,i);}
@@ -50,6 +55,26 @@ instruction :
 	  | LOADFP          {code[i++] = LOADFP;}   //
 	  | STOREFP         {code[i++] = STOREFP;}   //
 	  | COPYFP          {code[i++] = COPYFP;}   //
+	  | DUP             {code[i++] = DUP;}
+	  | ENTER           {code[i++] = ENTER;}
+	  | RET n=INTEGER   {code[i++] = RET;
+	                     code[i++] = Integer.parseInt($n.text);}
+	  | LOADLOCAL k=INTEGER  {code[i++] = LOADLOCAL;
+	                         code[i++] = Integer.parseInt($k.text);}
+	  | STORELOCAL k=INTEGER {code[i++] = STORELOCAL;
+	                         code[i++] = Integer.parseInt($k.text);}
+	  | LOADOUTER d=INTEGER COMMA k=INTEGER
+	                        {code[i++] = LOADOUTER;
+	                         code[i++] = Integer.parseInt($d.text);
+	                         code[i++] = Integer.parseInt($k.text);}
+	  | LOADFIELD k=INTEGER  {code[i++] = LOADFIELD;
+	                         code[i++] = Integer.parseInt($k.text);}
+	  | LOADDISP n=INTEGER   {code[i++] = LOADDISP;
+	                         code[i++] = Integer.parseInt($n.text);}
+	  | STOREDISP n=INTEGER  {code[i++] = STOREDISP;
+	                         code[i++] = Integer.parseInt($n.text);}
+	  | RESTOREDISP n=INTEGER {code[i++] = RESTOREDISP;
+	                         code[i++] = Integer.parseInt($n.text);}
 	  | LOADHP          {code[i++] = LOADHP;}   //
 	  | STOREHP         {code[i++] = STOREHP;}   //
 	  | PRINT           {code[i++] = PRINT;}
@@ -66,6 +91,11 @@ ADD	 : 'add' ;
 SUB	 : 'sub' ;	
 MULT	 : 'mult' ;  	
 DIV	 : 'div' ;	
+EQUAL	 : 'eq' ;
+LESSEQ	 : 'leq' ;
+NOT	 : 'not' ;
+AND	 : 'and' ;
+OR	 : 'or' ;
 STOREW	 : 'sw' ; 	
 LOADW	 : 'lw' ;	
 BRANCH	 : 'b' ;	
@@ -79,12 +109,23 @@ STORETM  : 'stm' ;
 LOADFP	 : 'lfp' ;	
 STOREFP	 : 'sfp' ;	
 COPYFP   : 'cfp' ;      
+DUP      : 'dup' ;
+ENTER    : 'enter' ;
+RET      : 'ret' ;
+LOADLOCAL : 'lloc' ;
+STORELOCAL : 'sloc' ;
+LOADOUTER : 'louter' ;
+LOADFIELD : 'lfld' ;
+LOADDISP : 'ldisp' ;
+STOREDISP : 'sdisp' ;
+RESTOREDISP : 'rdisp' ;
 LOADHP	 : 'lhp' ;	
 STOREHP	 : 'shp' ;	
 PRINT	 : 'print' ;	
 HALT	 : 'halt' ;	
  
 COL	 : ':' ;
+COMMA	 : ',' ;
 LABEL	 : ('a'..'z'|'A'..'Z')('a'..'z' | 'A'..'Z' | '0'..'9')* ;
 INTEGER	 : '0' | ('-')?(('1'..'9')('0'..'9')*) ;
 
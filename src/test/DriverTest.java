@@ -0,0 +1,120 @@
+package test;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import compiler.BatchCompiler;
+import compiler.IncrementalCompiler;
+import compiler.lib.CompileCache;
+import org.antlr.v4.runtime.CharStreams;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// test dei driver del compilatore: compilazione batch e parallela, cache su disco e compilazione incrementale
+public class DriverTest {
+
+    private static final String ROOT_OO = "res/test/oo/";
+    private static final String ROOT_TEST = "res/test/";
+
+    // testing sessioni di compilazione: compilando in parallelo si ottiene lo stesso codice, etichette comprese,
+    // che compilando un programma alla volta
+    @Test
+    public void testParallelCompilationMatchesSequential() throws Exception {
+        List<Path> files = ToolsForTest.testPrograms(ROOT_TEST);
+        List<String> sequential = new ArrayList<>();
+        for (Path file : files) sequential.add(compile(file));
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            List<String> parallel = pool.submit(() -> files.parallelStream().map(DriverTest::compile).collect(Collectors.toList())).get();
+            for (int i = 0; i < files.size(); i++) assertEquals(sequential.get(i), parallel.get(i), files.get(i).toString());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private static String compile(Path file) {
+        ToolsForTest tools = new ToolsForTest();
+        tools.buildASTAndSVMAndCheckErrors(file.toString(), false);
+        return tools.getAssembly();
+    }
+
+    // testing compilatore batch: i file corretti vengono compilati, quelli con errori di front-end
+    // sono segnalati con il conteggio degli errori e non producono codice
+    @Test
+    public void testBatchCompiler(@TempDir Path directory) throws Exception {
+        Path correct = Files.copy(Paths.get(ROOT_TEST + "base/prova.fool"), directory.resolve("correct.fool"));
+        Path wrong = Files.writeString(directory.resolve("wrong.fool"), "let var x:int = true; in x + y;");
+        List<BatchCompiler.Result> results = new BatchCompiler(false, true).compileAll(List.of(correct, wrong), 2);
+        assertTrue(results.get(0).succeeded(), results.get(0).log());
+        assertTrue(Files.exists(Paths.get(correct + ".asm")));
+        assertEquals(1, results.get(1).stErrors());
+        assertFalse(results.get(1).succeeded());
+        assertFalse(Files.exists(Paths.get(wrong + ".asm")));
+    }
+
+    // testing cache su disco: un file già compilato viene preso dalla cache, e superato il limite
+    // di dimensione si cancella il codice usato meno di recente
+    @Test
+    public void testCompileCache(@TempDir Path directory) throws Exception {
+        CompileCache cache = new CompileCache(directory.resolve("cache"), 1000);
+        Path source = Files.copy(Paths.get(ROOT_TEST + "base/prova.fool"), directory.resolve("prova.fool"));
+        BatchCompiler compiler = new BatchCompiler(false, true, cache);
+        assertFalse(compiler.compileAll(List.of(source), 1).get(0).cached());
+        String assembly = Files.readString(Paths.get(source + ".asm"));
+        Files.delete(Paths.get(source + ".asm"));
+        assertTrue(compiler.compileAll(List.of(source), 1).get(0).cached());
+        assertEquals(assembly, Files.readString(Paths.get(source + ".asm")));
+
+        String first = CompileCache.key(new byte[] {1}, ""), second = CompileCache.key(new byte[] {2}, ""),
+                third = CompileCache.key(new byte[] {3}, "");
+        cache = new CompileCache(directory.resolve("lru"), 1000, new AtomicLong(1)::getAndIncrement); // un istante per accesso
+        cache.put(first, new byte[400]);
+        cache.put(second, new byte[400]);
+        assertArrayEquals(new byte[400], cache.get(first));
+        cache.put(third, new byte[400]);
+        assertNull(cache.get(second));
+        assertNotNull(cache.get(first));
+        assertNotNull(cache.get(third));
+    }
+
+    // testing compilazione incrementale: ricompilando un programma modificato si rigenerano solo
+    // le dichiarazioni cambiate, e il codice ottenuto è quello di una compilazione da zero
+    @Test
+    public void testIncrementalCompilation() throws IOException {
+        String source = Files.readString(Paths.get(ROOT_OO + "quicksort.fool"), StandardCharsets.ISO_8859_1);
+        IncrementalCompiler compiler = new IncrementalCompiler(false);
+        assertTrue(compiler.compile(CharStreams.fromString(source)));
+        assertEquals(6, compiler.compiledDeclarations);
+
+        assertTrue(compiler.compile(CharStreams.fromString("/* commento */\n" + source.replace("    ", "  "))));
+        assertEquals(6, compiler.reusedDeclarations);
+        assertEquals(0, compiler.compiledDeclarations);
+
+        String modified = source.replace("if (l1 == null)", "if (null == l1)");
+        assertTrue(compiler.compile(CharStreams.fromString(modified)));
+        assertEquals(5, compiler.reusedDeclarations);
+        assertEquals(1, compiler.compiledDeclarations);
+        IncrementalCompiler fromScratch = new IncrementalCompiler(false);
+        assertTrue(fromScratch.compile(CharStreams.fromString(modified)));
+        assertArrayEquals(fromScratch.getCode(), compiler.getCode());
+
+        assertFalse(compiler.compile(CharStreams.fromString(source.replace("append(l1.rest(),l2)", "append(l1.rest(),true)"))));
+        assertEquals(1, compiler.frontEndErrors);
+    }
+}
@@ -0,0 +1,163 @@
+package test;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import compiler.ASTGenerationParseListener;
+import compiler.ASTGenerationSTVisitor;
+import compiler.FOOLLexer;
+import compiler.FOOLParser;
+import compiler.FOOLScanner;
+import compiler.lib.ChannelTokenSource;
+import compiler.lib.MappedCharStream;
+import compiler.lib.Node;
+import compiler.lib.TwoStageParser;
+import org.antlr.v4.runtime.CommonTokenStream;
+import org.antlr.v4.runtime.Token;
+import org.antlr.v4.runtime.UnbufferedTokenStream;
+import org.antlr.v4.runtime.atn.PredictionMode;
+import org.antlr.v4.runtime.CharStreams;
+import org.antlr.v4.runtime.tree.ParseTree;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// test del front-end: lexer scritto a mano, parsing in due fasi, costruzione diretta dell'AST e file mappati
+public class FrontEndTest {
+
+    private static final String ROOT_OO = "res/test/oo/";
+    private static final String ROOT_TEST = "res/test/";
+    private static final String ROOT_RES = "res/";
+
+    // testing lexer scritto a mano: produce gli stessi token di FOOLLexer, compresi quelli nascosti
+    @Test
+    public void testScannerMatchesGeneratedLexer() throws IOException {
+        List<String> sources = new ArrayList<>();
+        for (Path path : ToolsForTest.testPrograms(ROOT_TEST)) sources.add(Files.readString(path, StandardCharsets.ISO_8859_1));
+        sources.add("let /* commento */ var iffy:int = 007;\r\n fun f:bool(x:int) x>=1 && x<=2 || !(x==3)\t;"
+                + " in print(f(iffy) | a & b < c > d # è /*/ non chiuso\n * / x");
+        for (String source : sources) {
+            FOOLLexer lexer = new FOOLLexer(CharStreams.fromString(source));
+            FOOLScanner scanner = new FOOLScanner(CharStreams.fromString(source));
+            Token expected, actual;
+            do {
+                expected = lexer.nextToken();
+                actual = scanner.nextToken();
+                assertEquals(expected.toString(), actual.toString());
+                assertEquals(expected.getChannel(), actual.getChannel());
+            } while (expected.getType() != Token.EOF);
+            assertEquals(lexer.lexicalErrors, scanner.lexicalErrors);
+        }
+    }
+
+    // testing parsing in due fasi: i programmi corretti vengono accettati già con la predizione SLL,
+    // quelli con errori vengono riletti con LL e danno gli stessi errori del parsing con LL
+    @Test
+    public void testTwoStageParsing() {
+        ToolsForTest tools = new ToolsForTest();
+        tools.buildASTAndSVMAndCheckErrors(ROOT_OO + "quicksort.fool", false);
+        assertEquals(PredictionMode.SLL, tools.getPredictionMode());
+
+        String wrong = "let fun f:int (x:int) x + ; in print(f(1 2));";
+        TwoStageParser<FOOLParser> twoStageParser =
+                new TwoStageParser<>(() -> new FOOLParser(new CommonTokenStream(new FOOLLexer(CharStreams.fromString(wrong)))));
+        twoStageParser.parse(FOOLParser::prog);
+        assertEquals(PredictionMode.LL, twoStageParser.getPredictionMode());
+        FOOLParser parser = new FOOLParser(new CommonTokenStream(new FOOLLexer(CharStreams.fromString(wrong))));
+        parser.prog();
+        assertEquals(parser.getNumberOfSyntaxErrors(), twoStageParser.getParser().getNumberOfSyntaxErrors());
+    }
+
+    // testing costruzione diretta dell'AST: senza parse tree e con token non bufferizzati si ottiene
+    // lo stesso AST, righe comprese, di ASTGenerationSTVisitor; con un errore di sintassi si ottiene null
+    @Test
+    public void testDirectASTGeneration() throws Exception {
+        List<Path> files = ToolsForTest.testPrograms(ROOT_RES);
+        int checked = 0;
+        for (Path file : files) {
+            String source = Files.readString(file, StandardCharsets.ISO_8859_1);
+            FOOLParser parser = new FOOLParser(new CommonTokenStream(new FOOLScanner(CharStreams.fromString(source))));
+            parser.removeErrorListeners();
+            ParseTree st = parser.prog();
+            if (parser.getNumberOfSyntaxErrors() > 0) continue;
+            Node expected = new ASTGenerationSTVisitor().visit(st);
+            FOOLParser direct = new FOOLParser(new UnbufferedTokenStream<>(new ChannelTokenSource(new FOOLScanner(CharStreams.fromString(source)))));
+            Node actual = new ASTGenerationParseListener().parse(direct);
+            assertNotNull(actual, file.toString());
+            assertEquals(dump(expected), dump(actual), file.toString());
+            checked++;
+        }
+        assertTrue(checked > 25);
+
+        String wrong = "let fun f:int (x:int) x + ; in print(f(1 2));";
+        assertNull(new ASTGenerationParseListener().parse(new FOOLParser(new UnbufferedTokenStream<>(new ChannelTokenSource(new FOOLScanner(CharStreams.fromString(wrong)))))));
+    }
+
+    // testing lettura da file mappato: FOOLScanner dà gli stessi token (testo, righe e colonne) e gli stessi errori
+    // che con CharStreams, anche con caratteri UTF-8 di più byte e sequenze non valide
+    @Test
+    public void testMappedCharStream() throws IOException {
+        List<Path> files = ToolsForTest.testPrograms(ROOT_RES);
+        Path unicode = Files.createTempFile("unicode", ".fool");
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            bytes.write("let var x:int = 1; /* è € 😀 */ in\n print(x è € 😀 ".getBytes(StandardCharsets.UTF_8));
+            bytes.write(new byte[] {(byte) 0xE8, ' ', (byte) 0xE8, (byte) 0xA0, ' ', (byte) 0xFF, (byte) 0xED, (byte) 0xA0, (byte) 0x80});
+            bytes.write(" );\n".getBytes(StandardCharsets.UTF_8));
+            Files.write(unicode, bytes.toByteArray());
+            files.add(unicode);
+            for (Path file : files) {
+                FOOLScanner expected = new FOOLScanner(CharStreams.fromPath(file));
+                MappedCharStream mapped = MappedCharStream.fromPath(file);
+                FOOLScanner actual = new FOOLScanner(mapped);
+                Token expectedToken, actualToken;
+                do {
+                    expectedToken = expected.nextToken();
+                    actualToken = actual.nextToken();
+                    assertEquals(expectedToken.getType(), actualToken.getType(), file.toString());
+                    assertEquals(expectedToken.getText(), actualToken.getText(), file.toString());
+                    assertEquals(expectedToken.getLine(), actualToken.getLine(), file.toString());
+                    assertEquals(expectedToken.getCharPositionInLine(), actualToken.getCharPositionInLine(), file.toString());
+                    assertEquals(expectedToken.getChannel(), actualToken.getChannel(), file.toString());
+                } while (expectedToken.getType() != Token.EOF);
+                assertEquals(expected.getErrors(), actual.getErrors(), file.toString());
+                assertEquals(CharStreams.fromPath(file).toString(), mapped.toString(), file.toString());
+            }
+        } finally {
+            Files.delete(unicode);
+        }
+    }
+
+    /**
+     * @return la struttura di un AST appena generato: classe, riga e campi di ogni nodo
+     */
+    private static String dump(Object object) throws IllegalAccessException {
+        if (object instanceof List<?> list) {
+            StringBuilder dump = new StringBuilder("[");
+            for (Object element : list) dump.append(dump(element)).append(", ");
+            return dump.append("]").toString();
+        }
+        if (object instanceof Optional<?> optional) return optional.isPresent() ? "Optional(" + dump(optional.get()) + ")" : "Optional()";
+        if (!(object instanceof Node node)) return String.valueOf(object);
+        StringBuilder dump = new StringBuilder(node.getClass().getSimpleName() + "@" + node.getLine() + "(");
+        for (Class<?> c = node.getClass(); c != Node.class; c = c.getSuperclass())
+            for (Field field : c.getDeclaredFields()) {
+                if (Modifier.isStatic(field.getModifiers())) continue;
+                field.setAccessible(true);
+                dump.append(field.getName()).append("=").append(dump(field.get(node))).append(", ");
+            }
+        return dump.append(")").toString();
+    }
+}
@@ -0,0 +1,85 @@
+package test;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import compiler.ASTGenerationParseListener;
+import compiler.SymbolTableASTVisitor;
+import compiler.FOOLParser;
+import compiler.FOOLScanner;
+import compiler.lib.ScopedSymbolTable;
+import compiler.lib.SymbolInterner;
+import org.antlr.v4.runtime.CommonTokenStream;
+import org.antlr.v4.runtime.Token;
+import org.antlr.v4.runtime.CharStreams;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+// test delle strutture di compiler.lib usate dal front-end: symbol table a scope e interning degli identificatori
+public class LibraryTest {
+
+    private static final String ROOT_TEST = "res/test/";
+
+    // testing symbol table a scope con undo log: shadowing, dichiarazioni duplicate e ripristino alla chiusura
+    @Test
+    public void testScopedSymbolTable() {
+        ScopedSymbolTable<String> table = new ScopedSymbolTable<>();
+        table.openScope();
+        table.put("x", "global x");
+        table.put("f", "f");
+        table.openScope();
+        assertNull(table.put("x", "par x"));
+        assertEquals("par x", table.lookup("x"));
+        assertEquals("f", table.lookup("f"));
+        assertNull(table.lookupLocal("f"));
+        assertEquals("global x", table.lookupGlobal("x"));
+        assertEquals("par x", table.put("x", "duplicate x"));
+        table.closeScope();
+        assertEquals(0, table.getNestingLevel());
+        assertEquals("global x", table.lookup("x"));
+        table.closeScope();
+        assertNull(table.lookup("x"));
+
+        String fileName = ROOT_TEST + "base/shadowing.fool";
+        ToolsForTest tools = new ToolsForTest();
+        tools.createFOOLFile(fileName, "let class A (x:int) { fun get:int () x; " +
+                "fun twice:int (a:A) if (x <= 0) then { 0 } else { a.get() * 2 }; } " +
+                "var x:int = 1; fun f:int (x:int) let fun g:int (y:int) x + y; in g(x * 10); var a:A = new A(5); " +
+                "in print(f(2) + x + a.get() + a.twice(a));");
+        tools.buildASTAndSVMAndCheckErrors(fileName, false);
+        assertEquals("38\n", tools.runningSVMAndCaptureOutput().replace("\r", ""));
+
+        String duplicates = "let var x:int = 1; var x:int = 2; fun f:int (y:int, y:int) let var z:int = y; in z; in print(x + z);";
+        SymbolTableASTVisitor symtableVisitor = new SymbolTableASTVisitor();
+        symtableVisitor.visit(new ASTGenerationParseListener().parse(
+                new FOOLParser(new CommonTokenStream(new FOOLScanner(CharStreams.fromString(duplicates))))));
+        assertEquals(3, symtableVisitor.stErrors);
+    }
+
+    // testing interning degli identificatori: una sola String per tutte le occorrenze di un ID
+    @Test
+    public void testSymbolInterner() {
+        SymbolInterner symbols = new SymbolInterner();
+        List<String> names = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) names.add(symbols.intern("id" + i));
+        assertEquals(1000, symbols.size());
+        assertSame(names.get(500), symbols.intern(new String("id500")));
+        assertSame(names.get(42), symbols.intern("id42".codePoints().toArray(), 4));
+        assertEquals("id999", names.get(999));
+
+        String source = "let fun averyveryverylongname:int (x:int) x; var x:int = averyveryverylongname(1); in print(x + x);";
+        FOOLScanner scanner = new FOOLScanner(CharStreams.fromString(source), symbols);
+        List<Token> ids = new ArrayList<>();
+        for (Token token = scanner.nextToken(); token.getType() != Token.EOF; token = scanner.nextToken())
+            if (token.getType() == FOOLParser.ID) ids.add(token);
+        assertEquals(7, ids.size());
+        assertSame(ids.get(0).getText(), ids.get(4).getText());
+        assertSame(ids.get(1).getText(), ids.get(6).getText());
+        assertSame(symbols.intern("averyveryverylongname"), ids.get(0).getText());
+        assertEquals(1002, symbols.size());
+    }
+}
@@ -2,6 +2,25 @@ package test;
 
 import org.junit.jupiter.api.Test;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import compiler.InliningEASTVisitor;
+import test.ToolsForTest.Optimization;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
 public class OperatorsTest {
     // 0=FALSE
     // 1=TRUE
@@ -13,8 +32,21 @@ public class OperatorsTest {
     private static final String ROOT_NOT_TEST_FILES = "res/test/operators/not/";
     private static final String ROOT_AND_TEST_FILES = "res/test/operators/and/";
     private static final String ROOT_OR_TEST_FILES = "res/test/operators/or/";
+    private static final String ROOT_IF_TEST_FILES = "res/test/operators/if/";
+    private static final String ROOT_DISPLAY_TEST_FILES = "res/test/display/";
+    private static final String ROOT_FOLDING_TEST_FILES = "res/test/folding/";
+    private static final String ROOT_SHAKING_TEST_FILES = "res/test/shaking/";
+    private static final String ROOT_CSE_TEST_FILES = "res/test/cse/";
+    private static final String ROOT_IR_TEST_FILES = "res/test/ir/";
+    private static final String ROOT_EVALUATION_TEST_FILES = "res/test/evaluation/";
+    private static final String ROOT_LIFTING_TEST_FILES = "res/test/lifting/";
+    private static final String ROOT_INLINING_TEST_FILES = "res/test/inlining/";
 
     private static final String ROOT_OO = "res/test/oo/";
+    private static final String ROOT_TEST = "res/test/";
+    private static final String ROOT_RES = "res/";
+
+    private static final List<Set<Optimization>> PIPELINES = List.of(EnumSet.allOf(Optimization.class), EnumSet.noneOf(Optimization.class));
 
     @Test
     public void test5Minus3() {
@@ -235,6 +267,247 @@ public class OperatorsTest {
         tools.runningSVM();
     }
 
+    // testing if con condizione composta (jumping code)
+    @Test
+    public void testIfCompoundCondition() {
+        // x = 4: vera; x = 7: falsa, decisa dal secondo operando di && e poi da quello di ||; x = 0: vera, decisa dal secondo operando di ||
+        String[][] cases = {{"compoundCondition.fool", "4", "1\n"}, {"compoundConditionFalse.fool", "7", "0\n"},
+                {"compoundConditionRightOr.fool", "0", "1\n"}};
+        for (String[] testCase : cases) {
+            String fileName = ROOT_IF_TEST_FILES + testCase[0];
+
+            ToolsForTest tools = new ToolsForTest();
+            tools.createFOOLFile(fileName, "let var x:int = " + testCase[1] + "; " +
+                    "in print(if ((x >= 2) && (x <= 5) || (x == 0)) then { 1 } else { 0 });");
+            tools.buildASTAndSVMAndCheckErrors(fileName, false);
+            assertEquals(testCase[2], tools.runningSVMAndCaptureOutput().replace("\r", ""), testCase[0]);
+        }
+    }
+
+    // testing funzioni annidate compilate con il display
+    @Test
+    public void testNestedFunctionsWithDisplay() {
+        String fileName = ROOT_DISPLAY_TEST_FILES + "nestedFunctions.fool";
+
+        ToolsForTest tools = new ToolsForTest();
+        tools.createFOOLFile(fileName, "let var g:int = 1; fun f:int (a:int) let fun h:int (b:int) " +
+                "let fun k:int (c:int) if (c <= 0) then { g + a + b } else { k(c - 1) + c }; in k(b); in h(a + 1); " +
+                "in print(f(2));");
+        tools.buildASTAndSVMAndCheckErrors(fileName, false, true); // senza valutazione parziale, che calcolerebbe f(2)
+        assertEquals("12\n", tools.runningSVMAndCaptureOutput().replace("\r", ""));
+        List<String> instructions = Arrays.asList(tools.getAssembly().split("\n"));
+        for (String instruction : new String[] {"ldisp", "sdisp", "rdisp"})
+            assertTrue(instructions.stream().anyMatch(line -> line.startsWith(instruction + " ")), instruction);
+    }
+
+    // testing lambda lifting: le funzioni annidate diventano globali e le variabili che catturano diventano parametri,
+    // tranne quelle dichiarate in un metodo
+    @Test
+    public void testLambdaLifting() {
+        String fileName = ROOT_LIFTING_TEST_FILES + "capturedVariables.fool";
+
+        ToolsForTest tools = new ToolsForTest();
+        tools.createFOOLFile(fileName, "let var g:int = 1; fun f:int (a:int) let var m:int = a * 2; fun h:int (b:int) " +
+                "let fun k:int (c:int) if (c <= 0) then { g + a + b + m } else { k(c - 1) + c }; in k(b); in h(a + 1); " +
+                "in print(f(2));");
+        tools.buildASTAndSVMAndCheckErrors(fileName, false, Optimization.LIFTING);
+        assertEquals("16\n", tools.runningSVMAndCaptureOutput().replace("\r", ""));
+        assertEquals(2, tools.getLiftingVisitor().liftedFunctions);
+        assertEquals(9, tools.getLiftingVisitor().staticChainHopsBefore);
+        assertEquals(4, tools.getLiftingVisitor().staticChainHopsAfter);
+        assertEquals(List.of("Fun: f$h$k", "Par: c", "Par: m$1", "Par: a$1", "Par: b$2", "Fun: f$h", "Par: b", "Par: m$1", "Par: a$1",
+                "Fun: f", "Par: a"), declarations(tools.printingASTAndCaptureOutput()));
+
+        String methodFileName = ROOT_LIFTING_TEST_FILES + "nestedInMethod.fool";
+        tools = new ToolsForTest();
+        tools.createFOOLFile(methodFileName, "let class C (x:int) { fun m:int (y:int) let fun n:int (z:int) x + y + z; in n(1); } " +
+                "var c:C = new C(5); in print(c.m(2));");
+        tools.buildASTAndSVMAndCheckErrors(methodFileName, false, Optimization.LIFTING);
+        assertEquals("8\n", tools.runningSVMAndCaptureOutput().replace("\r", ""));
+        assertEquals(0, tools.getLiftingVisitor().liftedFunctions);
+        assertEquals(tools.getLiftingVisitor().staticChainHopsBefore, tools.getLiftingVisitor().staticChainHopsAfter);
+    }
+
+    // testing inlining: si espandono le funzioni piccole e i metodi devirtualizzati che non usano campi,
+    // non le funzioni ricorsive né quelle oltre la soglia, e non si supera il budget
+    @Test
+    public void testInlining() {
+        String fileName = ROOT_INLINING_TEST_FILES + "smallFunctions.fool";
+        String source = "let class A (v:int) { fun twice:int (y:int) y + y; fun get:int () v; } " +
+                "fun sq:int (x:int) x * x; " +
+                "fun fact:int (n:int) if (n <= 1) then { 1 } else { n * fact(n - 1) }; " +
+                "fun big:int (x:int) x + x * 2 + x * 3 + x * 4 + x * 5 + x * 6; " +
+                "var a:A = new A(1); " +
+                "in print(sq(3) + fact(4) + big(1) + a.twice(5) + a.get());";
+
+        ToolsForTest tools = new ToolsForTest();
+        tools.createFOOLFile(fileName, source);
+        tools.buildASTAndSVMAndCheckErrors(fileName, false, Optimization.INLINING);
+        assertEquals("65\n", tools.runningSVMAndCaptureOutput().replace("\r", ""));
+        assertEquals(List.of("Inlined function sq at line 1", "Inlined method twice at line 1"), tools.getInliningVisitor().report);
+
+        tools = new ToolsForTest();
+        tools.setInliningLimits(40, InliningEASTVisitor.DEFAULT_BUDGET); // big rientra nella soglia, fact resta ricorsiva
+        tools.buildASTAndSVMAndCheckErrors(fileName, false, Optimization.INLINING);
+        assertEquals("65\n", tools.runningSVMAndCaptureOutput().replace("\r", ""));
+        assertEquals(List.of("Inlined function sq at line 1", "Inlined function big at line 1", "Inlined method twice at line 1"),
+                tools.getInliningVisitor().report);
+
+        tools = new ToolsForTest();
+        tools.setInliningLimits(InliningEASTVisitor.DEFAULT_SIZE_THRESHOLD, 3); // il budget basta solo per sq
+        tools.buildASTAndSVMAndCheckErrors(fileName, false, Optimization.INLINING);
+        assertEquals("65\n", tools.runningSVMAndCaptureOutput().replace("\r", ""));
+        assertEquals(List.of("Inlined function sq at line 1"), tools.getInliningVisitor().report);
+
+        String nullFileName = ROOT_RES + "nullReceiver.fool"; // fuori da ROOT_TEST, che contiene solo programmi che terminano
+        tools = new ToolsForTest();
+        tools.createFOOLFile(nullFileName, "let class A (v:int) { fun twice:int (y:int) y + y; } " +
+                "fun call:int (b:A) b.twice(5); " +
+                "var a:A = null; " +
+                "in print(a.twice(5) + call(a));");
+        tools.buildASTAndSVMAndCheckErrors(nullFileName, false, Optimization.INLINING);
+        assertEquals(List.of("Inlined function call at line 1"), tools.getInliningVisitor().report);
+        assertThrows(IndexOutOfBoundsException.class, tools::runningSVMAndCaptureOutput);
+    }
+
+    /**
+     * @return le righe di funzioni e parametri dell'AST stampato da PrintEASTVisitor, senza indentazione
+     */
+    private static List<String> declarations(String printedAST) {
+        return Arrays.stream(printedAST.split("\r?\n")).map(String::trim)
+                .filter(line -> line.startsWith("Fun: ") || line.startsWith("Par: ")).collect(Collectors.toList());
+    }
+
+    // testing constant folding: stesso risultato, divisione per zero ancora a tempo di esecuzione
+    @Test
+    public void testConstantFolding() {
+        String fileName = ROOT_FOLDING_TEST_FILES + "constants.fool";
+
+        ToolsForTest tools = new ToolsForTest();
+        tools.createFOOLFile(fileName, "let var x:int = 7; var t:bool = !!(2 * 3 <= 10 - 1); " +
+                "fun f:int (y:int) y * 1 + 0 - (4 / 2 - 2); " +
+                "in print(if (t && true) then { f(x) + 100 / (2 + 3) * (1 + 1 == 2 - 0) } else { 0 });");
+        tools.buildASTAndSVMAndCheckErrors(fileName, false, Optimization.FOLDING);
+        assertEquals("27\n", tools.runningSVMAndCaptureOutput().replace("\r", ""));
+
+        String divisionFileName = ROOT_RES + "divisionByZero.fool"; // fuori da ROOT_TEST, che contiene solo programmi che terminano
+        tools = new ToolsForTest();
+        tools.createFOOLFile(divisionFileName, "print(10 / (3 - 3));");
+        tools.buildASTAndSVMAndCheckErrors(divisionFileName, false, Optimization.FOLDING);
+        assertThrows(ArithmeticException.class, tools::runningSVMAndCaptureOutput);
+    }
+
+    // testing tree shaking: le dichiarazioni irraggiungibili non compaiono nel codice generato
+    @Test
+    public void testTreeShaking() throws IOException {
+        String fileName = ROOT_SHAKING_TEST_FILES + "deadCode.fool";
+
+        ToolsForTest tools = new ToolsForTest();
+        tools.createFOOLFile(fileName, "let " +
+                "class Shape (side:int) { fun area:int () side * side; fun unused:int () print(111); } " +
+                "class Square extends Shape (color:int) { fun paint:int () color; } " +
+                "class Unused (x:int) { fun get:int () print(222); } " +
+                "fun dead:int (y:int) print(333); " +
+                "var unusedVar:int = 35; " +
+                "var s:Shape = new Square(4, 1); " +
+                "in print(s.area());");
+        tools.buildASTAndSVMAndCheckErrors(fileName, false, Optimization.SHAKING);
+        assertEquals("16\n", tools.runningSVMAndCaptureOutput().replace("\r", ""));
+        String assembly = Files.readString(Paths.get(fileName + ".asm"));
+        for (String dead : new String[] {"push 111", "push 222", "push 333", "push 35"})
+            assertFalse(assembly.contains(dead + "\n"), dead);
+    }
+
+    // testing eliminazione delle sottoespressioni comuni: i metodi puri vengono chiamati una volta, quelli che stampano no
+    @Test
+    public void testCommonSubexpressionElimination() throws IOException {
+        String fileName = ROOT_CSE_TEST_FILES + "repeatedCalls.fool";
+
+        ToolsForTest tools = new ToolsForTest();
+        tools.createFOOLFile(fileName, "let " +
+                "class Point (x:int, y:int) { fun getX:int () x; fun getY:int () y; fun log:int () print(x); } " +
+                "fun show:int (n:int) print(n); " +
+                "var p:Point = new Point(3, 4); " +
+                "in print(p.getX() * p.getX() + p.getY() * p.getY() + show(p.getX()) + p.log() + p.log());");
+        tools.buildASTAndSVMAndCheckErrors(fileName, false, Optimization.CSE);
+        assertEquals("3\n3\n3\n34\n", tools.runningSVMAndCaptureOutput().replace("\r", ""));
+        String assembly = Files.readString(Paths.get(fileName + ".asm"));
+        assertEquals(5, Arrays.stream(assembly.split("\n")).filter("js"::equals).count()); // getX, getY, show e due log
+    }
+
+    // testing valutazione parziale: inizializzatori e chiamate con argomenti costanti calcolati dal compilatore,
+    // tranne quelle che superano il budget
+    @Test
+    public void testPartialEvaluation() throws IOException {
+        String fileName = ROOT_EVALUATION_TEST_FILES + "pureCalls.fool";
+
+        ToolsForTest tools = new ToolsForTest();
+        tools.createFOOLFile(fileName, "let " +
+                "class List (head:int, tail:List) { fun sum:int () if (tail == null) then { head } else { head + tail.sum() }; } " +
+                "fun range:List (from:int, to:int) if (from <= to) then { new List(from, range(from + 1, to)) } else { null }; " +
+                "fun fib:int (n:int) if (n <= 1) then { n } else { fib(n - 1) + fib(n - 2) }; " +
+                "var l:List = range(1, 5); " +
+                "in print(l.sum() + fib(10) + fib(20));");
+        tools.buildASTAndSVMAndCheckErrors(fileName, false, Optimization.EVALUATION, Optimization.SHAKING); // il tree shaking toglie range e sum, non più chiamate
+        assertEquals("6835\n", tools.runningSVMAndCaptureOutput().replace("\r", ""));
+        String assembly = Files.readString(Paths.get(fileName + ".asm"));
+        assertEquals(3, Arrays.stream(assembly.split("\n")).filter("js"::equals).count()); // resta solo fib(20), con le chiamate ricorsive
+    }
+
+    // testing backend a registri: stesso output del backend a stack su tutti i programmi di test, con e senza ottimizzazioni
+    @Test
+    public void testRegisterBackendMatchesStackBackend() throws IOException {
+        List<Path> files = ToolsForTest.testPrograms(ROOT_TEST);
+        for (Path file : files) for (Set<Optimization> optimizations : PIPELINES) {
+            ToolsForTest tools = new ToolsForTest();
+            tools.buildASTAndSVMAndCheckErrors(file.toString(), false, false, optimizations);
+            String stackOutput = tools.runningSVMAndCaptureOutput();
+            String registerOutput = tools.runningRegisterVMAndCaptureOutput();
+            assertEquals(stackOutput, registerOutput, file.toString());
+        }
+    }
+
+    // testing emissione binaria: il file .asm scritto come disassembly, riassemblato, dà lo stesso codice
+    @Test
+    public void testDisassemblyReassemblesToSameCode() throws IOException {
+        List<Path> files = ToolsForTest.testPrograms(ROOT_TEST);
+        for (Path file : files) {
+            ToolsForTest tools = new ToolsForTest();
+            tools.buildASTAndSVMAndCheckErrors(file.toString(), false);
+            int[] code = tools.getCode();
+            int[] reassembled = tools.assemblingGeneratedCode(file.toString());
+            assertArrayEquals(code, Arrays.copyOf(reassembled, code.length), file.toString());
+        }
+    }
+
+    // testing backend con IR in forma SSA: stesso output del backend a stack su tutti i programmi di test, con e senza ottimizzazioni
+    @Test
+    public void testIRBackendMatchesStackBackend() throws IOException {
+        List<Path> files = ToolsForTest.testPrograms(ROOT_TEST);
+        for (Path file : files) for (Set<Optimization> optimizations : PIPELINES) {
+            ToolsForTest tools = new ToolsForTest();
+            tools.buildASTAndSVMAndCheckErrors(file.toString(), false, false, optimizations);
+            String stackOutput = tools.runningSVMAndCaptureOutput();
+            String irOutput = tools.runningIRAndCaptureOutput();
+            assertEquals(stackOutput, irOutput, file.toString());
+        }
+    }
+
+    // testing passate sull'IR: ognuna trova qualcosa da fare e il risultato non cambia
+    @Test
+    public void testIRPasses() {
+        String fileName = ROOT_IR_TEST_FILES + "passes.fool";
+
+        ToolsForTest tools = new ToolsForTest();
+        tools.createFOOLFile(fileName, "let fun f:int (a:int, b:int) " +
+                "let var k:int = 3; var m:int = k * 2; " +
+                "in if (m == 6) then { a * b + a * b + m } else { 0 }; " +
+                "in print(f(4, 5));");
+        tools.buildASTAndSVMAndCheckErrors(fileName, false);
+        assertEquals("46\n", tools.runningIRAndCaptureOutput().replace("\r", ""));
+        tools.getPassStatistics().forEach((pass, changes) -> assertTrue(changes > 0, pass));
+    }
+
     //
     @Test
     public void testQuickSort() {
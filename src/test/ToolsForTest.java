@@ -3,36 +3,71 @@ package test;
 import compiler.*;
 import compiler.exc.IncomplException;
 import compiler.exc.TypeException;
-import compiler.lib.FOOLlib;
+import compiler.ir.PassManager;
+import compiler.ir.Program;
+import compiler.ir.SVMLowering;
+import compiler.lib.CompilerSession;
 import compiler.lib.Node;
+import compiler.lib.TwoStageParser;
 import compiler.lib.TypeNode;
 import org.antlr.v4.runtime.CharStream;
 import org.antlr.v4.runtime.CharStreams;
 import org.antlr.v4.runtime.CommonTokenStream;
+import org.antlr.v4.runtime.atn.PredictionMode;
 import org.antlr.v4.runtime.tree.ParseTree;
 import svm.ExecuteVM;
+import svm.RVMLexer;
+import svm.RVMParser;
+import svm.RegisterVM;
 import svm.SVMLexer;
 import svm.SVMParser;
 
 import java.io.BufferedWriter;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
 public class ToolsForTest {
+    /**
+     * Passate di ottimizzazione sull'AST, eseguite nell'ordine in cui sono elencate e solo se un test le chiede:
+     * di default il codice viene generato dall'AST arricchito, così i test degli operatori eseguono davvero
+     * il codice degli operatori invece di una costante calcolata dal compilatore.
+     */
+    enum Optimization { LIFTING, INLINING, FOLDING, EVALUATION, SHAKING, CSE }
+
     // FOOL
-    private FOOLLexer lexer;
+    private FOOLScanner lexer;
+    private CommonTokenStream tokens;
     private FOOLParser parser;
+    private PredictionMode predictionMode;
     private ParseTree st;
+    private final CompilerSession session = new CompilerSession();
     private final ASTGenerationSTVisitor visitor = new ASTGenerationSTVisitor();
     private final SymbolTableASTVisitor symtableVisitor = new SymbolTableASTVisitor();
-    private final TypeCheckEASTVisitor typeCheckVisitor = new TypeCheckEASTVisitor();
+    private final TypeCheckEASTVisitor typeCheckVisitor = new TypeCheckEASTVisitor(this.session);
 
-    // ASM
-    private SVMLexer lexerASM;
-    private SVMParser parserASM;
+    // SVM
+    private int[] code;
+    private String assembly;
+    private Node ast;
+    private Map<String, Integer> passStatistics;
+    private LambdaLiftingEASTVisitor liftingVisitor;
+    private InliningEASTVisitor inliningVisitor;
+    private int inliningSizeThreshold = InliningEASTVisitor.DEFAULT_SIZE_THRESHOLD;
+    private int inliningBudget = InliningEASTVisitor.DEFAULT_BUDGET;
 
     public ToolsForTest() { }
 
@@ -47,7 +82,11 @@ public class ToolsForTest {
 
     private void generateST() {
         System.out.println("Generating ST via lexer and parser.");
-        this.st = this.parser.prog();
+        TwoStageParser<FOOLParser> twoStageParser = new TwoStageParser<>(() -> new FOOLParser(this.tokens));
+        this.st = twoStageParser.parse(FOOLParser::prog);
+        this.parser = twoStageParser.getParser();
+        for (String error : this.lexer.getErrors()) System.out.println(error);
+        this.predictionMode = twoStageParser.getPredictionMode();
 //        System.out.println("You had " + lexer.lexicalErrors + " lexical errors and " +
 //                parser.getNumberOfSyntaxErrors() + " syntax errors.\n");
     }
@@ -81,21 +120,73 @@ public class ToolsForTest {
         } catch (TypeException e) {
             System.out.println("Type checking error in main program expression: " + e.text);
         }
-//        System.out.println("You had " + FOOLlib.typeErrors + " type checking errors.\n");
+//        System.out.println("You had " + this.session.getTypeErrors() + " type checking errors.\n");
     }
 
     private int getFrontEndErrors() {
-        int frontEndErrors = this.lexer.lexicalErrors + this.parser.getNumberOfSyntaxErrors() + this.symtableVisitor.stErrors + FOOLlib.typeErrors;
+        int frontEndErrors = this.lexer.lexicalErrors + this.parser.getNumberOfSyntaxErrors() + this.symtableVisitor.stErrors + this.session.getTypeErrors();
 //        System.out.println("You had a total of " + frontEndErrors + " front-end errors.\n");
         return frontEndErrors;
     }
 
-    private void generateCode(Node ast, String fileName) {
+    private Node liftNestedFunctions(Node ast) {
+        System.out.println("Lifting nested functions.");
+        this.liftingVisitor = new LambdaLiftingEASTVisitor();
+        Node lifted = this.liftingVisitor.lift(ast);
+//        System.out.println("You had " + this.liftingVisitor.liftedFunctions + " lifted functions: static chain walks went from " +
+//                this.liftingVisitor.staticChainHopsBefore + " to " + this.liftingVisitor.staticChainHopsAfter + ".\n");
+        return lifted;
+    }
+
+    private Node inlineFunctions(Node ast) {
+        System.out.println("Inlining small functions.");
+        this.inliningVisitor = new InliningEASTVisitor(this.inliningSizeThreshold, this.inliningBudget);
+        Node inlined = this.inliningVisitor.inline(ast);
+//        System.out.println("You had " + this.inliningVisitor.report.size() + " inlined calls.\n");
+        return inlined;
+    }
+
+    private Node foldConstants(Node ast) {
+        System.out.println("Folding constants.");
+        ConstantFoldingEASTVisitor foldingVisitor = new ConstantFoldingEASTVisitor();
+        Node folded = foldingVisitor.fold(ast);
+//        System.out.println("You had " + foldingVisitor.eliminatedNodes + " eliminated nodes.\n");
+        return folded;
+    }
+
+    private Node evaluatePureCode(Node ast) {
+        System.out.println("Evaluating pure code at compile time.");
+        PartialEvaluationEASTVisitor evaluationVisitor = new PartialEvaluationEASTVisitor(PartialEvaluationEASTVisitor.DEFAULT_FUEL);
+        Node evaluated = evaluationVisitor.evaluate(ast);
+//        System.out.println("You had " + evaluationVisitor.report.size() + " evaluated expressions.\n");
+        return evaluated;
+    }
+
+    private Node removeUnreachableDeclarations(Node ast) {
+        System.out.println("Removing unreachable declarations.");
+        TreeShakingEASTVisitor shakingVisitor = new TreeShakingEASTVisitor();
+        Node shaken = shakingVisitor.shake(ast);
+//        System.out.println("You had " + shakingVisitor.report.size() + " removed declarations.\n");
+        return shaken;
+    }
+
+    private Node eliminateCommonSubexpressions(Node ast) {
+        System.out.println("Eliminating common subexpressions.");
+        CommonSubexpressionEliminationEASTVisitor cseVisitor = new CommonSubexpressionEliminationEASTVisitor();
+        Node eliminated = cseVisitor.eliminate(ast);
+//        System.out.println("You had " + cseVisitor.report.size() + " reused subexpressions.\n");
+        return eliminated;
+    }
+
+    private void generateCode(Node ast, String fileName, boolean display) {
         System.out.println("Generating code.");
-        String code = new CodeGenerationASTVisitor().visit(ast);
+        CodeGenerationASTVisitor codeGenerationVisitor = new CodeGenerationASTVisitor(this.session, display);
+        codeGenerationVisitor.visit(ast);
+        this.code = codeGenerationVisitor.getCode();
+        this.assembly = codeGenerationVisitor.getAssembly();
         try {
             BufferedWriter out = new BufferedWriter(new FileWriter(fileName + ".asm"));
-            out.write(code);
+            out.write(this.assembly);
             out.close();
 //            System.out.println();
         } catch (IOException e) {
@@ -103,44 +194,142 @@ public class ToolsForTest {
         }
     }
 
-    private void assemblingGeneratedCode(String fileName) {
+    int[] assemblingGeneratedCode(String fileName) {
         System.out.println("Assembling generated code.");
-        this.lexerASM = new SVMLexer(this.getCharStreams(fileName + ".asm"));
-        CommonTokenStream tokensASM = new CommonTokenStream(this.lexerASM);
-        this.parserASM = new SVMParser(tokensASM);
+        SVMLexer lexerASM = new SVMLexer(this.getCharStreams(fileName + ".asm"));
+        CommonTokenStream tokensASM = new CommonTokenStream(lexerASM);
+        TwoStageParser<SVMParser> twoStageParser = new TwoStageParser<>(() -> new SVMParser(tokensASM));
+        twoStageParser.parse(SVMParser::assembly);
+        SVMParser parserASM = twoStageParser.getParser();
+        assertEquals(0, lexerASM.lexicalErrors + parserASM.getNumberOfSyntaxErrors());
+        return parserASM.code;
+    }
+
+    PredictionMode getPredictionMode() {
+        return this.predictionMode;
+    }
 
-        this.parserASM.assembly();
+    int[] getCode() {
+        return this.code;
     }
 
-    private int getErrorLexerAsm() {
-//        System.out.println("You had: " + this.lexerASM.lexicalErrors + " lexical errors and " + this.parserASM.getNumberOfSyntaxErrors() + " syntax errors.\n");
-        return this.lexerASM.lexicalErrors + this.parserASM.getNumberOfSyntaxErrors();
+    String getAssembly() {
+        return this.assembly;
     }
 
     void runningSVM() {
         System.out.println("Running generated code via Stack Virtual Machine.");
-        ExecuteVM vm = new ExecuteVM(this.parserASM.code);
+        ExecuteVM vm = new ExecuteVM(this.code);
         vm.cpu();
         System.out.println("");
     }
 
     void buildASTAndSVMAndCheckErrors(String fileName, boolean printAST) {
-        this.lexer = new FOOLLexer(this.getCharStreams(fileName));
-        CommonTokenStream tokens = new CommonTokenStream(this.lexer);
-        this.parser = new FOOLParser(tokens);
+        this.buildASTAndSVMAndCheckErrors(fileName, printAST, false);
+    }
+
+    void buildASTAndSVMAndCheckErrors(String fileName, boolean printAST, boolean display) {
+        this.buildASTAndSVMAndCheckErrors(fileName, printAST, display, EnumSet.noneOf(Optimization.class));
+    }
+
+    void buildASTAndSVMAndCheckErrors(String fileName, boolean printAST, Optimization... optimizations) {
+        this.buildASTAndSVMAndCheckErrors(fileName, printAST, false, optimizations.length == 0 ?
+                EnumSet.noneOf(Optimization.class) : EnumSet.of(optimizations[0], optimizations));
+    }
+
+    void buildASTAndSVMAndCheckErrors(String fileName, boolean printAST, boolean display, Set<Optimization> optimizations) {
+        this.lexer = new FOOLScanner(this.getCharStreams(fileName), this.session.getSymbols());
+        this.tokens = new CommonTokenStream(this.lexer);
 
         this.generateST();
 
         Node ast = this.generateASTAndGetRoot();
+        this.ast = ast;
         this.enrichASTSymbolTable(ast, printAST);
         this.checkingTypes(ast);
 
         int frontEndErrors = this.getFrontEndErrors();
         assertEquals(0, frontEndErrors);
 
-        this.generateCode(ast, fileName);
-        this.assemblingGeneratedCode(fileName);
-        assertEquals(0, this.getErrorLexerAsm());
+        if (optimizations.contains(Optimization.LIFTING)) ast = this.liftNestedFunctions(ast);
+        if (optimizations.contains(Optimization.INLINING)) ast = this.inlineFunctions(ast);
+        if (optimizations.contains(Optimization.FOLDING)) ast = this.foldConstants(ast);
+        if (optimizations.contains(Optimization.EVALUATION)) ast = this.evaluatePureCode(ast);
+        if (optimizations.contains(Optimization.SHAKING)) ast = this.removeUnreachableDeclarations(ast);
+        if (optimizations.contains(Optimization.CSE)) ast = this.eliminateCommonSubexpressions(ast);
+        this.ast = ast;
+        this.generateCode(ast, fileName, display);
+    }
+
+    private static String captureOutput(Runnable program) {
+        PrintStream standardOutput = System.out;
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        System.setOut(new PrintStream(output));
+        try {
+            program.run();
+        } finally {
+            System.setOut(standardOutput);
+        }
+        return output.toString();
+    }
+
+    String runningSVMAndCaptureOutput() {
+        return captureOutput(new ExecuteVM(this.code)::cpu);
+    }
+
+    String runningRegisterVMAndCaptureOutput() {
+        RegisterCodeGenerationASTVisitor registerCodeGenerationVisitor = new RegisterCodeGenerationASTVisitor(this.session);
+        registerCodeGenerationVisitor.visit(this.ast);
+        String code = registerCodeGenerationVisitor.getAssembly();
+        RVMLexer lexerRVM = new RVMLexer(CharStreams.fromString(code));
+        CommonTokenStream tokensRVM = new CommonTokenStream(lexerRVM);
+        TwoStageParser<RVMParser> twoStageParser = new TwoStageParser<>(() -> new RVMParser(tokensRVM));
+        twoStageParser.parse(RVMParser::assembly);
+        RVMParser parserRVM = twoStageParser.getParser();
+        assertEquals(0, lexerRVM.lexicalErrors + parserRVM.getNumberOfSyntaxErrors());
+
+        return captureOutput(new RegisterVM(parserRVM.code)::cpu);
+    }
+
+    String runningIRAndCaptureOutput() {
+        Program program = new IRGenerationASTVisitor(this.session).generate(this.ast);
+        PassManager passManager = PassManager.standard();
+        passManager.run(program);
+        this.passStatistics = passManager.getStatistics();
+        SVMLowering lowering = new SVMLowering(this.session);
+        lowering.lower(program);
+
+        return captureOutput(new ExecuteVM(lowering.getCode())::cpu);
+    }
+
+    String printingASTAndCaptureOutput() {
+        return captureOutput(() -> new PrintEASTVisitor().visit(this.ast));
+    }
+
+    Map<String, Integer> getPassStatistics() {
+        return this.passStatistics;
+    }
+
+    void setInliningLimits(int sizeThreshold, int budget) {
+        this.inliningSizeThreshold = sizeThreshold;
+        this.inliningBudget = budget;
+    }
+
+    InliningEASTVisitor getInliningVisitor() {
+        return this.inliningVisitor;
+    }
+
+    LambdaLiftingEASTVisitor getLiftingVisitor() {
+        return this.liftingVisitor;
+    }
+
+    /**
+     * @return i programmi FOOL nella directory e nelle sue sottodirectory, in ordine di percorso
+     */
+    static List<Path> testPrograms(String root) throws IOException {
+        try (Stream<Path> paths = Files.walk(Paths.get(root))) {
+            return paths.filter(path -> path.toString().endsWith(".fool")).sorted().collect(Collectors.toList());
+        }
     }
 
     void createFOOLFile(String fileName, String text) {